@@ -0,0 +1,95 @@
+package gov.cms.qpp.conversion;
+
+import gov.cms.qpp.conversion.util.JacksonHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Benchmark results that later runs are compared against, kept in a json file under version control.
+ *
+ * Benchmarks are keyed by name and parameters and kept in order, so that re-recording a baseline gives a readable diff.
+ */
+public class BenchmarkBaseline {
+
+	/**
+	 * Version of the file format. Files of any other version are refused rather than misread.
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	private int version = FORMAT_VERSION;
+	private String recorded;
+	private String jvm;
+	private int processors;
+	private Map<String, BenchmarkMetrics> benchmarks = new TreeMap<>();
+
+	/**
+	 * Reads a baseline file.
+	 *
+	 * @param file the baseline
+	 * @return the baseline
+	 * @throws IOException if the file cannot be read or is of another format version
+	 */
+	public static BenchmarkBaseline read(Path file) throws IOException {
+		BenchmarkBaseline baseline = JacksonHelper.reader().forType(BenchmarkBaseline.class)
+				.readValue(Files.readAllBytes(file));
+		if (baseline.getVersion() != FORMAT_VERSION) {
+			throw new IOException(file + " is baseline format version " + baseline.getVersion()
+					+ " but only version " + FORMAT_VERSION + " can be read. Record it again.");
+		}
+		return baseline;
+	}
+
+	/**
+	 * Writes this baseline, replacing the file if it exists.
+	 *
+	 * @param file the baseline
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		Files.write(file, JacksonHelper.prettyWriter().writeValueAsBytes(this));
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	public void setVersion(int version) {
+		this.version = version;
+	}
+
+	public String getRecorded() {
+		return recorded;
+	}
+
+	public void setRecorded(String recorded) {
+		this.recorded = recorded;
+	}
+
+	public String getJvm() {
+		return jvm;
+	}
+
+	public void setJvm(String jvm) {
+		this.jvm = jvm;
+	}
+
+	public int getProcessors() {
+		return processors;
+	}
+
+	public void setProcessors(int processors) {
+		this.processors = processors;
+	}
+
+	public Map<String, BenchmarkMetrics> getBenchmarks() {
+		return benchmarks;
+	}
+
+	public void setBenchmarks(Map<String, BenchmarkMetrics> benchmarks) {
+		this.benchmarks = new TreeMap<>(benchmarks);
+	}
+}
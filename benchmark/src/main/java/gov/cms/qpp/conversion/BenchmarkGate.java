@@ -0,0 +1,261 @@
+package gov.cms.qpp.conversion;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the stage benchmarks and compares their throughput, 99th percentile time and allocation per operation against a
+ * {@link BenchmarkBaseline}, failing if any of them got worse by more than a tolerance.
+ *
+ * Run with {@code record} to write the baseline, or {@code check} to compare against it. Further arguments are
+ * {@code name=value} pairs:
+ * <ul>
+ *     <li>{@code baseline} - the baseline file, {@code baseline.json} by default</li>
+ *     <li>{@code tolerance} - how much worse a metric may get, as a fraction, {@code 0.15} by default</li>
+ *     <li>{@code include} - regular expression for the benchmarks to run</li>
+ *     <li>{@code files} - comma separated files to run them over</li>
+ * </ul>
+ * Everything runs locally, so a baseline is only meaningful on the machine it was recorded on.
+ */
+public final class BenchmarkGate {
+
+	static final String DEFAULT_BASELINE = "baseline.json";
+	static final double DEFAULT_TOLERANCE = 0.15;
+	static final String DEFAULT_INCLUDE = "StageBenchmark|ConversionReportBenchmark";
+	static final String DEFAULT_FILES = "../qrda-files/valid-QRDA-III-latest.xml,../sample-files/CPCPlus_Success_PreProd.xml";
+
+	/**
+	 * Allocation differences smaller than this many bytes per operation are noise, whatever the tolerance says.
+	 */
+	static final double ALLOCATION_SLACK = 256;
+
+	private static final String ALLOCATION_RESULT = "gc.alloc.rate.norm";
+	private static final String RECORD = "record";
+	private static final String CHECK = "check";
+
+	private final double tolerance;
+	private final PrintStream out;
+
+	BenchmarkGate(double tolerance, PrintStream out) {
+		this.tolerance = tolerance;
+		this.out = out;
+	}
+
+	/**
+	 * Entry point for recording and checking baselines.
+	 *
+	 * @param args {@code record} or {@code check}, followed by optional {@code name=value} pairs
+	 * @throws IOException if the baseline cannot be read or written
+	 * @throws RunnerException if the benchmarks fail
+	 * @throws IllegalStateException if a metric regressed
+	 */
+	public static void main(String... args) throws IOException, RunnerException {
+		if (args.length == 0 || !(RECORD.equals(args[0]) || CHECK.equals(args[0]))) {
+			throw new IllegalArgumentException("Usage: BenchmarkGate record|check [baseline=file] [tolerance=0.15] "
+					+ "[include=regex] [files=a.xml,b.xml]");
+		}
+
+		Map<String, String> arguments = new HashMap<>();
+		for (int index = 1; index < args.length; index++) {
+			String[] pair = args[index].split("=", 2);
+			if (pair.length != 2) {
+				throw new IllegalArgumentException("Expected name=value but got " + args[index]);
+			}
+			arguments.put(pair[0], pair[1]);
+		}
+
+		Path baselineFile = Paths.get(arguments.getOrDefault("baseline", DEFAULT_BASELINE));
+		if (CHECK.equals(args[0]) && !Files.exists(baselineFile)) {
+			throw new IllegalStateException("There is no baseline at " + baselineFile.toAbsolutePath()
+					+ ". Record one first with: BenchmarkGate record");
+		}
+
+		Options options = options(arguments.getOrDefault("include", DEFAULT_INCLUDE),
+				arguments.getOrDefault("files", DEFAULT_FILES).split(","));
+		BenchmarkBaseline current = toBaseline(new Runner(options).run());
+
+		if (RECORD.equals(args[0])) {
+			current.write(baselineFile);
+			System.out.println("Recorded " + current.getBenchmarks().size() + " benchmarks to " + baselineFile);
+			return;
+		}
+
+		double tolerance = Double.parseDouble(arguments.getOrDefault("tolerance", String.valueOf(DEFAULT_TOLERANCE)));
+		List<String> regressions = new BenchmarkGate(tolerance, System.out)
+				.compare(BenchmarkBaseline.read(baselineFile), current);
+		if (!regressions.isEmpty()) {
+			throw new IllegalStateException(regressions.size() + " benchmark metrics regressed by more than "
+					+ percent(tolerance) + " against " + baselineFile + ":\n" + String.join("\n", regressions));
+		}
+	}
+
+	/**
+	 * Runs every benchmark twice, once for throughput and once sampling the time of single operations, both in
+	 * milliseconds, with the GC profiler on for allocation.
+	 *
+	 * @param include regular expression for the benchmarks to run
+	 * @param files files to run them over
+	 * @return the options
+	 */
+	static Options options(String include, String... files) {
+		return new OptionsBuilder()
+				.include(include)
+				.param("fileName", files)
+				.mode(Mode.Throughput)
+				.mode(Mode.SampleTime)
+				.timeUnit(TimeUnit.MILLISECONDS)
+				.warmupIterations(3)
+				.warmupTime(TimeValue.seconds(1))
+				.measurementIterations(5)
+				.measurementTime(TimeValue.seconds(1))
+				.forks(1)
+				.addProfiler(GCProfiler.class)
+				.build();
+	}
+
+	/**
+	 * Collects the tracked metrics from a run.
+	 *
+	 * @param results results from the JMH runner
+	 * @return a baseline of the run
+	 */
+	static BenchmarkBaseline toBaseline(Collection<RunResult> results) {
+		Map<String, BenchmarkMetrics> benchmarks = new TreeMap<>();
+		for (RunResult run : results) {
+			BenchmarkResult result = run.getAggregatedResult();
+			BenchmarkParams params = run.getParams();
+			BenchmarkMetrics metrics = benchmarks.computeIfAbsent(key(params), key -> new BenchmarkMetrics());
+
+			Result primary = result.getPrimaryResult();
+			if (params.getMode() == Mode.Throughput) {
+				metrics.setThroughput(primary.getScore());
+				metrics.setThroughputUnit(primary.getScoreUnit());
+			} else if (params.getMode() == Mode.SampleTime) {
+				metrics.setP99(primary.getStatistics().getPercentile(99));
+				metrics.setP99Unit(primary.getScoreUnit());
+			}
+
+			for (Map.Entry<String, Result> secondary : result.getSecondaryResults().entrySet()) {
+				if (secondary.getKey().endsWith(ALLOCATION_RESULT)
+						&& (metrics.getAllocation() == null || params.getMode() == Mode.Throughput)) {
+					metrics.setAllocation(secondary.getValue().getScore());
+				}
+			}
+		}
+
+		BenchmarkBaseline baseline = new BenchmarkBaseline();
+		baseline.setRecorded(Instant.now().toString());
+		baseline.setJvm(System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+		baseline.setProcessors(Runtime.getRuntime().availableProcessors());
+		baseline.setBenchmarks(benchmarks);
+		return baseline;
+	}
+
+	/**
+	 * Identifies a benchmark and its parameters, such as {@code StageBenchmark.parse fileName=a.xml}.
+	 *
+	 * @param params parameters of a benchmark run
+	 * @return the key
+	 */
+	static String key(BenchmarkParams params) {
+		String benchmark = params.getBenchmark();
+		StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+		for (String name : new TreeSet<>(params.getParamsKeys())) {
+			key.append(' ').append(name).append('=').append(params.getParam(name));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Compares every metric in the baseline with the current run, reporting each comparison.
+	 *
+	 * @param baseline what was recorded before
+	 * @param current what was measured now
+	 * @return descriptions of the metrics that got worse by more than the tolerance
+	 */
+	List<String> compare(BenchmarkBaseline baseline, BenchmarkBaseline current) {
+		if (!String.valueOf(baseline.getJvm()).equals(current.getJvm())
+				|| baseline.getProcessors() != current.getProcessors()) {
+			out.println("Warning: the baseline was recorded on " + baseline.getJvm() + " with " + baseline.getProcessors()
+					+ " processors, but this run is on " + current.getJvm() + " with " + current.getProcessors());
+		}
+
+		List<String> regressions = new ArrayList<>();
+		for (Map.Entry<String, BenchmarkMetrics> entry : baseline.getBenchmarks().entrySet()) {
+			BenchmarkMetrics before = entry.getValue();
+			BenchmarkMetrics now = current.getBenchmarks().get(entry.getKey());
+			if (now == null) {
+				out.println("Not run: " + entry.getKey());
+				continue;
+			}
+
+			check(regressions, entry.getKey(), "throughput", before.getThroughput(), now.getThroughput(),
+					before.getThroughputUnit(), now.getThroughputUnit(), false, 0);
+			check(regressions, entry.getKey(), "p99", before.getP99(), now.getP99(),
+					before.getP99Unit(), now.getP99Unit(), true, 0);
+			check(regressions, entry.getKey(), "allocation", before.getAllocation(), now.getAllocation(),
+					"B/op", "B/op", true, ALLOCATION_SLACK);
+		}
+
+		for (String key : current.getBenchmarks().keySet()) {
+			if (!baseline.getBenchmarks().containsKey(key)) {
+				out.println("Not in baseline: " + key);
+			}
+		}
+		return regressions;
+	}
+
+	private void check(List<String> regressions, String benchmark, String metric, Double before, Double now,
+			String beforeUnit, String nowUnit, boolean lowerIsBetter, double slack) {
+		if (before == null || now == null) {
+			return;
+		}
+
+		String description = String.format(Locale.ENGLISH, "%s %s: %.4g -> %.4g %s (%+.1f%%)",
+				benchmark, metric, before, now, nowUnit, change(before, now) * 100);
+		if (!String.valueOf(beforeUnit).equals(nowUnit)) {
+			out.println("Incomparable units, " + beforeUnit + " before: " + description);
+			return;
+		}
+
+		double limit = lowerIsBetter ? before * (1 + tolerance) + slack : before * (1 - tolerance);
+		boolean regressed = lowerIsBetter ? now > limit : now < limit;
+		out.println((regressed ? "REGRESSED " : "ok        ") + description);
+		if (regressed) {
+			regressions.add(description);
+		}
+	}
+
+	private static double change(double before, double now) {
+		return before == 0 ? 0 : (now - before) / before;
+	}
+
+	private static String percent(double fraction) {
+		return String.format(Locale.ENGLISH, "%.0f%%", fraction * 100);
+	}
+}
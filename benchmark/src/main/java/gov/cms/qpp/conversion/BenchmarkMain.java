@@ -0,0 +1,47 @@
+package gov.cms.qpp.conversion;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks just like JMH's own main, but with the GC profiler on unless other profilers are asked for.
+ *
+ * The GC profiler adds allocation rate, bytes allocated per operation and GC counts to every result.
+ */
+public final class BenchmarkMain {
+
+	private BenchmarkMain() {
+		// entry point only
+	}
+
+	/**
+	 * Entry point for the benchmarks jar.
+	 *
+	 * @param arguments JMH command line options, see {@code -h}
+	 * @throws RunnerException if the benchmarks fail
+	 * @throws CommandLineOptionException if the options are not valid
+	 * @throws IOException if help or a listing cannot be written
+	 */
+	public static void main(String... arguments) throws RunnerException, CommandLineOptionException, IOException {
+		CommandLineOptions commandLine = new CommandLineOptions(arguments);
+		if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+				|| commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+			Main.main(arguments);
+			return;
+		}
+
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+		if (commandLine.getProfilers().isEmpty()) {
+			options.addProfiler(GCProfiler.class);
+		}
+		new Runner(options.build()).run();
+	}
+}
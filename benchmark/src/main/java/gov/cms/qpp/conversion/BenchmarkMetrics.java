@@ -0,0 +1,65 @@
+package gov.cms.qpp.conversion;
+
+/**
+ * What the {@link BenchmarkGate} tracks for one benchmark with one set of parameters.
+ *
+ * A metric is {@code null} when the run that should have measured it did not.
+ */
+public class BenchmarkMetrics {
+
+	private Double throughput;
+	private String throughputUnit;
+	private Double p99;
+	private String p99Unit;
+	private Double allocation;
+
+	public Double getThroughput() {
+		return throughput;
+	}
+
+	public void setThroughput(Double throughput) {
+		this.throughput = throughput;
+	}
+
+	public String getThroughputUnit() {
+		return throughputUnit;
+	}
+
+	public void setThroughputUnit(String throughputUnit) {
+		this.throughputUnit = throughputUnit;
+	}
+
+	/**
+	 * 99th percentile of the sampled time per operation.
+	 *
+	 * @return time in {@link #getP99Unit()}
+	 */
+	public Double getP99() {
+		return p99;
+	}
+
+	public void setP99(Double p99) {
+		this.p99 = p99;
+	}
+
+	public String getP99Unit() {
+		return p99Unit;
+	}
+
+	public void setP99Unit(String p99Unit) {
+		this.p99Unit = p99Unit;
+	}
+
+	/**
+	 * Bytes allocated per operation, as reported by the GC profiler.
+	 *
+	 * @return bytes per operation
+	 */
+	public Double getAllocation() {
+		return allocation;
+	}
+
+	public void setAllocation(Double allocation) {
+		this.allocation = allocation;
+	}
+}
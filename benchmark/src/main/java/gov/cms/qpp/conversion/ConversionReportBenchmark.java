@@ -0,0 +1,62 @@
+package gov.cms.qpp.conversion;
+
+import gov.cms.qpp.conversion.model.error.AllErrors;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@link ConversionReport} getters that the ReST API and command line call after every conversion.
+ *
+ * Sources are read to the end, since that is where the serialization happens.
+ */
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConversionReportBenchmark {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	@Benchmark
+	public long qppSource(QrdaFileState file) throws IOException {
+		return drain(file.getReport().getQppSource());
+	}
+
+	@Benchmark
+	public long validationErrorsSource(QrdaFileState file) throws IOException {
+		return drain(file.getReport().getValidationErrorsSource());
+	}
+
+	@Benchmark
+	public long rawValidationErrorsOrEmptySource(QrdaFileState file) throws IOException {
+		return drain(file.getReport().getRawValidationErrorsOrEmptySource());
+	}
+
+	@Benchmark
+	public AllErrors reportDetails(QrdaFileState file) {
+		return file.getReport().getReportDetails();
+	}
+
+	private static long drain(Source source) throws IOException {
+		long total = 0;
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try (InputStream in = source.toInputStream()) {
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				total += read;
+			}
+		}
+		return total;
+	}
+}
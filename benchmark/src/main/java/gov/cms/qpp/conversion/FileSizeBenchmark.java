@@ -0,0 +1,88 @@
+package gov.cms.qpp.conversion;
+
+import gov.cms.qpp.conversion.decode.XmlDecoderEngine;
+import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.error.TransformException;
+import gov.cms.qpp.conversion.xml.XmlUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.jdom2.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing, decoding and converting generated files from 100KB up to 100MB, to see how time and allocation grow with the
+ * size of a submission.
+ *
+ * The files are made by the generate module's {@code generateQrdaCorpus} goal, see the README.
+ */
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FileSizeBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class GeneratedFile {
+
+		static final String DIRECTORY = "src/test/resources/large";
+
+		@Param({"100KB", "1MB", "10MB", "100MB"})
+		public String size;
+
+		private byte[] content;
+
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+			Path file = Paths.get(DIRECTORY, "qrda-" + size + ".xml");
+			if (!Files.exists(file)) {
+				throw new IllegalStateException(file + " is missing, build with -DskipQrdaCorpus=false to generate it");
+			}
+			content = Files.readAllBytes(file);
+		}
+
+		public Source newSource() {
+			return new InputStreamSupplierSource("qrda-" + size + ".xml", new ByteArrayInputStream(content));
+		}
+	}
+
+	@Benchmark
+	public Element parse(GeneratedFile file) {
+		return XmlUtils.parseXmlStream(new ByteArrayInputStream(file.content));
+	}
+
+	@Benchmark
+	public Node streamingDecode(GeneratedFile file) {
+		Context context = new Context();
+		context.setStreamingDecode(true);
+		return XmlDecoderEngine.decodeXml(context, new ByteArrayInputStream(file.content));
+	}
+
+	@Benchmark
+	public ConversionReport convert(GeneratedFile file) {
+		Converter converter = new Converter(file.newSource());
+		try {
+			converter.transform();
+			return converter.getReport();
+		} catch (TransformException exception) {
+			return exception.getConversionReport();
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package gov.cms.qpp.conversion;
+
+import gov.cms.qpp.conversion.decode.XmlDecoderEngine;
+import gov.cms.qpp.conversion.encode.JsonOutputEncoder;
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.encode.QppOutputEncoder;
+import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.error.Detail;
+import gov.cms.qpp.conversion.model.error.TransformException;
+import gov.cms.qpp.conversion.util.JacksonHelper;
+import gov.cms.qpp.conversion.xml.XmlUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.jdom2.Element;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One file of the qrda-files or sample-files corpus, along with what each conversion stage makes of it, so a benchmark
+ * can run a single stage against the output of the stage before.
+ *
+ * Everything is prepared once per trial. The decoded nodes and encoded json are frozen, just as the converter leaves
+ * them, so no benchmark can change what the next invocation sees.
+ */
+@State(Scope.Benchmark)
+public class QrdaFileState {
+
+	@Param({
+		"../qrda-files/2017_Sample_QRDA_III_Informative.xml",
+		"../qrda-files/QRDA-III-without-required-measure.xml",
+		"../qrda-files/valid-QRDA-III-latest.xml",
+		"../qrda-files/valid-QRDA-III.xml",
+		"../sample-files/CPCPlus_Bad_Address.xml",
+		"../sample-files/CPCPlus_Empty_APM_ID.xml",
+		"../sample-files/CPCPlus_Group1_Wrong_Num.xml",
+		"../sample-files/CPCPlus_No_APM_ID.xml",
+		"../sample-files/CPCPlus_No_Perf_Rate.xml",
+		"../sample-files/CPCPlus_No_Quality.xml",
+		"../sample-files/CPCPlus_No_TINs.xml",
+		"../sample-files/CPCPlus_Strat.xml",
+		"../sample-files/CPCPlus_Strat2.xml",
+		"../sample-files/CPCPlus_Success_PreProd.xml",
+		"../sample-files/CPCPlus_Success_Prod.xml",
+		"../sample-files/CPCPlus_Total_Wrong_Num.xml",
+		"../sample-files/CPCPlus_Validation_API_Errors.xml",
+		"../sample-files/CPCPlus_WrongEndDate.xml",
+		"../sample-files/CPCPlus_WrongStartDate.xml",
+		"../sample-files/MIPS_GROUP_QRDA_III_ACI_IA_Sample1.xml",
+		"../sample-files/MIPS_GROUP_QRDA_III_ACI_IA_Sample2.xml",
+		"../sample-files/MIPS_GROUP_Sample_QRDA_III.xml",
+		"../sample-files/quality-mips-1.xml",
+		"../sample-files/quality-mips-3.xml",
+		"../sample-files/quality-mips-4.xml"
+	})
+	public String fileName;
+
+	private byte[] content;
+	private Element document;
+	private Node decoded;
+	private JsonWrapper encoded;
+	private ConversionReport report;
+	private List<String> jsonPaths;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		content = Files.readAllBytes(Paths.get(fileName));
+		document = XmlUtils.parseXmlStream(newInputStream());
+
+		decoded = XmlDecoderEngine.decodeXml(new Context(), document);
+		if (decoded == null) {
+			throw new IllegalStateException(fileName + " is not a QRDA III document");
+		}
+
+		JsonOutputEncoder encoder = new QppOutputEncoder(new Context());
+		encoder.setNodes(Collections.singletonList(decoded));
+		encoded = encoder.encode().freeze();
+		decoded.freeze();
+
+		report = convert();
+		jsonPaths = jsonPaths(encoded);
+	}
+
+	/**
+	 * A fresh stream of the file's content.
+	 *
+	 * @return stream of the file
+	 */
+	public InputStream newInputStream() {
+		return new ByteArrayInputStream(content);
+	}
+
+	public Element getDocument() {
+		return document;
+	}
+
+	public Node getDecoded() {
+		return decoded;
+	}
+
+	public JsonWrapper getEncoded() {
+		return encoded;
+	}
+
+	public ConversionReport getReport() {
+		return report;
+	}
+
+	/**
+	 * Definite json paths, in dot notation, of every value in the encoded json.
+	 *
+	 * @return json paths such as {@code $.measurementSets[0].measurements[1].value}
+	 */
+	public List<String> getJsonPaths() {
+		return jsonPaths;
+	}
+
+	/**
+	 * Converts the file and reports on it. Files that fail validation are never encoded by the {@link Converter}, so the
+	 * report always carries the encoding made in {@link #setup()} to give every getter something to serialize.
+	 *
+	 * @return report with the conversion's errors and the encoded json
+	 */
+	private ConversionReport convert() {
+		Converter converter = new Converter(new InputStreamSupplierSource(fileName, newInputStream()));
+		ConversionReport converted;
+		try {
+			converter.transform();
+			converted = converter.getReport();
+		} catch (TransformException exception) {
+			converted = exception.getConversionReport();
+		}
+
+		List<Detail> details = converted.getReportDetails().getErrors().get(0).getDetails();
+		return new ConversionReport(converted.getQrdaSource(), details, decoded, encoded);
+	}
+
+	private static List<String> jsonPaths(JsonWrapper wrapper) throws IOException {
+		Object json = JacksonHelper.reader().forType(Object.class).readValue(wrapper.toString());
+		List<String> paths = new ArrayList<>();
+		collectPaths("$", json, paths);
+		return paths;
+	}
+
+	private static void collectPaths(String path, Object json, List<String> paths) {
+		if (json instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) json).entrySet()) {
+				collectPaths(path + "." + entry.getKey(), entry.getValue(), paths);
+			}
+		} else if (json instanceof List) {
+			List<?> list = (List<?>) json;
+			for (int index = 0; index < list.size(); index++) {
+				collectPaths(path + "[" + index + "]", list.get(index), paths);
+			}
+		} else {
+			paths.add(path);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package gov.cms.qpp.conversion;
+
+import gov.cms.qpp.conversion.correlation.PathCorrelator;
+import gov.cms.qpp.conversion.decode.XmlDecoderEngine;
+import gov.cms.qpp.conversion.encode.JsonOutputEncoder;
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.encode.QppOutputEncoder;
+import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.error.Detail;
+import gov.cms.qpp.conversion.validate.QrdaValidator;
+import gov.cms.qpp.conversion.xml.XmlUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jdom2.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Each stage of a conversion on its own, run against the output of the stage before it.
+ *
+ * Contexts are made fresh for every invocation, as the converter does, so the cost of looking up handlers is included.
+ */
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StageBenchmark {
+
+	@Benchmark
+	public Element parse(QrdaFileState file) {
+		return XmlUtils.parseXmlStream(file.newInputStream());
+	}
+
+	@Benchmark
+	public Node decode(QrdaFileState file) {
+		return XmlDecoderEngine.decodeXml(new Context(), file.getDocument());
+	}
+
+	@Benchmark
+	public Node streamingDecode(QrdaFileState file) {
+		Context context = new Context();
+		context.setStreamingDecode(true);
+		return XmlDecoderEngine.decodeXml(context, file.newInputStream());
+	}
+
+	@Benchmark
+	public List<Detail> validate(UnvalidatedTree tree) {
+		return new QrdaValidator(new Context()).validate(tree.decoded);
+	}
+
+	@Benchmark
+	public JsonWrapper encode(QrdaFileState file) {
+		JsonOutputEncoder encoder = new QppOutputEncoder(new Context());
+		encoder.setNodes(Collections.singletonList(file.getDecoded()));
+		return encoder.encode();
+	}
+
+	@Benchmark
+	public void prepPath(QrdaFileState file, Blackhole blackhole) {
+		JsonWrapper encoded = file.getEncoded();
+		for (String jsonPath : file.getJsonPaths()) {
+			blackhole.consume(PathCorrelator.prepPath(jsonPath, encoded));
+		}
+	}
+
+	/**
+	 * A decoded tree that has not been validated yet. Validation marks the nodes it has visited, so each invocation needs
+	 * its own tree.
+	 */
+	@State(Scope.Thread)
+	public static class UnvalidatedTree {
+
+		private Node decoded;
+
+		@Setup(Level.Invocation)
+		public void decode(QrdaFileState file) {
+			decoded = XmlDecoderEngine.decodeXml(new Context(), file.getDocument());
+		}
+	}
+}
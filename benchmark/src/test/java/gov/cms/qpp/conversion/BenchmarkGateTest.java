@@ -0,0 +1,153 @@
+package gov.cms.qpp.conversion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BenchmarkGateTest {
+
+	private static final String PARSE = "StageBenchmark.parse fileName=valid.xml";
+
+	private ByteArrayOutputStream output;
+	private BenchmarkGate gate;
+
+	@BeforeEach
+	void setup() throws UnsupportedEncodingException {
+		output = new ByteArrayOutputStream();
+		gate = new BenchmarkGate(0.1, new PrintStream(output, true, StandardCharsets.UTF_8.name()));
+	}
+
+	@Test
+	void testWithinTolerancePasses() {
+		List<String> regressions = gate.compare(baseline(100.0, 50.0, 10_000.0), baseline(95.0, 54.0, 10_500.0));
+
+		assertThat(regressions).isEmpty();
+	}
+
+	@Test
+	void testLowerThroughputRegresses() {
+		List<String> regressions = gate.compare(baseline(100.0, 50.0, 10_000.0), baseline(80.0, 50.0, 10_000.0));
+
+		assertThat(regressions).hasSize(1);
+		assertThat(regressions.get(0)).contains("throughput");
+	}
+
+	@Test
+	void testHigherP99Regresses() {
+		List<String> regressions = gate.compare(baseline(100.0, 50.0, 10_000.0), baseline(100.0, 60.0, 10_000.0));
+
+		assertThat(regressions).hasSize(1);
+		assertThat(regressions.get(0)).contains("p99");
+	}
+
+	@Test
+	void testHigherAllocationRegresses() {
+		List<String> regressions = gate.compare(baseline(100.0, 50.0, 10_000.0), baseline(100.0, 50.0, 12_000.0));
+
+		assertThat(regressions).hasSize(1);
+		assertThat(regressions.get(0)).contains("allocation");
+	}
+
+	@Test
+	void testSmallAllocationChangesAreNoise() {
+		List<String> regressions = gate.compare(baseline(100.0, 50.0, 100.0), baseline(100.0, 50.0, 300.0));
+
+		assertThat(regressions).isEmpty();
+	}
+
+	@Test
+	void testImprovementsPass() {
+		List<String> regressions = gate.compare(baseline(100.0, 50.0, 10_000.0), baseline(200.0, 25.0, 5_000.0));
+
+		assertThat(regressions).isEmpty();
+	}
+
+	@Test
+	void testMissingMetricsAreSkipped() {
+		List<String> regressions = gate.compare(baseline(100.0, 50.0, 10_000.0), baseline(null, null, null));
+
+		assertThat(regressions).isEmpty();
+	}
+
+	@Test
+	void testDifferentUnitsAreNotCompared() {
+		BenchmarkBaseline current = baseline(1.0, 50.0, 10_000.0);
+		current.getBenchmarks().get(PARSE).setThroughputUnit("ops/s");
+
+		assertThat(gate.compare(baseline(100.0, 50.0, 10_000.0), current)).isEmpty();
+		assertThat(output()).contains("Incomparable units");
+	}
+
+	@Test
+	void testBenchmarksOnlyOnOneSideAreReported() {
+		BenchmarkBaseline current = new BenchmarkBaseline();
+		current.getBenchmarks().put("StageBenchmark.encode fileName=valid.xml", new BenchmarkMetrics());
+
+		assertThat(gate.compare(baseline(100.0, 50.0, 10_000.0), current)).isEmpty();
+		assertThat(output()).contains("Not run: " + PARSE);
+		assertThat(output()).contains("Not in baseline: StageBenchmark.encode fileName=valid.xml");
+	}
+
+	@Test
+	void testBaselineRoundTrips() throws IOException {
+		Path file = Files.createTempFile("baseline", ".json");
+		try {
+			BenchmarkBaseline baseline = baseline(100.0, 50.0, 10_000.0);
+			baseline.setJvm("test");
+			baseline.write(file);
+
+			BenchmarkBaseline read = BenchmarkBaseline.read(file);
+			assertThat(read.getJvm()).isEqualTo("test");
+			assertThat(read.getBenchmarks().get(PARSE).getP99()).isEqualTo(50.0);
+			assertThat(read.getBenchmarks().get(PARSE).getP99Unit()).isEqualTo("ms/op");
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void testOtherFormatVersionsAreRefused() throws IOException {
+		Path file = Files.createTempFile("baseline", ".json");
+		try {
+			Files.write(file, "{\"version\":2}".getBytes(StandardCharsets.UTF_8));
+
+			IOException exception = null;
+			try {
+				BenchmarkBaseline.read(file);
+			} catch (IOException expected) {
+				exception = expected;
+			}
+			assertThat(exception).isNotNull();
+			assertThat(exception.getMessage()).contains("version 2");
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private String output() {
+		return new String(output.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static BenchmarkBaseline baseline(Double throughput, Double p99, Double allocation) {
+		BenchmarkMetrics metrics = new BenchmarkMetrics();
+		metrics.setThroughput(throughput);
+		metrics.setThroughputUnit("ops/ms");
+		metrics.setP99(p99);
+		metrics.setP99Unit("ms/op");
+		metrics.setAllocation(allocation);
+
+		BenchmarkBaseline baseline = new BenchmarkBaseline();
+		baseline.getBenchmarks().put(PARSE, metrics);
+		return baseline;
+	}
+}
@@ -0,0 +1,51 @@
+package gov.cms.qpp.conversion;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+class StageBenchmarkTest {
+
+	private static final String BLACKHOLE_CHALLENGE =
+			"Today's password is swordfish. I understand instantiating Blackholes directly is dangerous.";
+
+	@ParameterizedTest
+	@MethodSource("corpus")
+	void testEveryStageRunsOverTheCorpus(String fileName) throws IOException {
+		QrdaFileState file = new QrdaFileState();
+		file.fileName = fileName;
+		file.setup();
+
+		StageBenchmark stages = new StageBenchmark();
+		assertWithMessage("parse %s", fileName).that(stages.parse(file)).isNotNull();
+		assertWithMessage("decode %s", fileName).that(stages.decode(file)).isNotNull();
+		assertWithMessage("streamingDecode %s", fileName).that(stages.streamingDecode(file)).isNotNull();
+		assertWithMessage("validate %s", fileName).that(stages.validate(tree(file))).isNotNull();
+		assertWithMessage("encode %s", fileName).that(stages.encode(file)).isNotNull();
+		stages.prepPath(file, new Blackhole(BLACKHOLE_CHALLENGE));
+
+		ConversionReportBenchmark report = new ConversionReportBenchmark();
+		assertWithMessage("qppSource %s", fileName).that(report.qppSource(file)).isGreaterThan(0L);
+		assertWithMessage("validationErrorsSource %s", fileName).that(report.validationErrorsSource(file))
+				.isGreaterThan(0L);
+		assertWithMessage("rawValidationErrorsOrEmptySource %s", fileName)
+				.that(report.rawValidationErrorsOrEmptySource(file)).isAtLeast(0L);
+		assertWithMessage("reportDetails %s", fileName).that(report.reportDetails(file)).isNotNull();
+	}
+
+	private static StageBenchmark.UnvalidatedTree tree(QrdaFileState file) {
+		StageBenchmark.UnvalidatedTree tree = new StageBenchmark.UnvalidatedTree();
+		tree.decode(file);
+		return tree;
+	}
+
+	static Stream<String> corpus() throws NoSuchFieldException {
+		return Stream.of(QrdaFileState.class.getField("fileName").getAnnotation(Param.class).value());
+	}
+}
@@ -0,0 +1,151 @@
+package gov.cms.qpp.conversion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Objects;
+
+/**
+ * A {@link Source} over the content of a file held in a {@link ByteBuffer}.
+ *
+ * Large files are memory mapped, so their content is paged in by the operating system as the parser reads it rather
+ * than copied onto the heap up front. Smaller files, and files on file systems that cannot be mapped, are read straight
+ * into a heap buffer from a {@link FileChannel}, which skips the stream buffers {@link PathSource} and
+ * {@link InputStreamSupplierSource} go through.
+ */
+public class ByteBufferSource extends SkeletalSource {
+
+	/**
+	 * Smallest file to memory map. Mapping costs more than reading for small files.
+	 */
+	static final long MAP_THRESHOLD = 256 * 1024;
+
+	private final ByteBuffer content;
+
+	/**
+	 * Creates a source over the given content.
+	 *
+	 * @param name The name of the source.
+	 * @param content the content, from its position to its limit
+	 */
+	public ByteBufferSource(String name, ByteBuffer content) {
+		super(name);
+
+		Objects.requireNonNull(content, "content");
+
+		this.content = content.slice();
+	}
+
+	/**
+	 * Reads a file, memory mapping it if it is at least {@link #MAP_THRESHOLD} bytes.
+	 *
+	 * @param file the file to read
+	 * @param name The name of the source.
+	 * @return a source over the file's content
+	 * @throws IOException if the file cannot be read, or is too large to hold in one buffer
+	 */
+	public static ByteBufferSource read(Path file, String name) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException(file + " is too large to read, at " + size + " bytes");
+			}
+			if (size >= MAP_THRESHOLD) {
+				try {
+					return new ByteBufferSource(name, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+				} catch (UnsupportedOperationException unmappable) {
+					// read it instead
+				}
+			}
+
+			ByteBuffer content = ByteBuffer.allocate((int) size);
+			while (content.hasRemaining() && channel.read(content) >= 0) {
+				// keep reading until full or the file ends early
+			}
+			content.flip();
+			return new ByteBufferSource(name, content);
+		}
+	}
+
+	/**
+	 * Adds the content to a digest without copying it through a stream.
+	 *
+	 * @param digest the digest to update
+	 */
+	public void updateDigest(MessageDigest digest) {
+		digest.update(content.duplicate());
+	}
+
+	/**
+	 * A new {@link InputStream} over the content each time it is called.
+	 *
+	 * @return An InputStream representing the source.
+	 */
+	@Override
+	public InputStream toInputStream() {
+		return new ByteBufferInputStream(content.duplicate());
+	}
+
+	/**
+	 * The size of the content.
+	 *
+	 * @return The source's size.
+	 */
+	@Override
+	public long getSize() {
+		return content.remaining();
+	}
+
+	/**
+	 * Returns null
+	 */
+	@Override
+	public String getPurpose() {
+		return null;
+	}
+
+	/**
+	 * Reads a buffer of its own, leaving the source's buffer untouched for the next stream.
+	 */
+	private static final class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (length == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int count = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, count);
+			return count;
+		}
+
+		@Override
+		public long skip(long count) {
+			int skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package gov.cms.qpp.conversion;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Writes to a channel through a direct buffer borrowed from a {@link DirectBufferPool}.
+ *
+ * Bytes are gathered in the buffer and handed to the channel a whole buffer at a time. The channel writes a direct
+ * buffer without first copying it, which it does for heap buffers. Closing writes out what is left, gives the buffer
+ * back and closes the channel.
+ */
+class ChannelOutputStream extends OutputStream {
+
+	private final WritableByteChannel channel;
+	private final DirectBufferPool pool;
+	private ByteBuffer buffer;
+
+	/**
+	 * Creates a stream that owns the channel.
+	 *
+	 * @param channel where the bytes go
+	 * @param pool lends the buffer
+	 */
+	ChannelOutputStream(WritableByteChannel channel, DirectBufferPool pool) {
+		Objects.requireNonNull(channel, "channel");
+		Objects.requireNonNull(pool, "pool");
+
+		this.channel = channel;
+		this.pool = pool;
+		this.buffer = pool.acquire();
+	}
+
+	@Override
+	public void write(int value) throws IOException {
+		ensureOpen();
+		if (!buffer.hasRemaining()) {
+			drain();
+		}
+		buffer.put((byte) value);
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int length) throws IOException {
+		Objects.requireNonNull(bytes, "bytes");
+		if (offset < 0 || length < 0 || length > bytes.length - offset) {
+			throw new IndexOutOfBoundsException();
+		}
+		ensureOpen();
+
+		int written = 0;
+		while (written < length) {
+			if (!buffer.hasRemaining()) {
+				drain();
+			}
+			int count = Math.min(length - written, buffer.remaining());
+			buffer.put(bytes, offset + written, count);
+			written += count;
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		drain();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (buffer == null) {
+			return;
+		}
+		try {
+			drain();
+		} finally {
+			pool.release(buffer);
+			buffer = null;
+			channel.close();
+		}
+	}
+
+	private void drain() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private void ensureOpen() throws IOException {
+		if (buffer == null) {
+			throw new IOException("Stream closed");
+		}
+	}
+}
@@ -26,6 +26,13 @@ public class CommandLineMain {
 	public static final String SKIP_DEFAULTS = "skipDefaults";
 	public static final String TEMPLATE_SCOPE = "templateScope";
 	public static final String RECURSIVE = "recursive";
+	public static final String STAGE_SUMMARY = "stageSummary";
+	public static final String WORKERS = "workers";
+	public static final String IN_FLIGHT = "inFlight";
+	public static final String MANIFEST = "manifest";
+	public static final String WATCH = "watch";
+	public static final String RATE_LIMIT = "rateLimit";
+	public static final String NIO = "nio";
 	public static final String HELP = "help";
 
 	static {
@@ -34,6 +41,8 @@ public class CommandLineMain {
 		OPTIONS.addOption("v", SKIP_VALIDATION, false, "Skip validations");
 		OPTIONS.addOption("d", SKIP_DEFAULTS, false, "Skip defaulted transformations");
 		OPTIONS.addOption("r", RECURSIVE, false, "Search for specified files recursively");
+		OPTIONS.addOption("s", STAGE_SUMMARY, false, "Print the time, CPU and memory spent in each conversion stage");
+		OPTIONS.addOption("n", NIO, false, "Memory map large input files and write output through pooled direct buffers");
 		OPTIONS.addOption("h", HELP, false, "This help message");
 
 		Option templateScope = Option.builder("t")
@@ -44,6 +53,47 @@ public class CommandLineMain {
 				.build();
 		OPTIONS.addOption(templateScope);
 
+		Option workers = Option.builder("w")
+				.longOpt(WORKERS)
+				.argName("count")
+				.hasArg()
+				.desc("Number of files to convert at once. Defaults to the number of processors")
+				.build();
+		OPTIONS.addOption(workers);
+
+		Option inFlight = Option.builder("f")
+				.longOpt(IN_FLIGHT)
+				.argName("count")
+				.hasArg()
+				.desc("Most files to hold in memory at once, between reading and writing. Defaults to four per worker")
+				.build();
+		OPTIONS.addOption(inFlight);
+
+		Option manifest = Option.builder("m")
+				.longOpt(MANIFEST)
+				.argName("file")
+				.hasArg()
+				.desc("Record converted files here, and skip files it shows were converted and have not changed since")
+				.build();
+		OPTIONS.addOption(manifest);
+
+		Option watch = Option.builder("W")
+				.longOpt(WATCH)
+				.argName("directory")
+				.hasArg()
+				.desc("Keep running and convert files as they arrive in the directory. "
+						+ "Files are then given as name globs, *.xml by default")
+				.build();
+		OPTIONS.addOption(watch);
+
+		Option rateLimit = Option.builder("l")
+				.longOpt(RATE_LIMIT)
+				.argName("files per second")
+				.hasArg()
+				.desc("Most files a second to take from the watched directory. Unlimited by default")
+				.build();
+		OPTIONS.addOption(rateLimit);
+
 		HELP_FORMAT = new HelpFormatter();
 	}
 
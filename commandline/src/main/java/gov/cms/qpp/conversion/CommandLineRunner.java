@@ -4,24 +4,34 @@ import org.apache.commons.cli.CommandLine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import gov.cms.qpp.conversion.instrument.Instrumentation;
+import gov.cms.qpp.conversion.instrument.StageStatistics;
+import gov.cms.qpp.conversion.model.error.TransformException;
 import gov.cms.qpp.conversion.segmentation.QrdaScope;
 import gov.cms.qpp.conversion.util.Finder;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -33,6 +43,11 @@ public class CommandLineRunner implements Runnable {
 
 	private static final Logger DEV_LOG = LoggerFactory.getLogger(CommandLineRunner.class);
 	private static final Pattern LITERAL_COMMA = Pattern.compile(",", Pattern.LITERAL);
+	private static final int IN_FLIGHT_PER_WORKER = 4;
+	private static final String DEFAULT_WATCH_GLOB = "*.xml";
+	private static final String WARM_UP_DOCUMENT = "<ClinicalDocument xmlns=\"urn:hl7-org:v3\">"
+			+ "<templateId root=\"2.16.840.1.113883.10.20.27.1.2\" extension=\"2017-07-01\"/></ClinicalDocument>";
+	private static final long STOP_TIMEOUT_SECONDS = 60;
 
 	private final CommandLine commandLine;
 	private final FileSystem fileSystem;
@@ -40,6 +55,7 @@ public class CommandLineRunner implements Runnable {
 	private boolean doValidation;
 	private boolean doDefaults;
 	private boolean historical;
+	private Instrumentation instrumentation = Instrumentation.NONE;
 	private Pattern normalPathPattern;
 	private Pattern globFinderPattern;
 
@@ -76,28 +92,35 @@ public class CommandLineRunner implements Runnable {
 		} else if (hasPotentialFiles()) {
 			Scopes scopes = getScopes();
 			scope = scopes.getQrdaScopes();
-			if (scopes.isValid()) {
-				Set<Path> convert = getRequestedFilesForConversion();
-
-				List<Path> invalid = convert.stream()
-						.filter(path -> !isValid(path))
-						.collect(Collectors.toList());
+			Integer workers = getCount(CommandLineMain.WORKERS, Runtime.getRuntime().availableProcessors());
+			Integer inFlight = getCount(CommandLineMain.IN_FLIGHT, workers == null ? 1 : workers * IN_FLIGHT_PER_WORKER);
+			Integer rateLimit = getCount(CommandLineMain.RATE_LIMIT, 0);
+			if (!scopes.isValid()) {
+				DEV_LOG.error("A given template scope was invalid");
+				sendHelpHint();
+			} else if (workers == null || inFlight == null || rateLimit == null) {
+				DEV_LOG.error("The number of workers, of files in flight and the rate limit must be positive whole numbers");
+				sendHelpHint();
+			} else {
+				List<Path> invalid = isWatching() ? getInvalidWatchDirectory() : getInvalidPaths();
 				if (invalid.isEmpty()) {
 					doValidation = !commandLine.hasOption(CommandLineMain.SKIP_VALIDATION);
 					doDefaults = !commandLine.hasOption(CommandLineMain.SKIP_DEFAULTS);
 					historical = commandLine.hasOption(CommandLineMain.BYGONE);
+					boolean summarize = commandLine.hasOption(CommandLineMain.STAGE_SUMMARY);
+					StageStatistics statistics = new StageStatistics();
+					instrumentation = summarize ? statistics : Instrumentation.NONE;
+
+					convert(workers, inFlight, rateLimit);
 
-					convert.parallelStream()
-						.map(ConversionFileWriterWrapper::new)
-						.peek(conversion -> conversion.setContext(createContext()))
-						.forEach(ConversionFileWriterWrapper::transform);
+					if (summarize) {
+						DEV_LOG.info("Time, CPU and memory spent in each conversion stage:{}{}",
+								System.lineSeparator(), statistics.summarize());
+					}
 				} else {
 					DEV_LOG.error("Invalid or missing paths: " + invalid);
 					sendHelpHint();
 				}
-			} else {
-				DEV_LOG.error("A given template scope was invalid");
-				sendHelpHint();
 			}
 		} else {
 			DEV_LOG.error("You must specify files to convert");
@@ -105,12 +128,136 @@ public class CommandLineRunner implements Runnable {
 		}
 	}
 
+	/**
+	 * Converts the requested files, or the files arriving in the watched directory, through a {@link ConversionPipeline}.
+	 *
+	 * @param workers number of files to convert at once
+	 * @param inFlight most files to hold in memory at once
+	 * @param rateLimit most files a second to take from the watched directory, or 0 for no limit
+	 */
+	private void convert(int workers, int inFlight, int rateLimit) {
+		ConversionManifest manifest = null;
+		if (commandLine.hasOption(CommandLineMain.MANIFEST)) {
+			Path manifestFile = fileSystem.getPath(commandLine.getOptionValue(CommandLineMain.MANIFEST));
+			try {
+				manifest = new ConversionManifest(manifestFile);
+			} catch (IOException exception) {
+				DEV_LOG.error("Could not open the manifest " + manifestFile, exception);
+				return;
+			}
+		}
+
+		try (ConversionManifest closeableManifest = manifest;
+				ConversionPipeline pipeline = new ConversionPipeline(workers, inFlight, this::createContext, manifest,
+						commandLine.hasOption(CommandLineMain.NIO))) {
+			if (isWatching()) {
+				watch(pipeline, rateLimit);
+			} else {
+				submitRequestedFiles(pipeline);
+			}
+			pipeline.awaitCompletion();
+			DEV_LOG.info("Converted {} files, skipped {} unchanged files, {} could not be converted",
+					pipeline.getConverted(), pipeline.getSkipped(), pipeline.getFailed());
+		} catch (InterruptedException | CancellationException exception) {
+			Thread.currentThread().interrupt();
+			DEV_LOG.error("Conversion was interrupted");
+		} catch (IOException exception) {
+			DEV_LOG.error("Could not write the manifest", exception);
+		}
+	}
+
+	/**
+	 * Submits the requested files as they are found.
+	 *
+	 * Files named by more than one argument are converted once, which takes remembering every file found. With a single
+	 * argument no file can be found twice, so nothing is remembered.
+	 *
+	 * @param pipeline converts the files
+	 */
+	private void submitRequestedFiles(ConversionPipeline pipeline) {
+		Predicate<Path> firstSighting = commandLine.getArgList().size() > 1 ? new HashSet<Path>()::add : path -> true;
+		for (String argument : commandLine.getArgList()) {
+			findRequestedFilesForConversion(argument, path -> {
+				if (firstSighting.test(path)) {
+					submit(pipeline, path);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Converts files as they arrive in the watched directory, until the process is stopped.
+	 *
+	 * Stopping the process stops the watcher, then waits for the files already submitted to be written.
+	 *
+	 * The arguments are globs for the names of the files to convert, all QRDA III xml files by default. Before watching,
+	 * the converter is warmed up so that the first file does not pay for loading measure data and handlers.
+	 *
+	 * @param pipeline converts the files
+	 * @param rateLimit most files a second, or 0 for no limit
+	 * @throws IOException if the directory cannot be watched
+	 * @throws InterruptedException if interrupted while watching
+	 */
+	private void watch(ConversionPipeline pipeline, int rateLimit) throws IOException, InterruptedException {
+		List<String> globs = commandLine.getArgList().isEmpty() ? Collections.singletonList(DEFAULT_WATCH_GLOB)
+				: commandLine.getArgList();
+		List<PathMatcher> matchers = globs.stream()
+				.map(glob -> fileSystem.getPathMatcher("glob:" + glob))
+				.collect(Collectors.toList());
+
+		warmUp();
+		DirectoryWatcher watcher = new DirectoryWatcher(getWatchDirectory(), matchers, pipeline, rateLimit,
+				DirectoryWatcher.DEFAULT_QUIET_MILLIS);
+		Thread watching = Thread.currentThread();
+		Thread stop = new Thread(() -> {
+			watcher.close();
+			try {
+				watching.join(TimeUnit.SECONDS.toMillis(STOP_TIMEOUT_SECONDS));
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+		}, "conversion-watch-stop");
+		Runtime.getRuntime().addShutdownHook(stop);
+		try {
+			watcher.run();
+		} finally {
+			try {
+				Runtime.getRuntime().removeShutdownHook(stop);
+			} catch (IllegalStateException exception) {
+				DEV_LOG.debug("Already shutting down", exception);
+			}
+		}
+	}
+
+	/**
+	 * Converts a trivial document, which loads the measure data, handlers and schema the first real conversion needs.
+	 */
+	private void warmUp() {
+		Source source = new InputStreamSupplierSource("warm-up.xml",
+				new ByteArrayInputStream(WARM_UP_DOCUMENT.getBytes(StandardCharsets.UTF_8)));
+		try {
+			new Converter(source, createContext()).transform();
+		} catch (TransformException expected) {
+			DEV_LOG.debug("Converter warmed up");
+		}
+	}
+
+	private static void submit(ConversionPipeline pipeline, Path path) {
+		try {
+			pipeline.submit(path);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while waiting to convert " + path);
+		}
+	}
+
 	private Context createContext() {
 		Context context = new Context();
 		context.setDoDefaults(doDefaults);
 		context.setDoValidation(doValidation);
 		context.setHistorical(historical);
 		context.setScope(scope);
+		context.setInstrumentation(instrumentation);
 		return context;
 	}
 
@@ -132,7 +279,21 @@ public class CommandLineRunner implements Runnable {
 	}
 
 	private boolean hasPotentialFiles() {
-		return !commandLine.getArgList().isEmpty();
+		return !commandLine.getArgList().isEmpty() || isWatching();
+	}
+
+	private boolean isWatching() {
+		return commandLine.hasOption(CommandLineMain.WATCH);
+	}
+
+	private Path getWatchDirectory() {
+		return fileSystem.getPath(commandLine.getOptionValue(CommandLineMain.WATCH));
+	}
+
+	private List<Path> getInvalidWatchDirectory() {
+		Path directory = getWatchDirectory();
+		return Files.isDirectory(directory) && Files.isReadable(directory)
+				? Collections.emptyList() : Collections.singletonList(directory);
 	}
 
 	private Scopes getScopes() {
@@ -154,17 +315,36 @@ public class CommandLineRunner implements Runnable {
 		return scopes;
 	}
 
-	private Set<Path> getRequestedFilesForConversion() {
+	private Integer getCount(String option, int defaultCount) {
+		if (!commandLine.hasOption(option)) {
+			return defaultCount;
+		}
+		try {
+			int count = Integer.parseInt(commandLine.getOptionValue(option).trim());
+			return count > 0 ? count : null;
+		} catch (NumberFormatException exception) {
+			return null;
+		}
+	}
+
+	/**
+	 * Checks the files named outright. Files found through globs exist by definition, and are checked as they are read.
+	 *
+	 * @return the named files that cannot be read
+	 */
+	private List<Path> getInvalidPaths() {
 		return commandLine.getArgList()
 				.stream()
-				.map(this::getRequestedFilesForConversion)
-				.flatMap(Collection::stream)
-				.collect(Collectors.toSet());
+				.filter(this::isNormalPath)
+				.map(fileSystem::getPath)
+				.filter(path -> !isValid(path))
+				.collect(Collectors.toList());
 	}
 
-	private Collection<Path> getRequestedFilesForConversion(String path) {
+	private void findRequestedFilesForConversion(String path, Consumer<Path> found) {
 		if (isNormalPath(path)) {
-			return Collections.singleton(fileSystem.getPath(path));
+			found.accept(fileSystem.getPath(path));
+			return;
 		}
 
 		Path directory;
@@ -190,10 +370,9 @@ public class CommandLineRunner implements Runnable {
 		glob = "glob:" + glob;
 
 		boolean recursive = commandLine.hasOption(CommandLineMain.RECURSIVE);
-		Finder finder = new Finder(fileSystem.getPathMatcher(glob), recursive);
+		Finder finder = new Finder(fileSystem.getPathMatcher(glob), recursive, found);
 		try {
 			Files.walkFileTree(directory, finder);
-			return finder.getFoundFiles();
 		} catch (IOException e) {
 			throw new UncheckedIOException(e);
 		}
@@ -1,34 +1,48 @@
 package gov.cms.qpp.conversion;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
 import gov.cms.qpp.conversion.model.error.AllErrors;
 import gov.cms.qpp.conversion.model.error.TransformException;
+import gov.cms.qpp.conversion.util.JacksonHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.Writer;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Calls the {@link Converter} and writes the results to a file.
  */
 public class ConversionFileWriterWrapper {
 	private static final Logger DEV_LOG = LoggerFactory.getLogger(ConversionFileWriterWrapper.class);
+	private static final String TEMP_EXTENSION = ".tmp";
 
 	private final Source source;
 	private final FileSystem fileSystem;
 	private Context context;
+	private DirectBufferPool bufferPool;
 
 	public ConversionFileWriterWrapper(Path inFile) {
-		this.source = new PathSource(inFile);
+		this(new PathSource(inFile), inFile.getFileSystem());
+	}
 
-		fileSystem = inFile.getFileSystem();
+	/**
+	 * Converts a source that has already been read, writing the results to the given file system
+	 *
+	 * @param source the QRDA III to convert
+	 * @param fileSystem where the output files go
+	 */
+	public ConversionFileWriterWrapper(Source source, FileSystem fileSystem) {
+		this.source = source;
+		this.fileSystem = fileSystem;
 	}
 
 	/**
@@ -42,33 +56,57 @@ public class ConversionFileWriterWrapper {
 		return this;
 	}
 
+	/**
+	 * Writes output through direct buffers borrowed from the pool and a {@link FileChannel}, rather than a stream
+	 *
+	 * @param bufferPool lends the buffers, or {@code null} to write through a stream
+	 * @return this for chaining
+	 */
+	public ConversionFileWriterWrapper setBufferPool(DirectBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+		return this;
+	}
+
 	/**
 	 * Execute the conversion.
 	 */
 	public void transform() {
+		write(convert());
+	}
+
+	/**
+	 * Runs the converter without writing anything, so that the results can be written by another thread.
+	 *
+	 * @return the results, to pass to {@link #write(Outcome)}
+	 */
+	Outcome convert() {
 		Converter converter = context == null ? new Converter(source) : new Converter(source, context);
 
-		executeConverter(converter);
+		try {
+			return new Outcome(converter.transform(), null);
+		} catch (TransformException exception) {
+			return new Outcome(null, exception);
+		}
 	}
 
 	/**
-	 * Execute the converter and do initial handling of the result.
+	 * Writes the results of {@link #convert()} out to the QPP or errors file.
 	 *
-	 * @param converter The Converter to execute.
+	 * @param outcome the results of the conversion
+	 * @return whether the file was written
 	 */
-	private void executeConverter(Converter converter) {
-		try {
-			JsonWrapper jsonWrapper = converter.transform();
+	boolean write(Outcome outcome) {
+		if (outcome.isSuccessful()) {
 			Path outFile = getOutputFile(source.getName(), true);
 			DEV_LOG.info("Successful conversion.  Writing out QPP to {}",
 				outFile.toString());
-			writeOutQpp(jsonWrapper, outFile);
-		} catch (TransformException exception) {
-			AllErrors allErrors = exception.getDetails();
+			return writeOutQpp(outcome.qpp, outFile);
+		} else {
+			AllErrors allErrors = outcome.exception.getDetails();
 			Path outFile = getOutputFile(source.getName(), false);
 			DEV_LOG.warn("There were errors during conversion.  Writing out errors to " + outFile.toString(),
-					exception);
-			writeOutErrors(allErrors, outFile);
+					outcome.exception);
+			return writeOutErrors(allErrors, outFile);
 		}
 	}
 
@@ -77,13 +115,15 @@ public class ConversionFileWriterWrapper {
 	 *
 	 * @param jsonWrapper The QPP to write
 	 * @param outFile The location to write.
+	 * @return whether the file was written
 	 */
-	private void writeOutQpp(JsonWrapper jsonWrapper, Path outFile) {
-		try (Writer writer = Files.newBufferedWriter(outFile)) {
-			writer.write(jsonWrapper.toString());
-			writer.flush();
+	private boolean writeOutQpp(JsonWrapper jsonWrapper, Path outFile) {
+		try {
+			writeAtomically(outFile, jsonWrapper::writeTo);
+			return true;
 		} catch (IOException exception) {
 			DEV_LOG.error("Could not write out QPP JSON to file", exception);
+			return false;
 		}
 	}
 
@@ -92,19 +132,61 @@ public class ConversionFileWriterWrapper {
 	 *
 	 * @param allErrors The errors to write.
 	 * @param outFile The location to write.
+	 * @return whether the file was written
 	 */
-	private void writeOutErrors(AllErrors allErrors, Path outFile) {
-		try (Writer writer = Files.newBufferedWriter(outFile)) {
-			ObjectWriter jsonObjectWriter = new ObjectMapper()
-					.setSerializationInclusion(JsonInclude.Include.NON_NULL)
-					.writer()
-					.withDefaultPrettyPrinter();
-			jsonObjectWriter.writeValue(writer, allErrors);
+	private boolean writeOutErrors(AllErrors allErrors, Path outFile) {
+		try {
+			writeAtomically(outFile, outputStream -> JacksonHelper.nonNullWriter()
+					.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+					.writeValue(outputStream, allErrors));
+			return true;
 		} catch (IOException exception) {
 			DEV_LOG.error("Could not write out error JSON to file", exception);
+			return false;
 		}
 	}
 
+	/**
+	 * Writes to a temporary file beside the output file, then moves it into place, so that the output file never holds
+	 * partial content. The move is atomic where the file system supports it. The temporary file is removed if the write
+	 * fails.
+	 *
+	 * @param outFile The location to write.
+	 * @param content writes the content
+	 * @throws IOException if the file cannot be written or moved into place
+	 */
+	private void writeAtomically(Path outFile, Content content) throws IOException {
+		Path tempFile = outFile.resolveSibling("." + outFile.getFileName() + TEMP_EXTENSION);
+		try {
+			try (OutputStream outputStream = newOutputStream(tempFile)) {
+				content.writeTo(outputStream);
+			}
+			try {
+				Files.move(tempFile, outFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException exception) {
+				Files.move(tempFile, outFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException exception) {
+			Files.deleteIfExists(tempFile);
+			throw exception;
+		}
+	}
+
+	/**
+	 * Opens a file for writing, through a pooled direct buffer if there is a pool.
+	 *
+	 * @param file the file
+	 * @return a stream that writes the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	private OutputStream newOutputStream(Path file) throws IOException {
+		if (bufferPool == null) {
+			return Files.newOutputStream(file);
+		}
+		return new ChannelOutputStream(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING), bufferPool);
+	}
+
 	/**
 	 * Determine what the output file's name should be.
 	 *
@@ -113,6 +195,18 @@ public class ConversionFileWriterWrapper {
 	 * @return the output file name
 	 */
 	private Path getOutputFile(String name, final boolean success) {
+		return getOutputFile(fileSystem, name, success);
+	}
+
+	/**
+	 * Determine what the output file's name should be.
+	 *
+	 * @param fileSystem where the output files go
+	 * @param name base string that helps relate the output file to it's corresponding source
+	 * @param success Whether the conversion was successful or not.
+	 * @return the output file name
+	 */
+	static Path getOutputFile(FileSystem fileSystem, String name, final boolean success) {
 		String outName = name.replaceFirst("(?i)(\\.xml)?$", getFileExtension(success));
 		return fileSystem.getPath(outName);
 	}
@@ -122,7 +216,37 @@ public class ConversionFileWriterWrapper {
 	 *
 	 * @return a file extension
 	 */
-	private String getFileExtension(boolean success) {
+	private static String getFileExtension(boolean success) {
 		return success ? ".qpp.json" : ".err.json";
 	}
+
+	/**
+	 * Writes the content of an output file.
+	 */
+	@FunctionalInterface
+	private interface Content {
+		void writeTo(OutputStream outputStream) throws IOException;
+	}
+
+	/**
+	 * Results of a conversion that have yet to be written.
+	 */
+	static final class Outcome {
+		private final JsonWrapper qpp;
+		private final TransformException exception;
+
+		private Outcome(JsonWrapper qpp, TransformException exception) {
+			this.qpp = qpp;
+			this.exception = exception;
+		}
+
+		/**
+		 * Whether the conversion produced QPP rather than errors
+		 *
+		 * @return true for QPP
+		 */
+		boolean isSuccessful() {
+			return exception == null;
+		}
+	}
 }
@@ -0,0 +1,254 @@
+package gov.cms.qpp.conversion;
+
+import gov.cms.qpp.conversion.util.BuildHelper;
+import gov.cms.qpp.conversion.util.JacksonHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append only record of the files a command line run has converted, so that a rerun over the same files can skip the
+ * ones that have not changed since.
+ *
+ * Each line is a json {@link Entry} holding a file's absolute path, size, modification time, SHA-256 of its content,
+ * the {@link #settingsOf(Context) settings} it was converted with and whether it converted to QPP or to errors. Later
+ * lines for a file supersede earlier ones. Lines are forced to disk
+ * in batches, once {@link #SYNC_BATCH} are waiting or {@link #SYNC_INTERVAL_MILLIS} has passed since the last sync, and
+ * on {@link #close()}. A crash loses at most the lines of the last batch, which only means those files are converted
+ * again.
+ */
+public class ConversionManifest implements Closeable {
+
+	static final int SYNC_BATCH = 64;
+	static final long SYNC_INTERVAL_MILLIS = 1000;
+
+	private static final Logger DEV_LOG = LoggerFactory.getLogger(ConversionManifest.class);
+	private static final String BUILD = BuildHelper.build().orElse("unknown-" + UUID.randomUUID());
+
+	private final Path file;
+	private final Map<String, Entry> entries = new HashMap<>();
+	private final FileChannel channel;
+	private int unsynced;
+	private long lastSync = System.nanoTime();
+
+	/**
+	 * Opens a manifest, creating it if need be. An incomplete last line, left by a crash while writing, is dropped.
+	 *
+	 * @param file the manifest
+	 * @throws IOException if the manifest cannot be read or written
+	 */
+	public ConversionManifest(Path file) throws IOException {
+		this.file = file;
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		long complete = replay();
+		if (complete < channel.size()) {
+			DEV_LOG.warn("Dropping an incomplete entry at the end of the manifest {}", file);
+			channel.truncate(complete);
+		}
+		channel.position(complete);
+
+		if (!entries.isEmpty()) {
+			DEV_LOG.info("The manifest {} lists {} converted files", file, entries.size());
+		}
+	}
+
+	/**
+	 * Finds the latest entry for a file.
+	 *
+	 * @param input the converted file
+	 * @return the entry, or {@code null} if the file was never converted
+	 */
+	public synchronized Entry find(Path input) {
+		return entries.get(key(input));
+	}
+
+	/**
+	 * Records that a file was converted and its output written.
+	 *
+	 * @param input the converted file
+	 * @param size its size in bytes
+	 * @param modified its modification time in milliseconds since the epoch
+	 * @param hash hex SHA-256 of its content
+	 * @param settings the {@link #settingsOf(Context) settings} it was converted with
+	 * @param successful whether it converted to QPP rather than errors
+	 * @throws IOException if the entry cannot be written
+	 */
+	public synchronized void record(Path input, long size, long modified, String hash, String settings,
+			boolean successful) throws IOException {
+		Entry entry = new Entry();
+		entry.setPath(key(input));
+		entry.setSize(size);
+		entry.setModified(modified);
+		entry.setHash(hash);
+		entry.setSettings(settings);
+		entry.setSuccessful(successful);
+
+		ByteBuffer line = ByteBuffer.wrap((JacksonHelper.writer().writeValueAsString(entry) + '\n')
+				.getBytes(StandardCharsets.UTF_8));
+		while (line.hasRemaining()) {
+			channel.write(line);
+		}
+		entries.put(entry.getPath(), entry);
+
+		unsynced++;
+		if (unsynced >= SYNC_BATCH || System.nanoTime() - lastSync >= TimeUnit.MILLISECONDS.toNanos(SYNC_INTERVAL_MILLIS)) {
+			sync();
+		}
+	}
+
+	/**
+	 * Describes the settings of a conversion that change its output, so that a file converted with other settings is
+	 * not skipped. The converter's {@link BuildHelper#build() build} is one of them. When the build is unknown, it is
+	 * taken to differ from every earlier run's, so nothing converted by another run is skipped.
+	 *
+	 * @param context the conversion context
+	 * @return the settings, the same for contexts that convert alike
+	 */
+	public static String settingsOf(Context context) {
+		Set<String> scope = new TreeSet<>();
+		if (context.getScope() != null) {
+			context.getScope().forEach(qrdaScope -> scope.add(qrdaScope.name()));
+		}
+		return "build=" + BUILD
+				+ ";program=" + context.getProgram()
+				+ ";scope=" + String.join(",", scope)
+				+ ";historical=" + context.isHistorical()
+				+ ";defaults=" + context.isDoDefaults()
+				+ ";validation=" + context.isDoValidation();
+	}
+
+	/**
+	 * Forces outstanding entries to disk and closes the manifest.
+	 *
+	 * @throws IOException if the entries cannot be forced
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			sync();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void sync() throws IOException {
+		if (unsynced > 0) {
+			channel.force(false);
+			unsynced = 0;
+		}
+		lastSync = System.nanoTime();
+	}
+
+	/**
+	 * Reads the entries already in the manifest.
+	 *
+	 * @return the length of the manifest up to the end of its last complete line
+	 * @throws IOException if the manifest cannot be read
+	 */
+	private long replay() throws IOException {
+		byte[] content = Files.readAllBytes(file);
+		int complete = content.length;
+		while (complete > 0 && content[complete - 1] != '\n') {
+			complete--;
+		}
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new ByteArrayInputStream(content, 0, complete), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty()) {
+					continue;
+				}
+				try {
+					Entry entry = JacksonHelper.reader().forType(Entry.class).readValue(line);
+					entries.put(entry.getPath(), entry);
+				} catch (IOException exception) {
+					DEV_LOG.warn("Ignoring unreadable line in the manifest {}", file);
+				}
+			}
+		}
+		return complete;
+	}
+
+	private static String key(Path input) {
+		return input.toAbsolutePath().normalize().toString();
+	}
+
+	/**
+	 * One converted file.
+	 */
+	public static class Entry {
+		private String path;
+		private long size;
+		private long modified;
+		private String hash;
+		private String settings;
+		private boolean successful;
+
+		public String getPath() {
+			return path;
+		}
+
+		public void setPath(String path) {
+			this.path = path;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		public void setSize(long size) {
+			this.size = size;
+		}
+
+		public long getModified() {
+			return modified;
+		}
+
+		public void setModified(long modified) {
+			this.modified = modified;
+		}
+
+		public String getHash() {
+			return hash;
+		}
+
+		public void setHash(String hash) {
+			this.hash = hash;
+		}
+
+		public String getSettings() {
+			return settings;
+		}
+
+		public void setSettings(String settings) {
+			this.settings = settings;
+		}
+
+		public boolean isSuccessful() {
+			return successful;
+		}
+
+		public void setSuccessful(boolean successful) {
+			this.successful = successful;
+		}
+	}
+}
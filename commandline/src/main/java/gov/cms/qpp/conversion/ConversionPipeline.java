@@ -0,0 +1,371 @@
+package gov.cms.qpp.conversion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.io.BaseEncoding;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Converts files in separate read, convert and write stages, with the files coming from a discovery stage that calls
+ * {@link #submit(Path)}.
+ *
+ * Conversion is CPU bound, so it runs on a work stealing pool of its own with one thread per worker. Reading and writing
+ * block on the disk, so each has a small pool of its own rather than holding up converter threads. At most
+ * {@code inFlight} files are between being submitted and written at any time: once that many are, {@link #submit(Path)}
+ * blocks, which holds discovery back and keeps the content and results of only that many files in memory.
+ *
+ * Given a {@link ConversionManifest}, files it lists as converted with the same settings are skipped when their size
+ * and modification time are unchanged, or when only the modification time changed but the content hashes the same, as
+ * long as their output is still there. Every file written is recorded in the manifest.
+ *
+ * In nio mode files are read with {@link ByteBufferSource}, which memory maps large ones, and output is written through
+ * direct buffers pooled across the writer threads. Either way output appears only once it is complete.
+ */
+public class ConversionPipeline implements AutoCloseable {
+
+	private static final Logger DEV_LOG = LoggerFactory.getLogger(ConversionPipeline.class);
+
+	/**
+	 * Most threads used for each of reading and writing. More would only contend for the same disk.
+	 */
+	static final int MAX_IO_THREADS = 4;
+
+	private static final String DIGEST = "SHA-256";
+
+	private final int inFlight;
+	private final Semaphore permits;
+	private final Supplier<Context> contexts;
+	private final ConversionManifest manifest;
+	private final ExecutorService readers;
+	private final ExecutorService converters;
+	private final ExecutorService writers;
+	private final DirectBufferPool buffers;
+	private final LongAdder converted = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder skipped = new LongAdder();
+
+	/**
+	 * Creates a pipeline and starts its threads
+	 *
+	 * @param workers number of files to convert at once
+	 * @param inFlight most files to hold between submission and written output
+	 * @param contexts creates the context for each conversion
+	 */
+	public ConversionPipeline(int workers, int inFlight, Supplier<Context> contexts) {
+		this(workers, inFlight, contexts, null);
+	}
+
+	/**
+	 * Creates a pipeline that skips files the manifest lists as converted and unchanged, and starts its threads
+	 *
+	 * @param workers number of files to convert at once
+	 * @param inFlight most files to hold between submission and written output
+	 * @param contexts creates the context for each conversion
+	 * @param manifest record of converted files, or {@code null} to convert everything
+	 */
+	public ConversionPipeline(int workers, int inFlight, Supplier<Context> contexts, ConversionManifest manifest) {
+		this(workers, inFlight, contexts, manifest, false);
+	}
+
+	/**
+	 * Creates a pipeline and starts its threads, optionally reading and writing through buffers rather than streams
+	 *
+	 * @param workers number of files to convert at once
+	 * @param inFlight most files to hold between submission and written output
+	 * @param contexts creates the context for each conversion
+	 * @param manifest record of converted files, or {@code null} to convert everything
+	 * @param nio whether to read files with {@link ByteBufferSource} and write them through pooled direct buffers
+	 */
+	public ConversionPipeline(int workers, int inFlight, Supplier<Context> contexts, ConversionManifest manifest,
+			boolean nio) {
+		if (workers < 1) {
+			throw new IllegalArgumentException("workers must be at least 1 but was " + workers);
+		}
+		if (inFlight < 1) {
+			throw new IllegalArgumentException("inFlight must be at least 1 but was " + inFlight);
+		}
+		Objects.requireNonNull(contexts, "contexts");
+
+		this.inFlight = inFlight;
+		this.permits = new Semaphore(inFlight);
+		this.contexts = contexts;
+		this.manifest = manifest;
+		int ioThreads = Math.min(workers, MAX_IO_THREADS);
+		this.readers = Executors.newFixedThreadPool(ioThreads, threads("conversion-read-"));
+		this.converters = new ForkJoinPool(workers, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+		this.writers = Executors.newFixedThreadPool(ioThreads, threads("conversion-write-"));
+		this.buffers = nio ? new DirectBufferPool(ioThreads, DirectBufferPool.DEFAULT_BUFFER_SIZE) : null;
+	}
+
+	/**
+	 * Queues a file for conversion, waiting while the pipeline already holds {@code inFlight} files.
+	 *
+	 * @param file the QRDA III file
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void submit(Path file) throws InterruptedException {
+		permits.acquire();
+		try {
+			readers.execute(() -> readStage(file));
+		} catch (RejectedExecutionException exception) {
+			permits.release();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Waits until every submitted file has been written.
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void awaitCompletion() throws InterruptedException {
+		permits.acquire(inFlight);
+		permits.release(inFlight);
+	}
+
+	/**
+	 * Number of files converted so far, whether to QPP or to errors.
+	 *
+	 * @return the count
+	 */
+	public long getConverted() {
+		return converted.sum();
+	}
+
+	/**
+	 * Number of files that could not be read, converted or written.
+	 *
+	 * @return the count
+	 */
+	public long getFailed() {
+		return failed.sum();
+	}
+
+	/**
+	 * Number of files skipped because the manifest showed them converted and unchanged.
+	 *
+	 * @return the count
+	 */
+	public long getSkipped() {
+		return skipped.sum();
+	}
+
+	/**
+	 * Waits for submitted files to finish, then stops the threads.
+	 */
+	@Override
+	public void close() {
+		try {
+			awaitCompletion();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		} finally {
+			shutdown(readers);
+			shutdown(converters);
+			shutdown(writers);
+		}
+	}
+
+	/**
+	 * Runs the conversion, on a converter thread. Separate so that tests can observe and hold up the stage.
+	 *
+	 * @param conversion the read file
+	 * @return the results
+	 */
+	ConversionFileWriterWrapper.Outcome convert(ConversionFileWriterWrapper conversion) {
+		return conversion.convert();
+	}
+
+	private void readStage(Path file) {
+		Input input = new Input(file);
+		try {
+			Context context = contexts.get();
+			ConversionManifest.Entry previous = null;
+			if (manifest != null) {
+				input.settings = ConversionManifest.settingsOf(context);
+				previous = manifest.find(file);
+				if (previous != null && !input.settings.equals(previous.getSettings())) {
+					previous = null;
+				}
+
+				BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+				input.size = attributes.size();
+				input.modified = attributes.lastModifiedTime().toMillis();
+				if (previous != null && previous.getSize() == input.size && previous.getModified() == input.modified
+						&& hasOutput(input, previous)) {
+					skip(input);
+					return;
+				}
+			}
+
+			MessageDigest digest = manifest == null ? null : newDigest();
+			ConversionFileWriterWrapper conversion = new ConversionFileWriterWrapper(read(input, digest),
+					file.getFileSystem())
+					.setContext(context)
+					.setBufferPool(buffers);
+
+			if (digest != null) {
+				input.hash = BaseEncoding.base16().lowerCase().encode(digest.digest());
+				if (previous != null && previous.getSize() == input.size && input.hash.equals(previous.getHash())
+						&& hasOutput(input, previous)) {
+					manifest.record(file, input.size, input.modified, input.hash, input.settings,
+							previous.isSuccessful());
+					skip(input);
+					return;
+				}
+			}
+
+			converters.execute(() -> convertStage(input, conversion));
+		} catch (Throwable thrown) {
+			fail(file, thrown);
+		}
+	}
+
+	/**
+	 * Reads a file into memory, updating the digest with its content if there is one.
+	 *
+	 * @param input the file
+	 * @param digest hashes the content, or {@code null}
+	 * @return the content
+	 * @throws IOException if the file cannot be read
+	 */
+	private Source read(Input input, MessageDigest digest) throws IOException {
+		if (buffers != null) {
+			ByteBufferSource source = ByteBufferSource.read(input.file, input.name());
+			if (digest != null) {
+				source.updateDigest(digest);
+			}
+			return source;
+		}
+
+		try (InputStream content = digest == null ? Files.newInputStream(input.file)
+				: new DigestInputStream(Files.newInputStream(input.file), digest)) {
+			return new InputStreamSupplierSource(input.name(), content);
+		}
+	}
+
+	private void convertStage(Input input, ConversionFileWriterWrapper conversion) {
+		try {
+			ConversionFileWriterWrapper.Outcome outcome = convert(conversion);
+			writers.execute(() -> writeStage(input, conversion, outcome));
+		} catch (Throwable thrown) {
+			fail(input.file, thrown);
+		}
+	}
+
+	private void writeStage(Input input, ConversionFileWriterWrapper conversion, ConversionFileWriterWrapper.Outcome outcome) {
+		try {
+			if (!conversion.write(outcome)) {
+				failed.increment();
+				permits.release();
+				return;
+			}
+			if (manifest != null) {
+				manifest.record(input.file, input.size, input.modified, input.hash, input.settings,
+						outcome.isSuccessful());
+			}
+		} catch (Throwable thrown) {
+			fail(input.file, thrown);
+			return;
+		}
+		converted.increment();
+		permits.release();
+	}
+
+	private boolean hasOutput(Input input, ConversionManifest.Entry previous) {
+		return Files.exists(ConversionFileWriterWrapper.getOutputFile(input.file.getFileSystem(), input.name(),
+				previous.isSuccessful()));
+	}
+
+	private void skip(Input input) {
+		DEV_LOG.debug("Skipping {}, which is unchanged since it was converted", input.file);
+		skipped.increment();
+		permits.release();
+	}
+
+	/**
+	 * Counts a file as failed and gives back its permit. Every stage ends here for whatever it throws, as a permit
+	 * that is never given back would leave {@link #awaitCompletion()} waiting forever. An {@link Error}, such as running
+	 * out of memory on a large file, is thrown on once the permit is back.
+	 *
+	 * @param file the file
+	 * @param thrown why it failed
+	 */
+	private void fail(Path file, Throwable thrown) {
+		try {
+			DEV_LOG.error("Could not convert " + file, thrown);
+			failed.increment();
+		} finally {
+			permits.release();
+		}
+		if (thrown instanceof Error) {
+			throw (Error) thrown;
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(DIGEST);
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException(DIGEST + " is always available", exception);
+		}
+	}
+
+	private static ThreadFactory threads(String prefix) {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	private static void shutdown(ExecutorService executor) {
+		executor.shutdown();
+		try {
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * A file on its way through the pipeline, with what the manifest needs to know about it.
+	 */
+	private static final class Input {
+		private final Path file;
+		private long size;
+		private long modified;
+		private String hash;
+		private String settings;
+
+		private Input(Path file) {
+			this.file = file;
+		}
+
+		private String name() {
+			Path name = file.getFileName();
+			return name == null ? "" : name.toString();
+		}
+	}
+}
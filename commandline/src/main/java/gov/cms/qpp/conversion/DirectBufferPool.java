@@ -0,0 +1,70 @@
+package gov.cms.qpp.conversion;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keeps direct {@link ByteBuffer}s for reuse. Direct buffers are costly to allocate and are only freed when collected,
+ * so each writer thread borrowing one per file and giving it back keeps their number fixed.
+ *
+ * A buffer is always available: when the pool is empty a new one is allocated, and buffers given back to a full pool
+ * are dropped.
+ */
+public class DirectBufferPool {
+
+	/**
+	 * Size of each buffer, enough for most QPP and error JSON in a single write.
+	 */
+	static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private final BlockingQueue<ByteBuffer> buffers;
+	private final int bufferSize;
+
+	/**
+	 * Creates an empty pool, which fills as buffers are given back.
+	 *
+	 * @param capacity most buffers to keep
+	 * @param bufferSize size of each buffer in bytes
+	 */
+	public DirectBufferPool(int capacity, int bufferSize) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be at least 1 but was " + capacity);
+		}
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("bufferSize must be at least 1 but was " + bufferSize);
+		}
+
+		this.buffers = new ArrayBlockingQueue<>(capacity);
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Borrows a cleared buffer.
+	 *
+	 * @return a direct buffer, to give back with {@link #release(ByteBuffer)}
+	 */
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = buffers.poll();
+		return buffer == null ? ByteBuffer.allocateDirect(bufferSize) : buffer;
+	}
+
+	/**
+	 * Gives back a buffer from {@link #acquire()}. It must not be used afterwards.
+	 *
+	 * @param buffer the buffer
+	 */
+	public void release(ByteBuffer buffer) {
+		buffer.clear();
+		buffers.offer(buffer);
+	}
+
+	/**
+	 * Number of buffers waiting to be borrowed.
+	 *
+	 * @return the count
+	 */
+	int available() {
+		return buffers.size();
+	}
+}
@@ -0,0 +1,205 @@
+package gov.cms.qpp.conversion;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a drop directory and feeds files whose names match into a {@link ConversionPipeline} as they arrive, so that
+ * one warm JVM converts them instead of a new process per batch.
+ *
+ * A file is submitted once it has gone {@code quietMillis} without further events. Files written somewhere else and
+ * renamed into the directory arrive complete in a single event, while the quiet period keeps files written in place
+ * from being read half way through. Writers should still prefer a temporary name that does not match, renamed when
+ * done. A file is submitted again only when its size or modification time changes, and after an event overflow the
+ * directory is scanned again. With a rate limit, bursts are spread out to at most that many files a second; either way
+ * the pipeline's in flight limit holds the watcher back when conversion falls behind.
+ */
+public class DirectoryWatcher implements Closeable {
+
+	static final long DEFAULT_QUIET_MILLIS = 100;
+
+	private static final Logger DEV_LOG = LoggerFactory.getLogger(DirectoryWatcher.class);
+
+	private final Path directory;
+	private final List<PathMatcher> matchers;
+	private final ConversionPipeline pipeline;
+	private final RateLimiter rateLimiter;
+	private final long quietNanos;
+	private final Map<Path, Long> pending = new LinkedHashMap<>();
+	private final Map<Path, String> submitted = new HashMap<>();
+	private volatile WatchService watchService;
+	private volatile boolean closed;
+
+	/**
+	 * Creates a watcher that is started by {@link #run()}.
+	 *
+	 * @param directory the drop directory
+	 * @param matchers file names to convert
+	 * @param pipeline converts the files
+	 * @param filesPerSecond most files to submit a second, or 0 for no limit
+	 * @param quietMillis how long a file must go without events before it is submitted
+	 */
+	public DirectoryWatcher(Path directory, List<PathMatcher> matchers, ConversionPipeline pipeline,
+			double filesPerSecond, long quietMillis) {
+		Objects.requireNonNull(directory, "directory");
+		Objects.requireNonNull(matchers, "matchers");
+		Objects.requireNonNull(pipeline, "pipeline");
+
+		this.directory = directory;
+		this.matchers = matchers;
+		this.pipeline = pipeline;
+		this.rateLimiter = filesPerSecond > 0 ? RateLimiter.create(filesPerSecond) : null;
+		this.quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+	}
+
+	/**
+	 * Converts the files already in the directory, then the files that arrive, until closed or interrupted.
+	 *
+	 * @throws IOException if the directory cannot be watched or read
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void run() throws IOException, InterruptedException {
+		try (WatchService service = directory.getFileSystem().newWatchService()) {
+			watchService = service;
+			if (closed) {
+				return;
+			}
+			directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+					StandardWatchEventKinds.ENTRY_DELETE);
+			DEV_LOG.info("Watching {} for files to convert", directory);
+
+			scan();
+			while (!closed) {
+				WatchKey key = pending.isEmpty() ? service.take() : service.poll(untilSettled(), TimeUnit.NANOSECONDS);
+				if (key != null) {
+					handle(key);
+					if (!key.reset()) {
+						DEV_LOG.error("{} can no longer be watched", directory);
+						return;
+					}
+				}
+				submitSettled();
+			}
+		} catch (ClosedWatchServiceException exception) {
+			DEV_LOG.info("Stopped watching {}", directory);
+		}
+	}
+
+	/**
+	 * Stops {@link #run()}. Files already submitted carry on through the pipeline.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		WatchService service = watchService;
+		if (service != null) {
+			try {
+				service.close();
+			} catch (IOException exception) {
+				DEV_LOG.warn("Could not stop watching {}", directory, exception);
+			}
+		}
+	}
+
+	private void handle(WatchKey key) throws IOException {
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				DEV_LOG.warn("Missed events in {}, scanning it again", directory);
+				scan();
+				continue;
+			}
+
+			Path file = directory.resolve((Path) event.context());
+			if (!matches(file)) {
+				continue;
+			}
+			if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+				pending.remove(file);
+				submitted.remove(file);
+			} else {
+				pending.remove(file);
+				pending.put(file, System.nanoTime());
+			}
+		}
+	}
+
+	private void scan() throws IOException {
+		long now = System.nanoTime();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				if (matches(file)) {
+					pending.putIfAbsent(file, now - quietNanos);
+				}
+			}
+		}
+	}
+
+	private void submitSettled() throws InterruptedException {
+		long now = System.nanoTime();
+		Iterator<Map.Entry<Path, Long>> entries = pending.entrySet().iterator();
+		while (entries.hasNext() && !closed) {
+			Map.Entry<Path, Long> entry = entries.next();
+			if (now - entry.getValue() < quietNanos) {
+				return;
+			}
+			entries.remove();
+
+			Path file = entry.getKey();
+			String signature = signature(file);
+			if (signature == null || signature.equals(submitted.get(file))) {
+				continue;
+			}
+			if (rateLimiter != null) {
+				rateLimiter.acquire();
+			}
+			pipeline.submit(file);
+			submitted.put(file, signature);
+		}
+	}
+
+	private long untilSettled() {
+		long oldest = pending.values().iterator().next();
+		return Math.max(0, oldest + quietNanos - System.nanoTime());
+	}
+
+	private boolean matches(Path file) {
+		Path name = file.getFileName();
+		return name != null && matchers.stream().anyMatch(matcher -> matcher.matches(name));
+	}
+
+	/**
+	 * Identifies a version of a file by its size and modification time.
+	 *
+	 * @param file the file
+	 * @return the signature, or {@code null} if the file is gone or is not a regular file
+	 */
+	private static String signature(Path file) {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			return attributes.isRegularFile() ? attributes.size() + ":" + attributes.lastModifiedTime().toMillis() : null;
+		} catch (IOException exception) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package gov.cms.qpp.conversion;
+
+import com.google.common.io.ByteStreams;
+import org.junit.jupiter.api.Test;
+
+import gov.cms.qpp.test.jimfs.JimfsContract;
+import gov.cms.qpp.test.jimfs.JimfsTest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class ByteBufferSourceTest implements JimfsContract {
+
+	private static final String VALID_FILE = "src/test/resources/valid-QRDA-III-abridged.xml";
+
+	@JimfsTest
+	void testReadsSmallFile(FileSystem fileSystem) throws IOException {
+		Path file = fileSystem.getPath(VALID_FILE);
+
+		ByteBufferSource source = ByteBufferSource.read(file, "valid.xml");
+
+		assertThat(source.getName()).isEqualTo("valid.xml");
+		assertThat(source.getSize()).isEqualTo(Files.size(file));
+		assertThat(readAll(source)).isEqualTo(Files.readAllBytes(file));
+	}
+
+	@JimfsTest
+	void testReadsLargeFileThatCannotBeMapped(FileSystem fileSystem) throws IOException {
+		Path file = fileSystem.getPath("large.xml");
+		Files.write(file, largeContent());
+
+		assertThat(readAll(ByteBufferSource.read(file, "large.xml"))).isEqualTo(largeContent());
+	}
+
+	@Test
+	void testMapsLargeFile() throws IOException {
+		Path file = Files.createTempFile("mapped", ".xml");
+		try {
+			Files.write(file, largeContent());
+
+			ByteBufferSource source = ByteBufferSource.read(file, "mapped.xml");
+
+			assertThat(source.getSize()).isEqualTo(largeContent().length);
+			assertThat(readAll(source)).isEqualTo(largeContent());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	void testEachStreamStartsAtTheBeginning() throws IOException {
+		ByteBufferSource source = new ByteBufferSource("twice", ByteBuffer.wrap("content".getBytes(StandardCharsets.UTF_8)));
+
+		try (InputStream first = source.toInputStream()) {
+			assertThat(first.skip(3)).isEqualTo(3);
+			assertThat(first.available()).isEqualTo(4);
+		}
+
+		assertThat(new String(readAll(source), StandardCharsets.UTF_8)).isEqualTo("content");
+	}
+
+	@Test
+	void testStreamEnds() throws IOException {
+		ByteBufferSource source = new ByteBufferSource("one", ByteBuffer.wrap(new byte[] {(byte) 0xFF}));
+
+		try (InputStream stream = source.toInputStream()) {
+			assertThat(stream.read()).isEqualTo(0xFF);
+			assertThat(stream.read()).isEqualTo(-1);
+			assertThat(stream.read(new byte[1], 0, 1)).isEqualTo(-1);
+		}
+	}
+
+	@Test
+	void testUpdatesDigestWithContent() throws NoSuchAlgorithmException {
+		byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+		ByteBufferSource source = new ByteBufferSource("digested", ByteBuffer.wrap(content));
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+		source.updateDigest(digest);
+
+		assertThat(digest.digest()).isEqualTo(MessageDigest.getInstance("SHA-256").digest(content));
+		assertThat(source.getSize()).isEqualTo(content.length);
+	}
+
+	private static byte[] readAll(Source source) throws IOException {
+		try (InputStream stream = source.toInputStream()) {
+			return ByteStreams.toByteArray(stream);
+		}
+	}
+
+	private static byte[] largeContent() {
+		byte[] content = new byte[(int) ByteBufferSource.MAP_THRESHOLD + 1];
+		Arrays.fill(content, (byte) 'x');
+		return content;
+	}
+}
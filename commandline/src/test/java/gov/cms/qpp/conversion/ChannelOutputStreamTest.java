@@ -0,0 +1,75 @@
+package gov.cms.qpp.conversion;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class ChannelOutputStreamTest {
+
+	@Test
+	void testWritesMoreThanOneBuffer() throws IOException {
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+		DirectBufferPool pool = new DirectBufferPool(1, 4);
+
+		try (OutputStream stream = new ChannelOutputStream(Channels.newChannel(written), pool)) {
+			stream.write("0123456789".getBytes(StandardCharsets.UTF_8));
+			stream.write('!');
+		}
+
+		assertThat(new String(written.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("0123456789!");
+	}
+
+	@Test
+	void testFlushWritesBufferedBytes() throws IOException {
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+		try (OutputStream stream = new ChannelOutputStream(Channels.newChannel(written), new DirectBufferPool(1, 16))) {
+			stream.write("abc".getBytes(StandardCharsets.UTF_8), 1, 2);
+			assertThat(written.size()).isEqualTo(0);
+
+			stream.flush();
+			assertThat(new String(written.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("bc");
+		}
+	}
+
+	@Test
+	void testCloseGivesBufferBack() throws IOException {
+		DirectBufferPool pool = new DirectBufferPool(1, 16);
+
+		OutputStream stream = new ChannelOutputStream(Channels.newChannel(new ByteArrayOutputStream()), pool);
+		assertThat(pool.available()).isEqualTo(0);
+		stream.close();
+		stream.close();
+
+		assertThat(pool.available()).isEqualTo(1);
+		Assertions.assertThrows(IOException.class, () -> stream.write(1));
+	}
+
+	@Test
+	void testPoolReusesBuffers() {
+		DirectBufferPool pool = new DirectBufferPool(1, 16);
+
+		ByteBuffer buffer = pool.acquire();
+		assertThat(buffer.isDirect()).isTrue();
+		buffer.put((byte) 1);
+		pool.release(buffer);
+
+		assertThat(pool.acquire()).isSameAs(buffer);
+		assertThat(buffer.position()).isEqualTo(0);
+	}
+
+	@Test
+	void testPoolRequiresCapacity() {
+		IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new DirectBufferPool(0, 16));
+		assertThat(exception).hasMessageThat().contains("capacity");
+	}
+}
@@ -81,6 +81,31 @@ class CommandLineRunnerTest implements LoggerContract, JimfsContract {
 		Truth.assertThat(Files.exists(fileSystem.getPath("valid-QRDA-III-abridged.qpp.json"))).isTrue();
 	}
 
+	@JimfsTest
+	void testRunWithNio(FileSystem fileSystem) {
+		String path = VALID_FILE.replaceAll("/", "\\" + fileSystem.getSeparator());
+		CommandLineRunner runner = new CommandLineRunner(line(path, "-" + CommandLineMain.NIO), fileSystem);
+		runner.run();
+		Truth.assertThat(Files.exists(fileSystem.getPath("valid-QRDA-III-abridged.qpp.json"))).isTrue();
+	}
+
+	@JimfsTest
+	void testRunWithStageSummary(FileSystem fileSystem) {
+		String path = VALID_FILE.replaceAll("/", "\\" + fileSystem.getSeparator());
+		CommandLineRunner runner = new CommandLineRunner(line(path,
+				"-" + CommandLineMain.STAGE_SUMMARY), fileSystem);
+		runner.run();
+		Truth.assertThat(getLogs()).contains("Time, CPU and memory spent in each conversion stage:{}{}");
+	}
+
+	@JimfsTest
+	void testRunWithoutStageSummary(FileSystem fileSystem) {
+		String path = VALID_FILE.replaceAll("/", "\\" + fileSystem.getSeparator());
+		CommandLineRunner runner = new CommandLineRunner(line(path), fileSystem);
+		runner.run();
+		Truth.assertThat(getLogs()).doesNotContain("Time, CPU and memory spent in each conversion stage:{}{}");
+	}
+
 	@JimfsTest
 	void testRunWithInvalidFile(FileSystem fileSystem) {
 		String path = "src/test/resources/qrda_bad_denominator.xml".replaceAll("/", "\\" + fileSystem.getSeparator());
@@ -123,6 +148,73 @@ class CommandLineRunnerTest implements LoggerContract, JimfsContract {
 		Truth.assertThat(Files.exists(fileSystem.getPath("not-a-QRDA-III-file.err.json"))).isTrue();
 	}
 
+	@JimfsTest
+	void testRunWithGlobSkipsSubdirectories(FileSystem fileSystem) {
+		String path = "src/test/resources/pathTest/*.xml".replaceAll("/", "\\" + fileSystem.getSeparator());
+		CommandLineRunner runner = new CommandLineRunner(line(path), fileSystem);
+		runner.run();
+		Truth.assertThat(Files.exists(fileSystem.getPath("a.err.json"))).isTrue();
+		Truth.assertThat(Files.exists(fileSystem.getPath("d.err.json"))).isFalse();
+	}
+
+	@JimfsTest
+	void testRunWithRecursiveGlob(FileSystem fileSystem) {
+		String path = "src/test/resources/pathTest/*.xml".replaceAll("/", "\\" + fileSystem.getSeparator());
+		CommandLineRunner runner = new CommandLineRunner(line(path, "-" + CommandLineMain.RECURSIVE), fileSystem);
+		runner.run();
+		Truth.assertThat(Files.exists(fileSystem.getPath("a.err.json"))).isTrue();
+		Truth.assertThat(Files.exists(fileSystem.getPath("d.err.json"))).isTrue();
+	}
+
+	@JimfsTest
+	void testRunWithWorkersAndInFlight(FileSystem fileSystem) {
+		String path = "src/test/resources/*".replaceAll("/", "\\" + fileSystem.getSeparator());
+		CommandLineRunner runner = new CommandLineRunner(line(path, "-w", "2", "-f", "1"), fileSystem);
+		runner.run();
+		Truth.assertThat(Files.exists(fileSystem.getPath("valid-QRDA-III-abridged.qpp.json"))).isTrue();
+		Truth.assertThat(getLogs()).contains("Converted {} files, skipped {} unchanged files, {} could not be converted");
+	}
+
+	@JimfsTest
+	void testRunWithManifest(FileSystem fileSystem) throws IOException {
+		String path = VALID_FILE.replaceAll("/", "\\" + fileSystem.getSeparator());
+		new CommandLineRunner(line(path, "-m", "manifest.jsonl"), fileSystem).run();
+		Truth.assertThat(Files.readAllLines(fileSystem.getPath("manifest.jsonl"))).hasSize(1);
+
+		new CommandLineRunner(line(path, "-m", "manifest.jsonl"), fileSystem).run();
+		Truth.assertThat(Files.readAllLines(fileSystem.getPath("manifest.jsonl"))).hasSize(1);
+		Truth.assertThat(Files.exists(fileSystem.getPath("valid-QRDA-III-abridged.qpp.json"))).isTrue();
+	}
+
+	@Test
+	void testRunWithMissingWatchDirectory() {
+		CommandLineRunner runner = new CommandLineRunner(line("-W", "missing"));
+		runner.run();
+		Truth.assertThat(getLogs()).contains("Invalid or missing paths: [missing]");
+	}
+
+	@Test
+	void testRunWithInvalidRateLimit() {
+		CommandLineRunner runner = new CommandLineRunner(line("-W", "src", "-l", "-1"));
+		runner.run();
+		Truth.assertThat(getLogs())
+				.contains("The number of workers, of files in flight and the rate limit must be positive whole numbers");
+	}
+
+	@Test
+	void testRunWithInvalidWorkers() {
+		CommandLineRunner runner = new CommandLineRunner(line(VALID_FILE, "-w", "none"));
+		runner.run();
+		Truth.assertThat(getLogs()).contains("The number of workers, of files in flight and the rate limit must be positive whole numbers");
+	}
+
+	@Test
+	void testRunWithInvalidInFlight() {
+		CommandLineRunner runner = new CommandLineRunner(line(VALID_FILE, "-f", "0"));
+		runner.run();
+		Truth.assertThat(getLogs()).contains("The number of workers, of files in flight and the rate limit must be positive whole numbers");
+	}
+
 	@Test
 	void testWindowsFileSeparator() {
 		FileSystem mockWindowsFileSystem = mock(FileSystem.class);
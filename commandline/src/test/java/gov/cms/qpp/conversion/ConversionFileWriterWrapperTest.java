@@ -11,6 +11,7 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -64,11 +65,60 @@ public class ConversionFileWriterWrapperTest {
 		assertFileExists("qrda_bad_denominator.qpp.json");
 	}
 
+	@Test
+	public void testWritesQppJson() throws IOException {
+		Path path = Paths.get("../qrda-files/valid-QRDA-III-latest.xml");
+		ConversionFileWriterWrapper converterWrapper = new ConversionFileWriterWrapper(path);
+
+		converterWrapper.transform();
+
+		String expected = new Converter(new PathSource(path)).transform().toString();
+		assertThat(new String(Files.readAllBytes(Paths.get("valid-QRDA-III-latest.qpp.json")), StandardCharsets.UTF_8))
+				.isEqualTo(expected);
+	}
+
+	@Test
+	public void testWritesQppJsonThroughBufferPool() throws IOException {
+		Path path = Paths.get("../qrda-files/valid-QRDA-III-latest.xml");
+		DirectBufferPool pool = new DirectBufferPool(1, 1024);
+		ConversionFileWriterWrapper converterWrapper = new ConversionFileWriterWrapper(path).setBufferPool(pool);
+
+		converterWrapper.transform();
+
+		String expected = new Converter(new PathSource(path)).transform().toString();
+		assertThat(new String(Files.readAllBytes(Paths.get("valid-QRDA-III-latest.qpp.json")), StandardCharsets.UTF_8))
+				.isEqualTo(expected);
+		assertThat(pool.available()).isEqualTo(1);
+	}
+
+	@Test
+	public void testLeavesNoTemporaryFile() {
+		Path path = Paths.get("src/test/resources/not-a-QRDA-III-file.xml");
+		ConversionFileWriterWrapper converterWrapper = new ConversionFileWriterWrapper(path);
+
+		converterWrapper.transform();
+
+		assertFileExists("not-a-QRDA-III-file.err.json");
+		assertFileDoesNotExists(".not-a-QRDA-III-file.err.json.tmp");
+	}
+
+	@Test
+	public void testReplacesExistingOutput() throws IOException {
+		Files.write(Paths.get("not-a-QRDA-III-file.err.json"), "stale".getBytes(StandardCharsets.UTF_8));
+		Path path = Paths.get("src/test/resources/not-a-QRDA-III-file.xml");
+		ConversionFileWriterWrapper converterWrapper = new ConversionFileWriterWrapper(path);
+
+		converterWrapper.transform();
+
+		assertThat(new String(Files.readAllBytes(Paths.get("not-a-QRDA-III-file.err.json")), StandardCharsets.UTF_8))
+				.contains("not-a-QRDA-III-file.xml");
+	}
+
 	@Test
 	@PrepareForTest({Files.class, ConversionFileWriterWrapper.class})
 	public void testFailureToWriteQpp() throws IOException {
 		PowerMockito.mockStatic(Files.class);
-		PowerMockito.when(Files.newBufferedWriter(ArgumentMatchers.any(Path.class))).thenThrow(new IOException());
+		PowerMockito.when(Files.newOutputStream(ArgumentMatchers.any(Path.class))).thenThrow(new IOException());
 
 		Path path = Paths.get("../qrda-files/valid-QRDA-III-latest.xml");
 		ConversionFileWriterWrapper converterWrapper = new ConversionFileWriterWrapper(path);
@@ -82,7 +132,7 @@ public class ConversionFileWriterWrapperTest {
 	@PrepareForTest({Files.class, ConversionFileWriterWrapper.class})
 	public void testFailureToWriteErrors() throws IOException {
 		PowerMockito.mockStatic(Files.class);
-		PowerMockito.when(Files.newBufferedWriter(ArgumentMatchers.any(Path.class))).thenThrow(new IOException());
+		PowerMockito.when(Files.newOutputStream(ArgumentMatchers.any(Path.class))).thenThrow(new IOException());
 
 		Path path = Paths.get("src/test/resources/not-a-QRDA-III-file.xml");
 		ConversionFileWriterWrapper converterWrapper = new ConversionFileWriterWrapper(path);
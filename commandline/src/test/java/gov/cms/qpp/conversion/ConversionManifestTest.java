@@ -0,0 +1,138 @@
+package gov.cms.qpp.conversion;
+
+import gov.cms.qpp.conversion.segmentation.QrdaScope;
+import gov.cms.qpp.conversion.util.BuildHelper;
+import gov.cms.qpp.test.jimfs.JimfsContract;
+import gov.cms.qpp.test.jimfs.JimfsTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class ConversionManifestTest implements JimfsContract {
+
+	@JimfsTest
+	void testEntriesSurviveReopening(FileSystem fileSystem) throws IOException {
+		Path manifestFile = fileSystem.getPath("manifest.jsonl");
+		Path input = fileSystem.getPath("a.xml");
+
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile)) {
+			assertThat(manifest.find(input)).isNull();
+			manifest.record(input, 10, 20, "abc", "settings", true);
+		}
+
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile)) {
+			ConversionManifest.Entry entry = manifest.find(input);
+			assertThat(entry.getPath()).isEqualTo(input.toAbsolutePath().toString());
+			assertThat(entry.getSize()).isEqualTo(10);
+			assertThat(entry.getModified()).isEqualTo(20);
+			assertThat(entry.getHash()).isEqualTo("abc");
+			assertThat(entry.getSettings()).isEqualTo("settings");
+			assertThat(entry.isSuccessful()).isTrue();
+		}
+	}
+
+	@JimfsTest
+	void testLaterEntriesWin(FileSystem fileSystem) throws IOException {
+		Path manifestFile = fileSystem.getPath("manifest.jsonl");
+		Path input = fileSystem.getPath("a.xml");
+
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile)) {
+			manifest.record(input, 10, 20, "abc", "settings", true);
+			manifest.record(input, 11, 21, "def", "settings", false);
+		}
+
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile)) {
+			assertThat(manifest.find(input).getHash()).isEqualTo("def");
+			assertThat(manifest.find(input).isSuccessful()).isFalse();
+		}
+		assertThat(Files.readAllLines(manifestFile)).hasSize(2);
+	}
+
+	@JimfsTest
+	void testIncompleteLastLineIsDropped(FileSystem fileSystem) throws IOException {
+		Path manifestFile = fileSystem.getPath("manifest.jsonl");
+		Path input = fileSystem.getPath("a.xml");
+		Path other = fileSystem.getPath("b.xml");
+
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile)) {
+			manifest.record(input, 10, 20, "abc", "settings", true);
+		}
+		Files.write(manifestFile, "{\"path\":\"/b.x".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile)) {
+			assertThat(manifest.find(input)).isNotNull();
+			manifest.record(other, 1, 2, "ghi", "settings", true);
+		}
+
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile)) {
+			assertThat(manifest.find(input)).isNotNull();
+			assertThat(manifest.find(other)).isNotNull();
+		}
+	}
+
+	@JimfsTest
+	void testUnreadableLinesAreIgnored(FileSystem fileSystem) throws IOException {
+		Path manifestFile = fileSystem.getPath("manifest.jsonl");
+		Files.write(manifestFile, "not json\n\n".getBytes(StandardCharsets.UTF_8));
+
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile)) {
+			assertThat(manifest.find(fileSystem.getPath("a.xml"))).isNull();
+		}
+	}
+
+	@JimfsTest
+	void testManyEntriesAreSyncedInBatches(FileSystem fileSystem) throws IOException {
+		Path manifestFile = fileSystem.getPath("manifest.jsonl");
+
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile)) {
+			for (int index = 0; index < ConversionManifest.SYNC_BATCH * 2 + 1; index++) {
+				manifest.record(fileSystem.getPath(index + ".xml"), index, index, "hash", "settings", true);
+			}
+		}
+
+		assertThat(Files.readAllLines(manifestFile)).hasSize(ConversionManifest.SYNC_BATCH * 2 + 1);
+	}
+
+	@Test
+	void testSettingsMatchForContextsThatConvertAlike() {
+		Context context = new Context();
+		context.setScope(EnumSet.of(QrdaScope.ACI_NUMERATOR, QrdaScope.ACI_AGGREGATE_COUNT));
+		Context same = new Context();
+		same.setScope(new LinkedHashSet<>(Arrays.asList(QrdaScope.ACI_AGGREGATE_COUNT, QrdaScope.ACI_NUMERATOR)));
+
+		assertThat(ConversionManifest.settingsOf(same)).isEqualTo(ConversionManifest.settingsOf(context));
+	}
+
+	@Test
+	void testSettingsHoldTheBuild() {
+		assertThat(ConversionManifest.settingsOf(new Context())).startsWith("build=" + BuildHelper.build().get() + ";");
+	}
+
+	@Test
+	void testSettingsDifferForEachOption() {
+		String defaults = ConversionManifest.settingsOf(new Context());
+
+		Context scoped = new Context();
+		scoped.setScope(EnumSet.of(QrdaScope.ACI_NUMERATOR));
+		Context historical = new Context();
+		historical.setHistorical(true);
+		Context noDefaults = new Context();
+		noDefaults.setDoDefaults(false);
+		Context noValidation = new Context();
+		noValidation.setDoValidation(false);
+
+		for (Context context : Arrays.asList(scoped, historical, noDefaults, noValidation)) {
+			assertThat(ConversionManifest.settingsOf(context)).isNotEqualTo(defaults);
+		}
+	}
+}
@@ -0,0 +1,261 @@
+package gov.cms.qpp.conversion;
+
+import com.google.common.jimfs.Configuration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import gov.cms.qpp.test.jimfs.FileTestHelper;
+import gov.cms.qpp.test.jimfs.JimfsContract;
+import gov.cms.qpp.test.jimfs.JimfsTest;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class ConversionPipelineTest implements JimfsContract {
+
+	private static final String VALID_FILE = "src/test/resources/valid-QRDA-III-abridged.xml";
+	private static final String INVALID_FILE = "src/test/resources/qrda_bad_denominator.xml";
+	private static final String NOT_QRDA_FILE = "src/test/resources/not-a-QRDA-III-file.xml";
+
+	@JimfsTest
+	void testConvertsEverySubmittedFile(FileSystem fileSystem) throws InterruptedException {
+		try (ConversionPipeline pipeline = new ConversionPipeline(2, 2, Context::new)) {
+			pipeline.submit(fileSystem.getPath(VALID_FILE));
+			pipeline.submit(fileSystem.getPath(INVALID_FILE));
+			pipeline.submit(fileSystem.getPath(NOT_QRDA_FILE));
+			pipeline.awaitCompletion();
+
+			assertThat(pipeline.getConverted()).isEqualTo(3);
+			assertThat(pipeline.getFailed()).isEqualTo(0);
+		}
+
+		assertThat(Files.exists(fileSystem.getPath("valid-QRDA-III-abridged.qpp.json"))).isTrue();
+		assertThat(Files.exists(fileSystem.getPath("qrda_bad_denominator.err.json"))).isTrue();
+		assertThat(Files.exists(fileSystem.getPath("not-a-QRDA-III-file.err.json"))).isTrue();
+	}
+
+	@JimfsTest
+	void testConvertsThroughBuffers(FileSystem fileSystem) throws IOException, InterruptedException {
+		Path manifestFile = fileSystem.getPath("manifest.jsonl");
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile);
+				ConversionPipeline pipeline = new ConversionPipeline(2, 2, Context::new, manifest, true)) {
+			pipeline.submit(fileSystem.getPath(VALID_FILE));
+			pipeline.submit(fileSystem.getPath(NOT_QRDA_FILE));
+			pipeline.awaitCompletion();
+
+			assertThat(pipeline.getConverted()).isEqualTo(2);
+		}
+
+		assertThat(Files.exists(fileSystem.getPath("valid-QRDA-III-abridged.qpp.json"))).isTrue();
+		assertThat(Files.exists(fileSystem.getPath("not-a-QRDA-III-file.err.json"))).isTrue();
+		assertThat(convertWithManifest(manifestFile, fileSystem.getPath(VALID_FILE)).getSkipped()).isEqualTo(1);
+	}
+
+	@JimfsTest
+	void testUsesGivenContexts(FileSystem fileSystem) throws InterruptedException {
+		try (ConversionPipeline pipeline = new ConversionPipeline(1, 1, () -> {
+			Context context = new Context();
+			context.setDoValidation(false);
+			return context;
+		})) {
+			pipeline.submit(fileSystem.getPath(INVALID_FILE));
+		}
+
+		assertThat(Files.exists(fileSystem.getPath("qrda_bad_denominator.qpp.json"))).isTrue();
+	}
+
+	@JimfsTest
+	void testUnreadableFileDoesNotStopOthers(FileSystem fileSystem) throws InterruptedException {
+		try (ConversionPipeline pipeline = new ConversionPipeline(1, 1, Context::new)) {
+			pipeline.submit(fileSystem.getPath("missing.xml"));
+			pipeline.submit(fileSystem.getPath(VALID_FILE));
+			pipeline.awaitCompletion();
+
+			assertThat(pipeline.getConverted()).isEqualTo(1);
+			assertThat(pipeline.getFailed()).isEqualTo(1);
+		}
+
+		assertThat(Files.exists(fileSystem.getPath("valid-QRDA-III-abridged.qpp.json"))).isTrue();
+	}
+
+	@JimfsTest
+	void testManifestSkipsUnchangedFiles(FileSystem fileSystem) throws IOException, InterruptedException {
+		Path manifestFile = fileSystem.getPath("manifest.jsonl");
+		convertWithManifest(manifestFile, fileSystem.getPath(VALID_FILE), fileSystem.getPath(INVALID_FILE));
+
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile);
+				ConversionPipeline pipeline = new ConversionPipeline(1, 2, Context::new, manifest)) {
+			pipeline.submit(fileSystem.getPath(VALID_FILE));
+			pipeline.submit(fileSystem.getPath(INVALID_FILE));
+			pipeline.awaitCompletion();
+
+			assertThat(pipeline.getSkipped()).isEqualTo(2);
+			assertThat(pipeline.getConverted()).isEqualTo(0);
+		}
+	}
+
+	@JimfsTest
+	void testManifestSkipsTouchedButIdenticalFiles(FileSystem fileSystem) throws IOException, InterruptedException {
+		Path manifestFile = fileSystem.getPath("manifest.jsonl");
+		Path file = fileSystem.getPath(VALID_FILE);
+		convertWithManifest(manifestFile, file);
+		Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+
+		assertThat(convertWithManifest(manifestFile, file).getSkipped()).isEqualTo(1);
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile)) {
+			assertThat(manifest.find(file).getModified()).isEqualTo(Files.getLastModifiedTime(file).toMillis());
+		}
+	}
+
+	@JimfsTest
+	void testManifestReconvertsChangedFiles(FileSystem fileSystem) throws IOException, InterruptedException {
+		Path manifestFile = fileSystem.getPath("manifest.jsonl");
+		Path file = fileSystem.getPath("changing.xml");
+		Files.copy(fileSystem.getPath(VALID_FILE), file);
+		convertWithManifest(manifestFile, file);
+		Files.copy(fileSystem.getPath(INVALID_FILE), file, StandardCopyOption.REPLACE_EXISTING);
+
+		ConversionPipeline pipeline = convertWithManifest(manifestFile, file);
+		assertThat(pipeline.getSkipped()).isEqualTo(0);
+		assertThat(pipeline.getConverted()).isEqualTo(1);
+		assertThat(Files.exists(fileSystem.getPath("changing.err.json"))).isTrue();
+	}
+
+	@JimfsTest
+	void testManifestReconvertsWithOtherSettings(FileSystem fileSystem) throws IOException, InterruptedException {
+		Path manifestFile = fileSystem.getPath("manifest.jsonl");
+		Path file = fileSystem.getPath(INVALID_FILE);
+		convertWithManifest(manifestFile, file);
+
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile);
+				ConversionPipeline pipeline = new ConversionPipeline(1, 2, () -> {
+					Context context = new Context();
+					context.setDoValidation(false);
+					return context;
+				}, manifest)) {
+			pipeline.submit(file);
+			pipeline.awaitCompletion();
+
+			assertThat(pipeline.getSkipped()).isEqualTo(0);
+			assertThat(pipeline.getConverted()).isEqualTo(1);
+		}
+		assertThat(Files.exists(fileSystem.getPath("qrda_bad_denominator.qpp.json"))).isTrue();
+		assertThat(convertWithManifest(manifestFile, file).getSkipped()).isEqualTo(0);
+	}
+
+	@JimfsTest
+	void testManifestReconvertsWhenOutputIsGone(FileSystem fileSystem) throws IOException, InterruptedException {
+		Path manifestFile = fileSystem.getPath("manifest.jsonl");
+		Path file = fileSystem.getPath(VALID_FILE);
+		convertWithManifest(manifestFile, file);
+		Files.delete(fileSystem.getPath("valid-QRDA-III-abridged.qpp.json"));
+
+		assertThat(convertWithManifest(manifestFile, file).getConverted()).isEqualTo(1);
+		assertThat(Files.exists(fileSystem.getPath("valid-QRDA-III-abridged.qpp.json"))).isTrue();
+	}
+
+	@Test
+	void testSubmitWaitsWhileInFlightLimitIsReached() throws Exception {
+		FileSystem fileSystem = FileTestHelper.createMockFileSystem(Configuration.unix());
+		CountDownLatch release = new CountDownLatch(1);
+		ConversionPipeline pipeline = new ConversionPipeline(1, 2, Context::new) {
+			@Override
+			ConversionFileWriterWrapper.Outcome convert(ConversionFileWriterWrapper conversion) {
+				try {
+					release.await();
+				} catch (InterruptedException exception) {
+					Thread.currentThread().interrupt();
+				}
+				return super.convert(conversion);
+			}
+		};
+
+		try {
+			pipeline.submit(fileSystem.getPath(VALID_FILE));
+			pipeline.submit(fileSystem.getPath(INVALID_FILE));
+			CompletableFuture<Void> third = CompletableFuture.runAsync(() -> {
+				try {
+					pipeline.submit(fileSystem.getPath(NOT_QRDA_FILE));
+				} catch (InterruptedException exception) {
+					Thread.currentThread().interrupt();
+				}
+			});
+
+			Assertions.assertThrows(TimeoutException.class, () -> third.get(200, TimeUnit.MILLISECONDS));
+
+			release.countDown();
+			third.get(10, TimeUnit.SECONDS);
+			pipeline.awaitCompletion();
+			assertThat(pipeline.getConverted()).isEqualTo(3);
+		} finally {
+			release.countDown();
+			pipeline.close();
+		}
+	}
+
+	@Test
+	void testErrorInAStageDoesNotHoldUpCompletion() throws Exception {
+		FileSystem fileSystem = FileTestHelper.createMockFileSystem(Configuration.unix());
+		AtomicInteger conversions = new AtomicInteger();
+		ConversionPipeline pipeline = new ConversionPipeline(1, 1, Context::new) {
+			@Override
+			ConversionFileWriterWrapper.Outcome convert(ConversionFileWriterWrapper conversion) {
+				if (conversions.getAndIncrement() == 0) {
+					throw new StackOverflowError("too deep");
+				}
+				return super.convert(conversion);
+			}
+		};
+
+		try {
+			Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+				pipeline.submit(fileSystem.getPath(INVALID_FILE));
+				pipeline.submit(fileSystem.getPath(VALID_FILE));
+				pipeline.awaitCompletion();
+			});
+
+			assertThat(pipeline.getFailed()).isEqualTo(1);
+			assertThat(pipeline.getConverted()).isEqualTo(1);
+		} finally {
+			pipeline.close();
+		}
+	}
+
+	@Test
+	void testRequiresWorkers() {
+		IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new ConversionPipeline(0, 1, Context::new));
+		assertThat(exception).hasMessageThat().contains("workers");
+	}
+
+	@Test
+	void testRequiresInFlight() {
+		IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new ConversionPipeline(1, 0, Context::new));
+		assertThat(exception).hasMessageThat().contains("inFlight");
+	}
+
+	private static ConversionPipeline convertWithManifest(Path manifestFile, Path... files)
+			throws IOException, InterruptedException {
+		try (ConversionManifest manifest = new ConversionManifest(manifestFile);
+				ConversionPipeline pipeline = new ConversionPipeline(1, 2, Context::new, manifest)) {
+			for (Path file : files) {
+				pipeline.submit(file);
+			}
+			pipeline.awaitCompletion();
+			return pipeline;
+		}
+	}
+}
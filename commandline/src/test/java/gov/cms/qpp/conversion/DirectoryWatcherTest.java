@@ -0,0 +1,135 @@
+package gov.cms.qpp.conversion;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.WatchServiceConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import gov.cms.qpp.test.jimfs.FileTestHelper;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class DirectoryWatcherTest {
+
+	private static final String VALID_FILE = "src/test/resources/valid-QRDA-III-abridged.xml";
+
+	private FileSystem fileSystem;
+	private Path directory;
+	private ConversionPipeline pipeline;
+	private DirectoryWatcher watcher;
+	private CompletableFuture<Void> running;
+
+	@BeforeEach
+	void setup() throws IOException {
+		fileSystem = FileTestHelper.createMockFileSystem(Configuration.unix().toBuilder()
+				.setWatchServiceConfiguration(WatchServiceConfiguration.polling(10, TimeUnit.MILLISECONDS))
+				.build());
+		directory = Files.createDirectory(fileSystem.getPath("drop"));
+		pipeline = new ConversionPipeline(1, 2, Context::new);
+	}
+
+	@AfterEach
+	void teardown() throws IOException {
+		if (watcher != null) {
+			watcher.close();
+		}
+		pipeline.close();
+		fileSystem.close();
+	}
+
+	@Test
+	void testConvertsFilesAlreadyThere() throws IOException {
+		Files.copy(fileSystem.getPath(VALID_FILE), directory.resolve("existing.xml"));
+
+		start(0);
+
+		awaitTrue(() -> Files.exists(fileSystem.getPath("existing.qpp.json")));
+	}
+
+	@Test
+	void testConvertsFilesRenamedIntoPlace() throws IOException {
+		start(0);
+
+		Path partial = directory.resolve("arriving.xml.part");
+		Files.copy(fileSystem.getPath(VALID_FILE), partial);
+		Files.move(partial, directory.resolve("arriving.xml"), StandardCopyOption.ATOMIC_MOVE);
+
+		awaitTrue(() -> Files.exists(fileSystem.getPath("arriving.qpp.json")));
+		assertThat(Files.exists(fileSystem.getPath("arriving.xml.qpp.json"))).isFalse();
+		assertThat(Files.exists(fileSystem.getPath("arriving.xml.part.qpp.json"))).isFalse();
+	}
+
+	@Test
+	void testConvertsFileOnceUntilItChanges() throws IOException, InterruptedException {
+		Files.copy(fileSystem.getPath(VALID_FILE), directory.resolve("once.xml"));
+		start(0);
+		awaitTrue(() -> pipeline.getConverted() == 1);
+
+		Files.copy(fileSystem.getPath("src/test/resources/qrda_bad_denominator.xml"), directory.resolve("once.xml"),
+				StandardCopyOption.REPLACE_EXISTING);
+
+		awaitTrue(() -> Files.exists(fileSystem.getPath("once.err.json")));
+		pipeline.awaitCompletion();
+		assertThat(pipeline.getConverted()).isEqualTo(2);
+	}
+
+	@Test
+	void testRateLimitSpreadsBursts() throws IOException {
+		for (int index = 0; index < 4; index++) {
+			Files.copy(fileSystem.getPath(VALID_FILE), directory.resolve("burst" + index + ".xml"));
+		}
+
+		long start = System.nanoTime();
+		start(10);
+
+		awaitTrue(() -> pipeline.getConverted() == 4);
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isAtLeast(250L);
+	}
+
+	@Test
+	void testCloseStopsWatching() {
+		start(0);
+
+		watcher.close();
+
+		running.join();
+		assertThat(running.isCompletedExceptionally()).isFalse();
+	}
+
+	private void start(double filesPerSecond) {
+		watcher = new DirectoryWatcher(directory, Collections.singletonList(fileSystem.getPathMatcher("glob:*.xml")),
+				pipeline, filesPerSecond, 20);
+		running = CompletableFuture.runAsync(() -> {
+			try {
+				watcher.run();
+			} catch (IOException | InterruptedException exception) {
+				throw new CompletionException(exception);
+			}
+		});
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).isLessThan(deadline);
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(exception);
+			}
+		}
+	}
+}
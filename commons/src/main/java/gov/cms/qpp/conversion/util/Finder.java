@@ -1,9 +1,7 @@
 package gov.cms.qpp.conversion.util;
 
 import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
@@ -12,15 +10,21 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * File Visitor with a {@link PathMatcher} filter, optionally supporting a recursive directory search
+ *
+ * Found files are either collected for {@link #getFoundFiles()} or handed to a {@link Consumer} as soon as they are
+ * visited, so that very large directories need not be held in memory.
  */
 public class Finder extends SimpleFileVisitor<Path> {
 
 	private final PathMatcher matcher;
 	private final boolean recursive;
 	private final Set<Path> files = new HashSet<>();
+	private final Consumer<Path> found;
+	private int depth;
 
 	/**
 	 * Constructs a new Finder
@@ -31,6 +35,20 @@ public class Finder extends SimpleFileVisitor<Path> {
 	public Finder(PathMatcher matcher, boolean recursive) {
 		this.matcher = matcher;
 		this.recursive = recursive;
+		this.found = files::add;
+	}
+
+	/**
+	 * Constructs a new Finder that hands each matching file to a consumer instead of collecting them
+	 *
+	 * @param matcher inclusive filter for finding files
+	 * @param recursive whether to run the Finder on each directory recursively
+	 * @param found receives each matching file as it is visited
+	 */
+	public Finder(PathMatcher matcher, boolean recursive, Consumer<Path> found) {
+		this.matcher = matcher;
+		this.recursive = recursive;
+		this.found = found;
 	}
 
 	/**
@@ -38,34 +56,46 @@ public class Finder extends SimpleFileVisitor<Path> {
 	 */
 	@Override
 	public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
-		find(file);
+		if (attributes.isRegularFile()) {
+			find(file);
+		}
 		return FileVisitResult.CONTINUE;
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Enters the directory the walk starts from, and its sub directories only when recursive
+	 *
+	 * @param directory the directory about to be visited
+	 * @param attributes the directory's attributes
+	 * @return whether to visit the directory's entries
 	 */
 	@Override
 	public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
-		if (recursive) {
-			try {
-				Files.walkFileTree(directory, this);
-			} catch (IOException e) {
-				throw new UncheckedIOException(e);
-			}
+		if (depth > 0 && !recursive) {
+			return FileVisitResult.SKIP_SUBTREE;
 		}
+		depth++;
 		return FileVisitResult.CONTINUE;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FileVisitResult postVisitDirectory(Path directory, IOException exception) throws IOException {
+		depth--;
+		return super.postVisitDirectory(directory, exception);
+	}
+
 	private void find(Path path) {
 		Path name = path.getFileName();
 		if (name != null && matcher.matches(name)) {
-			files.add(path);
+			found.accept(path);
 		}
 	}
 
 	/**
-	 * After the finder has been ran, get the files that were matched
+	 * After the finder has been ran, get the files that were matched. Always empty when the files went to a consumer.
 	 *
 	 * @return a list of paths that matched the inclusive path matcher
 	 */
@@ -0,0 +1,65 @@
+package gov.cms.qpp.conversion.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class FinderTest {
+
+	private Path directory;
+
+	@BeforeEach
+	void setup() throws IOException {
+		directory = Files.createTempDirectory("finder");
+		Files.createFile(directory.resolve("a.xml"));
+		Files.createFile(directory.resolve("b.txt"));
+		Files.createDirectories(directory.resolve("sub.xml"));
+		Files.createFile(directory.resolve("sub.xml").resolve("c.xml"));
+	}
+
+	@AfterEach
+	void teardown() throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	@Test
+	void testFindsOnlyTopLevel() throws IOException {
+		Finder finder = new Finder(directory.getFileSystem().getPathMatcher("glob:*.xml"), false);
+		Files.walkFileTree(directory, finder);
+
+		assertThat(finder.getFoundFiles()).containsExactly(directory.resolve("a.xml"));
+	}
+
+	@Test
+	void testFindsRecursively() throws IOException {
+		Finder finder = new Finder(directory.getFileSystem().getPathMatcher("glob:*.xml"), true);
+		Files.walkFileTree(directory, finder);
+
+		assertThat(finder.getFoundFiles())
+				.containsExactly(directory.resolve("a.xml"), directory.resolve("sub.xml").resolve("c.xml"));
+	}
+
+	@Test
+	void testHandsFilesToConsumer() throws IOException {
+		List<Path> found = new ArrayList<>();
+		Finder finder = new Finder(directory.getFileSystem().getPathMatcher("glob:*.xml"), true, found::add);
+		Files.walkFileTree(directory, finder);
+
+		assertThat(found).containsExactly(directory.resolve("a.xml"), directory.resolve("sub.xml").resolve("c.xml"));
+		assertThat(finder.getFoundFiles()).isEmpty();
+	}
+}
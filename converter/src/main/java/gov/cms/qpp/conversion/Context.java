@@ -6,6 +6,7 @@ import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
 
+import gov.cms.qpp.conversion.instrument.Instrumentation;
 import gov.cms.qpp.conversion.model.Program;
 import gov.cms.qpp.conversion.model.Registry;
 import gov.cms.qpp.conversion.segmentation.QrdaScope;
@@ -23,6 +24,9 @@ public class Context {
 	private boolean historical;
 	private boolean doDefaults = true;
 	private boolean doValidation = true;
+	private boolean streamingDecode;
+	private boolean reuseHandlers = true;
+	private Instrumentation instrumentation = Instrumentation.NONE;
 
 	/**
 	 * Gets the current contextual {@link Program}
@@ -123,6 +127,61 @@ public class Context {
 		this.doValidation = doValidation;
 	}
 
+	/**
+	 * Whether this context wants the input decoded through a StAX cursor rather than a fully parsed document
+	 *
+	 * @return streamingDecode
+	 */
+	public boolean isStreamingDecode() {
+		return streamingDecode;
+	}
+
+	/**
+	 * Switch for choosing between the streaming and the document based decode engine.
+	 *
+	 * @param streamingDecode toggle value
+	 */
+	public void setStreamingDecode(boolean streamingDecode) {
+		this.streamingDecode = streamingDecode;
+	}
+
+	/**
+	 * Whether this context's registries hand out one instance of each {@link gov.cms.qpp.conversion.model.Reusable}
+	 * handler rather than a new instance per lookup
+	 *
+	 * @return reuseHandlers
+	 */
+	public boolean isReuseHandlers() {
+		return reuseHandlers;
+	}
+
+	/**
+	 * Switch for enabling or disabling reuse of {@link gov.cms.qpp.conversion.model.Reusable} handlers.
+	 *
+	 * @param reuseHandlers toggle value
+	 */
+	public void setReuseHandlers(boolean reuseHandlers) {
+		this.reuseHandlers = reuseHandlers;
+	}
+
+	/**
+	 * Gets where the cost of each conversion stage is recorded
+	 *
+	 * @return instrumentation, {@link Instrumentation#NONE} unless one was set
+	 */
+	public Instrumentation getInstrumentation() {
+		return instrumentation;
+	}
+
+	/**
+	 * Sets where the cost of each conversion stage is recorded
+	 *
+	 * @param instrumentation instrumentation, or {@code null} to stop recording
+	 */
+	public void setInstrumentation(Instrumentation instrumentation) {
+		this.instrumentation = instrumentation == null ? Instrumentation.NONE : instrumentation;
+	}
+
 	/**
 	 * Looks up or creates a new {@link Registry} for the given annotation type under this context
 	 *
@@ -1,14 +1,14 @@
 package gov.cms.qpp.conversion;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import gov.cms.qpp.conversion.encode.EncodeException;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.error.AllErrors;
 import gov.cms.qpp.conversion.model.error.Detail;
 import gov.cms.qpp.conversion.model.error.Error;
-import gov.cms.qpp.conversion.util.CloneHelper;
+import gov.cms.qpp.conversion.util.JacksonHelper;
 
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
@@ -19,7 +19,7 @@ import java.util.List;
  * Report on the stat of a conversion.
  */
 public class ConversionReport {
-	private final ObjectMapper mapper = new ObjectMapper();
+	private final ObjectWriter writer = JacksonHelper.writer();
 	private Source source;
 	private Node decoded;
 	private JsonWrapper encoded;
@@ -27,9 +27,15 @@ public class ConversionReport {
 	private String qppValidationDetails;
 
 	/**
-	 * Construct a con version report
+	 * Construct a conversion report, either for a conversion that just ran or for an earlier conversion of identical
+	 * content from another source.
+	 *
+	 * @param source the input to the conversion
+	 * @param details errors found during the conversion
+	 * @param decoded the decoded submission
+	 * @param encoded the result of the conversion
 	 */
-	ConversionReport(Source source, List<Detail> details, Node decoded, JsonWrapper encoded) {
+	public ConversionReport(Source source, List<Detail> details, Node decoded, JsonWrapper encoded) {
 		this.source = source;
 		this.decoded = decoded;
 		this.encoded = encoded;
@@ -63,21 +69,23 @@ public class ConversionReport {
 	}
 
 	/**
-	 * Defensive copy of decoded submission
+	 * Read only view of the decoded submission, shared by every caller
 	 *
-	 * @return decoded {@link Node}
+	 * @return frozen decoded {@link Node}
+	 * @see Node#freeze()
 	 */
 	public Node getDecoded() {
-		return CloneHelper.deepClone(decoded);
+		return decoded;
 	}
 
 	/**
-	 * Defensive copy of the result of the conversion
+	 * Read only view of the result of the conversion, shared by every caller
 	 *
-	 * @return encoded {@link JsonWrapper}
+	 * @return frozen encoded {@link JsonWrapper}
+	 * @see JsonWrapper#freeze()
 	 */
 	public JsonWrapper getEncoded() {
-		return CloneHelper.deepClone(encoded);
+		return encoded;
 	}
 
 	/**
@@ -132,7 +140,7 @@ public class ConversionReport {
 	 */
 	public Source getValidationErrorsSource() {
 		try {
-			byte[] validationErrorBytes = mapper.writeValueAsBytes(reportDetails);
+			byte[] validationErrorBytes = writer.writeValueAsBytes(reportDetails);
 			return new InputStreamSupplierSource("ValidationErrors", new ByteArrayInputStream(validationErrorBytes));
 		} catch (JsonProcessingException e) {
 			throw new EncodeException("Issue serializing error report details", e);
@@ -8,14 +8,15 @@ import gov.cms.qpp.conversion.encode.JsonOutputEncoder;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
 import gov.cms.qpp.conversion.encode.QppOutputEncoder;
 import gov.cms.qpp.conversion.encode.ScopedQppOutputEncoder;
+import gov.cms.qpp.conversion.instrument.Instrumentation;
+import gov.cms.qpp.conversion.instrument.Measurement;
+import gov.cms.qpp.conversion.instrument.Stage;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.error.Detail;
 import gov.cms.qpp.conversion.model.error.ErrorCode;
 import gov.cms.qpp.conversion.model.error.TransformException;
 import gov.cms.qpp.conversion.validate.QrdaValidator;
 import gov.cms.qpp.conversion.xml.XmlException;
-import gov.cms.qpp.conversion.xml.XmlUtils;
-import org.jdom2.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,6 +71,9 @@ public class Converter {
 	/**
 	 * Perform conversion.
 	 *
+	 * The result is read only, as is the decoded tree in the report, so that they can be shared without copying.
+	 * Copy the result, for example with {@link JsonWrapper#JsonWrapper(JsonWrapper, boolean)}, to change it.
+	 *
 	 * @return status of conversion
 	 */
 	public JsonWrapper transform() {
@@ -86,6 +90,8 @@ public class Converter {
 			details.add(detail);
 		}
 
+		freeze();
+
 		if (!details.isEmpty()) {
 			throw new TransformException("Validation errors exist", null, getReport());
 		}
@@ -101,23 +107,29 @@ public class Converter {
 	 * @throws XmlException during transform
 	 */
 	private JsonWrapper transform(InputStream inStream) {
-		Element doc = XmlUtils.parseXmlStream(inStream);
-		decoded = XmlDecoderEngine.decodeXml(context, doc);
+		decoded = XmlDecoderEngine.decodeXml(context, inStream);
 		JsonWrapper qpp = null;
 		if (null != decoded) {
 			DEV_LOG.info("Decoded template ID {}", decoded.getType());
 
+			Instrumentation instrumentation = context.getInstrumentation();
 			if (!context.isDoDefaults()) {
-				DefaultDecoder.removeDefaultNode(decoded.getChildNodes());
+				try (Measurement measurement = instrumentation.measure(Stage.REMOVE_DEFAULT_NODE)) {
+					DefaultDecoder.removeDefaultNode(decoded.getChildNodes());
+				}
 			}
 
 			if (context.isDoValidation()) {
-				QrdaValidator validator = new QrdaValidator(context);
-				details.addAll(validator.validate(decoded));
+				try (Measurement measurement = instrumentation.measure(Stage.VALIDATE)) {
+					QrdaValidator validator = new QrdaValidator(context);
+					details.addAll(validator.validate(decoded));
+				}
 			}
 
 			if (details.isEmpty()) {
-				qpp = encode();
+				try (Measurement measurement = instrumentation.measure(Stage.ENCODE)) {
+					qpp = encode();
+				}
 			}
 		} else {
 			Detail detail = Detail.forErrorCode(ErrorCode.NOT_VALID_QRDA_DOCUMENT.format(
@@ -128,6 +140,18 @@ public class Converter {
 		return qpp;
 	}
 
+	/**
+	 * Makes the results of the conversion read only, so the report can share them without copying.
+	 */
+	private void freeze() {
+		if (decoded != null) {
+			decoded.freeze();
+		}
+		if (encoded != null) {
+			encoded.freeze();
+		}
+	}
+
 	/**
 	 * Place transformed content into an input stream
 	 *
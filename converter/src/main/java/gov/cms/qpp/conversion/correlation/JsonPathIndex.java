@@ -0,0 +1,61 @@
+package gov.cms.qpp.conversion.correlation;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the metadata held by each json hash of a QPP document, keyed by the definite json path of the hash,
+ * for example {@code $.measurementSets[0].measurements[1]}.
+ * <p>
+ * Built with a single walk over the wrapped content, so looking up the metadata for a json path needs no
+ * serialization or json path evaluation.
+ */
+final class JsonPathIndex {
+	static final String ROOT = "$";
+	static final String METADATA_HOLDER = "metadata_holder";
+
+	private final Map<String, Collection<Map<String, String>>> metadata = new HashMap<>();
+
+	/**
+	 * Indexes the given json content.
+	 *
+	 * @param json content of a {@link gov.cms.qpp.conversion.encode.JsonWrapper}
+	 */
+	JsonPathIndex(Object json) {
+		index(ROOT, json);
+	}
+
+	/**
+	 * Retrieve the metadata of the json hash at the given path.
+	 *
+	 * @param jsonPath definite json path in dot notation
+	 * @return the metadata, or null when the path is not indexed
+	 */
+	Collection<Map<String, String>> getMetadata(String jsonPath) {
+		return metadata.get(jsonPath);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void index(String jsonPath, Object json) {
+		if (json instanceof Map) {
+			Map<String, Object> hash = (Map<String, Object>) json;
+			hash.forEach((name, value) -> {
+				if (METADATA_HOLDER.equals(name)) {
+					if (value instanceof Collection) {
+						metadata.put(jsonPath, (Collection<Map<String, String>>) value);
+					}
+				} else {
+					index(jsonPath + "." + name, value);
+				}
+			});
+		} else if (json instanceof List) {
+			List<Object> array = (List<Object>) json;
+			int position = 0;
+			for (Object value : array) {
+				index(jsonPath + "[" + position++ + "]", value);
+			}
+		}
+	}
+}
@@ -1,22 +1,25 @@
 package gov.cms.qpp.conversion.correlation;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.MapMaker;
 import com.jayway.jsonpath.JsonPath;
 import gov.cms.qpp.conversion.correlation.model.CorrelationConfig;
 import gov.cms.qpp.conversion.correlation.model.Correlation;
 import gov.cms.qpp.conversion.correlation.model.Goods;
 import gov.cms.qpp.conversion.correlation.model.PathCorrelation;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.util.JacksonHelper;
 import org.reflections.util.ClasspathHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +32,7 @@ public class PathCorrelator {
 	private static String config = "pathing/path-correlation.json";
 	private static Map<String, Goods> pathCorrelationMap = new HashMap<>();
 	private static String uriSubstitution = "";
+	private static final ConcurrentMap<Object, JsonPathIndex> INDEXES = new MapMaker().weakKeys().makeMap();
 
 
 	static {
@@ -47,8 +51,7 @@ public class PathCorrelator {
 
 		try {
 			InputStream input = ClasspathHelper.contextClassLoader().getResourceAsStream(config);
-			ObjectMapper mapper = new ObjectMapper();
-			pathCorrelation = mapper.readValue(input, PathCorrelation.class);
+			pathCorrelation = JacksonHelper.reader().forType(PathCorrelation.class).readValue(input);
 			flattenCorrelations(pathCorrelation);
 		} catch (IOException ioe) {
 			String message = "Problem loading path correlation configuration";
@@ -124,20 +127,16 @@ public class PathCorrelator {
 	 * @return xpath that correlates to supplied json path
 	 */
 	public static String prepPath(String jsonPath, JsonWrapper wrapper) {
-		String base = "$";
+		String base = JsonPathIndex.ROOT;
 		String leaf = jsonPath;
 		int lastIndex = jsonPath.lastIndexOf('.');
-		JsonWrapper metaWrapper = new JsonWrapper(wrapper, false);
 
 		if (lastIndex > 0) {
 			base = jsonPath.substring(0, lastIndex);
 			leaf = jsonPath.substring(lastIndex + 1);
 		}
 
-		JsonPath compiledPath = JsonPath.compile(base);
-		Map<String, Object> jsonMap = compiledPath.read(metaWrapper.toString());
-
-		Map<String, String> metaMap = getMetaMap(jsonMap, leaf);
+		Map<String, String> metaMap = getMetaMap(getMetaHolder(base, wrapper), leaf);
 		String preparedPath = "";
 		if (metaMap != null) {
 			preparedPath = makePath(metaMap, leaf);
@@ -145,16 +144,43 @@ public class PathCorrelator {
 		return preparedPath;
 	}
 
+	/**
+	 * Retrieve the metadata of the json hash at the given path.
+	 * <p>
+	 * Definite paths in dot notation are looked up in an index of the wrapper's content. The index of a
+	 * {@link JsonWrapper#isFrozen() frozen} wrapper is built once and kept for as long as its content is in use.
+	 * Any other path is evaluated against the wrapper's content, using json path's cache of compiled paths.
+	 *
+	 * @param base json path of the hash
+	 * @param wrapper object representation of QPP json
+	 * @return metadata of the hash, or null if it has none
+	 * @throws ClassCastException if the path does not lead to a json hash
+	 */
+	@SuppressWarnings("unchecked")
+	private static Collection<Map<String, String>> getMetaHolder(String base, JsonWrapper wrapper) {
+		Object json = wrapper.getObject();
+		JsonPathIndex index = wrapper.isFrozen()
+				? INDEXES.computeIfAbsent(json, JsonPathIndex::new) : new JsonPathIndex(json);
+
+		Collection<Map<String, String>> metaHolder = index.getMetadata(base);
+		if (metaHolder == null) {
+			Map<String, Object> jsonMap = JsonPath.parse(json).read(base);
+			metaHolder = (Collection<Map<String, String>>) jsonMap.get(JsonPathIndex.METADATA_HOLDER);
+		}
+		return metaHolder;
+	}
+
 	/**
 	 * Retrieve metadata from map representing a json hash.
 	 *
-	 * @param jsonMap json hash
+	 * @param metaHolder metadata of a json hash
 	 * @param leaf name of leaf json attribute
 	 * @return metadata map
 	 */
-	@SuppressWarnings("unchecked")
-	private static Map<String, String> getMetaMap(Map<String, Object> jsonMap, final String leaf) {
-		List<Map<String, String>> metaHolder = (List<Map<String, String>>) jsonMap.get("metadata_holder");
+	private static Map<String, String> getMetaMap(Collection<Map<String, String>> metaHolder, final String leaf) {
+		if (metaHolder == null) {
+			return null;
+		}
 		return metaHolder.stream()
 				.sorted(labeledFirst())
 				.filter(entry -> {
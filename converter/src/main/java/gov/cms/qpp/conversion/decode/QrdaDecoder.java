@@ -4,6 +4,8 @@ import gov.cms.qpp.conversion.Context;
 import gov.cms.qpp.conversion.correlation.PathCorrelator;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.Reusable;
+import gov.cms.qpp.conversion.xml.XPathExpressionCache;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,8 +16,12 @@ import org.jdom2.Element;
 import org.jdom2.Namespace;
 import org.jdom2.filter.Filter;
 import org.jdom2.xpath.XPathExpression;
-import org.jdom2.xpath.XPathFactory;
 
+/**
+ * The parent class that all decoders must inherit from.
+ * Decoders are {@link Reusable} within a context because the decoder engine sets the namespace before every decode.
+ */
+@Reusable
 public abstract class QrdaDecoder {
 
 	protected final Context context;
@@ -53,7 +59,8 @@ public abstract class QrdaDecoder {
 	}
 
 	/**
-	 * Executes an Xpath for an element and executes the consumer
+	 * Executes an Xpath for an element and executes the consumer. The compiled Xpath comes from the
+	 * {@link XPathExpressionCache}, so each expression is only compiled on its first use.
 	 *
 	 * @param element Element the xpath is executed against
 	 * @param expressionStr Xpath
@@ -64,7 +71,7 @@ public abstract class QrdaDecoder {
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	protected void setOnNode(Element element, String expressionStr,
 		Consumer consumer, Filter<?> filter, boolean selectOne) {
-		XPathExpression<?> expression = XPathFactory.instance().compile(expressionStr, filter, null,  xpathNs);
+		XPathExpression<?> expression = XPathExpressionCache.compile(expressionStr, filter, xpathNs);
 
 		if (selectOne) {
 			Optional.ofNullable(expression.evaluateFirst(element)).ifPresent(consumer);
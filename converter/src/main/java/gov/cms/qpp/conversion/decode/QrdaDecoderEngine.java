@@ -7,6 +7,8 @@ import org.slf4j.LoggerFactory;
 
 import gov.cms.qpp.conversion.Context;
 import gov.cms.qpp.conversion.correlation.PathCorrelator;
+import gov.cms.qpp.conversion.instrument.Measurement;
+import gov.cms.qpp.conversion.instrument.Stage;
 import gov.cms.qpp.conversion.model.DecodeData;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
@@ -15,9 +17,11 @@ import gov.cms.qpp.conversion.model.TemplateId;
 import gov.cms.qpp.conversion.segmentation.QrdaScope;
 
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -61,7 +65,7 @@ public class QrdaDecoderEngine extends XmlDecoderEngine {
 		defaultNs = rootElement.getNamespace();
 
 		rootNode.setType(TemplateId.PLACEHOLDER);
-		rootNode.setPath(XPathHelper.getAbsolutePath(rootElement));
+		setNodePath(rootNode, rootElement);
 
 		QrdaDecoder rootDecoder = null;
 		for (Element element : rootElement.getChildren(TEMPLATE_ID, rootElement.getNamespace())) {
@@ -125,18 +129,31 @@ public class QrdaDecoderEngine extends XmlDecoderEngine {
 
 		Element parentElement = element.getParentElement();
 
-		DecodeResult decodeResult = decoder.decode(parentElement, childNode);
+		DecodeResult decodeResult;
+		try (Measurement measurement = context.getInstrumentation().measure(Stage.DECODE, templateId)) {
+			decodeResult = decoder.decode(parentElement, childNode);
+		}
 
 		if (decodeResult == DecodeResult.TREE_ESCAPED) {
 			return new DecodeData(DecodeResult.TREE_ESCAPED, null);
 		}
 
-		childNode.setPath(XPathHelper.getAbsolutePath(parentElement));
+		setNodePath(childNode, parentElement);
 		parentNode.addChildNode(childNode);
 
 		return new DecodeData(decodeResult, childNode);
 	}
 
+	/**
+	 * Assigns the absolute XPath of the given {@link Element} to the decoded {@link Node}.
+	 *
+	 * @param node The decoded node.
+	 * @param element The element the node was decoded from.
+	 */
+	protected void setNodePath(final Node node, final Element element) {
+		node.setPath(XPathHelper.getAbsolutePath(element));
+	}
+
 	/**
 	 * Iterates over all the children of the passed in {@link Element} and calls {@link #decodeTree(Element, Node)} on them.
 	 *
@@ -146,13 +163,14 @@ public class QrdaDecoderEngine extends XmlDecoderEngine {
 	 */
 	private DecodeData decodeChildren(final Element element, final Node parentNode) {
 
-		List<Element> filteredChildElements = getUniqueTemplateIdElements(element.getChildren());
+		Iterator<Element> filteredChildElements = childElements(element);
 
 		DecodeData decodeData = new DecodeData(DecodeResult.TREE_CONTINUE, parentNode);
 
 		Node currentParentNode = parentNode;
 
-		for (Element childElement : filteredChildElements) {
+		while (filteredChildElements.hasNext()) {
+			Element childElement = filteredChildElements.next();
 			DecodeData childDecodeData = decodeTree(childElement, currentParentNode);
 
 			DecodeResult childDecodeResult = childDecodeData.getDecodeResult();
@@ -169,6 +187,16 @@ public class QrdaDecoderEngine extends XmlDecoderEngine {
 		return decodeData;
 	}
 
+	/**
+	 * Supplies the child {@link Element}s of the given element that should be decoded, in document order.
+	 *
+	 * @param element The element who's children will be decoded.
+	 * @return An {@link Iterator} over the filtered child elements.
+	 */
+	protected Iterator<Element> childElements(final Element element) {
+		return getUniqueTemplateIdElements(element.getChildren()).iterator();
+	}
+
 	/**
 	 * Reduces the {@code templateId} {@link Element}s so there are no duplicates.  All other {@link Element}s are left alone.
 	 *
@@ -176,28 +204,38 @@ public class QrdaDecoderEngine extends XmlDecoderEngine {
 	 * @return A {@link List} of {@link Element}s that are filtered.
 	 */
 	private List<Element> getUniqueTemplateIdElements(final List<Element> childElements) {
+		return childElements.stream()
+			.filter(uniqueTemplateIdFilter())
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Creates a stateful filter that drops {@code templateId} {@link Element}s without a decoder or that were already seen
+	 * by the filter.  All other {@link Element}s are accepted.
+	 *
+	 * @return A new filter for one set of sibling elements.
+	 */
+	protected Predicate<Element> uniqueTemplateIdFilter() {
 		Set<TemplateId> uniqueTemplates = EnumSet.noneOf(TemplateId.class);
 
-		return childElements.stream()
-			.filter(filterElement -> {
-				boolean isTemplateId = TEMPLATE_ID.equals(filterElement.getName());
-				TemplateId filterTemplateId = getTemplateId(filterElement);
-
-				boolean elementWillStay = true;
-
-				if (isTemplateId) {
-					if (getDecoder(filterTemplateId) == null) {
-						elementWillStay = false;
-					} else if (uniqueTemplates.contains(filterTemplateId)) {
-						elementWillStay = false;
-					} else {
-						uniqueTemplates.add(filterTemplateId);
-					}
+		return filterElement -> {
+			boolean isTemplateId = TEMPLATE_ID.equals(filterElement.getName());
+			TemplateId filterTemplateId = getTemplateId(filterElement);
+
+			boolean elementWillStay = true;
+
+			if (isTemplateId) {
+				if (getDecoder(filterTemplateId) == null) {
+					elementWillStay = false;
+				} else if (uniqueTemplates.contains(filterTemplateId)) {
+					elementWillStay = false;
+				} else {
+					uniqueTemplates.add(filterTemplateId);
 				}
+			}
 
-				return elementWillStay;
-			})
-			.collect(Collectors.toList());
+			return elementWillStay;
+		};
 	}
 
 	/**
@@ -4,12 +4,12 @@ import org.jdom2.Attribute;
 import org.jdom2.Element;
 import org.jdom2.filter.Filters;
 import org.jdom2.xpath.XPathExpression;
-import org.jdom2.xpath.XPathFactory;
 
 import gov.cms.qpp.conversion.Context;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.TemplateId;
+import gov.cms.qpp.conversion.xml.XPathExpressionCache;
 
 import java.util.List;
 import java.util.Locale;
@@ -55,8 +55,8 @@ public class QualityMeasureIdDecoder extends QrdaDecoder {
 	private List<String> getMeasureGuid(final Element element) {
 		String expressionStr = getXpath(MEASURE_ID);
 
-		XPathExpression<Attribute> expression = XPathFactory.instance()
-			.compile(expressionStr, Filters.attribute(), null, xpathNs);
+		XPathExpression<Attribute> expression =
+			XPathExpressionCache.compile(expressionStr, Filters.attribute(), xpathNs);
 		return expression.evaluate(element).stream()
 			.map(Attribute::getValue)
 			.collect(Collectors.toList());
@@ -0,0 +1,377 @@
+package gov.cms.qpp.conversion.decode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.jdom2.Namespace;
+import org.jdom2.input.StAXStreamBuilder;
+import org.jdom2.xpath.XPathHelper;
+
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.xml.XmlException;
+
+/**
+ * A {@link QrdaDecoderEngine} that walks the QRDA III document with a StAX cursor instead of parsing it into a
+ * complete JDOM tree first.
+ * <p>
+ * Only the spine of the document is streamed: the document element and the {@code component},
+ * {@code structuredBody} and {@code section} elements below it. Every other child of a spine element, e.g. the header
+ * elements and each {@code entry}, is built as a complete JDOM fragment so the {@link QrdaDecoder}s evaluate their
+ * XPaths exactly as they would against the full tree. Once an {@code entry} or a spine element has been decoded its
+ * content is dropped, leaving an empty element behind so the absolute paths of later siblings do not change.
+ */
+public class StreamingQrdaDecoderEngine extends QrdaDecoderEngine {
+
+	private static final Set<String> STREAMED_ELEMENTS = ImmutableSet.of("component", "structuredBody", "section");
+	private static final String ENTRY = "entry";
+
+	private final XMLStreamReader reader;
+	private final StAXStreamBuilder builder = new StAXStreamBuilder();
+	private final Map<Element, ChildCursor> cursors = new IdentityHashMap<>();
+	private Element rootElement;
+
+	/**
+	 * Initialize a streaming QPP xml decoder
+	 *
+	 * @param context Establish context for decoder engine
+	 * @param reader StAX cursor positioned at the start of the document
+	 */
+	public StreamingQrdaDecoderEngine(Context context, XMLStreamReader reader) {
+		super(context);
+		Objects.requireNonNull(reader, "reader");
+
+		this.reader = reader;
+	}
+
+	/**
+	 * Reads the document element along with everything that precedes its first streamed child, i.e. the header.
+	 *
+	 * @return The document element, attached to a {@link Document}.
+	 * @throws XmlException When the stream is not well formed XML.
+	 */
+	public Element readRootElement() {
+		if (rootElement == null) {
+			try {
+				reader.nextTag();
+				rootElement = openElement();
+				new Document(rootElement);
+			} catch (XMLStreamException | JDOMException e) {
+				throw new XmlException("Failed to stream XML document", e);
+			}
+		}
+
+		return rootElement;
+	}
+
+	/**
+	 * Reads the remainder of the document so malformed content is still reported, then closes the cursor.
+	 *
+	 * @throws XmlException When the stream is not well formed XML.
+	 */
+	public void finish() {
+		try {
+			ChildCursor rootCursor = cursors.remove(rootElement);
+			if (rootCursor != null) {
+				rootCursor.finish();
+			}
+
+			while (reader.hasNext()) {
+				reader.next();
+			}
+			reader.close();
+		} catch (XMLStreamException e) {
+			throw new XmlException("Failed to stream XML document", e);
+		}
+	}
+
+	/**
+	 * Children of streamed elements are pulled from the cursor on demand, all others come from the built fragment.
+	 *
+	 * @param element The element who's children will be decoded.
+	 * @return An {@link Iterator} over the filtered child elements.
+	 */
+	@Override
+	protected Iterator<Element> childElements(final Element element) {
+		ChildCursor cursor = cursors.get(element);
+		return cursor == null ? super.childElements(element) : cursor;
+	}
+
+	/**
+	 * Assigns the absolute XPath and remembers which streamed ancestors have no same named sibling yet, because the
+	 * path gains a position predicate once such a sibling is read.
+	 *
+	 * @param node The decoded node.
+	 * @param element The element the node was decoded from.
+	 */
+	@Override
+	protected void setNodePath(final Node node, final Element element) {
+		super.setNodePath(node, element);
+
+		for (Element step = element; step.getParentElement() != null; step = step.getParentElement()) {
+			ChildCursor cursor = cursors.get(step.getParentElement());
+			if (cursor != null) {
+				cursor.trackSoleSibling(step, node);
+			}
+		}
+	}
+
+	/**
+	 * Creates an element from the current start tag without any content and positions a {@link ChildCursor} over
+	 * its children.
+	 *
+	 * @return The new element.
+	 */
+	private Element openElement() throws XMLStreamException, JDOMException {
+		Element element = new Element(reader.getLocalName(), namespace(reader.getPrefix(), reader.getNamespaceURI()));
+
+		for (int i = 0; i < reader.getNamespaceCount(); i++) {
+			Namespace declared = namespace(reader.getNamespacePrefix(i), reader.getNamespaceURI(i));
+			if (!isSameDeclaration(declared, element.getNamespace())) {
+				element.addNamespaceDeclaration(declared);
+			}
+		}
+
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			element.setAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i),
+					namespace(reader.getAttributePrefix(i), reader.getAttributeNamespace(i)));
+		}
+
+		reader.next();
+
+		ChildCursor cursor = new ChildCursor(element);
+		cursors.put(element, cursor);
+		cursor.readPreamble();
+		return element;
+	}
+
+	private static Namespace namespace(String prefix, String uri) {
+		return Namespace.getNamespace(Strings.nullToEmpty(prefix), Strings.nullToEmpty(uri));
+	}
+
+	private static boolean isSameDeclaration(Namespace one, Namespace other) {
+		return one.getPrefix().equals(other.getPrefix()) && one.getURI().equals(other.getURI());
+	}
+
+	private static String siblingKey(Element element) {
+		return "{" + element.getNamespaceURI() + "}" + element.getName();
+	}
+
+	/**
+	 * Iterates over the children of a streamed element, reading each one from the StAX cursor when it is requested.
+	 * Moving past a child releases its content and skips whatever of it the decoders did not visit.
+	 */
+	private final class ChildCursor implements Iterator<Element> {
+		private final Element element;
+		private final Predicate<Element> filter = uniqueTemplateIdFilter();
+		private final Deque<Element> preamble = new ArrayDeque<>();
+		private final Map<String, Integer> siblingCounts = new HashMap<>();
+		private final Map<String, SoleSibling> soleSiblings = new HashMap<>();
+		private Element next;
+		private Element current;
+		private boolean ended;
+
+		ChildCursor(Element element) {
+			this.element = element;
+		}
+
+		/**
+		 * Reads every child up to the first streamed element or {@code entry}. These are the children a decoder of
+		 * this element's {@code templateId} can see, so they are filtered together as in the DOM path.
+		 */
+		void readPreamble() throws XMLStreamException, JDOMException {
+			List<Element> children = new ArrayList<>();
+			while (!isAtStreamedChild()) {
+				Element child = readChild();
+				if (child == null) {
+					break;
+				}
+				children.add(child);
+			}
+
+			children.stream()
+					.filter(filter)
+					.forEach(preamble::add);
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next == null) {
+				release(current);
+				current = null;
+				next = advance();
+			}
+
+			return next != null;
+		}
+
+		@Override
+		public Element next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			current = next;
+			next = null;
+			return current;
+		}
+
+		/**
+		 * Remembers a node decoded below {@code child} while {@code child} is the only one of its name so far.
+		 *
+		 * @param child The child of this cursor's element on the node's path.
+		 * @param node The decoded node.
+		 */
+		void trackSoleSibling(Element child, Node node) {
+			if (!ended && siblingCounts.getOrDefault(siblingKey(child), 0) == 1) {
+				soleSiblings.computeIfAbsent(siblingKey(child), key -> new SoleSibling(child)).nodes.add(node);
+			}
+		}
+
+		/**
+		 * Releases the children handed out so far and skips the rest of this element in the stream.
+		 */
+		void finish() {
+			release(current);
+			release(next);
+			current = null;
+			next = null;
+			preamble.clear();
+
+			try {
+				int depth = 0;
+				while (!ended) {
+					int event = reader.getEventType();
+					if (event == XMLStreamConstants.START_ELEMENT) {
+						depth++;
+					} else if (event == XMLStreamConstants.END_ELEMENT) {
+						ended = depth == 0;
+						depth--;
+					}
+					reader.next();
+				}
+			} catch (XMLStreamException e) {
+				throw new XmlException("Failed to stream XML document", e);
+			}
+
+			soleSiblings.clear();
+		}
+
+		private Element advance() {
+			Element candidate = preamble.poll();
+			if (candidate != null) {
+				return candidate;
+			}
+
+			try {
+				do {
+					candidate = readChild();
+				} while (candidate != null && !filter.test(candidate));
+			} catch (XMLStreamException | JDOMException e) {
+				throw new XmlException("Failed to stream XML document", e);
+			}
+
+			return candidate;
+		}
+
+		private boolean isAtStreamedChild() throws XMLStreamException {
+			if (ended || skipToTag() != XMLStreamConstants.START_ELEMENT) {
+				return false;
+			}
+
+			String name = reader.getLocalName();
+			return ENTRY.equals(name) || STREAMED_ELEMENTS.contains(name);
+		}
+
+		private Element readChild() throws XMLStreamException, JDOMException {
+			if (ended) {
+				return null;
+			}
+
+			if (skipToTag() == XMLStreamConstants.END_ELEMENT) {
+				reader.next();
+				ended = true;
+				soleSiblings.clear();
+				return null;
+			}
+
+			Element child = STREAMED_ELEMENTS.contains(reader.getLocalName())
+					? openElement() : (Element) builder.fragment(reader);
+			element.addContent(child);
+			countSibling(child);
+			return child;
+		}
+
+		private int skipToTag() throws XMLStreamException {
+			int event = reader.getEventType();
+			while (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT) {
+				event = reader.next();
+			}
+			return event;
+		}
+
+		/**
+		 * A second child of the same name means the first one's path step needs a {@code [1]} predicate.
+		 */
+		private void countSibling(Element child) {
+			String key = siblingKey(child);
+			if (siblingCounts.merge(key, 1, Integer::sum) == 2) {
+				SoleSibling first = soleSiblings.remove(key);
+				if (first != null) {
+					first.correctPaths();
+				}
+			}
+		}
+
+		private void release(Element child) {
+			if (child == null) {
+				return;
+			}
+
+			ChildCursor childCursor = cursors.remove(child);
+			if (childCursor != null) {
+				childCursor.finish();
+				child.removeContent();
+			} else if (ENTRY.equals(child.getName())) {
+				child.removeContent();
+			}
+		}
+	}
+
+	/**
+	 * The nodes decoded below a child that had no same named sibling when their paths were assigned.
+	 */
+	private static final class SoleSibling {
+		private final Element child;
+		private final String path;
+		private final List<Node> nodes = new ArrayList<>();
+
+		SoleSibling(Element child) {
+			this.child = child;
+			this.path = XPathHelper.getAbsolutePath(child);
+		}
+
+		void correctPaths() {
+			String correctedPath = XPathHelper.getAbsolutePath(child);
+			nodes.forEach(node -> node.setPath(correctedPath + node.getPath().substring(path.length())));
+		}
+	}
+}
@@ -1,12 +1,18 @@
 package gov.cms.qpp.conversion.decode;
 
+import java.io.InputStream;
+
 import org.jdom2.Element;
 import org.jdom2.Namespace;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.instrument.Measurement;
+import gov.cms.qpp.conversion.instrument.Stage;
 import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.xml.XmlException;
+import gov.cms.qpp.conversion.xml.XmlUtils;
 
 /**
  * Abstraction to parse XML files within the decoder structure.
@@ -15,6 +21,33 @@ public abstract class XmlDecoderEngine implements InputDecoderEngine {
 	private static final Logger DEV_LOG = LoggerFactory.getLogger(XmlDecoderEngine.class);
 	Namespace defaultNs;
 
+	/**
+	 * decodeXml Reads the xml stream and decodes it, either from a fully parsed document or, when
+	 * {@link Context#isStreamingDecode()} is set, through a StAX cursor
+	 *
+	 * @param context Establish context for decoder engine
+	 * @param xmlStream XML stream whose format is to be determined
+	 * @return Root intermediate format node
+	 * @throws XmlException When the stream is not well formed XML.
+	 */
+	public static Node decodeXml(Context context, InputStream xmlStream) {
+		if (!context.isStreamingDecode()) {
+			Element xmlDoc;
+			try (Measurement measurement = context.getInstrumentation().measure(Stage.PARSE)) {
+				xmlDoc = XmlUtils.parseXmlStream(xmlStream);
+			}
+			return decodeXml(context, xmlDoc);
+		}
+
+		try (Measurement measurement = context.getInstrumentation().measure(Stage.DECODE)) {
+			StreamingQrdaDecoderEngine decoder =
+					new StreamingQrdaDecoderEngine(context, XmlUtils.createStreamReader(xmlStream));
+			Node decoded = decodeAccepted(decoder, decoder.readRootElement());
+			decoder.finish();
+			return decoded;
+		}
+	}
+
 	/**
 	 * decodeXml Determines what formats of xml we accept and decode to
 	 *
@@ -23,7 +56,12 @@ public abstract class XmlDecoderEngine implements InputDecoderEngine {
 	 * @return Root intermediate format node
 	 */
 	public static Node decodeXml(Context context, Element xmlDoc) {
-		XmlDecoderEngine decoder = new QrdaDecoderEngine(context);
+		try (Measurement measurement = context.getInstrumentation().measure(Stage.DECODE)) {
+			return decodeAccepted(new QrdaDecoderEngine(context), xmlDoc);
+		}
+	}
+
+	private static Node decodeAccepted(XmlDecoderEngine decoder, Element xmlDoc) {
 		if (decoder.accepts(xmlDoc)) {
 			return decoder.decode(xmlDoc);
 		}
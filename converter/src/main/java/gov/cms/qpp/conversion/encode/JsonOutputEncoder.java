@@ -1,6 +1,7 @@
 package gov.cms.qpp.conversion.encode;
 
 import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.Reusable;
 import gov.cms.qpp.conversion.model.error.Detail;
 import gov.cms.qpp.conversion.model.error.ErrorCode;
 
@@ -8,13 +9,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Output JSON to a Writer.
+ * Encoders are {@link Reusable} within a context since encoding a node leaves no state behind other than
+ * accumulated details.
  */
+@Reusable
 public abstract class JsonOutputEncoder implements OutputEncoder {
 	private static final Logger DEV_LOG = LoggerFactory.getLogger(JsonOutputEncoder.class);
 	private List<Node> nodes;
@@ -23,17 +28,18 @@ public abstract class JsonOutputEncoder implements OutputEncoder {
 	@Override
 	public void encode(Writer writer) {
 		try {
-			JsonWrapper wrapper = new JsonWrapper();
-			for (Node curNode : nodes) {
-				encode(wrapper, curNode);
-			}
-			writer.write(wrapper.toString());
-			writer.flush();
+			encode().writeTo(writer);
 		} catch (IOException exception) {
-			DEV_LOG.error("Couldn't write out JSON file.", exception);
-			Detail detail = Detail.forErrorCode(ErrorCode.UNEXPECTED_ENCODE_ERROR);
-			detail.setMessage(exception.getMessage());
-			details.add(detail);
+			addWriteError(exception);
+		}
+	}
+
+	@Override
+	public void encode(OutputStream outputStream) {
+		try {
+			encode().writeTo(outputStream);
+		} catch (IOException exception) {
+			addWriteError(exception);
 		}
 	}
 
@@ -77,6 +83,13 @@ public abstract class JsonOutputEncoder implements OutputEncoder {
 		return wrapper;
 	}
 
+	private void addWriteError(IOException exception) {
+		DEV_LOG.error("Couldn't write out JSON file.", exception);
+		Detail detail = Detail.forErrorCode(ErrorCode.UNEXPECTED_ENCODE_ERROR);
+		detail.setMessage(exception.getMessage());
+		details.add(detail);
+	}
+
 	public void addValidationError(Detail detail) {
 		details.add(detail);
 	}
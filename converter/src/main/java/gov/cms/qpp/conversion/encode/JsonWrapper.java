@@ -4,12 +4,19 @@ import gov.cms.qpp.conversion.InputStreamSupplierSource;
 import gov.cms.qpp.conversion.Source;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.util.FormatHelper;
+import gov.cms.qpp.conversion.util.JacksonHelper;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -18,36 +25,32 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.util.DefaultIndenter;
-import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.PrettyPrinter;
 import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.introspect.Annotated;
-import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
-import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
-import com.fasterxml.jackson.databind.ser.PropertyWriter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 
 /**
  * Manages building a "simple" object of JSON conversion.
  * JSON renderers can convert maps and list into JSON Strings.
  * This class is a wrapper around a list/map impl.
+ * <p>
+ * Once {@link #freeze() frozen} the wrapped content is read only, so the wrapper can be shared without copying.
  */
-public class JsonWrapper {
+public class JsonWrapper implements Serializable {
+	private static final long serialVersionUID = 1L;
 	private static final String METADATA_HOLDER = "metadata_holder";
-	private static final String METADATA_FILTER_LABEL = "exclude-metadata";
-	private ObjectWriter ow;
+	private final boolean filterMeta;
 	private Map<String, Object> object;
 	private List<Object> list;
+	private boolean frozen;
 
 	public JsonWrapper() {
 		this(true);
 	}
 
 	public JsonWrapper(boolean filterMeta) {
-		ow = filterMeta ? getObjectWriter() : getObjectWriterWithoutMeta();
+		this.filterMeta = filterMeta;
 	}
 
 	public JsonWrapper(JsonWrapper wrapper, boolean filterMeta) {
@@ -64,43 +67,21 @@ public class JsonWrapper {
 	}
 
 	/**
-	 * Static factory that creates {@link com.fasterxml.jackson.databind.ObjectWriter}s.
+	 * Shared {@link com.fasterxml.jackson.databind.ObjectWriter} that leaves out metadata.
 	 *
 	 * @return utility that will allow client to serialize wrapper contents as json
 	 */
 	static ObjectWriter getObjectWriter() {
-		ObjectMapper om = new ObjectMapper();
-		outfitMetadataFilter(om);
-
-		return om.writer().with(getPrinter());
+		return JacksonHelper.metadataFilteringWriter();
 	}
 
 	/**
-	 * Static factory that creates {@link com.fasterxml.jackson.databind.ObjectWriter}s removing metadata.
+	 * Shared {@link com.fasterxml.jackson.databind.ObjectWriter} that includes metadata.
 	 *
 	 * @return utility that will allow client to serialize wrapper contents as json
 	 */
 	static ObjectWriter getObjectWriterWithoutMeta() {
-		return new ObjectMapper().writer().with(getPrinter());
-	}
-
-	/**
-	 * Outfit the given {@link ObjectMapper} with a filter that will treat all metadata map entries as transient.
-	 *
-	 * @param om object mapper to modify
-	 */
-	private static void outfitMetadataFilter(ObjectMapper om) {
-		SimpleFilterProvider filters = new SimpleFilterProvider();
-		filters.addFilter(METADATA_FILTER_LABEL, new MetadataPropertyFilter());
-		om.setAnnotationIntrospector(new JsonWrapperIntrospector(METADATA_FILTER_LABEL));
-		om.setFilterProvider(filters);
-	}
-
-	private static DefaultPrettyPrinter getPrinter() {
-		DefaultIndenter withLinefeed = new DefaultIndenter("  ", "\n");
-		DefaultPrettyPrinter printer = new DefaultPrettyPrinter();
-		printer.indentObjectsWith(withLinefeed);
-		return printer;
+		return JacksonHelper.prettyWriter();
 	}
 
 	/**
@@ -283,6 +264,7 @@ public class JsonWrapper {
 	 * @return <i><b>this</b></i> reference for chaining
 	 */
 	public JsonWrapper putObject(String name, Object value) {
+		checkNotFrozen();
 		checkState(list);
 		initAsObject();
 		Object internalValue = stripWrapper(value);
@@ -303,6 +285,7 @@ public class JsonWrapper {
 	 * @return <i><b>this</b></i> reference for chaining
 	 */
 	public JsonWrapper putObject(Object value) {
+		checkNotFrozen();
 		checkState(object);
 		initAsList();
 		Object internalValue = stripWrapper(value);
@@ -503,12 +486,89 @@ public class JsonWrapper {
 				.map(entry -> {
 					JsonWrapper wrapper = new JsonWrapper();
 					wrapper.object = (Map<String, Object>) entry;
+					wrapper.frozen = frozen;
 					return wrapper;
 				});
 		}
 		return returnValue;
 	}
 
+	/**
+	 * Makes the wrapped content read only, all the way down. Every put on a frozen wrapper throws
+	 * {@link UnsupportedOperationException}, as does any attempt to modify the maps, lists and sets it hands out.
+	 * <p>
+	 * The content is wrapped in place rather than copied, so wrappers that were put into this one should no longer be
+	 * modified either.
+	 *
+	 * @return <i><b>this</b></i> reference for chaining
+	 */
+	@SuppressWarnings("unchecked")
+	public JsonWrapper freeze() {
+		if (!frozen) {
+			frozen = true;
+			Map<Object, Object> views = new IdentityHashMap<>();
+			if (isObject()) {
+				object = (Map<String, Object>) unmodifiable(object, views);
+			} else if (list != null) {
+				list = (List<Object>) unmodifiable(list, views);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Whether this {@link JsonWrapper} has been frozen.
+	 *
+	 * @return true when the wrapped content is read only
+	 * @see #freeze()
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Wraps a map, list or set and everything within it in unmodifiable views.
+	 *
+	 * @param value content to wrap
+	 * @param views views already created, by identity of the content they wrap, so shared content is wrapped once
+	 * @return the read only view, or the value itself when it is not a collection
+	 */
+	@SuppressWarnings("unchecked")
+	private static Object unmodifiable(Object value, Map<Object, Object> views) {
+		if (!(value instanceof Map || value instanceof List || value instanceof Set)) {
+			return value;
+		}
+
+		Object view = views.get(value);
+		if (view == null) {
+			if (value instanceof Map) {
+				Map<Object, Object> map = (Map<Object, Object>) value;
+				map.replaceAll((key, entry) -> unmodifiable(entry, views));
+				view = Collections.unmodifiableMap(map);
+			} else if (value instanceof List) {
+				List<Object> values = (List<Object>) value;
+				values.replaceAll(entry -> unmodifiable(entry, views));
+				view = Collections.unmodifiableList(values);
+			} else {
+				Set<Object> values = new LinkedHashSet<>();
+				((Set<Object>) value).forEach(entry -> values.add(unmodifiable(entry, views)));
+				view = Collections.unmodifiableSet(values);
+			}
+			views.put(value, view);
+		}
+		return view;
+	}
+
+	private ObjectWriter writer() {
+		return filterMeta ? getObjectWriter() : getObjectWriterWithoutMeta();
+	}
+
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new UnsupportedOperationException("JsonWrapper is frozen and may not be modified");
+		}
+	}
+
 	/**
 	 * String representation of the {@link JsonWrapper}.
 	 *
@@ -517,78 +577,55 @@ public class JsonWrapper {
 	@Override
 	public String toString() {
 		try {
-			return ow.writeValueAsString(isObject() ? object : list);
+			return writer().writeValueAsString(isObject() ? object : list);
 		} catch (JsonProcessingException e) {
 			throw new EncodeException("Issue rendering JSON from JsonWrapper Map", e);
 		}
 	}
 
 	/**
-	 * Convenience method to get the JsonWrapper's content as an input stream.
+	 * Writes the {@link JsonWrapper}'s content as JSON straight to the given stream, without rendering it to a
+	 * String first. The stream is flushed but not closed.
 	 *
-	 * @return input stream containing serialized json
+	 * @param outputStream destination of the UTF-8 encoded json
+	 * @throws IOException if the stream cannot be written
 	 */
-	public Source toSource() {
-		byte[] qppBytes = toString().getBytes(StandardCharsets.UTF_8);
-		return new InputStreamSupplierSource("QPP", new ByteArrayInputStream(qppBytes));
+	public void writeTo(OutputStream outputStream) throws IOException {
+		writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(outputStream, isObject() ? object : list);
 	}
 
 	/**
-	 * JsonWrapper specific annotation introspector. This gives us a way to programmatically associate
-	 * filtering for metadata properties prior to serialization. This is an advantage over annotated filtering
-	 * in that it's less rigid than compile time modification.
+	 * Writes the {@link JsonWrapper}'s content as JSON straight to the given writer, without rendering it to a
+	 * String first. The writer is flushed but not closed.
+	 *
+	 * @param writer destination of the json
+	 * @throws IOException if the writer cannot be written
 	 */
-	private static class JsonWrapperIntrospector extends JacksonAnnotationIntrospector {
-		private String filterName;
-
-		/**
-		 * @param filterName name of filter to be aassociated during introspection
-		 */
-		private JsonWrapperIntrospector(String filterName) {
-			this.filterName = filterName;
-		}
-
-		/**
-		 * Apply the {@link JsonWrapperIntrospector#filterName} filter to all instances of Map.
-		 *
-		 * @param a objects to be serialized
-		 * @return either the specified filter or a the default supplied by the parent.
-		 * @see JacksonAnnotationIntrospector
-		 */
-		@Override
-		public Object findFilterId(Annotated a) {
-			if (Map.class.isAssignableFrom(a.getRawType())) {
-				return filterName;
-			}
-			return super.findFilterId(a);
-		}
+	public void writeTo(Writer writer) throws IOException {
+		writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(writer, isObject() ? object : list);
 	}
 
 	/**
-	 * Filters out all map entries during serialization that have keys prefixed with "metadata_".
+	 * Writes the {@link JsonWrapper}'s content as compact JSON on a single line, for formats that hold one value per
+	 * line. The stream is flushed but not closed.
+	 *
+	 * @param outputStream destination of the UTF-8 encoded json
+	 * @throws IOException if the stream cannot be written
 	 */
-	private static class MetadataPropertyFilter extends SimpleBeanPropertyFilter {
-		/**
-		 * Pass through inclusion for beans.
-		 *
-		 * @param writer that performs serialization
-		 * @return determination of whether or not it should be serialized
-		 */
-		@Override
-		protected boolean include(BeanPropertyWriter writer) {
-			return true;
-		}
+	public void writeCompactTo(OutputStream outputStream) throws IOException {
+		writer().with((PrettyPrinter) null)
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+				.writeValue(outputStream, isObject() ? object : list);
+	}
 
-		/**
-		 * Denies inclusion for "metadata_" prefixed properties.
-		 *
-		 * @param writer that performs serialization
-		 * @return determination of whether or not it should be serialized
-		 */
-		@Override
-		protected boolean include(PropertyWriter writer) {
-			return !writer.getName().startsWith("metadata_");
-		}
+	/**
+	 * Convenience method to get the JsonWrapper's content as an input stream.
+	 *
+	 * @return input stream containing serialized json
+	 */
+	public Source toSource() {
+		byte[] qppBytes = toString().getBytes(StandardCharsets.UTF_8);
+		return new InputStreamSupplierSource("QPP", new ByteArrayInputStream(qppBytes));
 	}
 
 	void attachMetadata(Node node) {
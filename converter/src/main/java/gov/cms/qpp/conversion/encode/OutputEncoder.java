@@ -1,5 +1,6 @@
 package gov.cms.qpp.conversion.encode;
 
+import java.io.OutputStream;
 import java.io.Writer;
 
 /**
@@ -14,6 +15,13 @@ public interface OutputEncoder {
 	 */
 	void encode(Writer writer);
 
+	/**
+	 * Encode data straight to an OutputStream, without rendering it to a String first
+	 *
+	 * @param outputStream destination of the UTF-8 encoded output
+	 */
+	void encode(OutputStream outputStream);
+
 	/**
 	 * Encode data to JsonWrapper
 	 */
@@ -1,6 +1,8 @@
 package gov.cms.qpp.conversion.encode;
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.instrument.Measurement;
+import gov.cms.qpp.conversion.instrument.Stage;
 import gov.cms.qpp.conversion.model.Encoder;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.Registry;
@@ -18,10 +20,12 @@ public class QppOutputEncoder extends JsonOutputEncoder {
 	protected final Registry<JsonOutputEncoder> encoders;
 
 	protected final Context context;
+	private final boolean handler;
 
 	public QppOutputEncoder(Context context) {
 		this.context = context;
 		this.encoders = context.getRegistry(Encoder.class);
+		this.handler = getClass().isAnnotationPresent(Encoder.class);
 	}
 
 	@Override
@@ -30,6 +34,26 @@ public class QppOutputEncoder extends JsonOutputEncoder {
 		super.encode(wrapper, node);
 	}
 
+	/**
+	 * Encodes a node, measuring the encoder when it is a {@link gov.cms.qpp.conversion.model.TemplateId} handler rather
+	 * than the top level encoder.
+	 *
+	 * @param wrapper structure that facilitates json serialization
+	 * @param node structure to be converted to json
+	 * @param mergeMetadata instruction on whether or not metadata should be included in the wrapper
+	 */
+	@Override
+	public final void encode(JsonWrapper wrapper, Node node, boolean mergeMetadata) {
+		if (!handler) {
+			super.encode(wrapper, node, mergeMetadata);
+			return;
+		}
+
+		try (Measurement measurement = context.getInstrumentation().measure(Stage.ENCODE, node.getType())) {
+			super.encode(wrapper, node, mergeMetadata);
+		}
+	}
+
 	/**
 	 * Top level internalEncode that calls it's children from the registry.
 	 * Each encoder calls its child encoder with an encode() method
@@ -0,0 +1,71 @@
+package gov.cms.qpp.conversion.instrument;
+
+import gov.cms.qpp.conversion.model.TemplateId;
+
+/**
+ * Receives the cost of each stage of a conversion, and of each {@link TemplateId} handler within a stage.
+ *
+ * Set one on a {@link gov.cms.qpp.conversion.Context} to find out where a conversion spends its time. Implementations
+ * must be thread safe when shared between contexts.
+ *
+ * @see Stage
+ * @see StageStatistics
+ */
+@FunctionalInterface
+public interface Instrumentation {
+
+	/**
+	 * Records nothing, and costs nothing to measure with.
+	 */
+	Instrumentation NONE = new Instrumentation() {
+		@Override
+		public boolean isEnabled() {
+			return false;
+		}
+
+		@Override
+		public void record(String stage, long wallNanos, long cpuNanos, long allocatedBytes) {
+			// nothing to record
+		}
+	};
+
+	/**
+	 * Records a measured stage.
+	 *
+	 * @param stage name of the stage, see {@link Stage}
+	 * @param wallNanos elapsed time
+	 * @param cpuNanos CPU time used by the measuring thread, or -1 if the JVM cannot measure it
+	 * @param allocatedBytes bytes allocated by the measuring thread, or -1 if the JVM cannot measure it
+	 */
+	void record(String stage, long wallNanos, long cpuNanos, long allocatedBytes);
+
+	/**
+	 * Whether measurements are wanted at all.
+	 *
+	 * @return {@code true} if stages should be measured
+	 */
+	default boolean isEnabled() {
+		return true;
+	}
+
+	/**
+	 * Starts measuring a stage on the current thread.
+	 *
+	 * @param stage name of the stage
+	 * @return measurement to close when the stage ends
+	 */
+	default Measurement measure(String stage) {
+		return isEnabled() ? new Measurement(this, stage) : Measurement.NONE;
+	}
+
+	/**
+	 * Starts measuring a {@link TemplateId} handler within a stage on the current thread.
+	 *
+	 * @param stage name of the stage the handler runs in
+	 * @param templateId what the handler handles
+	 * @return measurement to close when the handler returns
+	 */
+	default Measurement measure(String stage, TemplateId templateId) {
+		return isEnabled() ? new Measurement(this, Stage.handler(stage, templateId)) : Measurement.NONE;
+	}
+}
@@ -0,0 +1,79 @@
+package gov.cms.qpp.conversion.instrument;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Wall time, CPU time and allocation of the current thread from when a stage starts until it is closed.
+ *
+ * Meant to be used in a try with resources block on a single thread.
+ */
+public class Measurement implements AutoCloseable {
+
+	static final Measurement NONE = new Measurement();
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+	private static final com.sun.management.ThreadMXBean ALLOCATION = allocationBean();
+
+	private final Instrumentation instrumentation;
+	private final String stage;
+	private final long startWall;
+	private final long startCpu;
+	private final long startAllocated;
+
+	private Measurement() {
+		this.instrumentation = null;
+		this.stage = null;
+		this.startWall = 0;
+		this.startCpu = 0;
+		this.startAllocated = 0;
+	}
+
+	/**
+	 * Starts measuring.
+	 *
+	 * @param instrumentation where the measurement is recorded
+	 * @param stage name of what is measured
+	 */
+	Measurement(Instrumentation instrumentation, String stage) {
+		this.instrumentation = instrumentation;
+		this.stage = stage;
+		this.startAllocated = allocated();
+		this.startCpu = cpu();
+		this.startWall = System.nanoTime();
+	}
+
+	/**
+	 * Stops measuring and records the measurement.
+	 */
+	@Override
+	public void close() {
+		if (instrumentation == null) {
+			return;
+		}
+
+		long wall = System.nanoTime() - startWall;
+		long cpu = startCpu < 0 ? -1 : cpu() - startCpu;
+		long allocated = startAllocated < 0 ? -1 : allocated() - startAllocated;
+		instrumentation.record(stage, wall, cpu, allocated);
+	}
+
+	private static long cpu() {
+		return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : -1;
+	}
+
+	private static long allocated() {
+		return ALLOCATION == null ? -1 : ALLOCATION.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static com.sun.management.ThreadMXBean allocationBean() {
+		if (THREADS instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREADS;
+			if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+				return bean;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,64 @@
+package gov.cms.qpp.conversion.instrument;
+
+import gov.cms.qpp.conversion.model.TemplateId;
+
+/**
+ * Names of the measured stages of a conversion.
+ *
+ * Handlers are measured as {@code <stage>:<template id>}, for example {@code encode:CLINICAL_DOCUMENT}. Encoders call
+ * the encoders of their children, so an encoder's measurement includes its children's.
+ */
+public final class Stage {
+
+	/**
+	 * Parsing the input into a document. Not measured separately when decoding is streamed.
+	 */
+	public static final String PARSE = "parse";
+
+	/**
+	 * Decoding the document into nodes, along with parsing when decoding is streamed.
+	 */
+	public static final String DECODE = "decode";
+
+	/**
+	 * Removing defaulted nodes.
+	 */
+	public static final String REMOVE_DEFAULT_NODE = "removeDefaultNode";
+
+	/**
+	 * Validating the decoded nodes.
+	 */
+	public static final String VALIDATE = "validate";
+
+	/**
+	 * Encoding the decoded nodes into QPP json.
+	 */
+	public static final String ENCODE = "encode";
+
+	private static final char HANDLER_SEPARATOR = ':';
+
+	private Stage() {
+		// names only
+	}
+
+	/**
+	 * Names a handler's measurement.
+	 *
+	 * @param stage the stage the handler runs in
+	 * @param templateId what the handler handles
+	 * @return name of the handler's measurement
+	 */
+	public static String handler(String stage, TemplateId templateId) {
+		return stage + HANDLER_SEPARATOR + templateId.name();
+	}
+
+	/**
+	 * Whether a measurement is of a handler rather than a whole stage.
+	 *
+	 * @param name name of the measurement
+	 * @return {@code true} if the measurement is of a handler
+	 */
+	public static boolean isHandler(String name) {
+		return name.indexOf(HANDLER_SEPARATOR) >= 0;
+	}
+}
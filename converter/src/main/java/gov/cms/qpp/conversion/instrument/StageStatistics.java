@@ -0,0 +1,61 @@
+package gov.cms.qpp.conversion.instrument;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Instrumentation} that keeps totals for each stage and handler, across any number of conversions and threads.
+ */
+public class StageStatistics implements Instrumentation {
+
+	private static final String ROW_FORMAT = "%-60s %10s %12s %12s %14s%n";
+	private static final Comparator<StageTotals> STAGES_FIRST =
+			Comparator.comparing((StageTotals totals) -> Stage.isHandler(totals.getStage()))
+					.thenComparing(Comparator.comparingLong(StageTotals::getWallNanos).reversed());
+
+	private final Map<String, StageTotals> totals = new ConcurrentHashMap<>();
+
+	@Override
+	public void record(String stage, long wallNanos, long cpuNanos, long allocatedBytes) {
+		totals.computeIfAbsent(stage, StageTotals::new).add(wallNanos, cpuNanos, allocatedBytes);
+	}
+
+	/**
+	 * The totals so far, whole stages first and then handlers, each by most time spent.
+	 *
+	 * @return totals for every measured stage and handler
+	 */
+	public List<StageTotals> getTotals() {
+		List<StageTotals> sorted = new ArrayList<>(totals.values());
+		sorted.sort(STAGES_FIRST);
+		return sorted;
+	}
+
+	/**
+	 * A table of the totals so far, for people to read.
+	 *
+	 * @return multi line summary
+	 */
+	public String summarize() {
+		StringBuilder summary = new StringBuilder();
+		summary.append(String.format(Locale.ROOT, ROW_FORMAT, "Stage", "Count", "Wall ms", "CPU ms", "Allocated KB"));
+		for (StageTotals stage : getTotals()) {
+			summary.append(String.format(Locale.ROOT, ROW_FORMAT,
+					stage.getStage(),
+					stage.getCount(),
+					millis(stage.getWallNanos()),
+					millis(stage.getCpuNanos()),
+					stage.getAllocatedBytes() / 1024));
+		}
+		return summary.toString();
+	}
+
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+	}
+}
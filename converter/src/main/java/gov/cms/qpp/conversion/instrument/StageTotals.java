@@ -0,0 +1,62 @@
+package gov.cms.qpp.conversion.instrument;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of every measurement of one stage or handler.
+ */
+public class StageTotals {
+
+	private final String stage;
+	private final LongAdder count = new LongAdder();
+	private final LongAdder wallNanos = new LongAdder();
+	private final LongAdder cpuNanos = new LongAdder();
+	private final LongAdder allocatedBytes = new LongAdder();
+
+	/**
+	 * Totals for a stage that has not been measured yet.
+	 *
+	 * @param stage name of the stage
+	 */
+	StageTotals(String stage) {
+		this.stage = stage;
+	}
+
+	/**
+	 * Adds a measurement. CPU time and allocation that could not be measured are left out.
+	 *
+	 * @param wall elapsed time
+	 * @param cpu CPU time, or a negative number if it was not measured
+	 * @param allocated allocated bytes, or a negative number if it was not measured
+	 */
+	void add(long wall, long cpu, long allocated) {
+		count.increment();
+		wallNanos.add(wall);
+		if (cpu > 0) {
+			cpuNanos.add(cpu);
+		}
+		if (allocated > 0) {
+			allocatedBytes.add(allocated);
+		}
+	}
+
+	public String getStage() {
+		return stage;
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getWallNanos() {
+		return wallNanos.sum();
+	}
+
+	public long getCpuNanos() {
+		return cpuNanos.sum();
+	}
+
+	public long getAllocatedBytes() {
+		return allocatedBytes.sum();
+	}
+}
@@ -0,0 +1,92 @@
+package gov.cms.qpp.conversion.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the handler index written at compile time by the {@code HandlerIndexProcessor}.
+ * <p>
+ * Every index on the class path is read, so handlers compiled in other modules (or in tests) are found just as a
+ * class path scan would find them. An index naming a class that no longer carries the annotation is stale, and is
+ * not used.
+ */
+final class HandlerIndex {
+
+	static final String INDEX = "META-INF/gov.cms.qpp.conversion/handlers.idx";
+
+	private static final Logger DEV_LOG = LoggerFactory.getLogger(HandlerIndex.class);
+	private static final String SEPARATOR = "\t";
+	private static final int COLUMNS = 4;
+
+	private HandlerIndex() {
+		//private constructor so utility class cannot be instantiated
+	}
+
+	/**
+	 * Looks up the handlers of the given annotation type in the generated index.
+	 *
+	 * @param annotationClass The handler annotation
+	 * @return A map of classes with the given annotation, or null when no usable index is on the class path
+	 */
+	static Map<ComponentKey, Class<?>> lookup(Class<? extends Annotation> annotationClass) {
+		return lookup(annotationClass, HandlerIndex.class.getClassLoader());
+	}
+
+	/**
+	 * Looks up the handlers of the given annotation type in the indexes visible to a class loader.
+	 *
+	 * @param annotationClass The handler annotation
+	 * @param classLoader The class loader from which to read the indexes and load the handlers
+	 * @return A map of classes with the given annotation, or null when no usable index is on the class path
+	 */
+	static Map<ComponentKey, Class<?>> lookup(Class<? extends Annotation> annotationClass, ClassLoader classLoader) {
+		try {
+			Enumeration<URL> indexes = classLoader.getResources(INDEX);
+			if (!indexes.hasMoreElements()) {
+				return null;
+			}
+
+			Map<ComponentKey, Class<?>> registry = new HashMap<>();
+			for (URL index : Collections.list(indexes)) {
+				read(index, annotationClass, classLoader, registry);
+			}
+			return registry;
+		} catch (IOException | ClassNotFoundException | IllegalArgumentException e) {
+			DEV_LOG.warn("Unusable handler index, falling back to a class path scan", e);
+			return null;
+		}
+	}
+
+	private static void read(URL index, Class<? extends Annotation> annotationClass, ClassLoader classLoader,
+			Map<ComponentKey, Class<?>> registry) throws IOException, ClassNotFoundException {
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] columns = line.split(SEPARATOR);
+				if (columns.length != COLUMNS) {
+					throw new IllegalArgumentException("Malformed line in " + index + ": " + line);
+				}
+
+				if (annotationClass.getSimpleName().equals(columns[0])) {
+					Class<?> handler = Class.forName(columns[1], false, classLoader);
+					if (!handler.isAnnotationPresent(annotationClass)) {
+						throw new IllegalArgumentException("Stale line in " + index + ": " + line);
+					}
+					registry.put(new ComponentKey(TemplateId.valueOf(columns[2]), Program.valueOf(columns[3])), handler);
+				}
+			}
+		}
+	}
+}
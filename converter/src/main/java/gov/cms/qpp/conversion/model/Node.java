@@ -1,5 +1,6 @@
 package gov.cms.qpp.conversion.model;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -21,8 +22,11 @@ import com.google.common.collect.Lists;
  * Represents a node of data that should be converted. Consists of a key/value
  * Map that holds the data gleaned from an input file.
  * Nodes can contain other nodes as children to create a hierarchy.
+ * <p>
+ * Once {@link #freeze() frozen} a node and its descendants are read only, so the tree can be shared without copying.
  */
-public class Node {
+public class Node implements Serializable {
+	private static final long serialVersionUID = 1L;
 	private final List<Node> childNodes = new ArrayList<>();
 	private final Map<String, String> data = new HashMap<>();
 	private final Map<String, List<String>> duplicateData = new HashMap<>();
@@ -33,6 +37,7 @@ public class Node {
 
 	private String defaultNsUri;
 	private String path;
+	private boolean frozen;
 
 	/**
 	 * Default constructor initializes internal list of Nodes
@@ -90,7 +95,8 @@ public class Node {
 	 * @return mapped duplicates of target value
 	 */
 	public List<String> getDuplicateValues(String name) {
-		return duplicateData.get(name);
+		List<String> duplicates = duplicateData.get(name);
+		return frozen && duplicates != null ? Collections.unmodifiableList(duplicates) : duplicates;
 	}
 
 	/**
@@ -111,6 +117,7 @@ public class Node {
 	 * @param replace replace existing value
 	 */
 	public void putValue(String name, String value, boolean replace) {
+		checkNotFrozen();
 		if (getValue(name) == null || replace) {
 			data.put(name, value);
 		} else {
@@ -129,6 +136,7 @@ public class Node {
 	 * @param name String key to remove value under
 	 */
 	public void removeValue(String name) {
+		checkNotFrozen();
 		data.remove(name);
 	}
 
@@ -148,7 +156,7 @@ public class Node {
 	 * @return List of child Nodes.
 	 */
 	public List<Node> getChildNodes() {
-		return childNodes;
+		return frozen ? Collections.unmodifiableList(childNodes) : childNodes;
 	}
 
 	/**
@@ -190,6 +198,7 @@ public class Node {
 	 * @param childNodes vararg Node array
 	 */
 	public void setChildNodes(Node... childNodes) {
+		checkNotFrozen();
 		this.childNodes.clear();
 		this.childNodes.addAll(Arrays.asList(childNodes));
 	}
@@ -200,6 +209,7 @@ public class Node {
 	 * @param childNodes vararg Node array
 	 */
 	public void addChildNodes(Node... childNodes) {
+		checkNotFrozen();
 		this.childNodes.addAll(Arrays.asList(childNodes));
 	}
 
@@ -209,6 +219,7 @@ public class Node {
 	 * @param childNode Node
 	 */
 	public void addChildNode(Node childNode) {
+		checkNotFrozen();
 		if (childNode == null || childNode == this) {
 			return;
 		}
@@ -222,6 +233,7 @@ public class Node {
 	 * @return <tt>true</tt> if a child matched such that it was deleted.
 	 */
 	public boolean removeChildNode(Node childNode) {
+		checkNotFrozen();
 		return childNode != null && childNode != this && this.childNodes.remove(childNode);
 	}
 
@@ -231,7 +243,7 @@ public class Node {
 	 * @return The keys the value's set on this Node.
 	 */
 	public Set<String> getKeys() {
-		return data.keySet();
+		return frozen ? Collections.unmodifiableSet(data.keySet()) : data.keySet();
 	}
 
 	/**
@@ -249,6 +261,7 @@ public class Node {
 	 * @param parent Node
 	 */
 	public void setParent(Node parent) {
+		checkNotFrozen();
 		this.parent = parent;
 	}
 
@@ -258,6 +271,7 @@ public class Node {
 	 * @param type TemplateId
 	 */
 	public void setType(TemplateId type) {
+		checkNotFrozen();
 		this.type = type;
 	}
 
@@ -285,6 +299,7 @@ public class Node {
 	 * @param newPath The path.
 	 */
 	public void setPath(String newPath) {
+		checkNotFrozen();
 		path = newPath;
 	}
 
@@ -303,6 +318,7 @@ public class Node {
 	 * @param newDefaultNsUri updated default namespace URI.
 	 */
 	public void setDefaultNsUri(String newDefaultNsUri) {
+		checkNotFrozen();
 		defaultNsUri = newDefaultNsUri;
 	}
 
@@ -369,6 +385,7 @@ public class Node {
 	 * @see Node#isNotValidated()
 	 */
 	public void setValidated(boolean validated) {
+		checkNotFrozen();
 		this.validated = validated;
 	}
 
@@ -394,6 +411,36 @@ public class Node {
 		return !isValidated();
 	}
 
+	/**
+	 * Makes this {@code Node} and all of its descendants read only. Every mutator of a frozen node throws
+	 * {@link UnsupportedOperationException}, and the collections it hands out can no longer be modified.
+	 *
+	 * @return <i><b>this</b></i> reference for chaining
+	 */
+	public Node freeze() {
+		if (!frozen) {
+			frozen = true;
+			childNodes.forEach(Node::freeze);
+		}
+		return this;
+	}
+
+	/**
+	 * Whether this {@code Node} has been frozen.
+	 *
+	 * @return true when this node is read only
+	 * @see Node#freeze()
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new UnsupportedOperationException("Node " + type + " is frozen and may not be modified");
+		}
+	}
+
 	/**
 	 * foundNode checks to see if any Node exists in the List
 	 *
@@ -441,7 +488,7 @@ public class Node {
 		final Node node = (Node)o;
 
 		boolean halfEquals = isValidated() == node.isValidated()
-			&& Objects.equals(getChildNodes(), node.getChildNodes())
+			&& Objects.equals(childNodes, node.childNodes)
 			&& Objects.equals(data, node.data)
 			&& Objects.equals(duplicateData, node.duplicateData);
 
@@ -458,7 +505,7 @@ public class Node {
 	 */
 	@Override
 	public final int hashCode() {
-		return Objects.hash(getChildNodes(), data, duplicateData, getType(), isValidated(), getDefaultNsUri(), getPath());
+		return Objects.hash(childNodes, data, duplicateData, getType(), isValidated(), getDefaultNsUri(), getPath());
 	}
 
 }
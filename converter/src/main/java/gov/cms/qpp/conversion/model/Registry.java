@@ -9,13 +9,13 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -31,16 +31,23 @@ import gov.cms.qpp.conversion.Context;
  * <p>
  * R is the stored and return interface type.
  * V is the key type to access the registered values.
+ * <p>
+ * A registry belongs to a single {@link Context} and is not thread safe. The handler classes and constructor handles
+ * it draws on are shared by every registry, are built once when the first registry of an annotation type is created,
+ * and may be read from any thread.
  */
 public class Registry<R> {
 
 	private static final Logger DEV_LOG = LoggerFactory.getLogger(Registry.class);
-	private static final Map<Class<?>, Function<Context, Object>> CONSTRUCTORS = new IdentityHashMap<>();
+	private static final ConcurrentMap<Class<?>, Function<Context, Object>> CONSTRUCTORS = new ConcurrentHashMap<>();
 	private static final Map<Class<? extends Annotation>, Map<ComponentKey, Class<?>>> SHARED_REGISTRY_MAP
 		= new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Reusable.Scope> REUSE_SCOPES = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Object> SHARED_HANDLERS = new ConcurrentHashMap<>();
 
 	private final Context context;
 	private final Map<ComponentKey, Class<?>> registryMap;
+	private final Map<Class<?>, Object> contextHandlers = new HashMap<>();
 	private final Class<? extends Annotation> annotationClass;
 
 	/**
@@ -55,16 +62,45 @@ public class Registry<R> {
 
 		this.context = context;
 		this.annotationClass = annotationClass;
-		this.registryMap = new HashMap<>(SHARED_REGISTRY_MAP.computeIfAbsent(annotationClass, this::lookupAnnotatedClasses));
+		this.registryMap = new HashMap<>(SHARED_REGISTRY_MAP.computeIfAbsent(annotationClass, this::loadHandlers));
 	}
 
 	/**
-	 * Searches the class path for types with the given annotation
+	 * Finds the handlers for the given annotation and builds the constructor handle of every one of them, so lookups
+	 * only ever read the shared tables.
+	 *
+	 * @param annotationClass The annotation for which to search
+	 * @return An unmodifiable map of classes with the given annotation
+	 */
+	private Map<ComponentKey, Class<?>> loadHandlers(Class<? extends Annotation> annotationClass) {
+		Map<ComponentKey, Class<?>> handlers = lookupAnnotatedClasses(annotationClass);
+		handlers.values().forEach(Registry::constructorFor);
+		return Collections.unmodifiableMap(handlers);
+	}
+
+	/**
+	 * Finds the types with the given annotation, from the index generated at compile time when there is one
 	 *
 	 * @param annotationClass The annotation for which to search
 	 * @return A map of classes with the given annotation
 	 */
 	private Map<ComponentKey, Class<?>> lookupAnnotatedClasses(Class<? extends Annotation> annotationClass) {
+		Map<ComponentKey, Class<?>> indexed = HandlerIndex.lookup(annotationClass);
+		if (indexed != null) {
+			return indexed;
+		}
+
+		DEV_LOG.info("No handler index found, scanning the class path for {} handlers", annotationClass.getSimpleName());
+		return scanAnnotatedClasses(annotationClass);
+	}
+
+	/**
+	 * Searches the class path for types with the given annotation
+	 *
+	 * @param annotationClass The annotation for which to search
+	 * @return A map of classes with the given annotation
+	 */
+	Map<ComponentKey, Class<?>> scanAnnotatedClasses(Class<? extends Annotation> annotationClass) {
 		Reflections reflections = new Reflections("gov.cms");
 		Set<Class<?>> annotatedClasses = reflections.getTypesAnnotatedWith(annotationClass);
 		Map<ComponentKey, Class<?>> registry = new HashMap<>(annotatedClasses.size());
@@ -110,7 +146,8 @@ public class Registry<R> {
 	}
 
 	/**
-	 * Instantiate a given handler class.
+	 * Instantiate a given handler class, or reuse an existing instance when the class is {@link Reusable} and the
+	 * context permits reuse.
 	 *
 	 * @param handlerClass the class to instantiate
 	 * @return an instance of the given class
@@ -120,7 +157,97 @@ public class Registry<R> {
 			return null;
 		}
 
-		return handlerClass.cast(CONSTRUCTORS.computeIfAbsent(handlerClass, this::createHandler).apply(context));
+		switch (getReuseScope(handlerClass)) {
+			case SHARED:
+				return handlerClass.cast(SHARED_HANDLERS.computeIfAbsent(handlerClass, this::newHandler));
+			case CONTEXT:
+				return handlerClass.cast(getContextHandler(handlerClass));
+			default:
+				return handlerClass.cast(newHandler(handlerClass));
+		}
+	}
+
+	/**
+	 * Retrieve the instance of the handler class that is reused for this registry's context.
+	 *
+	 * @param handlerClass the class to instantiate
+	 * @return an instance of the given class
+	 */
+	private Object getContextHandler(Class<?> handlerClass) {
+		Object handler = contextHandlers.get(handlerClass);
+		if (handler == null) {
+			handler = newHandler(handlerClass);
+			if (handler != null) {
+				contextHandlers.put(handlerClass, handler);
+			}
+		}
+		return handler;
+	}
+
+	/**
+	 * Determine how widely instances of the handler class may be reused.
+	 *
+	 * @param handlerClass the handler class
+	 * @return the reuse scope, {@link Reusable.Scope#NONE} if the context has reuse switched off
+	 */
+	private Reusable.Scope getReuseScope(Class<?> handlerClass) {
+		if (!context.isReuseHandlers()) {
+			return Reusable.Scope.NONE;
+		}
+
+		return REUSE_SCOPES.computeIfAbsent(handlerClass, Registry::declaredReuseScope);
+	}
+
+	/**
+	 * Read the {@link Reusable} contract of a handler class. A handler that asks to be shared but needs a
+	 * {@link Context} is only reused within its context, since a shared instance would keep the first context.
+	 *
+	 * @param handlerClass the handler class
+	 * @return the declared reuse scope
+	 */
+	private static Reusable.Scope declaredReuseScope(Class<?> handlerClass) {
+		Reusable reusable = handlerClass.getAnnotation(Reusable.class);
+		if (reusable == null) {
+			return Reusable.Scope.NONE;
+		}
+
+		if (reusable.value() == Reusable.Scope.SHARED && hasContextConstructor(handlerClass)) {
+			DEV_LOG.warn("{} takes a Context so it cannot be shared, reusing it per Context", handlerClass.getName());
+			return Reusable.Scope.CONTEXT;
+		}
+
+		return reusable.value();
+	}
+
+	private static boolean hasContextConstructor(Class<?> handlerClass) {
+		try {
+			handlerClass.getConstructor(Context.class);
+			return true;
+		} catch (NoSuchMethodException thatsOk) {
+			return false;
+		}
+	}
+
+	/**
+	 * Create a new instance of the given handler class.
+	 *
+	 * @param handlerClass the class to instantiate
+	 * @return a new instance of the given class
+	 */
+	private Object newHandler(Class<?> handlerClass) {
+		return constructorFor(handlerClass).apply(context);
+	}
+
+	/**
+	 * Retrieve the constructor function of the given handler class, creating it if the class was not known when the
+	 * registry was loaded.
+	 *
+	 * @param handlerClass The class of which to create new instances
+	 * @return A function that returns instances of the handlerClass when supplied with a context
+	 */
+	private static Function<Context, Object> constructorFor(Class<?> handlerClass) {
+		Function<Context, Object> constructor = CONSTRUCTORS.get(handlerClass);
+		return constructor != null ? constructor : CONSTRUCTORS.computeIfAbsent(handlerClass, Registry::createHandler);
 	}
 
 	/**
@@ -129,7 +256,7 @@ public class Registry<R> {
 	 * @param handlerClass The class of which to create new instances
 	 * @return A function that returns instances of the handlerClass when supplied with a context
 	 */
-	private Function<Context, Object> createHandler(Class<?> handlerClass) {
+	private static Function<Context, Object> createHandler(Class<?> handlerClass) {
 		try {
 			return createHandlerConstructor(handlerClass);
 		} catch (NoSuchMethodException | IllegalAccessException e) {
@@ -138,7 +265,7 @@ public class Registry<R> {
 		}
 	}
 
-	private Function<Context, Object> createHandlerConstructor(Class<?> handlerClass)
+	private static Function<Context, Object> createHandlerConstructor(Class<?> handlerClass)
 			throws NoSuchMethodException, IllegalAccessException {
 		try {
 			Constructor<?> constructor = handlerClass.getConstructor(Context.class);
@@ -155,7 +282,7 @@ public class Registry<R> {
 		}
 	}
 
-	private Constructor<?> getNoArgsConstructor(Class<?> type) throws NoSuchMethodException {
+	private static Constructor<?> getNoArgsConstructor(Class<?> type) throws NoSuchMethodException {
 		Constructor<?> constructor = getNoArgsConstructor(type.getConstructors());
 		if (constructor == null) {
 			constructor = getNoArgsConstructor(type.getDeclaredConstructors());
@@ -170,7 +297,7 @@ public class Registry<R> {
 		return constructor;
 	}
 
-	private Constructor<?> getNoArgsConstructor(Constructor<?>[] constructors) {
+	private static Constructor<?> getNoArgsConstructor(Constructor<?>[] constructors) {
 		for (Constructor<?> constructor : constructors) {
 			if (constructor.getParameterCount() == 0) {
 				return constructor;
@@ -180,7 +307,7 @@ public class Registry<R> {
 		return null;
 	}
 
-	private Function<Context, Object> constructorContextArgument(MethodHandle handle) {
+	private static Function<Context, Object> constructorContextArgument(MethodHandle handle) {
 		return passedContext -> {
 			try {
 				return handle.invokeExact(passedContext);
@@ -193,7 +320,7 @@ public class Registry<R> {
 		};
 	}
 
-	private Function<Context, Object> constructorNoArgs(MethodHandle handle) {
+	private static Function<Context, Object> constructorNoArgs(MethodHandle handle) {
 		return ignore -> {
 			try {
 				return handle.invokeExact();
@@ -287,6 +414,7 @@ public class Registry<R> {
 						+ " and " + handler.getName());
 		}
 		
+		constructorFor(handler);
 		registryMap.put(registryKey, handler);
 	}
 
@@ -0,0 +1,47 @@
+package gov.cms.qpp.conversion.model;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * This is the annotation to mark {@link Decoder}, {@link Encoder} and {@link Validator} implementations that
+ * may be used for more than one node, so the {@link Registry} can hand out the same instance on every lookup
+ * instead of constructing a new one.
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+@Inherited
+public @interface Reusable {
+	/**
+	 * How widely a single instance may be reused. {@link Scope#CONTEXT} by default.
+	 *
+	 * @return Scope
+	 */
+	Scope value() default Scope.CONTEXT;
+
+	/**
+	 * The extent to which one handler instance is reused.
+	 */
+	enum Scope {
+		/**
+		 * A new instance for every lookup. Lets a subclass opt out of a reusable parent.
+		 */
+		NONE,
+
+		/**
+		 * One instance per {@link gov.cms.qpp.conversion.Context}. The handler may keep the context and may hold
+		 * state, as long as that state is reset for each node it handles.
+		 */
+		CONTEXT,
+
+		/**
+		 * One instance for every {@link gov.cms.qpp.conversion.Context}, and so for concurrent conversions. The
+		 * handler must have a no-args constructor and hold no mutable state.
+		 */
+		SHARED
+	}
+}
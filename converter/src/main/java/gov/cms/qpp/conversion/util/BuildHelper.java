@@ -0,0 +1,66 @@
+package gov.cms.qpp.conversion.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Identifies the build of the converter, so what one build produced is not mistaken for what another would.
+ *
+ * The identifier is the converter's version and the time it was built, from a resource that Maven fills in.
+ */
+public class BuildHelper {
+
+	static final String RESOURCE = "converter-build.properties";
+
+	private static final Logger DEV_LOG = LoggerFactory.getLogger(BuildHelper.class);
+	private static final Optional<String> BUILD = load();
+
+	private BuildHelper() {
+		// private for this helper class
+	}
+
+	/**
+	 * The build of the converter that is running.
+	 *
+	 * @return the version and build time, or empty if the converter was not built by Maven
+	 */
+	public static Optional<String> build() {
+		return BUILD;
+	}
+
+	private static Optional<String> load() {
+		try (InputStream in = BuildHelper.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+			return identify(in);
+		} catch (IOException exception) {
+			DEV_LOG.warn("Could not read {}", RESOURCE, exception);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Reads the build identifier from the build properties.
+	 *
+	 * @param in the properties, or null if there are none
+	 * @return the identifier, or empty if the properties are missing or were never filled in
+	 * @throws IOException if the properties cannot be read
+	 */
+	static Optional<String> identify(InputStream in) throws IOException {
+		if (in == null) {
+			return Optional.empty();
+		}
+
+		Properties properties = new Properties();
+		properties.load(in);
+		String version = properties.getProperty("version", "");
+		String timestamp = properties.getProperty("timestamp", "");
+		if (version.isEmpty() || timestamp.isEmpty() || version.contains("${") || timestamp.contains("${")) {
+			return Optional.empty();
+		}
+		return Optional.of(version + "@" + timestamp);
+	}
+}
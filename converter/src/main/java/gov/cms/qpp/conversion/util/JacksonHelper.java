@@ -0,0 +1,171 @@
+package gov.cms.qpp.conversion.util;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+/**
+ * The one Jackson configuration used for reading and writing json.
+ * <p>
+ * The {@link ObjectMapper}s are configured once and never exposed, so the {@link ObjectReader}s and
+ * {@link ObjectWriter}s handed out are immutable, thread safe, and share their serializer caches across conversions.
+ */
+public final class JacksonHelper {
+
+	private static final String METADATA_FILTER_LABEL = "exclude-metadata";
+	private static final String METADATA_PREFIX = "metadata_";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final ObjectMapper NON_NULL_MAPPER = new ObjectMapper()
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+	private static final ObjectMapper METADATA_FILTERING_MAPPER = metadataFilteringMapper();
+
+	private static final ObjectReader READER = MAPPER.reader();
+	private static final ObjectWriter WRITER = MAPPER.writer();
+	private static final ObjectWriter PRETTY_WRITER = MAPPER.writer().with(printer());
+	private static final ObjectWriter METADATA_FILTERING_WRITER = METADATA_FILTERING_MAPPER.writer().with(printer());
+	private static final ObjectWriter NON_NULL_WRITER = NON_NULL_MAPPER.writer().withDefaultPrettyPrinter();
+
+	/**
+	 * Constructor that is private and empty because this is a utility class.
+	 */
+	private JacksonHelper() {
+		//private and empty because this is a utility class
+	}
+
+	/**
+	 * Shared reader. Use {@link ObjectReader#forType(Class)} to pick the type to read.
+	 *
+	 * @return the shared reader
+	 */
+	public static ObjectReader reader() {
+		return READER;
+	}
+
+	/**
+	 * Shared writer producing compact json.
+	 *
+	 * @return the shared writer
+	 */
+	public static ObjectWriter writer() {
+		return WRITER;
+	}
+
+	/**
+	 * Shared writer producing indented json, one object property per line.
+	 *
+	 * @return the shared writer
+	 */
+	public static ObjectWriter prettyWriter() {
+		return PRETTY_WRITER;
+	}
+
+	/**
+	 * Shared writer producing indented json that leaves out every map entry whose key starts with "metadata_".
+	 *
+	 * @return the shared writer
+	 */
+	public static ObjectWriter metadataFilteringWriter() {
+		return METADATA_FILTERING_WRITER;
+	}
+
+	/**
+	 * Shared writer producing indented json without null properties.
+	 *
+	 * @return the shared writer
+	 */
+	public static ObjectWriter nonNullWriter() {
+		return NON_NULL_WRITER;
+	}
+
+	/**
+	 * Create an {@link ObjectMapper} with a filter that will treat all metadata map entries as transient.
+	 *
+	 * @return the object mapper
+	 */
+	private static ObjectMapper metadataFilteringMapper() {
+		SimpleFilterProvider filters = new SimpleFilterProvider();
+		filters.addFilter(METADATA_FILTER_LABEL, new MetadataPropertyFilter());
+
+		ObjectMapper om = new ObjectMapper();
+		om.setAnnotationIntrospector(new MetadataIntrospector(METADATA_FILTER_LABEL));
+		om.setFilterProvider(filters);
+		return om;
+	}
+
+	private static DefaultPrettyPrinter printer() {
+		DefaultIndenter withLinefeed = new DefaultIndenter("  ", "\n");
+		DefaultPrettyPrinter printer = new DefaultPrettyPrinter();
+		printer.indentObjectsWith(withLinefeed);
+		return printer;
+	}
+
+	/**
+	 * Metadata specific annotation introspector. This gives us a way to programmatically associate
+	 * filtering for metadata properties prior to serialization. This is an advantage over annotated filtering
+	 * in that it's less rigid than compile time modification.
+	 */
+	private static class MetadataIntrospector extends JacksonAnnotationIntrospector {
+		private final String filterName;
+
+		/**
+		 * @param filterName name of filter to be associated during introspection
+		 */
+		private MetadataIntrospector(String filterName) {
+			this.filterName = filterName;
+		}
+
+		/**
+		 * Apply the {@link MetadataIntrospector#filterName} filter to all instances of Map.
+		 *
+		 * @param a objects to be serialized
+		 * @return either the specified filter or a the default supplied by the parent.
+		 * @see JacksonAnnotationIntrospector
+		 */
+		@Override
+		public Object findFilterId(Annotated a) {
+			if (Map.class.isAssignableFrom(a.getRawType())) {
+				return filterName;
+			}
+			return super.findFilterId(a);
+		}
+	}
+
+	/**
+	 * Filters out all map entries during serialization that have keys prefixed with "metadata_".
+	 */
+	private static class MetadataPropertyFilter extends SimpleBeanPropertyFilter {
+		/**
+		 * Pass through inclusion for beans.
+		 *
+		 * @param writer that performs serialization
+		 * @return determination of whether or not it should be serialized
+		 */
+		@Override
+		protected boolean include(BeanPropertyWriter writer) {
+			return true;
+		}
+
+		/**
+		 * Denies inclusion for "metadata_" prefixed properties.
+		 *
+		 * @param writer that performs serialization
+		 * @return determination of whether or not it should be serialized
+		 */
+		@Override
+		protected boolean include(PropertyWriter writer) {
+			return !writer.getName().startsWith(METADATA_PREFIX);
+		}
+	}
+}
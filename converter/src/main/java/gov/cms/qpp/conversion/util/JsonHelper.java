@@ -1,7 +1,6 @@
 package gov.cms.qpp.conversion.util;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
 
 import java.io.IOException;
@@ -35,7 +34,7 @@ public class JsonHelper {
 	public static <T> T readJson(String json, Class<T> valueType) {
 		T returnValue;
 		try {
-			returnValue = new ObjectMapper().readValue(json, valueType);
+			returnValue = JacksonHelper.reader().forType(valueType).readValue(json);
 		} catch (IOException ex) {
 			throw new JsonReadException(PROBLEM_PARSING_JSON, ex);
 		}
@@ -52,7 +51,7 @@ public class JsonHelper {
 	 * @throws IOException if problems arise while attempting to parse the resource at the given filePath
 	 */
 	public static <T> T readJson(Path filePath, Class<T> valueType) throws IOException {
-		return new ObjectMapper().readValue(Files.newBufferedReader(filePath), valueType);
+		return JacksonHelper.reader().forType(valueType).readValue(Files.newBufferedReader(filePath));
 	}
 
 	/**
@@ -67,7 +66,7 @@ public class JsonHelper {
 	public static <T> T readJson(InputStream json, Class<T> valueType) {
 		T returnValue;
 		try {
-			returnValue = new ObjectMapper().readValue(json, valueType);
+			returnValue = JacksonHelper.reader().forType(valueType).readValue(json);
 		} catch (IOException ex) {
 			throw new JsonReadException(PROBLEM_PARSING_JSON, ex);
 		}
@@ -86,7 +85,7 @@ public class JsonHelper {
 	public static <T> T readJson(InputStream json, TypeReference<T> valueType) {
 		T returnValue;
 		try {
-			returnValue = new ObjectMapper().readValue(json, valueType);
+			returnValue = JacksonHelper.reader().forType(valueType).readValue(json);
 		} catch (IOException ex) {
 			throw new JsonReadException(PROBLEM_PARSING_JSON, ex);
 		}
@@ -103,7 +102,7 @@ public class JsonHelper {
 	 * @throws IOException if problems arise while attempting to parse the json file
 	 */
 	public static <T> T readJson(Path filePath, TypeReference<T> valueType) throws IOException {
-		return new ObjectMapper().readValue(Files.newBufferedReader(filePath), valueType);
+		return JacksonHelper.reader().forType(valueType).readValue(Files.newBufferedReader(filePath));
 	}
 
 	/**
@@ -1,6 +1,7 @@
 package gov.cms.qpp.conversion.validate;
 
 import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.Reusable;
 import gov.cms.qpp.conversion.model.error.Detail;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,7 +11,10 @@ import java.util.Set;
 
 /**
  * The parent class that all validators must inherit from.
+ * Validators are {@link Reusable} within a context because each call to {@link #validateSingleNode(Node)} starts
+ * with an empty set of details.
  */
+@Reusable
 public abstract class NodeValidator {
 
 	private static final Logger DEV_LOG = LoggerFactory.getLogger(NodeValidator.class);
@@ -18,7 +22,7 @@ public abstract class NodeValidator {
 
 	/**
 	 * Validates a single {@link gov.cms.qpp.conversion.model.Node} and returns the list
-	 * of {@link Detail}s for that node.
+	 * of {@link Detail}s for that node. Details from previously validated nodes are not included.
 	 *
 	 * @param node The node to validate.
 	 * @return List of errors determined for the node paramter.
@@ -26,6 +30,7 @@ public abstract class NodeValidator {
 	 */
 	public Set<Detail> validateSingleNode(final Node node) {
 		DEV_LOG.debug("Using {} to validate {}", this.getClass().getName(), node);
+		details = new LinkedHashSet<>();
 		internalValidateSingleNode(node);
 		return getDetails();
 	}
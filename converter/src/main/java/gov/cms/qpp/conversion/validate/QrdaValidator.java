@@ -1,6 +1,9 @@
 package gov.cms.qpp.conversion.validate;
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.instrument.Instrumentation;
+import gov.cms.qpp.conversion.instrument.Measurement;
+import gov.cms.qpp.conversion.instrument.Stage;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.Registry;
 import gov.cms.qpp.conversion.model.TemplateId;
@@ -25,9 +28,11 @@ public class QrdaValidator {
 	private final List<Detail> details = new ArrayList<>();
 	private final Set<TemplateId> scope;
 	private final Registry<NodeValidator> validators;
+	private final Instrumentation instrumentation;
 
 	public QrdaValidator(Context context) {
 		this.validators = context.getRegistry(Validator.class);
+		this.instrumentation = context.getInstrumentation();
 		this.scope = context.hasScope() ? QrdaScope.getTemplates(context.getScope()) : null;
 	}
 
@@ -66,8 +71,10 @@ public class QrdaValidator {
 		getValidators(node.getType())
 			.filter(this::isValidationRequired)
 			.forEach(validatorForNode -> {
-				Set<Detail> nodeErrors = validatorForNode.validateSingleNode(node);
-				details.addAll(nodeErrors);
+				try (Measurement measurement = instrumentation.measure(Stage.VALIDATE, node.getType())) {
+					Set<Detail> nodeErrors = validatorForNode.validateSingleNode(node);
+					details.addAll(nodeErrors);
+				}
 			});
 	}
 
@@ -0,0 +1,126 @@
+package gov.cms.qpp.conversion.xml;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jdom2.Namespace;
+import org.jdom2.filter.Filter;
+import org.jdom2.xpath.XPathExpression;
+import org.jdom2.xpath.XPathFactory;
+
+/**
+ * Process wide cache of compiled {@link XPathExpression}s keyed by expression, filter and namespace.
+ * <p>
+ * Cached expressions are shared between threads. They are compiled without variables, and the decoder XPaths never
+ * use the namespace axis, so evaluating them holds no per call state. Callers must not set variables on them.
+ */
+public final class XPathExpressionCache {
+
+	private static final ConcurrentMap<Key, XPathExpression<?>> EXPRESSIONS = new ConcurrentHashMap<>();
+	private static final LongAdder HITS = new LongAdder();
+	private static final LongAdder MISSES = new LongAdder();
+
+	/**
+	 * Private constructor so utility class cannot be instantiated.
+	 */
+	private XPathExpressionCache() {
+		//private constructor so utility class cannot be instantiated
+	}
+
+	/**
+	 * Retrieves the compiled form of an XPath, compiling it on first use.
+	 *
+	 * @param expression The XPath to compile.
+	 * @param filter The filter applied to the results of the XPath.
+	 * @param namespace The namespace to make available to the XPath.
+	 * @param <T> The type of results produced by the filter.
+	 * @return The shared compiled expression.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> XPathExpression<T> compile(String expression, Filter<T> filter, Namespace namespace) {
+		Key key = new Key(expression, filter, namespace);
+		XPathExpression<?> compiled = EXPRESSIONS.get(key);
+
+		if (compiled == null) {
+			compiled = EXPRESSIONS.computeIfAbsent(key, missed -> {
+				MISSES.increment();
+				return XPathFactory.instance().compile(expression, filter, null, namespace);
+			});
+		} else {
+			HITS.increment();
+		}
+
+		return (XPathExpression<T>) compiled;
+	}
+
+	/**
+	 * Number of lookups answered by an already compiled expression.
+	 *
+	 * @return the hit count
+	 */
+	public static long getHitCount() {
+		return HITS.sum();
+	}
+
+	/**
+	 * Number of lookups that had to compile their expression.
+	 *
+	 * @return the miss count
+	 */
+	public static long getMissCount() {
+		return MISSES.sum();
+	}
+
+	/**
+	 * Number of distinct compiled expressions held.
+	 *
+	 * @return the cache size
+	 */
+	public static int size() {
+		return EXPRESSIONS.size();
+	}
+
+	/**
+	 * Cache key. {@link Namespace#equals(Object)} ignores the prefix, which matters to the compiled XPath, so the
+	 * prefix is kept separately.
+	 */
+	private static final class Key {
+		private final String expression;
+		private final Filter<?> filter;
+		private final String prefix;
+		private final String uri;
+		private final int hashCode;
+
+		Key(String expression, Filter<?> filter, Namespace namespace) {
+			this.expression = expression;
+			this.filter = filter;
+			this.prefix = namespace == null ? null : namespace.getPrefix();
+			this.uri = namespace == null ? null : namespace.getURI();
+			this.hashCode = Objects.hash(expression, filter, prefix, uri);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+
+			if (o == null || this.getClass() != o.getClass()) {
+				return false;
+			}
+
+			Key that = (Key) o;
+			return Objects.equals(expression, that.expression)
+					&& Objects.equals(filter, that.filter)
+					&& Objects.equals(prefix, that.prefix)
+					&& Objects.equals(uri, that.uri);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
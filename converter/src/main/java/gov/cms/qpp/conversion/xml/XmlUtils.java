@@ -7,6 +7,10 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.stream.Collectors;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
 import org.jdom2.input.SAXBuilder;
@@ -18,6 +22,7 @@ public class XmlUtils {
 	private static final String DISALLOW_DTD = "http://apache.org/xml/features/disallow-doctype-decl";
 	private static final String EXT_GENERAL_ENTITIES = "http://xml.org/sax/features/external-general-entities";
 	private static final String EXT_PARAM_ENTITIES = "http://xml.org/sax/features/external-parameter-entities";
+	private static final XMLInputFactory STAX_FACTORY = createInputFactory();
 
 	/**
 	 * Private constructor so utility class cannot be instantiated.
@@ -61,6 +66,30 @@ public class XmlUtils {
 		}
 	}
 
+	/**
+	 * Opens a StAX cursor over a stream of XML. DTDs and external entities are disallowed, matching
+	 * {@link #parseXmlStream(InputStream)}.
+	 *
+	 * @param xmlStream The XML.
+	 * @return A reader positioned at the start of the document.
+	 * @throws XmlException When the stream cannot be read as XML.
+	 */
+	public static XMLStreamReader createStreamReader(InputStream xmlStream) {
+		try {
+			return STAX_FACTORY.createXMLStreamReader(xmlStream);
+		} catch (XMLStreamException e) {
+			throw new XmlException("Failed to open XML stream", e);
+		}
+	}
+
+	private static XMLInputFactory createInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		return factory;
+	}
+
 	/**
 	 * Concatenates the parameters.
 	 *
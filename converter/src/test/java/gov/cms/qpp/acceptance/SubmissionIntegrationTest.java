@@ -69,7 +69,7 @@ class SubmissionIntegrationTest {
 	private JsonWrapper loadQpp() {
 		Path path = Paths.get("../qrda-files/valid-QRDA-III-latest.xml");
 		Converter converter = new Converter(new PathSource(path));
-		return converter.transform();
+		return new JsonWrapper(converter.transform(), true);
 	}
 
 	private HttpResponse servicePost(JsonWrapper qpp) throws IOException {
@@ -1,5 +1,7 @@
 package gov.cms.qpp.conversion;
 
+import gov.cms.qpp.conversion.instrument.Instrumentation;
+import gov.cms.qpp.conversion.instrument.StageStatistics;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Program;
 import gov.cms.qpp.conversion.segmentation.QrdaScope;
@@ -25,6 +27,50 @@ class ContextTest {
 		assertThat(new Context().isHistorical()).isFalse();
 	}
 
+	@Test
+	void testIsNotInstrumentedByDefault() {
+		assertThat(new Context().getInstrumentation()).isSameAs(Instrumentation.NONE);
+	}
+
+	@Test
+	void testInstrumentationSetter() {
+		Context context = new Context();
+		StageStatistics statistics = new StageStatistics();
+		context.setInstrumentation(statistics);
+		assertThat(context.getInstrumentation()).isSameAs(statistics);
+	}
+
+	@Test
+	void testNullInstrumentationRecordsNothing() {
+		Context context = new Context();
+		context.setInstrumentation(null);
+		assertThat(context.getInstrumentation()).isSameAs(Instrumentation.NONE);
+	}
+
+	@Test
+	void testIsNotStreamingDecodeByDefault() {
+		assertThat(new Context().isStreamingDecode()).isFalse();
+	}
+
+	@Test
+	void testIsStreamingDecodeSetter() {
+		Context context = new Context();
+		context.setStreamingDecode(true);
+		assertThat(context.isStreamingDecode()).isTrue();
+	}
+
+	@Test
+	void testIsReuseHandlersByDefault() {
+		assertThat(new Context().isReuseHandlers()).isTrue();
+	}
+
+	@Test
+	void testIsReuseHandlersSetter() {
+		Context context = new Context();
+		context.setReuseHandlers(false);
+		assertThat(context.isReuseHandlers()).isFalse();
+	}
+
 	@Test
 	void testIsDoDefaultsSetter() {
 		Context context = new Context();
@@ -2,7 +2,7 @@ package gov.cms.qpp.conversion;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import gov.cms.qpp.conversion.encode.EncodeException;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
 import gov.cms.qpp.conversion.model.error.AllErrors;
@@ -63,6 +63,20 @@ class ConversionReportTest {
 				.isEqualTo(wrapper.toString());
 	}
 
+	@Test
+	void testGetDecodedIsSharedAndFrozen() {
+		assertThat(report.getDecoded()).isSameAs(report.getDecoded());
+		assertThat(report.getDecoded().isFrozen()).isTrue();
+		assertThrows(UnsupportedOperationException.class, () -> report.getDecoded().putValue("key", "value"));
+	}
+
+	@Test
+	void testGetEncodedIsSharedAndFrozen() {
+		assertThat(report.getEncoded()).isSameAs(report.getEncoded());
+		assertThat(report.getEncoded().isFrozen()).isTrue();
+		assertThrows(UnsupportedOperationException.class, () -> report.getEncoded().putString("key", "value"));
+	}
+
 	@Test
 	void getReportDetails() {
 		assertThat(errorReport.getReportDetails()).isNotNull();
@@ -81,17 +95,17 @@ class ConversionReportTest {
 
 	@Test
 	void getBadReportDetails() throws NoSuchFieldException, IllegalAccessException, JsonProcessingException {
-		ObjectMapper mockMapper = mock(ObjectMapper.class);
-		when(mockMapper.writeValueAsBytes(any(AllErrors.class)))
+		ObjectWriter mockWriter = mock(ObjectWriter.class);
+		when(mockWriter.writeValueAsBytes(any(AllErrors.class)))
 			.thenThrow(new JsonMappingException(null, "meep"));
 
 		Converter converter = new Converter(
 			new PathSource(Paths.get("../qrda-files/valid-QRDA-III-latest.xml")));
 		ConversionReport badReport = converter.getReport();
 
-		Field field = badReport.getClass().getDeclaredField("mapper");
+		Field field = badReport.getClass().getDeclaredField("writer");
 		field.setAccessible(true);
-		field.set(badReport, mockMapper);
+		field.set(badReport, mockWriter);
 
 		assertThrows(EncodeException.class, badReport::getValidationErrorsSource);
 	}
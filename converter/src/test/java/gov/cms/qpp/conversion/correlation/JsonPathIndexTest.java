@@ -0,0 +1,50 @@
+package gov.cms.qpp.conversion.correlation;
+
+import com.google.common.collect.Lists;
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class JsonPathIndexTest {
+
+	@Test
+	void indexesRootMetadata() {
+		List<Map<String, String>> metadata = Lists.newArrayList(Collections.singletonMap("template", "root"));
+		JsonWrapper wrapper = new JsonWrapper();
+		wrapper.putObject(JsonPathIndex.METADATA_HOLDER, metadata);
+
+		assertThat(new JsonPathIndex(wrapper.getObject()).getMetadata("$")).isSameAs(metadata);
+	}
+
+	@Test
+	void indexesNestedMetadata() {
+		List<Map<String, String>> first = Lists.newArrayList(Collections.singletonMap("template", "first"));
+		List<Map<String, String>> second = Lists.newArrayList(Collections.singletonMap("template", "second"));
+		JsonWrapper measurements = new JsonWrapper();
+		measurements.putObject(new JsonWrapper().putObject(JsonPathIndex.METADATA_HOLDER, first));
+		measurements.putObject(new JsonWrapper().putObject(JsonPathIndex.METADATA_HOLDER, second));
+		JsonWrapper wrapper = new JsonWrapper();
+		wrapper.putObject("measurements", measurements);
+
+		JsonPathIndex index = new JsonPathIndex(wrapper.getObject());
+
+		assertThat(index.getMetadata("$.measurements[0]")).isSameAs(first);
+		assertThat(index.getMetadata("$.measurements[1]")).isSameAs(second);
+	}
+
+	@Test
+	void missingPathIsNotIndexed() {
+		JsonWrapper wrapper = new JsonWrapper();
+		wrapper.putString("programName", "mips");
+
+		JsonPathIndex index = new JsonPathIndex(wrapper.getObject());
+
+		assertThat(index.getMetadata("$")).isNull();
+		assertThat(index.getMetadata("$.programName")).isNull();
+	}
+}
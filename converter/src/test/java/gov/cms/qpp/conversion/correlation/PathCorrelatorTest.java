@@ -71,4 +71,61 @@ class PathCorrelatorTest {
 
 		assertThat(PathCorrelator.prepPath("$.mawp", wrapper)).isEmpty();
 	}
+
+	@Test
+	void prepPathForNestedHash() {
+		JsonWrapper wrapper = nestedWrapper();
+
+		assertThat(PathCorrelator.prepPath("$.measurementSets[0].programName", wrapper))
+				.isEqualTo(expectedProgramNameXpath());
+	}
+
+	@Test
+	void prepPathForFrozenWrapper() {
+		JsonWrapper wrapper = nestedWrapper().freeze();
+
+		assertThat(PathCorrelator.prepPath("$.measurementSets[0].programName", wrapper))
+				.isEqualTo(expectedProgramNameXpath());
+		assertThat(PathCorrelator.prepPath("$.measurementSets[0].programName", wrapper))
+				.isEqualTo(expectedProgramNameXpath());
+	}
+
+	@Test
+	void prepPathEvaluatesBracketNotation() {
+		JsonWrapper wrapper = nestedWrapper().freeze();
+
+		assertThat(PathCorrelator.prepPath("$['measurementSets'][0].programName", wrapper))
+				.isEqualTo(expectedProgramNameXpath());
+	}
+
+	@Test
+	void prepPathWithoutMetadata() {
+		JsonWrapper wrapper = new JsonWrapper();
+		wrapper.putString("programName", "mips");
+
+		assertThat(PathCorrelator.prepPath("$.programName", wrapper)).isEmpty();
+	}
+
+	private JsonWrapper nestedWrapper() {
+		Map<String, String> metadata = new HashMap<>();
+		metadata.put("encodeLabel", "");
+		metadata.put("template", TemplateId.CLINICAL_DOCUMENT.name());
+		metadata.put("nsuri", "meep");
+		metadata.put("path", "/base");
+
+		JsonWrapper measurementSet = new JsonWrapper();
+		measurementSet.putString("programName", "mips");
+		measurementSet.putObject("metadata_holder", Lists.newArrayList(metadata));
+
+		JsonWrapper measurementSets = new JsonWrapper();
+		measurementSets.putObject(measurementSet);
+
+		JsonWrapper wrapper = new JsonWrapper();
+		wrapper.putObject("measurementSets", measurementSets);
+		return wrapper;
+	}
+
+	private String expectedProgramNameXpath() {
+		return "/base/" + PathCorrelator.getXpath(TemplateId.CLINICAL_DOCUMENT.name(), "programName", "meep");
+	}
 }
@@ -0,0 +1,96 @@
+package gov.cms.qpp.conversion.decode;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.TemplateId;
+import gov.cms.qpp.conversion.xml.XmlException;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class StreamingQrdaDecoderEngineTest {
+
+	private static Stream<Path> qrdaFiles() {
+		return Stream.of(Paths.get("../qrda-files"), Paths.get("../sample-files"),
+				Paths.get("src/test/resources/cpc_plus/success"), Paths.get("src/test/resources/cpc_plus/failure"))
+				.flatMap(StreamingQrdaDecoderEngineTest::listXml);
+	}
+
+	private static Stream<Path> listXml(Path directory) {
+		try {
+			return Files.list(directory).filter(path -> path.toString().endsWith(".xml"));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@ParameterizedTest
+	@MethodSource("qrdaFiles")
+	void decodesSameTreeAsDocumentEngine(Path path) throws IOException {
+		Node expected = decode(path, false);
+		Node actual = decode(path, true);
+
+		assertThat(actual).isEqualTo(expected);
+	}
+
+	@Test
+	void keepsPathsOfRepeatedSiblings() throws IOException {
+		Node decoded = decode(Paths.get("../qrda-files/valid-QRDA-III-latest.xml"), true);
+
+		Node measure = decoded.findFirstNode(TemplateId.MEASURE_REFERENCE_RESULTS_CMS_V2);
+
+		assertThat(measure.getPath()).contains("[1]");
+	}
+
+	@Test
+	void rejectsNonQrdaDocument() {
+		String xml = "<root><templateId root=\"2.16.840.1.113883.10.20.27.1.1\"/></root>";
+
+		assertThat(decode(xml)).isNull();
+	}
+
+	@Test
+	void reportsMalformedTrailingContent() {
+		String xml = "<ClinicalDocument xmlns=\"urn:hl7-org:v3\">"
+				+ "<templateId root=\"2.16.840.1.113883.10.20.27.1.1\"/>"
+				+ "<component><structuredBody></component></ClinicalDocument>";
+
+		Assertions.assertThrows(XmlException.class, () -> decode(xml));
+	}
+
+	@Test
+	void rejectsDoctype() {
+		String xml = "<!DOCTYPE ClinicalDocument [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>"
+				+ "<ClinicalDocument>&xxe;</ClinicalDocument>";
+
+		Assertions.assertThrows(XmlException.class, () -> decode(xml));
+	}
+
+	private Node decode(Path path, boolean streaming) throws IOException {
+		Context context = new Context();
+		context.setStreamingDecode(streaming);
+		try (InputStream xmlStream = Files.newInputStream(path)) {
+			return XmlDecoderEngine.decodeXml(context, xmlStream);
+		}
+	}
+
+	private Node decode(String xml) {
+		Context context = new Context();
+		context.setStreamingDecode(true);
+		return XmlDecoderEngine.decodeXml(context, new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -2,12 +2,18 @@ package gov.cms.qpp.conversion.encode;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.TemplateId;
 import gov.cms.qpp.conversion.model.error.Detail;
 
 class JsonOutputEncoderTest {
@@ -63,4 +69,35 @@ class JsonOutputEncoderTest {
 		assertThat(details)
 				.hasSize(1);
 	}
+
+	@Test
+	void testEncodeToOutputStream() {
+		JsonOutputEncoder encoder = new JsonOutputEncoder() {
+			@Override
+			protected void internalEncode(JsonWrapper wrapper, Node node) {
+				wrapper.putString("type", node.getType().name());
+			}
+		};
+		encoder.setNodes(Collections.singletonList(new Node(TemplateId.PLACEHOLDER)));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		encoder.encode(outputStream);
+
+		assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8)).contains("\"type\" : \"PLACEHOLDER\"");
+		assertThat(encoder.getDetails()).isEmpty();
+	}
+
+	@Test
+	void testEncodeToFailingOutputStream() {
+		joe.setNodes(Collections.emptyList());
+
+		joe.encode(new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Fake IOException");
+			}
+		});
+
+		assertThat(joe.getDetails()).hasSize(1);
+	}
 }
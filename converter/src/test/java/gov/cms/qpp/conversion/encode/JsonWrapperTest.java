@@ -2,8 +2,15 @@ package gov.cms.qpp.conversion.encode;
 
 import gov.cms.qpp.conversion.util.JsonHelper;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -25,6 +32,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 class JsonWrapperTest {
 
@@ -687,6 +695,106 @@ class JsonWrapperTest {
 				.isEqualTo(2);
 	}
 
+	@Test
+	void testWriteToOutputStreamMatchesToString() throws IOException {
+		objectStrWrapper.putString("name", "value");
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		objectStrWrapper.writeTo(outputStream);
+
+		assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8))
+				.isEqualTo(objectStrWrapper.toString());
+	}
+
+	@Test
+	void testWriteToWriterMatchesToString() throws IOException {
+		listStrWrapper.putString("value");
+		StringWriter writer = new StringWriter();
+
+		listStrWrapper.writeTo(writer);
+
+		assertThat(writer.toString()).isEqualTo(listStrWrapper.toString());
+	}
+
+	@Test
+	void testWriteToLeavesStreamOpen() throws IOException {
+		objectStrWrapper.putString("name", "value");
+		OutputStream outputStream = Mockito.mock(OutputStream.class);
+
+		objectStrWrapper.writeTo(outputStream);
+
+		Mockito.verify(outputStream).flush();
+		Mockito.verify(outputStream, Mockito.never()).close();
+	}
+
+	@Test
+	void testWriteCompactToIsOneLine() throws IOException {
+		objectStrWrapper.putString("name", "value");
+		objectStrWrapper.putObject("nested", new JsonWrapper().putString("inner", "line\nbreak"));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		objectStrWrapper.writeCompactTo(outputStream);
+
+		assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8))
+				.isEqualTo("{\"name\":\"value\",\"nested\":{\"inner\":\"line\\nbreak\"}}");
+	}
+
+
+	@Test
+	void testFreezeRejectsPuts() {
+		JsonWrapper frozen = new JsonWrapper().putString("a", "b").freeze();
+
+		assertThat(frozen.isFrozen()).isTrue();
+		assertThrows(UnsupportedOperationException.class, () -> frozen.putString("c", "d"));
+	}
+
+	@Test
+	void testFreezeMakesNestedContentReadOnly() {
+		JsonWrapper child = new JsonWrapper().putString("name", "value");
+		JsonWrapper list = new JsonWrapper().putObject(child);
+		JsonWrapper frozen = new JsonWrapper().putObject("list", list).putObject("meta", child).freeze();
+
+		List<Map<String, Object>> nested = frozen.getValue("list");
+		assertThrows(UnsupportedOperationException.class, () -> nested.add(new HashMap<>()));
+		assertThrows(UnsupportedOperationException.class, () -> nested.get(0).put("other", "value"));
+		assertThat(frozen.<Map<String, Object>>getValue("meta")).isSameAs(nested.get(0));
+	}
+
+	@Test
+	void testFreezeKeepsJson() {
+		JsonWrapper wrapper = new JsonWrapper().putString("a", "b").putObject("c", new JsonWrapper().putInteger("1"));
+		String expected = wrapper.toString();
+
+		assertThat(wrapper.freeze().toString()).isEqualTo(expected);
+	}
+
+	@Test
+	void testStreamOfFrozenListIsFrozen() {
+		JsonWrapper frozen = new JsonWrapper().putObject(new JsonWrapper().putString("a", "b")).freeze();
+
+		assertThat(frozen.stream().allMatch(JsonWrapper::isFrozen)).isTrue();
+	}
+
+	@Test
+	void testFrozenWrapperSurvivesSerialization() throws Exception {
+		JsonWrapper frozen = new JsonWrapper()
+				.putString("a", "b")
+				.putObject("list", new JsonWrapper().putObject(new JsonWrapper().putInteger("1")))
+				.freeze();
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(frozen);
+		}
+		JsonWrapper copy;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			copy = (JsonWrapper) in.readObject();
+		}
+
+		assertThat(copy.toString()).isEqualTo(frozen.toString());
+		assertThat(copy.isFrozen()).isTrue();
+		assertThrows(UnsupportedOperationException.class, () -> copy.putString("c", "d"));
+	}
 }
 
 class MockBadJsonTarget {
@@ -694,4 +802,5 @@ class MockBadJsonTarget {
 	private String getVar() {
 		return "";
 	}
+
 }
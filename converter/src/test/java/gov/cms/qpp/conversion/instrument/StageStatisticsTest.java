@@ -0,0 +1,112 @@
+package gov.cms.qpp.conversion.instrument;
+
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.Converter;
+import gov.cms.qpp.conversion.PathSource;
+import gov.cms.qpp.conversion.model.TemplateId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class StageStatisticsTest {
+
+	@Test
+	void testRecordAddsUp() {
+		StageStatistics statistics = new StageStatistics();
+		statistics.record(Stage.PARSE, 10, 5, 100);
+		statistics.record(Stage.PARSE, 20, 5, 100);
+
+		StageTotals parse = statistics.getTotals().get(0);
+		assertThat(parse.getStage()).isEqualTo(Stage.PARSE);
+		assertThat(parse.getCount()).isEqualTo(2);
+		assertThat(parse.getWallNanos()).isEqualTo(30);
+		assertThat(parse.getCpuNanos()).isEqualTo(10);
+		assertThat(parse.getAllocatedBytes()).isEqualTo(200);
+	}
+
+	@Test
+	void testUnmeasuredCostsAreLeftOut() {
+		StageStatistics statistics = new StageStatistics();
+		statistics.record(Stage.PARSE, 10, -1, -1);
+
+		StageTotals parse = statistics.getTotals().get(0);
+		assertThat(parse.getCpuNanos()).isEqualTo(0);
+		assertThat(parse.getAllocatedBytes()).isEqualTo(0);
+	}
+
+	@Test
+	void testStagesComeBeforeHandlers() {
+		StageStatistics statistics = new StageStatistics();
+		statistics.record(Stage.handler(Stage.ENCODE, TemplateId.CLINICAL_DOCUMENT), 100, 0, 0);
+		statistics.record(Stage.PARSE, 1, 0, 0);
+		statistics.record(Stage.ENCODE, 10, 0, 0);
+
+		assertThat(stageNames(statistics)).containsExactly(Stage.ENCODE, Stage.PARSE, "encode:CLINICAL_DOCUMENT")
+				.inOrder();
+	}
+
+	@Test
+	void testSummarizeListsEveryStage() {
+		StageStatistics statistics = new StageStatistics();
+		statistics.record(Stage.PARSE, 1_500_000, 1_000_000, 4096);
+
+		String summary = statistics.summarize();
+
+		assertThat(summary).contains("Wall ms");
+		assertThat(summary).containsMatch("parse\\s+1\\s+1\\.500\\s+1\\.000\\s+4");
+	}
+
+	@Test
+	void testMeasuresEachStageOfAConversion() {
+		StageStatistics statistics = new StageStatistics();
+		Context context = new Context();
+		context.setInstrumentation(statistics);
+
+		new Converter(new PathSource(Paths.get("../qrda-files/valid-QRDA-III-latest.xml")), context).transform();
+
+		assertThat(stageNames(statistics)).containsAllOf(Stage.PARSE, Stage.DECODE, Stage.VALIDATE, Stage.ENCODE,
+				Stage.handler(Stage.DECODE, TemplateId.CLINICAL_DOCUMENT),
+				Stage.handler(Stage.VALIDATE, TemplateId.CLINICAL_DOCUMENT),
+				Stage.handler(Stage.ENCODE, TemplateId.CLINICAL_DOCUMENT));
+		assertThat(stageNames(statistics)).doesNotContain(Stage.REMOVE_DEFAULT_NODE);
+	}
+
+	@Test
+	void testMeasuresRemovingDefaults() {
+		StageStatistics statistics = new StageStatistics();
+		Context context = new Context();
+		context.setDoDefaults(false);
+		context.setInstrumentation(statistics);
+
+		new Converter(new PathSource(Paths.get("../qrda-files/valid-QRDA-III-latest.xml")), context).transform();
+
+		assertThat(stageNames(statistics)).contains(Stage.REMOVE_DEFAULT_NODE);
+	}
+
+	@Test
+	void testStreamingDecodeIsMeasuredAsOneStage() {
+		StageStatistics statistics = new StageStatistics();
+		Context context = new Context();
+		context.setStreamingDecode(true);
+		context.setInstrumentation(statistics);
+
+		new Converter(new PathSource(Paths.get("../qrda-files/valid-QRDA-III-latest.xml")), context).transform();
+
+		assertThat(stageNames(statistics)).contains(Stage.DECODE);
+		assertThat(stageNames(statistics)).doesNotContain(Stage.PARSE);
+	}
+
+	@Test
+	void testNoneDoesNotMeasure() {
+		assertThat(Instrumentation.NONE.measure(Stage.PARSE)).isSameAs(Measurement.NONE);
+		assertThat(Instrumentation.NONE.measure(Stage.ENCODE, TemplateId.CLINICAL_DOCUMENT)).isSameAs(Measurement.NONE);
+	}
+
+	private static List<String> stageNames(StageStatistics statistics) {
+		return statistics.getTotals().stream().map(StageTotals::getStage).collect(Collectors.toList());
+	}
+}
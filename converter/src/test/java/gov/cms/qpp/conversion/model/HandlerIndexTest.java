@@ -0,0 +1,79 @@
+package gov.cms.qpp.conversion.model;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.decode.AggregateCountDecoder;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class HandlerIndexTest {
+
+	private static Stream<Class<? extends Annotation>> handlerAnnotations() {
+		return Stream.of(Decoder.class, Encoder.class, Validator.class);
+	}
+
+	@ParameterizedTest
+	@MethodSource("handlerAnnotations")
+	void testIndexMatchesClassPathScan(Class<? extends Annotation> annotationClass) {
+		Registry<?> registry = new Registry<>(new Context(), annotationClass);
+
+		assertThat(HandlerIndex.lookup(annotationClass))
+				.containsExactlyEntriesIn(registry.scanAnnotatedClasses(annotationClass));
+	}
+
+	@Test
+	void testNoIndexOnClassPath() throws IOException {
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[0], null)) {
+			assertThat(HandlerIndex.lookup(Decoder.class, classLoader)).isNull();
+		}
+	}
+
+	@Test
+	void testMalformedIndex() throws IOException {
+		assertThat(lookupWithIndex("Decoder\tgov.cms.qpp.conversion.decode.AggregateCountDecoder")).isNull();
+	}
+
+	@Test
+	void testIndexWithUnknownClass() throws IOException {
+		assertThat(lookupWithIndex("Decoder\tgov.cms.Missing\tACI_AGGREGATE_COUNT\tALL")).isNull();
+	}
+
+	@Test
+	void testIndexWithClassNoLongerAnnotated() throws IOException {
+		assertThat(lookupWithIndex("Decoder\tgov.cms.qpp.conversion.Context\tACI_AGGREGATE_COUNT\tALL")).isNull();
+	}
+
+	@Test
+	void testIndexSkipsOtherAnnotations() throws IOException {
+		String decoder = "Decoder\t" + AggregateCountDecoder.class.getName() + "\tACI_AGGREGATE_COUNT\tALL";
+		String encoder = "Encoder\tgov.cms.Missing\tACI_AGGREGATE_COUNT\tALL";
+
+		assertThat(lookupWithIndex(decoder + "\n" + encoder)).containsEntry(
+				new ComponentKey(TemplateId.ACI_AGGREGATE_COUNT, Program.ALL), AggregateCountDecoder.class);
+	}
+
+	private Map<ComponentKey, Class<?>> lookupWithIndex(String content) throws IOException {
+		Path root = Files.createTempDirectory("handler-index");
+		Path index = root.resolve(HandlerIndex.INDEX);
+		Files.createDirectories(index.getParent());
+		Files.write(index, content.getBytes(StandardCharsets.UTF_8));
+
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] {root.toUri().toURL()},
+				HandlerIndexTest.class.getClassLoader())) {
+			return HandlerIndex.lookup(Decoder.class, classLoader);
+		}
+	}
+}
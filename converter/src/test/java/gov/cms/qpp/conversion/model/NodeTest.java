@@ -2,7 +2,13 @@ package gov.cms.qpp.conversion.model;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Arrays;
 import java.util.List;
 
@@ -263,8 +269,59 @@ class NodeTest {
 		EqualsVerifier.forClass(Node.class)
 			.withPrefabValues(List.class, Lists.newArrayList(new Node()), Lists.newArrayList(new Node(TemplateId.CLINICAL_DOCUMENT), new Node(TemplateId.ACI_NUMERATOR)))
 			.withPrefabValues(Node.class, new Node(TemplateId.ACI_DENOMINATOR), parent)
-			.withIgnoredFields("parent")
+			.withIgnoredFields("parent", "frozen")
 			.suppress(Warning.NONFINAL_FIELDS)
 			.verify();
 	}
+
+	@Test
+	void testFreezeRejectsMutation() {
+		Node child = new Node(TemplateId.ACI_NUMERATOR);
+		Node parent = new Node(TemplateId.ACI_SECTION);
+		parent.addChildNode(child);
+		parent.freeze();
+
+		assertThat(child.isFrozen()).isTrue();
+		assertThrows(UnsupportedOperationException.class, () -> parent.putValue("key", "value"));
+		assertThrows(UnsupportedOperationException.class, () -> child.setParent(null));
+		assertThrows(UnsupportedOperationException.class, () -> parent.getChildNodes().clear());
+	}
+
+	@Test
+	void testFreezeKeepsValues() {
+		Node node = new Node();
+		node.putValue("key", "value");
+		node.putValue("key", "other", false);
+		node.freeze();
+
+		assertThat(node.getValue("key")).isEqualTo("value");
+		assertThat(node.getDuplicateValues("key")).containsExactly("other");
+		assertThrows(UnsupportedOperationException.class, () -> node.getDuplicateValues("key").clear());
+	}
+
+	@Test
+	void testFrozenNodeSurvivesSerialization() throws Exception {
+		Node child = new Node(TemplateId.ACI_NUMERATOR);
+		child.putValue("key", "value");
+		Node parent = new Node(TemplateId.ACI_SECTION);
+		parent.addChildNode(child);
+		child.setParent(parent);
+		parent.freeze();
+
+		Node copy = roundTrip(parent);
+
+		assertThat(copy).isEqualTo(parent);
+		assertThat(copy.isFrozen()).isTrue();
+		assertThat(copy.getChildNodes().get(0).getParent()).isSameAs(copy);
+	}
+
+	private static Node roundTrip(Node node) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(node);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (Node) in.readObject();
+		}
+	}
 }
@@ -0,0 +1,124 @@
+package gov.cms.qpp.conversion.model;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.Sets;
+
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.decode.QrdaDecoder;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+class RegistryConcurrencyTest {
+
+	private static final int THREADS = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+	private static final int ITERATIONS = 50;
+
+	private ExecutorService executor;
+	private CountDownLatch start;
+
+	@BeforeEach
+	void before() {
+		executor = Executors.newFixedThreadPool(THREADS);
+		start = new CountDownLatch(1);
+	}
+
+	@AfterEach
+	void after() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void testConcurrentGetReturnsRegisteredHandlers() throws Exception {
+		Map<Class<? extends Annotation>, Map<TemplateId, Class<?>>> expected = expectedHandlers();
+
+		List<Future<Integer>> results = submitAll(() -> {
+			int lookups = 0;
+			for (int i = 0; i < ITERATIONS; i++) {
+				Context context = new Context();
+				context.setReuseHandlers(i % 2 == 0);
+				for (Map.Entry<Class<? extends Annotation>, Map<TemplateId, Class<?>>> handlers : expected.entrySet()) {
+					Registry<Object> registry = context.getRegistry(handlers.getKey());
+					for (Map.Entry<TemplateId, Class<?>> handler : handlers.getValue().entrySet()) {
+						assertWithMessage("Handler for %s", handler.getKey())
+								.that(registry.get(handler.getKey())).isInstanceOf(handler.getValue());
+						lookups++;
+					}
+				}
+			}
+			return lookups;
+		});
+
+		int expectedLookups = expected.values().stream().mapToInt(Map::size).sum() * ITERATIONS;
+		for (Future<Integer> result : results) {
+			assertThat(result.get(1, TimeUnit.MINUTES)).isEqualTo(expectedLookups);
+		}
+	}
+
+	@Test
+	void testConcurrentGetSharesSharedHandler() throws Exception {
+		List<Future<QrdaDecoder>> results = submitAll(() -> {
+			Registry<QrdaDecoder> registry = new Context().getRegistry(Decoder.class);
+			registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), SharedPlaceholder.class);
+			return registry.get(TemplateId.PLACEHOLDER);
+		});
+
+		Set<QrdaDecoder> distinct = Sets.newIdentityHashSet();
+		for (Future<QrdaDecoder> result : results) {
+			distinct.add(result.get(1, TimeUnit.MINUTES));
+		}
+
+		assertThat(distinct).hasSize(1);
+	}
+
+	private <T> List<Future<T>> submitAll(Callable<T> task) {
+		List<Future<T>> results = new ArrayList<>(THREADS);
+		for (int i = 0; i < THREADS; i++) {
+			results.add(executor.submit(() -> {
+				start.await();
+				return task.call();
+			}));
+		}
+		start.countDown();
+		return results;
+	}
+
+	/**
+	 * The handler class registered for each template id, looked up on a single thread.
+	 */
+	private Map<Class<? extends Annotation>, Map<TemplateId, Class<?>>> expectedHandlers() {
+		Context context = new Context();
+		return Stream.of(Decoder.class, Encoder.class, Validator.class)
+				.collect(Collectors.toMap(annotation -> annotation, annotation -> handlers(context, annotation)));
+	}
+
+	private Map<TemplateId, Class<?>> handlers(Context context, Class<? extends Annotation> annotation) {
+		Registry<Object> registry = context.getRegistry(annotation);
+		Map<TemplateId, Class<?>> handlers = new EnumMap<>(TemplateId.class);
+		for (TemplateId templateId : TemplateId.values()) {
+			Object handler = registry.get(templateId);
+			if (handler != null) {
+				handlers.put(templateId, handler.getClass());
+			}
+		}
+		return handlers;
+	}
+}
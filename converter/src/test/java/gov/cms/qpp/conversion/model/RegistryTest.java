@@ -195,6 +195,56 @@ class RegistryTest {
 	void testSize() {
 		assertThat(registry.size()).isGreaterThan(0);
 	}
+
+	@Test
+	void testReusableHandlerIsReusedWithinContext() {
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), Placeholder.class);
+
+		assertThat(registry.get(TemplateId.PLACEHOLDER)).isSameAs(registry.get(TemplateId.PLACEHOLDER));
+	}
+
+	@Test
+	void testReusableHandlerIsNotSharedAcrossContexts() {
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), Placeholder.class);
+		Registry<QrdaDecoder> otherRegistry = new Context().getRegistry(Decoder.class);
+
+		assertThat(otherRegistry.get(TemplateId.PLACEHOLDER)).isNotSameAs(registry.get(TemplateId.PLACEHOLDER));
+	}
+
+	@Test
+	void testReusableHandlerIsNotReusedWhenDisabled() {
+		context.setReuseHandlers(false);
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), Placeholder.class);
+
+		assertThat(registry.get(TemplateId.PLACEHOLDER)).isNotSameAs(registry.get(TemplateId.PLACEHOLDER));
+	}
+
+	@Test
+	void testSubclassCanOptOutOfReuse() {
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), UnreusablePlaceholder.class);
+
+		assertThat(registry.get(TemplateId.PLACEHOLDER)).isNotSameAs(registry.get(TemplateId.PLACEHOLDER));
+	}
+
+	@Test
+	void testSharedHandlerIsSharedAcrossContexts() {
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), SharedPlaceholder.class);
+		Registry<QrdaDecoder> otherRegistry = new Context().getRegistry(Decoder.class);
+		otherRegistry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), SharedPlaceholder.class);
+
+		assertThat(otherRegistry.get(TemplateId.PLACEHOLDER)).isSameAs(registry.get(TemplateId.PLACEHOLDER));
+	}
+
+	@Test
+	void testSharedHandlerNeedingContextIsOnlyReusedWithinContext() {
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), SharedContextPlaceholder.class);
+		Registry<QrdaDecoder> otherRegistry = new Context().getRegistry(Decoder.class);
+		otherRegistry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), SharedContextPlaceholder.class);
+
+		QrdaDecoder decoder = registry.get(TemplateId.PLACEHOLDER);
+		assertThat(registry.get(TemplateId.PLACEHOLDER)).isSameAs(decoder);
+		assertThat(otherRegistry.get(TemplateId.PLACEHOLDER)).isNotSameAs(decoder);
+	}
 }
 
 @SuppressWarnings("unused") // this is here for a the annotation tests
@@ -302,3 +352,42 @@ class NoArgThrowableConstructor extends QrdaDecoder {
 		return null;
 	}
 }
+
+@Reusable(Reusable.Scope.NONE)
+class UnreusablePlaceholder extends QrdaDecoder {
+
+	public UnreusablePlaceholder() {
+		super(null);
+	}
+
+	@Override
+	public DecodeResult decode(Element xmlDoc, Node node) {
+		return null;
+	}
+}
+
+@Reusable(Reusable.Scope.SHARED)
+class SharedPlaceholder extends QrdaDecoder {
+
+	public SharedPlaceholder() {
+		super(null);
+	}
+
+	@Override
+	public DecodeResult decode(Element xmlDoc, Node node) {
+		return null;
+	}
+}
+
+@Reusable(Reusable.Scope.SHARED)
+class SharedContextPlaceholder extends QrdaDecoder {
+
+	public SharedContextPlaceholder(Context context) {
+		super(context);
+	}
+
+	@Override
+	public DecodeResult decode(Element xmlDoc, Node node) {
+		return null;
+	}
+}
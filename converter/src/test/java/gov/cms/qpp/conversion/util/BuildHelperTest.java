@@ -0,0 +1,41 @@
+package gov.cms.qpp.conversion.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class BuildHelperTest {
+
+	@Test
+	void testBuildIsKnown() {
+		assertThat(BuildHelper.build().isPresent()).isTrue();
+	}
+
+	@Test
+	void testIdentifierHoldsVersionAndTime() throws IOException {
+		assertThat(BuildHelper.identify(properties("version=1.0\ntimestamp=20180401120000")))
+				.isEqualTo(Optional.of("1.0@20180401120000"));
+	}
+
+	@Test
+	void testNoIdentifierWithoutProperties() throws IOException {
+		assertThat(BuildHelper.identify(null)).isEqualTo(Optional.empty());
+	}
+
+	@Test
+	void testNoIdentifierWhenNotFilledIn() throws IOException {
+		assertThat(BuildHelper.identify(properties("version=${project.version}\ntimestamp=20180401120000"))).isEqualTo(Optional.empty());
+		assertThat(BuildHelper.identify(properties("version=1.0\ntimestamp=${converter.build.timestamp}"))).isEqualTo(Optional.empty());
+		assertThat(BuildHelper.identify(properties("version=1.0"))).isEqualTo(Optional.empty());
+	}
+
+	private static InputStream properties(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.ISO_8859_1));
+	}
+}
@@ -0,0 +1,70 @@
+package gov.cms.qpp.conversion.util;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import gov.cms.qpp.conversion.model.error.Detail;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class JacksonHelperTest {
+
+	@Test
+	void testSharedInstances() {
+		assertThat(JacksonHelper.reader()).isSameAs(JacksonHelper.reader());
+		assertThat(JacksonHelper.writer()).isSameAs(JacksonHelper.writer());
+		assertThat(JacksonHelper.prettyWriter()).isSameAs(JacksonHelper.prettyWriter());
+		assertThat(JacksonHelper.metadataFilteringWriter()).isSameAs(JacksonHelper.metadataFilteringWriter());
+		assertThat(JacksonHelper.nonNullWriter()).isSameAs(JacksonHelper.nonNullWriter());
+	}
+
+	@Test
+	void testMetadataFilteringWriterDropsMetadata() throws IOException {
+		String json = JacksonHelper.metadataFilteringWriter().writeValueAsString(withMetadata());
+
+		assertThat(json).contains("keep");
+		assertThat(json).doesNotContain("metadata_holder");
+	}
+
+	@Test
+	void testPrettyWriterKeepsMetadata() throws IOException {
+		String json = JacksonHelper.prettyWriter().writeValueAsString(withMetadata());
+
+		assertThat(json).contains("metadata_holder");
+		assertThat(json).contains("\n");
+	}
+
+	@Test
+	void testWriterIsCompact() throws IOException {
+		assertThat(JacksonHelper.writer().writeValueAsString(withMetadata()))
+				.isEqualTo("{\"keep\":\"value\",\"metadata_holder\":\"meta\"}");
+	}
+
+	@Test
+	void testNonNullWriterDropsNulls() throws IOException {
+		Detail detail = new Detail();
+		detail.setMessage("message");
+
+		String json = JacksonHelper.nonNullWriter().writeValueAsString(detail);
+
+		assertThat(json).contains("message");
+		assertThat(json).doesNotContain("null");
+	}
+
+	@Test
+	void testReaderReadsType() throws IOException {
+		Map<?, ?> read = JacksonHelper.reader().forType(Map.class).readValue("{\"key\":\"value\"}");
+
+		assertThat(read).containsExactly("key", "value");
+	}
+
+	private Map<String, String> withMetadata() {
+		Map<String, String> map = new LinkedHashMap<>();
+		map.put("keep", "value");
+		map.put("metadata_holder", "meta");
+		return map;
+	}
+}
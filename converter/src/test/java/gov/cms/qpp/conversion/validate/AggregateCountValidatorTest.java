@@ -65,4 +65,18 @@ class AggregateCountValidatorTest {
 		assertWithMessage("there are no errors")
 				.that(errors).isEmpty();
 	}
+
+	@Test
+	void testReusedValidatorOnlyReportsLatestNode() {
+		Node invalidNode = new Node(TemplateId.ACI_AGGREGATE_COUNT);
+		Node validNode = new Node(TemplateId.ACI_AGGREGATE_COUNT);
+		validNode.putValue(AggregateCountDecoder.AGGREGATE_COUNT, "7");
+
+		AggregateCountValidator validator = new AggregateCountValidator();
+		validator.validateSingleNode(invalidNode);
+		Set<Detail> errors = validator.validateSingleNode(validNode);
+
+		assertWithMessage("Details of the previously validated node should not be carried over")
+				.that(errors).isEmpty();
+	}
 }
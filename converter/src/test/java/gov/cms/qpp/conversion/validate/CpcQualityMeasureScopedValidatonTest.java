@@ -1,8 +1,9 @@
 package gov.cms.qpp.conversion.validate;
 
-import gov.cms.qpp.conversion.Converter;
+import gov.cms.qpp.conversion.Context;
 import gov.cms.qpp.conversion.PathSource;
 import gov.cms.qpp.conversion.decode.MeasureDataDecoder;
+import gov.cms.qpp.conversion.decode.XmlDecoderEngine;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.TemplateId;
 import gov.cms.qpp.conversion.model.error.Detail;
@@ -114,10 +115,10 @@ class CpcQualityMeasureScopedValidatonTest {
 	}
 
 	private Node scopedConversion(QrdaScope testSection, String path) {
-		Converter converter = new Converter(new PathSource(baseDir.resolve(path)));
-		converter.getContext().setScope(Sets.newHashSet(testSection));
-		converter.transform();
-		return converter.getReport().getDecoded().findFirstNode(TemplateId.MEASURE_REFERENCE_RESULTS_CMS_V2);
+		Context context = new Context();
+		context.setScope(Sets.newHashSet(testSection));
+		Node decoded = XmlDecoderEngine.decodeXml(context, new PathSource(baseDir.resolve(path)).toInputStream());
+		return decoded.findFirstNode(TemplateId.MEASURE_REFERENCE_RESULTS_CMS_V2);
 	}
 
 	private Set<Detail> validateNode(Node node) {
@@ -0,0 +1,88 @@
+package gov.cms.qpp.conversion.xml;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jdom2.Attribute;
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.jdom2.filter.Filters;
+import org.jdom2.xpath.XPathExpression;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.Sets;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class XPathExpressionCacheTest {
+
+	private static final Namespace NS = Namespace.getNamespace("ns", "urn:hl7-org:v3");
+
+	@Test
+	void testSameKeyReturnsSameExpression() {
+		XPathExpression<Attribute> first = XPathExpressionCache.compile("./@same", Filters.attribute(), NS);
+		XPathExpression<Attribute> second = XPathExpressionCache.compile("./@same", Filters.attribute(), NS);
+
+		assertThat(second).isSameAs(first);
+	}
+
+	@Test
+	void testFilterIsPartOfKey() {
+		XPathExpression<?> attribute = XPathExpressionCache.compile("./*[1]", Filters.attribute(), NS);
+		XPathExpression<?> element = XPathExpressionCache.compile("./*[1]", Filters.element(), NS);
+
+		assertThat(element).isNotSameAs(attribute);
+	}
+
+	@Test
+	void testNamespacePrefixIsPartOfKey() {
+		Namespace otherPrefix = Namespace.getNamespace("other", NS.getURI());
+		XPathExpression<?> first = XPathExpressionCache.compile("./@prefixed", Filters.attribute(), NS);
+		XPathExpression<?> second = XPathExpressionCache.compile("./@prefixed", Filters.attribute(), otherPrefix);
+
+		assertThat(second).isNotSameAs(first);
+	}
+
+	@Test
+	void testCountsHitsAndMisses() {
+		long hits = XPathExpressionCache.getHitCount();
+		long misses = XPathExpressionCache.getMissCount();
+		int size = XPathExpressionCache.size();
+
+		XPathExpressionCache.compile("./@counted", Filters.attribute(), NS);
+		XPathExpressionCache.compile("./@counted", Filters.attribute(), NS);
+		XPathExpressionCache.compile("./@counted", Filters.attribute(), NS);
+
+		assertThat(XPathExpressionCache.getMissCount()).isEqualTo(misses + 1);
+		assertThat(XPathExpressionCache.getHitCount()).isAtLeast(hits + 2);
+		assertThat(XPathExpressionCache.size()).isEqualTo(size + 1);
+	}
+
+	@Test
+	void testNoNamespace() {
+		XPathExpression<Attribute> expression =
+				XPathExpressionCache.compile("./@extension", Filters.attribute(), Namespace.NO_NAMESPACE);
+		Element element = new Element("id").setAttribute("extension", "value");
+
+		assertThat(expression.evaluateFirst(element).getValue()).isEqualTo("value");
+	}
+
+	@Test
+	void testConcurrentLookupsShareExpression() {
+		Element element = new Element("id").setAttribute("root", "shared");
+		List<XPathExpression<Attribute>> expressions = IntStream.range(0, 64).parallel()
+				.mapToObj(ignore -> XPathExpressionCache.compile("./@root", Filters.attribute(), NS))
+				.collect(Collectors.toList());
+
+		Set<XPathExpression<Attribute>> distinct = Sets.newIdentityHashSet();
+		distinct.addAll(expressions);
+
+		assertThat(distinct).hasSize(1);
+		assertThat(expressions.parallelStream()
+				.map(expression -> expression.evaluateFirst(element).getValue())
+				.collect(Collectors.toSet()))
+				.containsExactly("shared");
+	}
+}
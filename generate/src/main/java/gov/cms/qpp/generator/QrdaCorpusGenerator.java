@@ -0,0 +1,62 @@
+package gov.cms.qpp.generator;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates a QRDA III file of each of the given sizes, named {@code qrda-<size>.xml}, for scale testing. Files that
+ * already exist are kept.
+ */
+@Mojo(name = "generateQrdaCorpus")
+public class QrdaCorpusGenerator extends AbstractMojo {
+
+	@Parameter(property = "generateQrdaCorpus.outputDirectory", defaultValue = "${project.build.directory}/generated-qrda")
+	private String outputDirectory;
+
+	@Parameter(property = "generateQrdaCorpus.sizes", defaultValue = "100KB,1MB,10MB,100MB")
+	private String sizes;
+
+	@Parameter(property = "generateQrdaCorpus.strata", defaultValue = "0")
+	private int strata;
+
+	@Parameter(property = "generateQrdaCorpus.sections", defaultValue = "1")
+	private int sections;
+
+	@Parameter(property = "generateQrdaCorpus.skip", defaultValue = "false")
+	private boolean skip;
+
+	@Override
+	public void execute() throws MojoExecutionException, MojoFailureException {
+		if (skip) {
+			getLog().info("Skipping QRDA corpus generation");
+			return;
+		}
+
+		Path directory = Paths.get(outputDirectory);
+		try {
+			Files.createDirectories(directory);
+			for (String size : sizes.split(",")) {
+				Path file = directory.resolve("qrda-" + size.trim() + ".xml");
+				if (Files.exists(file)) {
+					getLog().info("Keeping " + file);
+					continue;
+				}
+
+				getLog().info("Generating " + file);
+				new QrdaGenerator(0, strata, sections).sizedTo(QrdaGenerator.parseSize(size)).write(file);
+			}
+		} catch (IOException ex) {
+			throw new MojoExecutionException("Could not generate the QRDA corpus", ex);
+		} catch (IllegalArgumentException ex) {
+			throw new MojoFailureException("Invalid QRDA corpus configuration", ex);
+		}
+	}
+}
@@ -5,6 +5,7 @@ import com.github.mustachejava.Mustache;
 import com.github.mustachejava.MustacheFactory;
 import gov.cms.qpp.conversion.model.validation.MeasureConfig;
 import gov.cms.qpp.conversion.model.validation.MeasureConfigs;
+import gov.cms.qpp.conversion.model.validation.Strata;
 import gov.cms.qpp.conversion.model.validation.SubPopulationLabel;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
@@ -28,21 +29,40 @@ import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import java.io.ByteArrayInputStream;
+import java.io.FilterWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+/**
+ * Generates QRDA III submissions from the measures in {@link MeasureConfigs}.
+ *
+ * By default every quality measure with an eCQM id is reported once with its own strata, followed by one Advancing Care
+ * Information and one Improvement Activity section. The number of measures, strata per measure and ACI/IA sections can
+ * be raised past what the measure configuration holds, in which case measures and strata repeat. Such files are meant for
+ * scale testing rather than for passing validation.
+ */
 public class QrdaGenerator {
 	private static List<MeasureConfig> measureConfigs = MeasureConfigs.getMeasureConfigs();
 
+	private static final long KILOBYTE = 1024;
+	private static final long MEGABYTE = KILOBYTE * 1024;
+
 	private Mustache submission;
 	private Mustache subpopulation;
 	private Mustache performanceRate;
@@ -51,13 +71,63 @@ public class QrdaGenerator {
 	private List<MeasureConfig> aci;
 	private List<MeasureConfig> ia;
 
+	private final int measures;
+	private final int strata;
+	private final int sections;
+
+	/**
+	 * Writes a sample submission to the sample-files directory when run without arguments. Otherwise the arguments are
+	 * {@code name=value} pairs, for example {@code measures=500 strata=4 sections=2 output=large.xml} or
+	 * {@code size=10MB output=large.xml}.
+	 *
+	 * @param args optional {@code measures}, {@code strata}, {@code sections}, {@code size} and {@code output}
+	 */
 	public static void main(String... args) throws IOException, TransformerException,
 			SAXException, ParserConfigurationException, XPathExpressionException {
-		QrdaGenerator generator = new QrdaGenerator();
-		generator.generate();
+		if (args.length == 0) {
+			QrdaGenerator generator = new QrdaGenerator();
+			generator.generate();
+			return;
+		}
+
+		Map<String, String> arguments = new HashMap<>();
+		for (String arg : args) {
+			String[] pair = arg.split("=", 2);
+			if (pair.length != 2) {
+				throw new IllegalArgumentException("Expected name=value but got " + arg);
+			}
+			arguments.put(pair[0], pair[1]);
+		}
+
+		QrdaGenerator generator = new QrdaGenerator(
+				Integer.parseInt(arguments.getOrDefault("measures", "0")),
+				Integer.parseInt(arguments.getOrDefault("strata", "0")),
+				Integer.parseInt(arguments.getOrDefault("sections", "1")));
+		if (arguments.containsKey("size")) {
+			generator = generator.sizedTo(parseSize(arguments.get("size")));
+		}
+		generator.write(Paths.get(arguments.getOrDefault("output", "generated.xml")));
 	}
 
-	private QrdaGenerator() {
+	/**
+	 * A generator for each quality measure once, with one ACI and one IA section.
+	 */
+	public QrdaGenerator() {
+		this(0, 0, 1);
+	}
+
+	/**
+	 * A generator for a submission of a particular shape.
+	 *
+	 * @param measures number of quality measures, or 0 for each quality measure once
+	 * @param strata number of strata per quality measure, or 0 for each measure's own strata
+	 * @param sections number of ACI and of IA sections
+	 */
+	public QrdaGenerator(int measures, int strata, int sections) {
+		if (measures < 0 || strata < 0 || sections < 0) {
+			throw new IllegalArgumentException("Counts may not be negative");
+		}
+
 		MustacheFactory mf = new DefaultMustacheFactory();
 		submission = mf.compile("submission-template.xml");
 		subpopulation = mf.compile("subpopulation-template.xml");
@@ -66,6 +136,109 @@ public class QrdaGenerator {
 		quality = filterQualityMeasures();
 		aci = filterAciMeasures();
 		ia = filterIaMeasures();
+
+		this.measures = measures;
+		this.strata = strata;
+		this.sections = sections;
+	}
+
+	/**
+	 * A generator of the same shape, but with as many quality measures as it takes to come close to a file size.
+	 *
+	 * @param bytes target size of the generated file
+	 * @return generator for a file of about that size
+	 */
+	public QrdaGenerator sizedTo(long bytes) {
+		int round = quality.size();
+		long once = new QrdaGenerator(round, strata, sections).size();
+		long twice = new QrdaGenerator(2 * round, strata, sections).size();
+		double perMeasure = (double) (twice - once) / round;
+		double rest = once - perMeasure * round;
+		long count = Math.max(1, Math.round((bytes - rest) / perMeasure));
+		if (count > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Cannot generate a file of " + bytes + " bytes");
+		}
+		return new QrdaGenerator((int) count, strata, sections);
+	}
+
+	/**
+	 * Writes the submission as it is generated, without building it up in memory. Lines are not indented, which keeps
+	 * files with a single measure close to 100KB.
+	 *
+	 * @param writer destination for the submission
+	 * @throws IOException if the submission cannot be written
+	 */
+	public void write(Writer writer) throws IOException {
+		submission.execute(new UnindentingWriter(writer), newContext()).flush();
+	}
+
+	/**
+	 * Writes the submission to a file.
+	 *
+	 * @param file destination for the submission
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			write(writer);
+		}
+	}
+
+	/**
+	 * Reads a size such as {@code 100KB} or {@code 10MB}, where a kilobyte is 1024 bytes.
+	 *
+	 * @param size number with an optional KB or MB suffix
+	 * @return size in bytes
+	 */
+	public static long parseSize(String size) {
+		String normalized = size.trim().toUpperCase(Locale.ENGLISH);
+		if (normalized.endsWith("MB")) {
+			return Long.parseLong(normalized.substring(0, normalized.length() - 2).trim()) * MEGABYTE;
+		}
+		if (normalized.endsWith("KB")) {
+			return Long.parseLong(normalized.substring(0, normalized.length() - 2).trim()) * KILOBYTE;
+		}
+		return Long.parseLong(normalized);
+	}
+
+	private long size() {
+		CountingWriter counter = new CountingWriter();
+		try {
+			write(counter);
+		} catch (IOException exception) {
+			throw new IllegalStateException("Counting never fails", exception);
+		}
+		return counter.count;
+	}
+
+	private Context newContext() {
+		List<Integer> repeats = IntStream.range(0, sections).boxed().collect(Collectors.toList());
+		return new Context(qualityMeasures(), aci, ia, repeats);
+	}
+
+	private List<MeasureConfig> qualityMeasures() {
+		int count = measures == 0 ? quality.size() : measures;
+		List<MeasureConfig> generated = new ArrayList<>(count);
+		for (int index = 0; index < count; index++) {
+			generated.add(withStrata(quality.get(index % quality.size())));
+		}
+		return generated;
+	}
+
+	private MeasureConfig withStrata(MeasureConfig measure) {
+		List<Strata> own = measure.getStrata();
+		if (strata == 0 || own == null || own.isEmpty()) {
+			return measure;
+		}
+
+		MeasureConfig copy = new MeasureConfig();
+		copy.setCategory(measure.getCategory());
+		copy.setMeasureId(measure.getMeasureId());
+		copy.setElectronicMeasureId(measure.getElectronicMeasureId());
+		copy.setElectronicMeasureVerUuid(measure.getElectronicMeasureVerUuid());
+		copy.setStrata(IntStream.range(0, strata).mapToObj(index -> own.get(index % own.size()))
+				.collect(Collectors.toList()));
+		return copy;
 	}
 
 	private List<MeasureConfig> filterQualityMeasures() {
@@ -92,7 +265,7 @@ public class QrdaGenerator {
 			SAXException, TransformerException, XPathExpressionException {
 		StringWriter writer = new StringWriter();
 
-		submission.execute(writer, new Context(quality, aci, ia)).flush();
+		submission.execute(writer, newContext()).flush();
 		prettyPrint(writer);
 	}
 
@@ -163,6 +336,8 @@ public class QrdaGenerator {
 		List<MeasureConfig> quality;
 		List<MeasureConfig> aci;
 		List<MeasureConfig> ia;
+		List<Integer> aciSections;
+		List<Integer> iaSections;
 		Function<String, Object> generateIpop = uuid -> generateSubpopulation(uuid, PopulationValue.IPOP);
 		Function<String, Object> generateDenom = uuid -> generateSubpopulation(uuid, PopulationValue.DENOM);
 		Function<String, Object> generateDenex = uuid -> generateSubpopulation(uuid, PopulationValue.DENEX);
@@ -170,10 +345,13 @@ public class QrdaGenerator {
 		Function<String, Object> generateNumer = uuid -> generateSubpopulation(uuid, PopulationValue.NUMER);
 		Function<String, Object> generatePerformanceRate = this::generatePerformanceRate;
 
-		private Context(List<MeasureConfig> quality, List<MeasureConfig> aci, List<MeasureConfig> ia) {
+		private Context(List<MeasureConfig> quality, List<MeasureConfig> aci, List<MeasureConfig> ia,
+				List<Integer> sections) {
 			this.quality = quality;
 			this.aci = aci;
 			this.ia = ia;
+			this.aciSections = sections;
+			this.iaSections = sections;
 		}
 
 		private String generatePerformanceRate(Object uuid) {
@@ -196,4 +374,64 @@ public class QrdaGenerator {
 			return subpopulation.execute(new StringWriter(), ctx).toString();
 		}
 	}
+
+	/**
+	 * Counts the characters written to it, which for the ASCII templates is the number of bytes.
+	 */
+	private static class CountingWriter extends Writer {
+		private long count;
+
+		@Override
+		public void write(char[] buffer, int offset, int length) {
+			count += length;
+		}
+
+		@Override
+		public void flush() {
+			// nothing is kept
+		}
+
+		@Override
+		public void close() {
+			// nothing is kept
+		}
+	}
+
+	/**
+	 * Drops the whitespace at the start of each line, along with blank lines.
+	 */
+	private static class UnindentingWriter extends FilterWriter {
+		private boolean lineStart = true;
+
+		UnindentingWriter(Writer out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int character) throws IOException {
+			if (character == '\n' || character == '\r') {
+				if (!lineStart) {
+					out.write('\n');
+					lineStart = true;
+				}
+			} else if (!lineStart || !Character.isWhitespace(character)) {
+				out.write(character);
+				lineStart = false;
+			}
+		}
+
+		@Override
+		public void write(char[] buffer, int offset, int length) throws IOException {
+			for (int index = offset; index < offset + length; index++) {
+				write(buffer[index]);
+			}
+		}
+
+		@Override
+		public void write(String text, int offset, int length) throws IOException {
+			for (int index = offset; index < offset + length; index++) {
+				write(text.charAt(index));
+			}
+		}
+	}
 }
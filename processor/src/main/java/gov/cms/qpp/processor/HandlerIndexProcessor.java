@@ -0,0 +1,188 @@
+package gov.cms.qpp.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes an index of every {@code @Decoder}, {@code @Encoder} and {@code @Validator} class compiled alongside it, so
+ * the converter's {@code Registry} can find its handlers without scanning the class path at start up.
+ * <p>
+ * Each line of the index holds the annotation's simple name, the binary name of the annotated class, the
+ * {@code TemplateId} and the {@code Program}, separated by tabs.
+ * <p>
+ * An incremental compile only hands the processor the classes it recompiles, so the entries of an index already in the
+ * class output are kept as long as their class still exists and still carries the annotation.
+ */
+@SupportedAnnotationTypes({
+		HandlerIndexProcessor.DECODER,
+		HandlerIndexProcessor.ENCODER,
+		HandlerIndexProcessor.VALIDATOR})
+public class HandlerIndexProcessor extends AbstractProcessor {
+
+	/**
+	 * Class path location of the generated index. Must match the location read by the converter's registry.
+	 */
+	public static final String INDEX = "META-INF/gov.cms.qpp.conversion/handlers.idx";
+
+	static final String DECODER = "gov.cms.qpp.conversion.model.Decoder";
+	static final String ENCODER = "gov.cms.qpp.conversion.model.Encoder";
+	static final String VALIDATOR = "gov.cms.qpp.conversion.model.Validator";
+
+	private static final String SEPARATOR = "\t";
+	private static final int COLUMNS = 4;
+
+	private final Set<String> entries = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	/**
+	 * Collects the annotated classes of each round and writes the index once the last round is over.
+	 *
+	 * @param annotations The handler annotations present in this round
+	 * @param roundEnv The elements of this round
+	 * @return false so other processors still see the annotations
+	 */
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element annotated : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (annotated instanceof TypeElement) {
+					entries.add(toEntry(annotation, (TypeElement) annotated));
+				}
+			}
+		}
+
+		if (roundEnv.processingOver() && !entries.isEmpty()) {
+			writeIndex();
+		}
+
+		return false;
+	}
+
+	/**
+	 * Builds the index line for a single annotated class.
+	 *
+	 * @param annotation The handler annotation
+	 * @param annotated The class carrying it
+	 * @return The index line
+	 */
+	private String toEntry(TypeElement annotation, TypeElement annotated) {
+		String templateId = null;
+		String program = null;
+
+		for (AnnotationMirror mirror : processingEnv.getElementUtils().getAllAnnotationMirrors(annotated)) {
+			if (!mirror.getAnnotationType().asElement().equals(annotation)) {
+				continue;
+			}
+
+			for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+					: processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+				String name = value.getKey().getSimpleName().toString();
+				if ("value".equals(name)) {
+					templateId = enumConstant(value.getValue());
+				} else if ("program".equals(name)) {
+					program = enumConstant(value.getValue());
+				}
+			}
+		}
+
+		return String.join(SEPARATOR, annotation.getSimpleName(),
+				processingEnv.getElementUtils().getBinaryName(annotated), templateId, program);
+	}
+
+	private static String enumConstant(AnnotationValue value) {
+		return ((VariableElement) value.getValue()).getSimpleName().toString();
+	}
+
+	/**
+	 * Reads the entries of the index left by an earlier compile that still hold, so a partial recompile does not drop
+	 * the handlers it did not see.
+	 *
+	 * @return The entries still valid, empty when there is no earlier index
+	 */
+	private Set<String> previousEntries() {
+		Set<String> previous = new TreeSet<>();
+		try {
+			FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(index.openInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (isStillAnnotated(line)) {
+						previous.add(line);
+					}
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			// no earlier index to merge with
+		}
+		return previous;
+	}
+
+	/**
+	 * Checks that the class of an earlier index line still exists and still carries the annotation it was indexed for.
+	 *
+	 * @param line The index line
+	 * @return true if the line should be kept
+	 */
+	private boolean isStillAnnotated(String line) {
+		String[] columns = line.split(SEPARATOR);
+		if (columns.length != COLUMNS) {
+			return false;
+		}
+
+		TypeElement annotated = processingEnv.getElementUtils().getTypeElement(columns[1].replace('$', '.'));
+		if (annotated == null) {
+			return false;
+		}
+
+		for (AnnotationMirror mirror : annotated.getAnnotationMirrors()) {
+			TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+			if (annotation.getSimpleName().contentEquals(columns[0])
+					&& line.equals(toEntry(annotation, annotated))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void writeIndex() {
+		Set<String> merged = previousEntries();
+		merged.addAll(entries);
+
+		try {
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+			try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+				for (String entry : merged) {
+					writer.write(entry);
+					writer.write('\n');
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + INDEX + ": " + e);
+		}
+	}
+}
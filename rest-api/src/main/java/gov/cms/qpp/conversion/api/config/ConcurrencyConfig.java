@@ -1,9 +1,16 @@
 package gov.cms.qpp.conversion.api.config;
 
+import gov.cms.qpp.conversion.api.helper.EnvironmentNumberHelper;
+import gov.cms.qpp.conversion.api.model.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.task.SyncTaskExecutor;
-import org.springframework.core.task.TaskExecutor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Spring configuration file for service task threadding.
@@ -13,13 +20,72 @@ import org.springframework.core.task.TaskExecutor;
 @Configuration
 public class ConcurrencyConfig {
 
+	private static final Logger API_LOG = LoggerFactory.getLogger(ConcurrencyConfig.class);
+
+	static final int DEFAULT_POOL_SIZE = 16;
+	static final int DEFAULT_QUEUE_CAPACITY = 512;
+	static final int SHUTDOWN_WAIT_SECONDS = 60;
+	static final String THREAD_NAME_PREFIX = "action-";
+	static final String QUERY_THREAD_NAME_PREFIX = "partition-query-";
+	public static final String PARTITION_QUERY_EXECUTOR = "partitionQueryExecutor";
+
+	private Environment environment;
+
+	/**
+	 * Ensure required dependencies are supplied.
+	 *
+	 * @param environment access to environment variables
+	 */
+	public ConcurrencyConfig(Environment environment) {
+		this.environment = environment;
+	}
+
 	/**
-	 * A thread pool just for the ReST API.
+	 * A thread pool just for the ReST API's asynchronous actions, such as storing audit information.
 	 *
-	 * @return synchronous task executor
+	 * The pool size and queue capacity can be changed with the {@link Constants#TASK_POOL_SIZE_ENV_VARIABLE} and
+	 * {@link Constants#TASK_QUEUE_CAPACITY_ENV_VARIABLE} environment variables. Queued actions are given time to
+	 * finish when the application shuts down.
+	 *
+	 * @return bounded task executor
 	 */
 	@Bean
-	public TaskExecutor taskExecutor() {
-		return new SyncTaskExecutor();
+	@Primary
+	public InstrumentedTaskExecutor taskExecutor() {
+		int poolSize = EnvironmentNumberHelper.positive(environment, Constants.TASK_POOL_SIZE_ENV_VARIABLE, DEFAULT_POOL_SIZE);
+		int queueCapacity = EnvironmentNumberHelper.positive(environment, Constants.TASK_QUEUE_CAPACITY_ENV_VARIABLE, DEFAULT_QUEUE_CAPACITY);
+
+		API_LOG.info("Asynchronous actions will use {} threads and queue up to {} tasks", poolSize, queueCapacity);
+
+		InstrumentedTaskExecutor executor = new InstrumentedTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setAllowCoreThreadTimeOut(true);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(SHUTDOWN_WAIT_SECONDS);
+		return executor;
+	}
+
+	/**
+	 * A thread pool for querying the partitions of the CPC+ index, kept apart from {@link #taskExecutor()} so that
+	 * reading a page does not wait behind queued audits, nor hold up their threads.
+	 *
+	 * There is a thread for each partition. Queries beyond what the threads and queue can take run on the thread that
+	 * asked for the page.
+	 *
+	 * @return partition query executor
+	 */
+	@Bean(PARTITION_QUERY_EXECUTOR)
+	public ThreadPoolTaskExecutor partitionQueryExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(Constants.CPC_DYNAMO_PARTITIONS);
+		executor.setMaxPoolSize(Constants.CPC_DYNAMO_PARTITIONS);
+		executor.setAllowCoreThreadTimeOut(true);
+		executor.setQueueCapacity(Constants.CPC_DYNAMO_PARTITIONS);
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setThreadNamePrefix(QUERY_THREAD_NAME_PREFIX);
+		return executor;
 	}
 }
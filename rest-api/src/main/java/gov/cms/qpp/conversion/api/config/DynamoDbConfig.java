@@ -128,6 +128,20 @@ public class DynamoDbConfig {
 		return dynamoDbMapper;
 	}
 
+	/**
+	 * Creates the attribute transformer {@link Bean} that encrypts items as the {@link DynamoDBMapper} does, for items
+	 * that are kept outside of DynamoDB before they are written.
+	 *
+	 * @return An encryption attribute transformer, or null when nothing is audited or no {@code KMS_KEY} is specified.
+	 */
+	@Bean
+	public AttributeTransformer attributeTransformer() {
+		final Optional<String> kmsKey = getOptionalProperty(Constants.KMS_KEY_ENV_VARIABLE);
+		final Optional<String> noAudit = getOptionalProperty(Constants.NO_AUDIT_ENV_VARIABLE);
+
+		return noAudit.isPresent() ? null : kmsKey.map(this::encryptionTransformer).orElse(null);
+	}
+
 	/**
 	 * Optional wrapper for environment properties
 	 *
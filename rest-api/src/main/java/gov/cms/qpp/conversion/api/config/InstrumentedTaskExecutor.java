@@ -0,0 +1,87 @@
+package gov.cms.qpp.conversion.api.config;
+
+import gov.cms.qpp.conversion.api.model.TaskExecutorStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded thread pool that keeps count of the tasks it could not queue.
+ *
+ * A task that arrives while every thread is busy and the queue is full is counted and then run by the thread that
+ * submitted it, which slows the submitter down instead of dropping the task.
+ */
+public class InstrumentedTaskExecutor extends ThreadPoolTaskExecutor {
+
+	private static final long serialVersionUID = 1L;
+	private static final Logger API_LOG = LoggerFactory.getLogger(InstrumentedTaskExecutor.class);
+
+	private final LongAdder rejected = new LongAdder();
+	private int queueCapacity = Integer.MAX_VALUE;
+
+	/**
+	 * Creates an executor that runs rejected tasks on the submitting thread.
+	 */
+	public InstrumentedTaskExecutor() {
+		setRejectedExecutionHandler(new CountingCallerRunsPolicy());
+	}
+
+	/**
+	 * Sets the capacity of the task queue.
+	 *
+	 * @param queueCapacity most tasks that may wait for a thread
+	 */
+	@Override
+	public void setQueueCapacity(int queueCapacity) {
+		super.setQueueCapacity(queueCapacity);
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Number of tasks that found the queue full and so ran on the submitting thread.
+	 *
+	 * @return rejected task count
+	 */
+	public long getRejectedTaskCount() {
+		return rejected.sum();
+	}
+
+	/**
+	 * A snapshot of the state of the pool and its queue.
+	 *
+	 * @return current status
+	 */
+	public TaskExecutorStatus getStatus() {
+		TaskExecutorStatus status = new TaskExecutorStatus();
+		status.setMaxPoolSize(getMaxPoolSize());
+		status.setQueueCapacity(queueCapacity);
+		status.setRejectedTaskCount(getRejectedTaskCount());
+
+		ThreadPoolExecutor executor = getThreadPoolExecutor();
+		BlockingQueue<Runnable> queue = executor.getQueue();
+		status.setPoolSize(executor.getPoolSize());
+		status.setActiveCount(executor.getActiveCount());
+		status.setQueueSize(queue.size());
+		status.setCompletedTaskCount(executor.getCompletedTaskCount());
+		return status;
+	}
+
+	/**
+	 * Counts each rejected task before running it on the submitting thread.
+	 */
+	private class CountingCallerRunsPolicy implements RejectedExecutionHandler {
+		private final RejectedExecutionHandler delegate = new ThreadPoolExecutor.CallerRunsPolicy();
+
+		@Override
+		public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+			rejected.increment();
+			API_LOG.warn("Task queue of {} is full, running task on the submitting thread", getThreadNamePrefix());
+			delegate.rejectedExecution(task, executor);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package gov.cms.qpp.conversion.api.config;
+
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a {@link JsonWrapper} response body straight to the response stream, so the QPP JSON is never held as a
+ * String in addition to the wrapper. Spring Boot places it ahead of the default Jackson converter.
+ */
+@Component
+public class JsonWrapperHttpMessageConverter extends AbstractHttpMessageConverter<JsonWrapper> {
+
+	/**
+	 * Supports JSON media types, in UTF-8.
+	 */
+	public JsonWrapperHttpMessageConverter() {
+		super(StandardCharsets.UTF_8, MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+	}
+
+	/**
+	 * Handles {@link JsonWrapper} and its subclasses.
+	 *
+	 * @param clazz type of the body
+	 * @return whether the body is a {@link JsonWrapper}
+	 */
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return JsonWrapper.class.isAssignableFrom(clazz);
+	}
+
+	/**
+	 * Request bodies are never read as a {@link JsonWrapper}.
+	 *
+	 * @param clazz type of the body
+	 * @param mediaType content type of the request
+	 * @return false
+	 */
+	@Override
+	public boolean canRead(Class<?> clazz, MediaType mediaType) {
+		return false;
+	}
+
+	@Override
+	protected JsonWrapper readInternal(Class<? extends JsonWrapper> clazz, HttpInputMessage inputMessage) {
+		throw new HttpMessageNotReadableException("QPP JSON request bodies are not supported");
+	}
+
+	/**
+	 * Serializes the wrapper onto the response body.
+	 *
+	 * @param jsonWrapper the QPP to write
+	 * @param outputMessage the response
+	 * @throws IOException if the response cannot be written
+	 */
+	@Override
+	protected void writeInternal(JsonWrapper jsonWrapper, HttpOutputMessage outputMessage) throws IOException {
+		jsonWrapper.writeTo(outputMessage.getBody());
+	}
+}
@@ -1,6 +1,11 @@
 package gov.cms.qpp.conversion.api.controllers;
 
+import gov.cms.qpp.conversion.api.config.InstrumentedTaskExecutor;
 import gov.cms.qpp.conversion.api.model.HealthCheck;
+import gov.cms.qpp.conversion.api.services.AdmissionControl;
+import gov.cms.qpp.conversion.api.services.ConversionCache;
+import gov.cms.qpp.conversion.api.services.ConversionStageMetrics;
+import gov.cms.qpp.conversion.api.services.MetadataOutbox;
 import gov.cms.qpp.conversion.api.services.VersionService;
 
 import java.util.ArrayList;
@@ -20,20 +25,38 @@ import org.springframework.web.bind.annotation.RestController;
 public class HealthCheckController {
 
 	private VersionService version;
+	private InstrumentedTaskExecutor taskExecutor;
+	private MetadataOutbox metadataOutbox;
+	private ConversionCache conversionCache;
+	private ConversionStageMetrics conversionStageMetrics;
+	private AdmissionControl admissionControl;
 
 	/**
 	 * Provide dependency
 	 *
 	 * @param version reference to the version service
+	 * @param taskExecutor thread pool running the asynchronous actions
+	 * @param metadataOutbox queue of metadata waiting to be written
+	 * @param conversionCache earlier conversions of identical content
+	 * @param conversionStageMetrics totals for each stage of the conversions run so far
+	 * @param admissionControl the conversions admitted, waiting and refused
 	 */
-	public HealthCheckController(final VersionService version) {
+	public HealthCheckController(final VersionService version, final InstrumentedTaskExecutor taskExecutor,
+			final MetadataOutbox metadataOutbox, final ConversionCache conversionCache,
+			final ConversionStageMetrics conversionStageMetrics, final AdmissionControl admissionControl) {
 		this.version = version;
+		this.taskExecutor = taskExecutor;
+		this.metadataOutbox = metadataOutbox;
+		this.conversionCache = conversionCache;
+		this.conversionStageMetrics = conversionStageMetrics;
+		this.admissionControl = admissionControl;
 	}
 
 	/**
 	 * Invoked with an HTTP GET call.
 	 *
-	 * @return health check of version, environment variables, and system properties
+	 * @return health check of version, environment variables, system properties, the asynchronous action pool, the metadata
+	 *     outbox, the conversion cache, the conversion stages, and admission to conversion
 	 */
 	@GetMapping
 	@ResponseBody
@@ -43,6 +66,11 @@ public class HealthCheckController {
 		healthCheck.setSystemProperties(
 				System.getProperties().keySet().stream().map(String::valueOf).collect(Collectors.toList()));
 		healthCheck.setImplementationVersion(version.getImplementationVersion());
+		healthCheck.setTaskExecutor(taskExecutor.getStatus());
+		healthCheck.setMetadataOutbox(metadataOutbox.getStatus());
+		healthCheck.setConversionCache(conversionCache.getStatus());
+		healthCheck.setConversionStages(conversionStageMetrics.getStatus());
+		healthCheck.setAdmission(admissionControl.getStatus());
 
 		return ResponseEntity.ok(healthCheck);
 	}
@@ -0,0 +1,164 @@
+package gov.cms.qpp.conversion.api.controllers.v1;
+
+import gov.cms.qpp.conversion.api.exceptions.InvalidPurposeException;
+import gov.cms.qpp.conversion.api.services.BatchEntryReader;
+import gov.cms.qpp.conversion.api.services.BatchResultWriter;
+import gov.cms.qpp.conversion.api.services.BatchService;
+import gov.cms.qpp.conversion.api.services.SpooledSource;
+import gov.cms.qpp.conversion.api.services.UploadSpool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Controller to handle uploading batches of files for QRDA-III Conversion
+ *
+ * A batch is either a zip or a multipart upload of several files. The response has a result for every file of the
+ * batch, written as soon as the file is converted: a line of JSON each by default, or a file each in a zip when the
+ * request accepts {@code application/zip}.
+ */
+@RestController
+@RequestMapping("/batch")
+@CrossOrigin
+public class BatchControllerV1 {
+
+	private static final Logger API_LOG = LoggerFactory.getLogger(BatchControllerV1.class);
+	private static final int MAX_PURPOSE_LENGTH = 25;
+	private static final String BATCH_PURPOSE = "Batch";
+
+	private BatchService batchService;
+	private BatchEntryReader batchEntryReader;
+	private UploadSpool uploadSpool;
+
+	/**
+	 * init dependencies
+	 *
+	 * @param batchService {@link BatchService} to convert the files of a batch
+	 * @param batchEntryReader reads the files of a batch
+	 * @param uploadSpool holds a zip while its files are read
+	 */
+	public BatchControllerV1(BatchService batchService, BatchEntryReader batchEntryReader, UploadSpool uploadSpool) {
+		this.batchService = batchService;
+		this.batchEntryReader = batchEntryReader;
+		this.uploadSpool = uploadSpool;
+	}
+
+	/**
+	 * Endpoint to transform the files of a zip.
+	 *
+	 * The whole zip is read before any result is written, so that a client that sends the request before reading the
+	 * response is not left waiting on a response it cannot read.
+	 *
+	 * @param request the request whose body is the zip
+	 * @param response where the results go
+	 * @param accept the media types the client accepts
+	 * @param purpose the purpose for the conversions
+	 * @throws IOException if the zip cannot be read or the results cannot be written
+	 */
+	@PostMapping(consumes = "application/zip")
+	public void uploadZip(HttpServletRequest request, HttpServletResponse response,
+			@RequestHeader(required = false, name = HttpHeaders.ACCEPT) String accept,
+			@RequestHeader(required = false, name = "Purpose") String purpose) throws IOException {
+		purpose = checkPurpose(purpose);
+		API_LOG.info("Batch conversion request received for a zip");
+
+		try (InputStream body = request.getInputStream();
+				SpooledSource zip = uploadSpool.spool(BATCH_PURPOSE, body, purpose);
+				InputStream content = zip.toInputStream()) {
+			respond(batchEntryReader.fromZip(content, purpose), response, accept);
+		}
+	}
+
+	/**
+	 * Endpoint to transform the files of a multipart upload.
+	 *
+	 * @param files the attachments
+	 * @param response where the results go
+	 * @param accept the media types the client accepts
+	 * @param purpose the purpose for the conversions
+	 * @throws IOException if the results cannot be written
+	 */
+	@PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	public void uploadFiles(@RequestParam(name = "file") List<MultipartFile> files, HttpServletResponse response,
+			@RequestHeader(required = false, name = HttpHeaders.ACCEPT) String accept,
+			@RequestHeader(required = false, name = "Purpose") String purpose) throws IOException {
+		purpose = checkPurpose(purpose);
+		API_LOG.info("Batch conversion request received for {} files", files.size());
+
+		respond(batchEntryReader.fromFiles(files, purpose), response, accept);
+	}
+
+	/**
+	 * Converts the entries, writing the results to the response in the format the client asked for.
+	 *
+	 * @param entries the files of the batch
+	 * @param response where the results go
+	 * @param accept the media types the client accepts
+	 * @throws IOException if the results cannot be written
+	 */
+	private void respond(Iterator<SpooledSource> entries, HttpServletResponse response, String accept)
+			throws IOException {
+		boolean zip = acceptsZip(accept);
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType((zip ? BatchResultWriter.ZIP : BatchResultWriter.NDJSON).toString());
+
+		try (BatchResultWriter writer = zip ? BatchResultWriter.zip(response.getOutputStream())
+				: BatchResultWriter.ndjson(response.getOutputStream())) {
+			batchService.convert(entries, writer);
+		}
+	}
+
+	/**
+	 * Whether the client asked for a zip of results rather than lines of JSON.
+	 *
+	 * @param accept the media types the client accepts
+	 * @return {@code true} for a zip
+	 */
+	private boolean acceptsZip(String accept) {
+		if (StringUtils.isEmpty(accept)) {
+			return false;
+		}
+		List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+		MediaType.sortBySpecificityAndQuality(mediaTypes);
+		for (MediaType mediaType : mediaTypes) {
+			if (!mediaType.isWildcardSubtype()) {
+				return BatchResultWriter.ZIP.includes(mediaType);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks the purpose the same way the single file endpoint does.
+	 *
+	 * @param purpose the purpose header
+	 * @return the purpose, or null if none was given
+	 */
+	private String checkPurpose(String purpose) {
+		if (StringUtils.isEmpty(purpose)) {
+			return null;
+		}
+		if (purpose.length() > MAX_PURPOSE_LENGTH) {
+			throw new InvalidPurposeException("Given Purpose (header) is too large. Max length is "
+					+ MAX_PURPOSE_LENGTH + ", yours was " + purpose.length());
+		}
+		return purpose;
+	}
+}
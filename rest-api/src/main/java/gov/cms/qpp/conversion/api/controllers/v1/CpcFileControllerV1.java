@@ -2,6 +2,7 @@ package gov.cms.qpp.conversion.api.controllers.v1;
 
 import gov.cms.qpp.conversion.api.model.Constants;
 import gov.cms.qpp.conversion.api.model.CpcFileStatusUpdateRequest;
+import gov.cms.qpp.conversion.api.model.Page;
 import gov.cms.qpp.conversion.api.model.UnprocessedCpcFileData;
 import gov.cms.qpp.conversion.api.services.CpcFileService;
 import gov.cms.qpp.conversion.util.EnvironmentHelper;
@@ -22,6 +23,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -36,6 +38,9 @@ public class CpcFileControllerV1 {
 			"CPC+ unprocessed files request blocked by feature flag";
 	private static final Logger API_LOG = LoggerFactory.getLogger(CpcFileControllerV1.class);
 
+	static final int DEFAULT_PAGE_SIZE = 96;
+	static final int MAX_PAGE_SIZE = 1000;
+
 	private CpcFileService cpcFileService;
 
 	/**
@@ -48,13 +53,20 @@ public class CpcFileControllerV1 {
 	}
 
 	/**
-	 * Endpoint to transform an uploaded file into a valid or error json response
+	 * Endpoint to page through the unprocessed CPC+ files, oldest first
+	 *
+	 * When more files remain, the response has a {@link Constants#CONTINUATION_TOKEN_HEADER} header.  Pass its value back
+	 * as the {@code continuationToken} parameter to get the next page.
 	 *
+	 * @param continuationToken token from the previous page, if any
+	 * @param pageSize most files to return, from 1 to {@link #MAX_PAGE_SIZE}
 	 * @return Valid json or error json content
 	 */
 	@GetMapping(value = "/unprocessed-files",
 			headers = {"Accept=" + Constants.V1_API_ACCEPT})
-	public ResponseEntity<List<UnprocessedCpcFileData>> getUnprocessedCpcPlusFiles() {
+	public ResponseEntity<List<UnprocessedCpcFileData>> getUnprocessedCpcPlusFiles(
+			@RequestParam(value = "continuationToken", required = false) String continuationToken,
+			@RequestParam(value = "pageSize", required = false) Integer pageSize) {
 		API_LOG.info("CPC+ unprocessed files request received");
 
 		if (blockCpcPlusApi()) {
@@ -62,14 +74,18 @@ public class CpcFileControllerV1 {
 			return new ResponseEntity<>(null, null, HttpStatus.FORBIDDEN);
 		}
 
-		List<UnprocessedCpcFileData> unprocessedCpcFileDataList = cpcFileService.getUnprocessedCpcPlusFiles();
+		int size = pageSize == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+		Page<UnprocessedCpcFileData> page = cpcFileService.getUnprocessedCpcPlusFiles(continuationToken, size);
 
 		API_LOG.info("CPC+ unprocessed files request succeeded");
 
 		HttpHeaders httpHeaders = new HttpHeaders();
 		httpHeaders.setContentType(MediaType.APPLICATION_JSON_UTF8);
+		if (page.hasMore()) {
+			httpHeaders.set(Constants.CONTINUATION_TOKEN_HEADER, page.getContinuationToken());
+		}
 
-		return new ResponseEntity<>(unprocessedCpcFileDataList, httpHeaders, HttpStatus.OK);
+		return new ResponseEntity<>(page.getItems(), httpHeaders, HttpStatus.OK);
 	}
 
 	/**
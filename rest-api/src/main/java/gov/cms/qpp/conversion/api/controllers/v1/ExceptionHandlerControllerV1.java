@@ -1,8 +1,11 @@
 package gov.cms.qpp.conversion.api.controllers.v1;
 
+import gov.cms.qpp.conversion.api.exceptions.InvalidContinuationTokenException;
 import gov.cms.qpp.conversion.api.exceptions.InvalidFileTypeException;
 import gov.cms.qpp.conversion.api.exceptions.InvalidPurposeException;
 import gov.cms.qpp.conversion.api.exceptions.NoFileInDatabaseException;
+import gov.cms.qpp.conversion.api.exceptions.SpoolCapacityException;
+import gov.cms.qpp.conversion.api.exceptions.TooManyRequestsException;
 import gov.cms.qpp.conversion.api.services.AuditService;
 import gov.cms.qpp.conversion.model.error.AllErrors;
 import gov.cms.qpp.conversion.model.error.QppValidationException;
@@ -122,6 +125,37 @@ public class ExceptionHandlerControllerV1 extends ResponseEntityExceptionHandler
 			.body(exception.getMessage());
 	}
 
+	@ExceptionHandler(InvalidContinuationTokenException.class)
+	@ResponseBody
+	ResponseEntity<String> handleInvalidContinuationTokenException(InvalidContinuationTokenException exception) {
+		API_LOG.error("An invalid continuation token was received", exception);
+
+		return ResponseEntity.badRequest()
+			.contentType(MediaType.TEXT_PLAIN)
+			.body(exception.getMessage());
+	}
+
+	@ExceptionHandler(SpoolCapacityException.class)
+	@ResponseBody
+	ResponseEntity<String> handleSpoolCapacityException(SpoolCapacityException exception) {
+		API_LOG.error("An upload could not be spooled", exception);
+
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+			.contentType(MediaType.TEXT_PLAIN)
+			.body(exception.getMessage());
+	}
+
+	@ExceptionHandler(TooManyRequestsException.class)
+	@ResponseBody
+	ResponseEntity<String> handleTooManyRequestsException(TooManyRequestsException exception) {
+		API_LOG.warn("A conversion was refused: {}", exception.getMessage());
+
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+			.header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+			.contentType(MediaType.TEXT_PLAIN)
+			.body(exception.getMessage());
+	}
+
 	private ResponseEntity<AllErrors> cope(TransformException exception) {
 		HttpHeaders httpHeaders = new HttpHeaders();
 		httpHeaders.setContentType(MediaType.APPLICATION_JSON_UTF8);
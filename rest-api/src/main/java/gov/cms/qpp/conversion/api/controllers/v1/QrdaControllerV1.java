@@ -1,16 +1,20 @@
 package gov.cms.qpp.conversion.api.controllers.v1;
 
 import gov.cms.qpp.conversion.ConversionReport;
-import gov.cms.qpp.conversion.InputStreamSupplierSource;
 import gov.cms.qpp.conversion.api.exceptions.AuditException;
 import gov.cms.qpp.conversion.api.exceptions.InvalidPurposeException;
 import gov.cms.qpp.conversion.api.model.Constants;
 import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.api.services.AdmissionControl;
 import gov.cms.qpp.conversion.api.services.AuditService;
 import gov.cms.qpp.conversion.api.services.QrdaService;
+import gov.cms.qpp.conversion.api.services.SpooledSource;
+import gov.cms.qpp.conversion.api.services.UploadSpool;
 import gov.cms.qpp.conversion.api.services.ValidationService;
+import gov.cms.qpp.conversion.encode.JsonWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -22,6 +26,8 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -44,6 +50,9 @@ public class QrdaControllerV1 {
 	private QrdaService qrdaService;
 	private ValidationService validationService;
 	private AuditService auditService;
+	private Environment environment;
+	private UploadSpool uploadSpool;
+	private AdmissionControl admissionControl;
 
 	/**
 	 * init dependencies
@@ -51,11 +60,18 @@ public class QrdaControllerV1 {
 	 * @param qrdaService {@link QrdaService} to perform QRDA to QPP conversion
 	 * @param validationService {@link ValidationService} to perform post conversion validation
 	 * @param auditService {@link AuditService} to persist audit information
+	 * @param environment hooks to the environment in which the application runs
+	 * @param uploadSpool holds uploads while they are converted and audited
+	 * @param admissionControl limits the conversions running at once
 	 */
-	public QrdaControllerV1(QrdaService qrdaService, ValidationService validationService, AuditService auditService) {
+	public QrdaControllerV1(QrdaService qrdaService, ValidationService validationService, AuditService auditService,
+			Environment environment, UploadSpool uploadSpool, AdmissionControl admissionControl) {
 		this.qrdaService = qrdaService;
 		this.validationService = validationService;
 		this.auditService = auditService;
+		this.environment = environment;
+		this.uploadSpool = uploadSpool;
+		this.admissionControl = admissionControl;
 	}
 
 	/**
@@ -63,10 +79,11 @@ public class QrdaControllerV1 {
 	 *
 	 * @param file Uploaded file
 	 * @param purpose the purpose for the conversion
-	 * @return Valid json or error json content
+	 * @return Valid json or error json content, written straight to the response when rendered
+	 * @throws gov.cms.qpp.conversion.api.exceptions.TooManyRequestsException if there is no room for the conversion
 	 */
 	@PostMapping(headers = {"Accept=" + Constants.V1_API_ACCEPT})
-	public ResponseEntity<String> uploadQrdaFile(
+	public ResponseEntity<JsonWrapper> uploadQrdaFile(
 		@RequestParam(name = "file") MultipartFile file,
 		@RequestHeader(required = false, name = "Purpose") String purpose) {
 		String originalFilename = file.getOriginalFilename();
@@ -82,12 +99,19 @@ public class QrdaControllerV1 {
 			API_LOG.info("Conversion request received");
 		}
 
-		ConversionReport conversionReport = qrdaService.convertQrda3ToQpp(
-				new InputStreamSupplierSource(originalFilename, inputStream(file), purpose));
+		Metadata metadata;
+		ConversionReport conversionReport;
+		AdmissionControl.Admission admission = admissionControl.admit(file.getSize());
+		try (SpooledSource source = spool(file, originalFilename, purpose)) {
+			holdForRequest(source);
+			conversionReport = qrdaService.convertQrda3ToQpp(source);
 
-		validationService.validateQpp(conversionReport);
+			validationService.validateQpp(conversionReport);
 
-		Metadata metadata = audit(conversionReport);
+			metadata = audit(conversionReport);
+		} finally {
+			releaseAfterResponse(admission);
+		}
 
 		API_LOG.info("Conversion request succeeded");
 
@@ -98,18 +122,103 @@ public class QrdaControllerV1 {
 			httpHeaders.add("Location", metadata.getUuid());
 		}
 
-		return new ResponseEntity<>(conversionReport.getEncoded().toString(), httpHeaders, HttpStatus.CREATED);
+		return new ResponseEntity<>(conversionReport.getEncoded(), httpHeaders, HttpStatus.CREATED);
 	}
 
+	/**
+	 * Audit the successful conversion.
+	 *
+	 * Waits for the audit information to be stored unless {@link Constants#ASYNC_AUDIT_ENV_VARIABLE} is set, in which
+	 * case the response goes out straight away and the stored {@link Metadata}'s location is not known. When waiting,
+	 * a write the metadata outbox refuses fails the request rather than answering for an audit that was never stored.
+	 *
+	 * @param conversionReport report of the conversion
+	 * @return the stored metadata, or null if it is not stored or not waited for
+	 */
 	private Metadata audit(ConversionReport conversionReport) {
+		CompletableFuture<Metadata> metadata = auditService.success(conversionReport);
+		if (metadata == null) {
+			return null;
+		}
+
+		if (asyncAudit()) {
+			metadata.whenComplete((ignore, thrown) -> {
+				if (thrown != null) {
+					API_LOG.error("Failed to write success audit information", thrown);
+				}
+			});
+			return null;
+		}
+
 		try {
-			CompletableFuture<Metadata> metadata = auditService.success(conversionReport);
-			return metadata == null ? null : metadata.get();
-		} catch (InterruptedException | ExecutionException exception) {
+			return metadata.get();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
 			throw new AuditException(exception);
+		} catch (ExecutionException exception) {
+			if (exception.getCause() instanceof AuditException) {
+				throw (AuditException) exception.getCause();
+			}
+			throw new AuditException(exception.getCause());
+		}
+	}
+
+	/**
+	 * Spools the upload, so that it is read from the request once and then shared by conversion and auditing.
+	 *
+	 * @param file the attachment
+	 * @param originalFilename name of the attachment
+	 * @param purpose the purpose for the conversion
+	 * @return the spooled upload, to close once done with
+	 */
+	private SpooledSource spool(MultipartFile file, String originalFilename, String purpose) {
+		try (InputStream content = inputStream(file)) {
+			return uploadSpool.spool(originalFilename, content, purpose);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
 		}
 	}
 
+	/**
+	 * Holds the upload until the request completes, as the exception handlers read it after this controller is done.
+	 * Outside of a request there is nothing to hold it for.
+	 *
+	 * @param source the spooled upload
+	 */
+	private void holdForRequest(SpooledSource source) {
+		RequestAttributes request = RequestContextHolder.getRequestAttributes();
+		if (request != null) {
+			request.registerDestructionCallback(SpooledSource.class.getName() + "@" + System.identityHashCode(source),
+					source.retain()::close, RequestAttributes.SCOPE_REQUEST);
+		}
+	}
+
+	/**
+	 * Gives the admission back once the request completes, as the converted QPP is only written out when the response
+	 * is rendered after this controller is done. Outside of a request it is given back straight away.
+	 *
+	 * @param admission room for the conversion
+	 */
+	private void releaseAfterResponse(AdmissionControl.Admission admission) {
+		RequestAttributes request = RequestContextHolder.getRequestAttributes();
+		if (request != null) {
+			request.registerDestructionCallback(AdmissionControl.Admission.class.getName() + "@"
+					+ System.identityHashCode(admission), admission::close, RequestAttributes.SCOPE_REQUEST);
+		} else {
+			admission.close();
+		}
+	}
+
+	/**
+	 * Determines if the Async Audit Environment variable was passed
+	 *
+	 * @return whether the response should not wait for auditing
+	 */
+	private boolean asyncAudit() {
+		String asyncAudit = environment.getProperty(Constants.ASYNC_AUDIT_ENV_VARIABLE);
+		return asyncAudit != null && !asyncAudit.isEmpty();
+	}
+
 	/**
 	 * Input stream from a file
 	 *
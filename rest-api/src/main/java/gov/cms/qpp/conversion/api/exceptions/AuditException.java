@@ -5,6 +5,10 @@ package gov.cms.qpp.conversion.api.exceptions;
  * Audit information
  */
 public class AuditException extends RuntimeException {
+	public AuditException(String message) {
+		super(message);
+	}
+
 	public AuditException(Throwable ex) {
 		super(ex);
 	}
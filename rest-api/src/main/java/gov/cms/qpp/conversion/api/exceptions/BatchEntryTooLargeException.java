@@ -0,0 +1,17 @@
+package gov.cms.qpp.conversion.api.exceptions;
+
+/**
+ * Thrown when an entry of a batch holds more than one entry is allowed to
+ */
+public class BatchEntryTooLargeException extends RuntimeException {
+	private final String entryName;
+
+	public BatchEntryTooLargeException(String entryName, String message) {
+		super(message);
+		this.entryName = entryName;
+	}
+
+	public String getEntryName() {
+		return entryName;
+	}
+}
@@ -0,0 +1,12 @@
+package gov.cms.qpp.conversion.api.exceptions;
+
+/**
+ * Thrown when a continuation token was not issued by this API.
+ */
+public class InvalidContinuationTokenException extends IllegalArgumentException {
+
+	public InvalidContinuationTokenException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
@@ -0,0 +1,10 @@
+package gov.cms.qpp.conversion.api.exceptions;
+
+/**
+ * Thrown when an upload does not fit in the space left for spooling uploads to disk
+ */
+public class SpoolCapacityException extends RuntimeException {
+	public SpoolCapacityException(String message) {
+		super(message);
+	}
+}
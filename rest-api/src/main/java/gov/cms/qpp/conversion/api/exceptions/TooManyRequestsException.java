@@ -0,0 +1,17 @@
+package gov.cms.qpp.conversion.api.exceptions;
+
+/**
+ * Thrown when a conversion is turned away because too many are already running
+ */
+public class TooManyRequestsException extends RuntimeException {
+	private final long retryAfterSeconds;
+
+	public TooManyRequestsException(String message, long retryAfterSeconds) {
+		super(message);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
@@ -0,0 +1,109 @@
+package gov.cms.qpp.conversion.api.helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+/**
+ * Reads numeric settings from the environment, falling back to a default when a setting is unset or unusable.
+ */
+public class EnvironmentNumberHelper {
+
+	private static final Logger API_LOG = LoggerFactory.getLogger(EnvironmentNumberHelper.class);
+
+	/**
+	 * No need for constructor in this utility class
+	 */
+	private EnvironmentNumberHelper() {
+		//empty
+	}
+
+	/**
+	 * Reads a positive integer from the environment.
+	 *
+	 * @param environment access to environment variables
+	 * @param name environment variable
+	 * @param defaultValue value to use when the variable is unset or not a positive integer
+	 * @return the configured value
+	 */
+	public static int positive(Environment environment, String name, int defaultValue) {
+		return (int) positiveUpTo(environment, name, defaultValue, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Reads a positive long from the environment.
+	 *
+	 * @param environment access to environment variables
+	 * @param name environment variable
+	 * @param defaultValue value to use when the variable is unset or not a positive number
+	 * @return the configured value
+	 */
+	public static long positive(Environment environment, String name, long defaultValue) {
+		return positiveUpTo(environment, name, defaultValue, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Reads an integer from the environment, treating a negative value as zero.
+	 *
+	 * @param environment access to environment variables
+	 * @param name environment variable
+	 * @param defaultValue value to use when the variable is unset or not a number
+	 * @return the configured value
+	 */
+	public static int nonNegative(Environment environment, String name, int defaultValue) {
+		return (int) nonNegativeUpTo(environment, name, defaultValue, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Reads a long from the environment, treating a negative value as zero.
+	 *
+	 * @param environment access to environment variables
+	 * @param name environment variable
+	 * @param defaultValue value to use when the variable is unset or not a number
+	 * @return the configured value
+	 */
+	public static long nonNegative(Environment environment, String name, long defaultValue) {
+		return nonNegativeUpTo(environment, name, defaultValue, Long.MAX_VALUE);
+	}
+
+	private static long positiveUpTo(Environment environment, String name, long defaultValue, long max) {
+		Long value = parse(environment, name, max);
+		if (value == null) {
+			return defaultValue;
+		}
+		if (value <= 0) {
+			API_LOG.warn("{} must be positive, using {}", name, defaultValue);
+			return defaultValue;
+		}
+		return value;
+	}
+
+	private static long nonNegativeUpTo(Environment environment, String name, long defaultValue, long max) {
+		Long value = parse(environment, name, max);
+		return value == null ? defaultValue : Math.max(0, value);
+	}
+
+	/**
+	 * Parses a setting, or returns null when it is unset or not a number no larger than the given maximum.
+	 */
+	private static Long parse(Environment environment, String name, long max) {
+		String value = environment.getProperty(name);
+		if (StringUtils.isEmpty(value)) {
+			return null;
+		}
+
+		try {
+			long parsed = Long.parseLong(value.trim());
+			if (parsed <= max) {
+				return parsed;
+			}
+		} catch (NumberFormatException exception) {
+			API_LOG.warn("{} is not a number", name, exception);
+			return null;
+		}
+
+		API_LOG.warn("{} must be at most {}", name, max);
+		return null;
+	}
+}
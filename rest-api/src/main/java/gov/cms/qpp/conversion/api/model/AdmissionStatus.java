@@ -0,0 +1,111 @@
+package gov.cms.qpp.conversion.api.model;
+
+import java.util.Objects;
+
+/**
+ * Snapshot of the conversions admitted, waiting and turned away.
+ */
+public class AdmissionStatus {
+
+	private int maxConcurrent;
+	private long maxBytes;
+	private int maxQueueLength;
+	private int activeCount;
+	private long activeBytes;
+	private int queueLength;
+	private long admittedCount;
+	private long rejectedCount;
+
+	public int getMaxConcurrent() {
+		return maxConcurrent;
+	}
+
+	public void setMaxConcurrent(int maxConcurrent) {
+		this.maxConcurrent = maxConcurrent;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	public void setMaxBytes(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	public int getMaxQueueLength() {
+		return maxQueueLength;
+	}
+
+	public void setMaxQueueLength(int maxQueueLength) {
+		this.maxQueueLength = maxQueueLength;
+	}
+
+	public int getActiveCount() {
+		return activeCount;
+	}
+
+	public void setActiveCount(int activeCount) {
+		this.activeCount = activeCount;
+	}
+
+	public long getActiveBytes() {
+		return activeBytes;
+	}
+
+	public void setActiveBytes(long activeBytes) {
+		this.activeBytes = activeBytes;
+	}
+
+	public int getQueueLength() {
+		return queueLength;
+	}
+
+	public void setQueueLength(int queueLength) {
+		this.queueLength = queueLength;
+	}
+
+	public long getAdmittedCount() {
+		return admittedCount;
+	}
+
+	public void setAdmittedCount(long admittedCount) {
+		this.admittedCount = admittedCount;
+	}
+
+	public long getRejectedCount() {
+		return rejectedCount;
+	}
+
+	public void setRejectedCount(long rejectedCount) {
+		this.rejectedCount = rejectedCount;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+
+		if (o == null || o.getClass() != getClass()) {
+			return false;
+		}
+
+		AdmissionStatus that = (AdmissionStatus) o;
+
+		boolean equals = maxConcurrent == that.maxConcurrent;
+		equals &= maxBytes == that.maxBytes;
+		equals &= maxQueueLength == that.maxQueueLength;
+		equals &= activeCount == that.activeCount;
+		equals &= activeBytes == that.activeBytes;
+		equals &= queueLength == that.queueLength;
+		equals &= admittedCount == that.admittedCount;
+		equals &= rejectedCount == that.rejectedCount;
+		return equals;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(maxConcurrent, maxBytes, maxQueueLength, activeCount, activeBytes, queueLength,
+				admittedCount, rejectedCount);
+	}
+}
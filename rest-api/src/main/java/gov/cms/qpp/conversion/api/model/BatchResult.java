@@ -0,0 +1,92 @@
+package gov.cms.qpp.conversion.api.model;
+
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.model.error.AllErrors;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Outcome of converting one entry of a batch.
+ *
+ * The status is what the single file endpoint would have answered for the entry: {@link HttpStatus#CREATED} with the
+ * QPP, {@link HttpStatus#UNPROCESSABLE_ENTITY} with the errors, or another status with a message when the entry
+ * could not be converted at all.
+ */
+public class BatchResult {
+
+	private final int index;
+	private final String name;
+	private final HttpStatus status;
+	private final JsonWrapper qpp;
+	private final AllErrors errors;
+	private final String message;
+
+	private BatchResult(int index, String name, HttpStatus status, JsonWrapper qpp, AllErrors errors, String message) {
+		this.index = index;
+		this.name = name;
+		this.status = status;
+		this.qpp = qpp;
+		this.errors = errors;
+		this.message = message;
+	}
+
+	/**
+	 * An entry that converted.
+	 *
+	 * @param index position of the entry in the batch
+	 * @param name name of the entry
+	 * @param qpp the converted QPP
+	 * @return the result
+	 */
+	public static BatchResult converted(int index, String name, JsonWrapper qpp) {
+		return new BatchResult(index, name, HttpStatus.CREATED, qpp, null, null);
+	}
+
+	/**
+	 * An entry that failed conversion or validation.
+	 *
+	 * @param index position of the entry in the batch
+	 * @param name name of the entry
+	 * @param errors why it failed
+	 * @return the result
+	 */
+	public static BatchResult invalid(int index, String name, AllErrors errors) {
+		return new BatchResult(index, name, HttpStatus.UNPROCESSABLE_ENTITY, null, errors, null);
+	}
+
+	/**
+	 * An entry that could not be converted at all.
+	 *
+	 * @param index position of the entry in the batch
+	 * @param name name of the entry
+	 * @param status what the single file endpoint would have answered
+	 * @param message what went wrong
+	 * @return the result
+	 */
+	public static BatchResult failed(int index, String name, HttpStatus status, String message) {
+		return new BatchResult(index, name, status, null, null, message);
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public HttpStatus getStatus() {
+		return status;
+	}
+
+	public JsonWrapper getQpp() {
+		return qpp;
+	}
+
+	public AllErrors getErrors() {
+		return errors;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+}
@@ -0,0 +1,111 @@
+package gov.cms.qpp.conversion.api.model;
+
+import java.util.Objects;
+
+/**
+ * Snapshot of the cache of conversion results.
+ */
+public class CacheStatus {
+
+	private boolean enabled;
+	private boolean diskEnabled;
+	private long size;
+	private long capacity;
+	private long memoryHitCount;
+	private long diskHitCount;
+	private long missCount;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isDiskEnabled() {
+		return diskEnabled;
+	}
+
+	public void setDiskEnabled(boolean diskEnabled) {
+		this.diskEnabled = diskEnabled;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	public long getCapacity() {
+		return capacity;
+	}
+
+	public void setCapacity(long capacity) {
+		this.capacity = capacity;
+	}
+
+	public long getMemoryHitCount() {
+		return memoryHitCount;
+	}
+
+	public void setMemoryHitCount(long memoryHitCount) {
+		this.memoryHitCount = memoryHitCount;
+	}
+
+	public long getDiskHitCount() {
+		return diskHitCount;
+	}
+
+	public void setDiskHitCount(long diskHitCount) {
+		this.diskHitCount = diskHitCount;
+	}
+
+	public long getMissCount() {
+		return missCount;
+	}
+
+	public void setMissCount(long missCount) {
+		this.missCount = missCount;
+	}
+
+	/**
+	 * Share of lookups answered from either tier.
+	 *
+	 * @return hit rate from 0 to 1, or 0 before the first lookup
+	 */
+	public double getHitRate() {
+		long hits = memoryHitCount + diskHitCount;
+		long lookups = hits + missCount;
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+
+		if (o == null || o.getClass() != getClass()) {
+			return false;
+		}
+
+		CacheStatus that = (CacheStatus) o;
+
+		boolean equals = enabled == that.enabled;
+		equals &= diskEnabled == that.diskEnabled;
+		equals &= size == that.size;
+		equals &= capacity == that.capacity;
+		equals &= memoryHitCount == that.memoryHitCount;
+		equals &= diskHitCount == that.diskHitCount;
+		equals &= missCount == that.missCount;
+		return equals;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(enabled, diskEnabled, size, capacity, memoryHitCount, diskHitCount, missCount);
+	}
+}
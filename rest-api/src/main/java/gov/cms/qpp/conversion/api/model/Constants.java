@@ -7,11 +7,36 @@ public class Constants {
 	public static final String DYNAMO_TABLE_NAME_ENV_VARIABLE = "DYNAMO_TABLE_NAME";
 	public static final String KMS_KEY_ENV_VARIABLE = "KMS_KEY";
 	public static final String NO_AUDIT_ENV_VARIABLE = "NO_AUDIT";
+	public static final String ASYNC_AUDIT_ENV_VARIABLE = "ASYNC_AUDIT";
+	public static final String TASK_POOL_SIZE_ENV_VARIABLE = "TASK_POOL_SIZE";
+	public static final String TASK_QUEUE_CAPACITY_ENV_VARIABLE = "TASK_QUEUE_CAPACITY";
+	public static final String AUDIT_OUTBOX_CAPACITY_ENV_VARIABLE = "AUDIT_OUTBOX_CAPACITY";
+	public static final String AUDIT_OUTBOX_DIR_ENV_VARIABLE = "AUDIT_OUTBOX_DIR";
+	public static final String AUDIT_OUTBOX_OFFER_TIMEOUT_ENV_VARIABLE = "AUDIT_OUTBOX_OFFER_TIMEOUT";
+	public static final String CONVERSION_CACHE_SIZE_ENV_VARIABLE = "CONVERSION_CACHE_SIZE";
+	public static final String CONVERSION_CACHE_DIR_ENV_VARIABLE = "CONVERSION_CACHE_DIR";
+	public static final String CONVERSION_CACHE_DISK_SIZE_ENV_VARIABLE = "CONVERSION_CACHE_DISK_SIZE";
+	public static final String UPLOAD_SPOOL_THRESHOLD_ENV_VARIABLE = "UPLOAD_SPOOL_THRESHOLD";
+	public static final String UPLOAD_SPOOL_DIR_ENV_VARIABLE = "UPLOAD_SPOOL_DIR";
+	public static final String UPLOAD_SPOOL_CAPACITY_ENV_VARIABLE = "UPLOAD_SPOOL_CAPACITY";
+	public static final String ADMISSION_MAX_CONCURRENT_ENV_VARIABLE = "ADMISSION_MAX_CONCURRENT";
+	public static final String ADMISSION_MAX_BYTES_ENV_VARIABLE = "ADMISSION_MAX_BYTES";
+	public static final String ADMISSION_MAX_QUEUE_ENV_VARIABLE = "ADMISSION_MAX_QUEUE";
+	public static final String ADMISSION_QUEUE_TIMEOUT_ENV_VARIABLE = "ADMISSION_QUEUE_TIMEOUT";
+	public static final String ADMISSION_RETRY_AFTER_ENV_VARIABLE = "ADMISSION_RETRY_AFTER";
+	public static final String BATCH_POOL_SIZE_ENV_VARIABLE = "BATCH_POOL_SIZE";
+	public static final String BATCH_ENTRY_LIMIT_ENV_VARIABLE = "BATCH_ENTRY_LIMIT";
+	public static final String CONVERSION_INSTRUMENTATION_ENV_VARIABLE = "CONVERSION_INSTRUMENTATION";
 	public static final String BUCKET_NAME_ENV_VARIABLE = "BUCKET_NAME";
 	public static final String SUBMISSION_API_TOKEN_ENV_VARIABLE = "SUBMISSION_API_TOKEN";
 	public static final String VALIDATION_URL_ENV_VARIABLE = "VALIDATION_URL";
+	public static final String VALIDATION_MAX_CONNECTIONS_ENV_VARIABLE = "VALIDATION_MAX_CONNECTIONS";
+	public static final String VALIDATION_CONNECT_TIMEOUT_ENV_VARIABLE = "VALIDATION_CONNECT_TIMEOUT";
+	public static final String VALIDATION_READ_TIMEOUT_ENV_VARIABLE = "VALIDATION_READ_TIMEOUT";
+	public static final String VALIDATION_GZIP_ENV_VARIABLE = "VALIDATION_GZIP";
 	public static final String NO_CPC_PLUS_API_ENV_VARIABLE = "NO_CPC_PLUS_API";
 	public static final String V1_API_ACCEPT = "application/vnd.qpp.cms.gov.v1+json";
+	public static final String CONTINUATION_TOKEN_HEADER = "Continuation-Token";
 	public static final Integer CPC_DYNAMO_PARTITIONS = 32;
 	public static final String CPC_DYNAMO_PARTITION_START = "CPC_";
 	public static final String DYNAMO_CPC_ATTRIBUTE = "Cpc";
@@ -11,6 +11,11 @@ public class HealthCheck {
 	private List<String> environmentVariables;
 	private List<String> systemProperties;
 	private String implementationVersion;
+	private TaskExecutorStatus taskExecutor;
+	private OutboxStatus metadataOutbox;
+	private CacheStatus conversionCache;
+	private List<StageStatus> conversionStages;
+	private AdmissionStatus admission;
 
 	public List<String> getEnvironmentVariables() {
 		return environmentVariables;
@@ -36,6 +41,46 @@ public class HealthCheck {
 		this.implementationVersion = implementationVersion;
 	}
 
+	public TaskExecutorStatus getTaskExecutor() {
+		return taskExecutor;
+	}
+
+	public void setTaskExecutor(TaskExecutorStatus taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	public OutboxStatus getMetadataOutbox() {
+		return metadataOutbox;
+	}
+
+	public void setMetadataOutbox(OutboxStatus metadataOutbox) {
+		this.metadataOutbox = metadataOutbox;
+	}
+
+	public CacheStatus getConversionCache() {
+		return conversionCache;
+	}
+
+	public void setConversionCache(CacheStatus conversionCache) {
+		this.conversionCache = conversionCache;
+	}
+
+	public List<StageStatus> getConversionStages() {
+		return conversionStages;
+	}
+
+	public void setConversionStages(List<StageStatus> conversionStages) {
+		this.conversionStages = conversionStages;
+	}
+
+	public AdmissionStatus getAdmission() {
+		return admission;
+	}
+
+	public void setAdmission(AdmissionStatus admission) {
+		this.admission = admission;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
@@ -51,12 +96,18 @@ public class HealthCheck {
 		boolean equals = Objects.equals(environmentVariables, that.environmentVariables);
 		equals &= Objects.equals(systemProperties, that.systemProperties);
 		equals &= Objects.equals(implementationVersion, that.implementationVersion);
+		equals &= Objects.equals(taskExecutor, that.taskExecutor);
+		equals &= Objects.equals(metadataOutbox, that.metadataOutbox);
+		equals &= Objects.equals(conversionCache, that.conversionCache);
+		equals &= Objects.equals(conversionStages, that.conversionStages);
+		equals &= Objects.equals(admission, that.admission);
 		return equals;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(environmentVariables, systemProperties, implementationVersion);
+		return Objects.hash(environmentVariables, systemProperties, implementationVersion, taskExecutor, metadataOutbox,
+				conversionCache, conversionStages, admission);
 	}
 
 }
@@ -0,0 +1,90 @@
+package gov.cms.qpp.conversion.api.model;
+
+import java.util.Objects;
+
+/**
+ * Snapshot of the queue of metadata waiting to be written to DynamoDB.
+ */
+public class OutboxStatus {
+
+	private int depth;
+	private int capacity;
+	private boolean journaled;
+	private long writtenCount;
+	private long retryCount;
+	private long rejectedCount;
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public void setDepth(int depth) {
+		this.depth = depth;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	public boolean isJournaled() {
+		return journaled;
+	}
+
+	public void setJournaled(boolean journaled) {
+		this.journaled = journaled;
+	}
+
+	public long getWrittenCount() {
+		return writtenCount;
+	}
+
+	public void setWrittenCount(long writtenCount) {
+		this.writtenCount = writtenCount;
+	}
+
+	public long getRetryCount() {
+		return retryCount;
+	}
+
+	public void setRetryCount(long retryCount) {
+		this.retryCount = retryCount;
+	}
+
+	public long getRejectedCount() {
+		return rejectedCount;
+	}
+
+	public void setRejectedCount(long rejectedCount) {
+		this.rejectedCount = rejectedCount;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+
+		if (o == null || o.getClass() != getClass()) {
+			return false;
+		}
+
+		OutboxStatus that = (OutboxStatus) o;
+
+		boolean equals = depth == that.depth;
+		equals &= capacity == that.capacity;
+		equals &= journaled == that.journaled;
+		equals &= writtenCount == that.writtenCount;
+		equals &= retryCount == that.retryCount;
+		equals &= rejectedCount == that.rejectedCount;
+		return equals;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(depth, capacity, journaled, writtenCount, retryCount, rejectedCount);
+	}
+}
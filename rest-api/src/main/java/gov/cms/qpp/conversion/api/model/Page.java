@@ -0,0 +1,80 @@
+package gov.cms.qpp.conversion.api.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of results, with an opaque token for fetching the next page.
+ *
+ * @param <T> type of the results
+ */
+public class Page<T> {
+
+	private final List<T> items;
+	private final String continuationToken;
+
+	/**
+	 * Creates a page.
+	 *
+	 * @param items results on this page
+	 * @param continuationToken token for the next page, or {@code null} when this is the last page
+	 */
+	public Page(List<T> items, String continuationToken) {
+		this.items = Collections.unmodifiableList(items);
+		this.continuationToken = continuationToken;
+	}
+
+	public List<T> getItems() {
+		return items;
+	}
+
+	public String getContinuationToken() {
+		return continuationToken;
+	}
+
+	/**
+	 * Whether there are results after this page.
+	 *
+	 * @return {@code true} if there is a continuation token
+	 */
+	public boolean hasMore() {
+		return continuationToken != null;
+	}
+
+	/**
+	 * Transforms the results on this page, keeping the continuation token.
+	 *
+	 * @param mapper transforms each result
+	 * @param <R> type of the transformed results
+	 * @return page of transformed results
+	 */
+	public <R> Page<R> map(Function<? super T, ? extends R> mapper) {
+		List<R> mapped = items.stream().map(mapper).collect(Collectors.toList());
+		return new Page<>(mapped, continuationToken);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+
+		if (o == null || o.getClass() != getClass()) {
+			return false;
+		}
+
+		Page<?> that = (Page<?>) o;
+
+		boolean equals = Objects.equals(items, that.items);
+		equals &= Objects.equals(continuationToken, that.continuationToken);
+		return equals;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(items, continuationToken);
+	}
+}
@@ -0,0 +1,80 @@
+package gov.cms.qpp.conversion.api.model;
+
+import java.util.Objects;
+
+/**
+ * Totals for one stage, or one handler within a stage, of every conversion since the ReST API started.
+ */
+public class StageStatus {
+
+	private String stage;
+	private long count;
+	private long wallNanos;
+	private long cpuNanos;
+	private long allocatedBytes;
+
+	public String getStage() {
+		return stage;
+	}
+
+	public void setStage(String stage) {
+		this.stage = stage;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+	public long getWallNanos() {
+		return wallNanos;
+	}
+
+	public void setWallNanos(long wallNanos) {
+		this.wallNanos = wallNanos;
+	}
+
+	public long getCpuNanos() {
+		return cpuNanos;
+	}
+
+	public void setCpuNanos(long cpuNanos) {
+		this.cpuNanos = cpuNanos;
+	}
+
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	public void setAllocatedBytes(long allocatedBytes) {
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+
+		if (o == null || o.getClass() != getClass()) {
+			return false;
+		}
+
+		StageStatus that = (StageStatus) o;
+
+		boolean equals = Objects.equals(stage, that.stage);
+		equals &= count == that.count;
+		equals &= wallNanos == that.wallNanos;
+		equals &= cpuNanos == that.cpuNanos;
+		equals &= allocatedBytes == that.allocatedBytes;
+		return equals;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(stage, count, wallNanos, cpuNanos, allocatedBytes);
+	}
+}
@@ -0,0 +1,101 @@
+package gov.cms.qpp.conversion.api.model;
+
+import java.util.Objects;
+
+/**
+ * Snapshot of the thread pool that runs the asynchronous audit actions.
+ */
+public class TaskExecutorStatus {
+
+	private int poolSize;
+	private int maxPoolSize;
+	private int activeCount;
+	private int queueSize;
+	private int queueCapacity;
+	private long completedTaskCount;
+	private long rejectedTaskCount;
+
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	public void setPoolSize(int poolSize) {
+		this.poolSize = poolSize;
+	}
+
+	public int getMaxPoolSize() {
+		return maxPoolSize;
+	}
+
+	public void setMaxPoolSize(int maxPoolSize) {
+		this.maxPoolSize = maxPoolSize;
+	}
+
+	public int getActiveCount() {
+		return activeCount;
+	}
+
+	public void setActiveCount(int activeCount) {
+		this.activeCount = activeCount;
+	}
+
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+	public long getCompletedTaskCount() {
+		return completedTaskCount;
+	}
+
+	public void setCompletedTaskCount(long completedTaskCount) {
+		this.completedTaskCount = completedTaskCount;
+	}
+
+	public long getRejectedTaskCount() {
+		return rejectedTaskCount;
+	}
+
+	public void setRejectedTaskCount(long rejectedTaskCount) {
+		this.rejectedTaskCount = rejectedTaskCount;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+
+		if (o == null || o.getClass() != getClass()) {
+			return false;
+		}
+
+		TaskExecutorStatus that = (TaskExecutorStatus) o;
+
+		boolean equals = poolSize == that.poolSize;
+		equals &= maxPoolSize == that.maxPoolSize;
+		equals &= activeCount == that.activeCount;
+		equals &= queueSize == that.queueSize;
+		equals &= queueCapacity == that.queueCapacity;
+		equals &= completedTaskCount == that.completedTaskCount;
+		equals &= rejectedTaskCount == that.rejectedTaskCount;
+		return equals;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(poolSize, maxPoolSize, activeCount, queueSize, queueCapacity, completedTaskCount,
+				rejectedTaskCount);
+	}
+}
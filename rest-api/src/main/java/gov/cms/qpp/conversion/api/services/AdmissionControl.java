@@ -0,0 +1,198 @@
+package gov.cms.qpp.conversion.api.services;
+
+import gov.cms.qpp.conversion.api.exceptions.TooManyRequestsException;
+import gov.cms.qpp.conversion.api.exceptions.UncheckedInterruptedException;
+import gov.cms.qpp.conversion.api.helper.EnvironmentNumberHelper;
+import gov.cms.qpp.conversion.api.model.AdmissionStatus;
+import gov.cms.qpp.conversion.api.model.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides whether a conversion may start, so that a burst of uploads is turned away rather than run all at once.
+ *
+ * At most {@link Constants#ADMISSION_MAX_CONCURRENT_ENV_VARIABLE} conversions run at a time, twice the processors by
+ * default, holding at most {@link Constants#ADMISSION_MAX_BYTES_ENV_VARIABLE} bytes of uploads between them, a
+ * thirty-second of the heap by default as a conversion takes many times the size of its upload. A conversion that does
+ * not fit waits up to {@link Constants#ADMISSION_QUEUE_TIMEOUT_ENV_VARIABLE} milliseconds behind at most
+ * {@link Constants#ADMISSION_MAX_QUEUE_ENV_VARIABLE} others, and is then refused with a
+ * {@link TooManyRequestsException} asking the client to retry after
+ * {@link Constants#ADMISSION_RETRY_AFTER_ENV_VARIABLE} seconds. Waiting conversions are admitted in the order they
+ * arrived, and a new conversion joins the back of the queue even if it would fit, so that small uploads cannot keep
+ * a large one waiting until it times out.
+ */
+@Component
+public class AdmissionControl {
+
+	static final long DEFAULT_QUEUE_TIMEOUT = 2000;
+	static final long DEFAULT_RETRY_AFTER = 5;
+
+	private static final Logger API_LOG = LoggerFactory.getLogger(AdmissionControl.class);
+
+	private final int maxConcurrent;
+	private final long maxBytes;
+	private final int maxQueueLength;
+	private final long queueTimeout;
+	private final long retryAfter;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition released = lock.newCondition();
+	private final Deque<Thread> waiting = new ArrayDeque<>();
+	private int activeCount;
+	private long activeBytes;
+	private long admittedCount;
+	private long rejectedCount;
+
+	/**
+	 * Ensure required dependencies are supplied.
+	 *
+	 * @param environment access to environment variables
+	 */
+	public AdmissionControl(Environment environment) {
+		int processors = Runtime.getRuntime().availableProcessors();
+		this.maxConcurrent = EnvironmentNumberHelper.positive(environment, Constants.ADMISSION_MAX_CONCURRENT_ENV_VARIABLE,
+				processors * 2);
+		this.maxBytes = EnvironmentNumberHelper.positive(environment, Constants.ADMISSION_MAX_BYTES_ENV_VARIABLE,
+				Runtime.getRuntime().maxMemory() / 32);
+		this.maxQueueLength = EnvironmentNumberHelper.nonNegative(environment, Constants.ADMISSION_MAX_QUEUE_ENV_VARIABLE,
+				(int) Math.min(Integer.MAX_VALUE, maxConcurrent * 2L));
+		this.queueTimeout = EnvironmentNumberHelper.nonNegative(environment, Constants.ADMISSION_QUEUE_TIMEOUT_ENV_VARIABLE,
+				DEFAULT_QUEUE_TIMEOUT);
+		this.retryAfter = EnvironmentNumberHelper.positive(environment, Constants.ADMISSION_RETRY_AFTER_ENV_VARIABLE,
+				DEFAULT_RETRY_AFTER);
+
+		API_LOG.info("Admitting {} conversions of up to {} bytes at a time", maxConcurrent, maxBytes);
+	}
+
+	/**
+	 * Waits for room to convert an upload.
+	 *
+	 * An upload larger than the byte limit is counted as the limit, so that it can still run once nothing else is.
+	 *
+	 * @param bytes size of the upload
+	 * @return the admission, to close once the conversion is done
+	 * @throws TooManyRequestsException if there was no room in time
+	 */
+	public Admission admit(long bytes) {
+		long reserved = Math.min(Math.max(bytes, 0), maxBytes);
+
+		lock.lock();
+		try {
+			if (!waiting.isEmpty() || !fits(reserved)) {
+				await(reserved);
+			}
+			activeCount++;
+			activeBytes += reserved;
+			admittedCount++;
+			return new Admission(reserved);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * A snapshot of the admitted, waiting and refused conversions.
+	 *
+	 * @return current status
+	 */
+	public AdmissionStatus getStatus() {
+		AdmissionStatus status = new AdmissionStatus();
+		status.setMaxConcurrent(maxConcurrent);
+		status.setMaxBytes(maxBytes);
+		status.setMaxQueueLength(maxQueueLength);
+
+		lock.lock();
+		try {
+			status.setActiveCount(activeCount);
+			status.setActiveBytes(activeBytes);
+			status.setQueueLength(waiting.size());
+			status.setAdmittedCount(admittedCount);
+			status.setRejectedCount(rejectedCount);
+		} finally {
+			lock.unlock();
+		}
+		return status;
+	}
+
+	/**
+	 * Queues until the upload is first in line and fits, or refuses it. Called holding the lock.
+	 *
+	 * @param reserved bytes the upload counts as
+	 */
+	private void await(long reserved) {
+		if (waiting.size() >= maxQueueLength) {
+			throw reject("all " + maxQueueLength + " places in the queue are taken");
+		}
+
+		Thread current = Thread.currentThread();
+		waiting.addLast(current);
+		try {
+			long remaining = TimeUnit.MILLISECONDS.toNanos(queueTimeout);
+			while (waiting.peekFirst() != current || !fits(reserved)) {
+				if (remaining <= 0) {
+					throw reject("no room was made within " + queueTimeout + " milliseconds");
+				}
+				remaining = released.awaitNanos(remaining);
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new UncheckedInterruptedException(exception);
+		} finally {
+			waiting.remove(current);
+			released.signalAll();
+		}
+	}
+
+	private boolean fits(long reserved) {
+		return activeCount < maxConcurrent && activeBytes + reserved <= maxBytes;
+	}
+
+	private TooManyRequestsException reject(String reason) {
+		rejectedCount++;
+		API_LOG.warn("Refused a conversion, {} running with {} bytes and {}", activeCount, activeBytes, reason);
+		return new TooManyRequestsException("Too many conversions are running, " + reason
+				+ ". Please retry after " + retryAfter + " seconds", retryAfter);
+	}
+
+	private void release(long reserved) {
+		lock.lock();
+		try {
+			activeCount--;
+			activeBytes -= reserved;
+			released.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Room held by an admitted conversion, given back on close.
+	 */
+	public final class Admission implements AutoCloseable {
+		private final long reserved;
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private Admission(long reserved) {
+			this.reserved = reserved;
+		}
+
+		/**
+		 * Gives the room back, once.
+		 */
+		@Override
+		public void close() {
+			if (closed.compareAndSet(false, true)) {
+				release(reserved);
+			}
+		}
+	}
+}
@@ -3,7 +3,6 @@ package gov.cms.qpp.conversion.api.services;
 
 import gov.cms.qpp.conversion.ConversionReport;
 import gov.cms.qpp.conversion.Source;
-import gov.cms.qpp.conversion.api.exceptions.AuditException;
 import gov.cms.qpp.conversion.api.helper.MetadataHelper;
 import gov.cms.qpp.conversion.api.helper.MetadataHelper.Outcome;
 import gov.cms.qpp.conversion.api.model.Constants;
@@ -18,6 +17,9 @@ import org.springframework.stereotype.Service;
 
 /**
  * Service for storing {@link Metadata} by {@link ConversionReport} outcome
+ *
+ * The {@link Metadata} is written once the content it locates is stored, and each audit completes only when that
+ * write does, so that a caller waiting on an audit sees the outcome of the database write.
  */
 @Service
 public class AuditServiceImpl implements AuditService {
@@ -63,7 +65,7 @@ public class AuditServiceImpl implements AuditService {
 		CompletableFuture<Void> allWrites = CompletableFuture.allOf(
 				storeContent(qrdaSource).thenAccept(metadata::setSubmissionLocator),
 				storeContent(qppSource).thenAccept(metadata::setQppLocator));
-		return allWrites.whenComplete((nada, thrown) -> persist(metadata, thrown)).thenApply(ignore -> metadata);
+		return allWrites.thenCompose(ignore -> dbService.write(metadata)).thenApply(ignore -> metadata);
 	}
 
 	/**
@@ -88,7 +90,7 @@ public class AuditServiceImpl implements AuditService {
 		CompletableFuture<Void> allWrites = CompletableFuture.allOf(
 				storeContent(validationErrorSource).thenAccept(metadata::setConversionErrorLocator),
 				storeContent(qrdaSource).thenAccept(metadata::setSubmissionLocator));
-		return allWrites.whenComplete((ignore, thrown) -> persist(metadata, thrown));
+		return allWrites.thenCompose(ignore -> dbService.write(metadata)).thenApply(ignore -> null);
 	}
 
 	/**
@@ -116,7 +118,7 @@ public class AuditServiceImpl implements AuditService {
 				storeContent(validationErrorSource).thenAccept(metadata::setValidationErrorLocator),
 				storeContent(qppSource).thenAccept(metadata::setQppLocator),
 				storeContent(qrdaSource).thenAccept(metadata::setSubmissionLocator));
-		return allWrites.whenComplete((nada, thrown) -> persist(metadata, thrown));
+		return allWrites.thenCompose(ignore -> dbService.write(metadata)).thenApply(ignore -> null);
 	}
 
 	/**
@@ -152,25 +154,24 @@ public class AuditServiceImpl implements AuditService {
 	/**
 	 * Calls the {@link StorageService} to store an {@link InputStream}.
 	 *
+	 * A {@link SpooledSource} is held until it is stored, as storing may finish after the request that spooled it.
+	 *
 	 * @param sourceToStore The {@link Source} to store.
 	 * @return A {@link CompletableFuture} that represents storing the information.
 	 */
 	private CompletableFuture<String> storeContent(Source sourceToStore) {
 		UUID key = UUID.randomUUID();
-		return storageService.store(key.toString(), sourceToStore::toInputStream, sourceToStore.getSize());
-	}
+		if (!(sourceToStore instanceof SpooledSource)) {
+			return storageService.store(key.toString(), sourceToStore::toInputStream, sourceToStore.getSize());
+		}
 
-	/**
-	 * Calls the {@link DbService} to store the {@link Metadata} in a database.
-	 *
-	 * @param metadata The {@link Metadata} to save.
-	 * @param thrown A {@link Throwable} from a previous step.
-	 * @return A {@link CompletableFuture} that represents saving {@link Metadata} to a database.
-	 */
-	private CompletableFuture<Metadata> persist(Metadata metadata, Throwable thrown) {
-		if (thrown != null) {
-			throw new AuditException(thrown);
+		SpooledSource spooled = ((SpooledSource) sourceToStore).retain();
+		try {
+			return storageService.store(key.toString(), spooled::toInputStream, spooled.getSize())
+					.whenComplete((ignore, thrown) -> spooled.close());
+		} catch (RuntimeException exception) {
+			spooled.close();
+			throw exception;
 		}
-		return dbService.write(metadata);
 	}
 }
@@ -0,0 +1,171 @@
+package gov.cms.qpp.conversion.api.services;
+
+import gov.cms.qpp.conversion.api.exceptions.BatchEntryTooLargeException;
+import gov.cms.qpp.conversion.api.helper.EnvironmentNumberHelper;
+import gov.cms.qpp.conversion.api.model.Constants;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads the entries of a batch into the {@link UploadSpool} one at a time, as the batch asks for them.
+ *
+ * No entry may hold more than {@link Constants#BATCH_ENTRY_LIMIT_ENV_VARIABLE} bytes once decompressed, so that a
+ * small zip cannot inflate into more than the converter can take. Asking for an entry over the limit throws a
+ * {@link BatchEntryTooLargeException}, after which the rest of the batch can still be read.
+ */
+@Component
+public class BatchEntryReader {
+
+	static final long DEFAULT_ENTRY_LIMIT = 64L * 1024 * 1024;
+
+	private final UploadSpool uploadSpool;
+	private final long entryLimit;
+
+	/**
+	 * Ensure required dependencies are supplied.
+	 *
+	 * @param uploadSpool holds each entry while it is converted
+	 * @param environment access to environment variables
+	 */
+	public BatchEntryReader(UploadSpool uploadSpool, Environment environment) {
+		this.uploadSpool = uploadSpool;
+		this.entryLimit = EnvironmentNumberHelper.nonNegative(environment, Constants.BATCH_ENTRY_LIMIT_ENV_VARIABLE, DEFAULT_ENTRY_LIMIT);
+	}
+
+	/**
+	 * The files of a zip, skipping its directories.
+	 *
+	 * @param zip the zip, read as the entries are asked for but not closed
+	 * @param purpose the purpose of the conversions
+	 * @return the entries, each to close once done with
+	 */
+	public Iterator<SpooledSource> fromZip(InputStream zip, String purpose) {
+		return new ZipEntries(new ZipInputStream(zip), purpose);
+	}
+
+	/**
+	 * The files of a multipart upload.
+	 *
+	 * @param files the attachments
+	 * @param purpose the purpose of the conversions
+	 * @return the entries, each to close once done with
+	 */
+	public Iterator<SpooledSource> fromFiles(List<MultipartFile> files, String purpose) {
+		Iterator<MultipartFile> iterator = files.iterator();
+		return new Iterator<SpooledSource>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public SpooledSource next() {
+				MultipartFile file = iterator.next();
+				try (InputStream content = file.getInputStream()) {
+					return spool(file.getOriginalFilename(), content, purpose);
+				} catch (IOException exception) {
+					throw new UncheckedIOException(exception);
+				}
+			}
+		};
+	}
+
+	private SpooledSource spool(String name, InputStream content, String purpose) {
+		return uploadSpool.spool(name, new LimitedInputStream(name, content), purpose);
+	}
+
+	/**
+	 * Walks a zip, spooling each file in turn.
+	 */
+	private class ZipEntries implements Iterator<SpooledSource> {
+		private final ZipInputStream zip;
+		private final String purpose;
+		private ZipEntry entry;
+
+		ZipEntries(ZipInputStream zip, String purpose) {
+			this.zip = zip;
+			this.purpose = purpose;
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				while (entry == null) {
+					ZipEntry next = zip.getNextEntry();
+					if (next == null) {
+						return false;
+					}
+					if (!next.isDirectory()) {
+						entry = next;
+					}
+				}
+				return true;
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			}
+		}
+
+		@Override
+		public SpooledSource next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			String name = entry.getName();
+			entry = null;
+			return spool(name, zip, purpose);
+		}
+	}
+
+	/**
+	 * Refuses to read past the entry limit.
+	 */
+	private class LimitedInputStream extends FilterInputStream {
+		private final String name;
+		private long remaining = entryLimit;
+
+		LimitedInputStream(String name, InputStream content) {
+			super(content);
+			this.name = name;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int read = super.read();
+			count(read == -1 ? -1 : 1);
+			return read;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			int read = super.read(buffer, offset, length);
+			count(read);
+			return read;
+		}
+
+		@Override
+		public void close() {
+			// the underlying stream is closed by whoever opened it
+		}
+
+		private void count(int read) {
+			if (read > 0) {
+				remaining -= read;
+				if (remaining < 0) {
+					throw new BatchEntryTooLargeException(name, name + " is larger than the limit of " + entryLimit
+							+ " bytes for a batch entry");
+				}
+			}
+		}
+	}
+}
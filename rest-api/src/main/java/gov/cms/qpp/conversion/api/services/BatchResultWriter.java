@@ -0,0 +1,139 @@
+package gov.cms.qpp.conversion.api.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.PrettyPrinter;
+import gov.cms.qpp.conversion.api.model.BatchResult;
+import gov.cms.qpp.conversion.util.JacksonHelper;
+import org.springframework.http.MediaType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes the results of a batch to a stream as they arrive. Closing finishes the output but leaves the stream open.
+ */
+public abstract class BatchResultWriter implements Closeable {
+
+	public static final MediaType NDJSON = MediaType.valueOf("application/x-ndjson");
+	public static final MediaType ZIP = MediaType.valueOf("application/zip");
+
+	private static final String QPP_EXTENSION = ".qpp.json";
+	private static final String ERROR_EXTENSION = ".err.json";
+
+	/**
+	 * Writes one result.
+	 *
+	 * @param result the result
+	 * @throws IOException if the stream cannot be written
+	 */
+	public abstract void write(BatchResult result) throws IOException;
+
+	/**
+	 * One line of JSON per result, holding its index, name, status and either the QPP, the errors or a message.
+	 *
+	 * @param outputStream where the lines go
+	 * @return the writer
+	 */
+	public static BatchResultWriter ndjson(OutputStream outputStream) {
+		return new NdjsonWriter(outputStream);
+	}
+
+	/**
+	 * A zip with a file per result, named after the entry the way the command line converter names its output:
+	 * {@code .qpp.json} for QPP and {@code .err.json} for errors or a message.
+	 *
+	 * @param outputStream where the zip goes
+	 * @return the writer
+	 */
+	public static BatchResultWriter zip(OutputStream outputStream) {
+		return new ZipWriter(outputStream);
+	}
+
+	/**
+	 * Writes each result as one line of compact JSON.
+	 */
+	static final class NdjsonWriter extends BatchResultWriter {
+		private static final byte[] LINE_END = "}\n".getBytes(StandardCharsets.UTF_8);
+
+		private final OutputStream outputStream;
+
+		private NdjsonWriter(OutputStream outputStream) {
+			this.outputStream = outputStream;
+		}
+
+		@Override
+		public void write(BatchResult result) throws IOException {
+			StringBuilder start = new StringBuilder()
+					.append("{\"index\":").append(result.getIndex())
+					.append(",\"name\":").append(JacksonHelper.writer().writeValueAsString(result.getName()))
+					.append(",\"status\":").append(result.getStatus().value());
+			if (result.getQpp() != null) {
+				outputStream.write(start.append(",\"qpp\":").toString().getBytes(StandardCharsets.UTF_8));
+				result.getQpp().writeCompactTo(outputStream);
+			} else if (result.getErrors() != null) {
+				outputStream.write(start.append(",\"errors\":").toString().getBytes(StandardCharsets.UTF_8));
+				JacksonHelper.nonNullWriter()
+						.with((PrettyPrinter) null)
+						.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+						.writeValue(outputStream, result.getErrors());
+			} else {
+				start.append(",\"message\":").append(JacksonHelper.writer().writeValueAsString(result.getMessage()));
+				outputStream.write(start.toString().getBytes(StandardCharsets.UTF_8));
+			}
+			outputStream.write(LINE_END);
+			outputStream.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			outputStream.flush();
+		}
+	}
+
+	/**
+	 * Writes each result as a file of its own in a zip.
+	 */
+	static final class ZipWriter extends BatchResultWriter {
+		private final ZipOutputStream zip;
+		private final Set<String> names = new HashSet<>();
+
+		private ZipWriter(OutputStream outputStream) {
+			this.zip = new ZipOutputStream(outputStream);
+		}
+
+		@Override
+		public void write(BatchResult result) throws IOException {
+			boolean converted = result.getQpp() != null;
+			zip.putNextEntry(new ZipEntry(entryName(result, converted)));
+			if (converted) {
+				result.getQpp().writeTo(zip);
+			} else {
+				JacksonHelper.nonNullWriter()
+						.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+						.writeValue(zip, result.getErrors() != null ? result.getErrors() : result);
+			}
+			zip.closeEntry();
+			zip.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			zip.finish();
+			zip.flush();
+		}
+
+		/**
+		 * Names the output after the entry, with the entry's index in front if that name was already taken.
+		 */
+		private String entryName(BatchResult result, boolean converted) {
+			String name = result.getName().replaceFirst("(?i)(\\.xml)?$", converted ? QPP_EXTENSION : ERROR_EXTENSION);
+			return names.add(name) ? name : result.getIndex() + "-" + name;
+		}
+	}
+}
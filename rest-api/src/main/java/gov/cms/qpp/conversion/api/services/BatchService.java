@@ -0,0 +1,20 @@
+package gov.cms.qpp.conversion.api.services;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Interface of the batch QRDA-III to QPP conversion service
+ */
+public interface BatchService {
+
+	/**
+	 * Converts and validates every entry of a batch, writing each result as soon as it is known.
+	 *
+	 * @param entries the entries, each of which is closed once converted
+	 * @param writer where the results go
+	 * @return the number of entries
+	 * @throws IOException if the results cannot be written
+	 */
+	int convert(Iterator<SpooledSource> entries, BatchResultWriter writer) throws IOException;
+}
@@ -0,0 +1,234 @@
+package gov.cms.qpp.conversion.api.services;
+
+import gov.cms.qpp.conversion.ConversionReport;
+import gov.cms.qpp.conversion.api.config.InstrumentedTaskExecutor;
+import gov.cms.qpp.conversion.api.exceptions.BatchEntryTooLargeException;
+import gov.cms.qpp.conversion.api.exceptions.UncheckedInterruptedException;
+import gov.cms.qpp.conversion.api.helper.EnvironmentNumberHelper;
+import gov.cms.qpp.conversion.api.model.BatchResult;
+import gov.cms.qpp.conversion.api.model.Constants;
+import gov.cms.qpp.conversion.model.error.QppValidationException;
+import gov.cms.qpp.conversion.model.error.TransformException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of the batch QRDA-III to QPP conversion service.
+ *
+ * Entries are converted on a thread pool of their own, {@link Constants#BATCH_POOL_SIZE_ENV_VARIABLE} threads and one
+ * per processor by default, so that a large batch does not hold up the asynchronous actions such as auditing. Each
+ * batch keeps at most twice the pool size of entries in flight, reading the next entry only once a result has been
+ * written, and results are written in the order the entries finish. The threads only convert: validation goes on
+ * without them through {@link ValidationService#validateQppAsync(ConversionReport)}, and auditing is not waited for.
+ */
+@Service
+public class BatchServiceImpl implements BatchService {
+
+	static final String THREAD_NAME_PREFIX = "batch-";
+	static final int SHUTDOWN_WAIT_SECONDS = 60;
+
+	private static final Logger API_LOG = LoggerFactory.getLogger(BatchServiceImpl.class);
+
+	private final QrdaService qrdaService;
+	private final ValidationService validationService;
+	private final AuditService auditService;
+	private final InstrumentedTaskExecutor executor;
+	private final int window;
+
+	/**
+	 * Ensure required dependencies are supplied.
+	 *
+	 * @param qrdaService {@link QrdaService} to perform QRDA to QPP conversion
+	 * @param validationService {@link ValidationService} to perform post conversion validation
+	 * @param auditService {@link AuditService} to persist audit information
+	 * @param environment access to environment variables
+	 */
+	public BatchServiceImpl(QrdaService qrdaService, ValidationService validationService, AuditService auditService,
+			Environment environment) {
+		this.qrdaService = qrdaService;
+		this.validationService = validationService;
+		this.auditService = auditService;
+
+		int poolSize = EnvironmentNumberHelper.positive(environment, Constants.BATCH_POOL_SIZE_ENV_VARIABLE,
+				Runtime.getRuntime().availableProcessors());
+		this.window = poolSize * 2;
+		this.executor = new InstrumentedTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setAllowCoreThreadTimeOut(true);
+		executor.setQueueCapacity(poolSize * 4);
+		executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(SHUTDOWN_WAIT_SECONDS);
+		executor.initialize();
+
+		API_LOG.info("Batch conversions will use {} threads", poolSize);
+	}
+
+	/**
+	 * Converts and validates every entry of a batch, writing each result as soon as it is known.
+	 *
+	 * An entry that is too large is answered with {@link HttpStatus#PAYLOAD_TOO_LARGE} and the batch goes on. If the
+	 * batch cannot be read or the results cannot be written, the batch stops, but the entries already in flight are
+	 * still converted so that each one is closed.
+	 *
+	 * @param entries the entries, each of which is closed once converted
+	 * @param writer where the results go
+	 * @return the number of entries
+	 * @throws IOException if the results cannot be written
+	 */
+	@Override
+	public int convert(Iterator<SpooledSource> entries, BatchResultWriter writer) throws IOException {
+		BlockingQueue<BatchResult> done = new LinkedBlockingQueue<>();
+		int count = 0;
+		int pending = 0;
+
+		while (entries.hasNext()) {
+			int index = count++;
+			try {
+				SpooledSource entry = entries.next();
+				convertEntry(index, entry, done);
+				pending++;
+			} catch (BatchEntryTooLargeException exception) {
+				API_LOG.warn(exception.getMessage());
+				writer.write(BatchResult.failed(index, exception.getEntryName(), HttpStatus.PAYLOAD_TOO_LARGE,
+						exception.getMessage()));
+			}
+
+			for (BatchResult result = done.poll(); result != null; result = done.poll()) {
+				writer.write(result);
+				pending--;
+			}
+			if (pending >= window) {
+				writer.write(take(done));
+				pending--;
+			}
+		}
+
+		for (; pending > 0; pending--) {
+			writer.write(take(done));
+		}
+
+		API_LOG.info("Converted a batch of {} entries", count);
+		return count;
+	}
+
+	/**
+	 * Lets the entries in flight finish before the application stops.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Converts, validates and audits one entry, then queues its result.
+	 *
+	 * The entry is held until its audit has taken a hold of its own, and exactly one result is queued for it whatever
+	 * goes wrong, as the batch waits for one result per entry.
+	 *
+	 * @param index position of the entry in the batch
+	 * @param entry the entry, closed once audited
+	 * @param done where the result goes
+	 */
+	private void convertEntry(int index, SpooledSource entry, BlockingQueue<BatchResult> done) {
+		String name = entry.getName();
+		CompletableFuture<ConversionReport> conversion;
+		try {
+			conversion = CompletableFuture.supplyAsync(() -> qrdaService.convertQrda3ToQpp(entry), executor);
+		} catch (RuntimeException exception) {
+			entry.close();
+			throw exception;
+		}
+
+		conversion.thenCompose(report -> validationService.validateQppAsync(report).thenApply(ignore -> report))
+				.handle((report, thrown) -> result(index, name, report, thrown))
+				.whenComplete((result, thrown) -> {
+					try {
+						entry.close();
+					} finally {
+						done.add(result != null ? result : unexpected(index, name, thrown));
+					}
+				});
+	}
+
+	/**
+	 * Audits the outcome of an entry and turns it into a result.
+	 *
+	 * @param index position of the entry in the batch
+	 * @param name name of the entry
+	 * @param report the report of a valid conversion, or null
+	 * @param thrown why the conversion or validation failed, or null
+	 * @return the result
+	 */
+	private BatchResult result(int index, String name, ConversionReport report, Throwable thrown) {
+		Throwable cause = thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause()
+				: thrown;
+		if (cause == null) {
+			audit(() -> auditService.success(report), "success");
+			return BatchResult.converted(index, name, report.getEncoded());
+		}
+		if (cause instanceof QppValidationException) {
+			QppValidationException exception = (QppValidationException) cause;
+			API_LOG.warn("Validation of batch entry {} failed", name);
+			audit(() -> auditService.failValidation(exception.getConversionReport()), "validation failure");
+			return BatchResult.invalid(index, name, exception.getDetails());
+		}
+		if (cause instanceof TransformException) {
+			TransformException exception = (TransformException) cause;
+			API_LOG.warn("Conversion of batch entry {} failed", name);
+			audit(() -> auditService.failConversion(exception.getConversionReport()), "conversion failure");
+			return BatchResult.invalid(index, name, exception.getDetails());
+		}
+		API_LOG.error("Could not convert batch entry {}", name, cause);
+		return BatchResult.failed(index, name, HttpStatus.INTERNAL_SERVER_ERROR, cause.getMessage());
+	}
+
+	/**
+	 * Starts an audit without waiting for it. An audit that cannot be started is logged rather than failing the entry.
+	 *
+	 * @param audit starts the audit
+	 * @param outcome what is audited, for the log
+	 */
+	private void audit(Supplier<CompletableFuture<?>> audit, String outcome) {
+		try {
+			CompletableFuture<?> started = audit.get();
+			if (started != null) {
+				started.whenComplete((ignore, thrown) -> {
+					if (thrown != null) {
+						API_LOG.error("Failed to write {} audit information", outcome, thrown);
+					}
+				});
+			}
+		} catch (RuntimeException exception) {
+			API_LOG.error("Could not start writing {} audit information", outcome, exception);
+		}
+	}
+
+	private static BatchResult unexpected(int index, String name, Throwable thrown) {
+		API_LOG.error("Could not convert batch entry {}", name, thrown);
+		return BatchResult.failed(index, name, HttpStatus.INTERNAL_SERVER_ERROR,
+				thrown == null ? "No result" : String.valueOf(thrown.getMessage()));
+	}
+
+	private static BatchResult take(BlockingQueue<BatchResult> done) {
+		try {
+			return done.take();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new UncheckedInterruptedException(exception);
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package gov.cms.qpp.conversion.api.services;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import gov.cms.qpp.conversion.ConversionReport;
+import gov.cms.qpp.conversion.Source;
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.TemplateId;
+import gov.cms.qpp.conversion.model.error.Detail;
+import gov.cms.qpp.conversion.model.error.Error;
+import gov.cms.qpp.conversion.model.error.ErrorCode;
+import gov.cms.qpp.conversion.model.error.TransformException;
+import gov.cms.qpp.conversion.util.JacksonHelper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a conversion produced, apart from its source, so it can be handed out again for identical content.
+ *
+ * Conversions are written to disk as json rather than serialized objects, so reading one back cannot create anything
+ * but maps, lists and {@link Detail}s. Only the clinical document's values are kept from the decoded tree, as they are
+ * all that auditing reads from it.
+ */
+class CachedConversion {
+
+	private final Node decoded;
+	private final JsonWrapper encoded;
+	private final ArrayList<Detail> details;
+
+	/**
+	 * Captures the result of a conversion.
+	 *
+	 * @param report report of a conversion that has just run, before any later validation changes its details
+	 */
+	CachedConversion(ConversionReport report) {
+		this.decoded = report.getDecoded();
+		this.encoded = report.getEncoded();
+		this.details = new ArrayList<>();
+		for (Error error : report.getReportDetails().getErrors()) {
+			if (error.getDetails() != null) {
+				details.addAll(error.getDetails());
+			}
+		}
+	}
+
+	private CachedConversion(Node decoded, JsonWrapper encoded, ArrayList<Detail> details) {
+		this.decoded = decoded;
+		this.encoded = encoded;
+		this.details = details;
+	}
+
+	/**
+	 * Reads a conversion written by {@link #writeTo(OutputStream)}.
+	 *
+	 * @param in the json, which is not closed
+	 * @return the conversion
+	 * @throws IOException if the json cannot be read
+	 */
+	static CachedConversion readFrom(InputStream in) throws IOException {
+		Stored stored = JacksonHelper.reader().forType(Stored.class).readValue(in);
+		if (stored.details == null) {
+			throw new IOException("Cached conversion has no details");
+		}
+
+		Node decoded = null;
+		if (stored.document != null) {
+			decoded = new Node(TemplateId.CLINICAL_DOCUMENT);
+			stored.document.forEach(decoded::putValue);
+			decoded.freeze();
+		}
+
+		JsonWrapper encoded = null;
+		if (stored.encoded != null) {
+			encoded = new JsonWrapper();
+			stored.encoded.forEach(encoded::putObject);
+			encoded.freeze();
+		}
+
+		return new CachedConversion(decoded, encoded, stored.details);
+	}
+
+	/**
+	 * Writes the conversion as json.
+	 *
+	 * @param out destination of the json, which is not closed
+	 * @throws IOException if the json cannot be written
+	 */
+	void writeTo(OutputStream out) throws IOException {
+		Stored stored = new Stored();
+		Node document = decoded == null ? null : decoded.findFirstNode(TemplateId.CLINICAL_DOCUMENT);
+		if (document != null) {
+			stored.document = new LinkedHashMap<>();
+			for (String key : document.getKeys()) {
+				stored.document.put(key, document.getValue(key));
+			}
+		}
+		if (encoded != null && encoded.isObject()) {
+			@SuppressWarnings("unchecked")
+			Map<String, Object> object = (Map<String, Object>) encoded.getObject();
+			stored.encoded = object;
+		}
+		stored.details = details;
+		JacksonHelper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+				.writeValue(out, stored);
+	}
+
+	/**
+	 * Whether the conversion failed in a way that would fail again, so is worth remembering.
+	 *
+	 * Unexpected errors may not happen again, so conversions that hit one are not cached.
+	 *
+	 * @return {@code true} if this can be cached
+	 */
+	boolean isCacheable() {
+		Integer unexpected = ErrorCode.UNEXPECTED_ERROR.getCode();
+		return details.stream().map(Detail::getErrorCode).noneMatch(unexpected::equals);
+	}
+
+	/**
+	 * Whether the conversion failed.
+	 *
+	 * @return {@code true} if the conversion produced errors
+	 */
+	boolean isFailure() {
+		return !details.isEmpty();
+	}
+
+	/**
+	 * Replays the conversion for a source with the same content.
+	 *
+	 * @param source the source now being converted
+	 * @return report of the conversion
+	 * @throws TransformException if the conversion failed, just as the converter would
+	 */
+	ConversionReport replay(Source source) {
+		ConversionReport report = new ConversionReport(source, new ArrayList<>(details), decoded, encoded);
+		if (isFailure()) {
+			throw new TransformException("Validation errors exist", null, report);
+		}
+		return report;
+	}
+
+	/**
+	 * The json form of a conversion.
+	 */
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	static class Stored {
+		@JsonProperty("document")
+		Map<String, String> document;
+		@JsonProperty("encoded")
+		Map<String, Object> encoded;
+		@JsonProperty("details")
+		ArrayList<Detail> details;
+	}
+}
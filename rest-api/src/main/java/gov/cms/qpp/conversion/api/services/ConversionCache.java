@@ -0,0 +1,336 @@
+package gov.cms.qpp.conversion.api.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.BaseEncoding;
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.Source;
+import gov.cms.qpp.conversion.api.helper.EnvironmentNumberHelper;
+import gov.cms.qpp.conversion.api.model.CacheStatus;
+import gov.cms.qpp.conversion.api.model.Constants;
+import gov.cms.qpp.conversion.util.BuildHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Remembers conversion results by the content that was converted, so identical files are not converted again.
+ *
+ * The key is a SHA-256 of the uploaded bytes along with the {@link Context} settings and converter build. Results are
+ * kept in memory, least recently used first out, up to {@link Constants#CONVERSION_CACHE_SIZE_ENV_VARIABLE} entries.
+ * The cache is off when that is unset. When {@link Constants#CONVERSION_CACHE_DIR_ENV_VARIABLE} is also set, results
+ * are written to that directory too, so they outlive memory eviction and restarts. That needs the converter's
+ * {@link BuildHelper#build() build}, so a new converter does not replay what an old one wrote. Without it, results are
+ * only kept in memory.
+ *
+ * Results on disk are json, and hold the converted submissions with their TINs and NPIs. Where the file system has
+ * POSIX permissions, the directory and its files are readable by the ReST API's user alone.
+ */
+@Component
+public class ConversionCache {
+
+	static final int DEFAULT_DISK_SIZE = 10_000;
+	static final String FILE_SUFFIX = ".conversion";
+
+	private static final Logger API_LOG = LoggerFactory.getLogger(ConversionCache.class);
+	private static final String DIGEST = "SHA-256";
+	private static final int BUFFER_SIZE = 8192;
+	private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+	private final TaskExecutor taskExecutor;
+	private final String build;
+	private final long capacity;
+	private final Cache<String, CachedConversion> memory;
+	private final Path directory;
+	private final int diskCapacity;
+	private final AtomicInteger diskSize = new AtomicInteger();
+	private final LongAdder memoryHits = new LongAdder();
+	private final LongAdder diskHits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Ensure required dependencies are supplied.
+	 *
+	 * @param environment access to environment variables
+	 * @param taskExecutor writes results to disk off the request thread
+	 */
+	@Autowired
+	public ConversionCache(Environment environment, TaskExecutor taskExecutor) {
+		this(environment, taskExecutor, BuildHelper.build());
+	}
+
+	/**
+	 * Ensure required dependencies are supplied.
+	 *
+	 * @param environment access to environment variables
+	 * @param taskExecutor writes results to disk off the request thread
+	 * @param build the converter's build, if known
+	 */
+	ConversionCache(Environment environment, TaskExecutor taskExecutor, Optional<String> build) {
+		this.taskExecutor = taskExecutor;
+		this.build = build.orElse("");
+		this.capacity = EnvironmentNumberHelper.nonNegative(environment, Constants.CONVERSION_CACHE_SIZE_ENV_VARIABLE, 0);
+		this.memory = capacity > 0 ? CacheBuilder.newBuilder().maximumSize(capacity).build() : null;
+		this.diskCapacity = EnvironmentNumberHelper.nonNegative(environment, Constants.CONVERSION_CACHE_DISK_SIZE_ENV_VARIABLE,
+				DEFAULT_DISK_SIZE);
+
+		String dir = environment.getProperty(Constants.CONVERSION_CACHE_DIR_ENV_VARIABLE);
+		boolean useDisk = memory != null && !StringUtils.isEmpty(dir);
+		if (useDisk && !build.isPresent()) {
+			API_LOG.warn("Not caching conversions in {} because the converter's build is unknown", dir);
+			useDisk = false;
+		}
+		this.directory = useDisk ? Paths.get(dir) : null;
+		if (directory != null) {
+			try {
+				createPrivateDirectory(directory);
+				diskSize.set(entries().size());
+			} catch (IOException exception) {
+				throw new UncheckedIOException("Could not open the conversion cache in " + dir, exception);
+			}
+		}
+
+		if (memory != null) {
+			API_LOG.info("Caching up to {} conversions in memory{}", capacity,
+					directory == null ? "" : " and " + diskCapacity + " on disk");
+		}
+	}
+
+	/**
+	 * Whether conversions should be looked up at all.
+	 *
+	 * @return {@code true} if the cache is on
+	 */
+	public boolean isEnabled() {
+		return memory != null;
+	}
+
+	/**
+	 * Works out the cache key for converting a source with the given settings.
+	 *
+	 * @param source content to convert
+	 * @param context settings for the conversion
+	 * @return hex SHA-256 of the content and settings
+	 */
+	public String key(Source source, Context context) {
+		MessageDigest digest = newDigest();
+		try (InputStream in = new DigestInputStream(source.toInputStream(), digest)) {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (in.read(buffer) != -1) {
+				// the digest sees every byte read
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+
+		digest.update(settings(context).getBytes(StandardCharsets.UTF_8));
+		return BaseEncoding.base16().lowerCase().encode(digest.digest());
+	}
+
+	/**
+	 * Finds a previous conversion, checking memory before disk.
+	 *
+	 * @param key from {@link #key(Source, Context)}
+	 * @return the conversion, or {@code null} if there is none
+	 */
+	CachedConversion get(String key) {
+		CachedConversion cached = memory.getIfPresent(key);
+		if (cached != null) {
+			memoryHits.increment();
+			return cached;
+		}
+
+		cached = read(key);
+		if (cached != null) {
+			diskHits.increment();
+			memory.put(key, cached);
+			return cached;
+		}
+
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * Remembers a conversion.
+	 *
+	 * @param key from {@link #key(Source, Context)}
+	 * @param conversion the conversion
+	 */
+	void put(String key, CachedConversion conversion) {
+		memory.put(key, conversion);
+		if (directory != null) {
+			try {
+				taskExecutor.execute(() -> write(key, conversion));
+			} catch (TaskRejectedException exception) {
+				API_LOG.warn("Too busy to write conversion {} to the cache directory", key, exception);
+			}
+		}
+	}
+
+	/**
+	 * A snapshot of the cache.
+	 *
+	 * @return current status
+	 */
+	public CacheStatus getStatus() {
+		CacheStatus status = new CacheStatus();
+		status.setEnabled(isEnabled());
+		status.setDiskEnabled(directory != null);
+		status.setSize(memory == null ? 0 : memory.size());
+		status.setCapacity(capacity);
+		status.setMemoryHitCount(memoryHits.sum());
+		status.setDiskHitCount(diskHits.sum());
+		status.setMissCount(misses.sum());
+		return status;
+	}
+
+	/**
+	 * The settings that change what a conversion produces.
+	 *
+	 * @param context settings for the conversion
+	 * @return the settings as text
+	 */
+	private String settings(Context context) {
+		String scope = context.getScope().stream().map(Enum::name).sorted().collect(Collectors.joining(","));
+		return "|" + build
+				+ "|" + context.getProgram()
+				+ "|" + scope
+				+ "|" + context.isHistorical()
+				+ "|" + context.isDoDefaults()
+				+ "|" + context.isDoValidation();
+	}
+
+	private CachedConversion read(String key) {
+		if (directory == null) {
+			return null;
+		}
+
+		Path file = directory.resolve(key + FILE_SUFFIX);
+		if (!Files.exists(file)) {
+			return null;
+		}
+
+		try (InputStream in = Files.newInputStream(file)) {
+			CachedConversion cached = CachedConversion.readFrom(in);
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			return cached;
+		} catch (IOException exception) {
+			API_LOG.warn("Discarding unreadable cached conversion {}", file, exception);
+			delete(file);
+			return null;
+		}
+	}
+
+	private void write(String key, CachedConversion conversion) {
+		Path file = directory.resolve(key + FILE_SUFFIX);
+		if (Files.exists(file)) {
+			return;
+		}
+
+		try {
+			Path temporary = Files.createTempFile(directory, key, ".tmp");
+			try (OutputStream out = Files.newOutputStream(temporary)) {
+				conversion.writeTo(out);
+			}
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException exception) {
+			API_LOG.warn("Could not write cached conversion {}", file, exception);
+			return;
+		}
+
+		if (diskSize.incrementAndGet() > diskCapacity) {
+			prune();
+		}
+	}
+
+	/**
+	 * Deletes the least recently used tenth of the cached conversions on disk.
+	 */
+	private synchronized void prune() {
+		try {
+			List<Path> entries = entries();
+			entries.sort(Comparator.comparing(ConversionCache::lastModified));
+			int excess = entries.size() - diskCapacity + diskCapacity / 10;
+			entries.stream().limit(Math.max(excess, 0)).forEach(ConversionCache::delete);
+			diskSize.set(entries().size());
+		} catch (IOException exception) {
+			API_LOG.warn("Could not prune the conversion cache", exception);
+		}
+	}
+
+	private List<Path> entries() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.getFileName().toString().endsWith(FILE_SUFFIX))
+					.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Creates the directory, or takes over an existing one, so that only this user may use it. The files in it are
+	 * created by {@link Files#createTempFile}, which also gives them to this user alone.
+	 *
+	 * @param directory where conversions are kept
+	 * @throws IOException if the directory cannot be created or its permissions set
+	 */
+	private static void createPrivateDirectory(Path directory) throws IOException {
+		Files.createDirectories(directory);
+		if (Files.getFileStore(directory).supportsFileAttributeView(PosixFileAttributeView.class)) {
+			Files.setPosixFilePermissions(directory, OWNER_ONLY);
+		}
+	}
+
+	private static FileTime lastModified(Path file) {
+		try {
+			return Files.getLastModifiedTime(file);
+		} catch (IOException exception) {
+			return FileTime.fromMillis(0);
+		}
+	}
+
+	private static void delete(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException exception) {
+			API_LOG.warn("Could not delete cached conversion {}", file, exception);
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(DIGEST);
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException(DIGEST + " is always available", exception);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package gov.cms.qpp.conversion.api.services;
+
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.api.model.Constants;
+import gov.cms.qpp.conversion.api.model.StageStatus;
+import gov.cms.qpp.conversion.instrument.StageStatistics;
+import gov.cms.qpp.conversion.instrument.StageTotals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Totals of the time, CPU and memory spent in each stage of the conversions this ReST API has run.
+ *
+ * Conversions are only measured when {@link Constants#CONVERSION_INSTRUMENTATION_ENV_VARIABLE} is set.
+ */
+@Component
+public class ConversionStageMetrics {
+
+	private static final Logger API_LOG = LoggerFactory.getLogger(ConversionStageMetrics.class);
+
+	private final StageStatistics statistics;
+
+	/**
+	 * Ensure required dependencies are supplied.
+	 *
+	 * @param environment access to environment variables
+	 */
+	public ConversionStageMetrics(Environment environment) {
+		boolean enabled = !StringUtils.isEmpty(environment.getProperty(Constants.CONVERSION_INSTRUMENTATION_ENV_VARIABLE));
+		this.statistics = enabled ? new StageStatistics() : null;
+		if (enabled) {
+			API_LOG.info("Measuring each stage of every conversion");
+		}
+	}
+
+	/**
+	 * Has a conversion's stages measured, if measuring is on.
+	 *
+	 * @param context settings for the conversion
+	 */
+	public void instrument(Context context) {
+		if (statistics != null) {
+			context.setInstrumentation(statistics);
+		}
+	}
+
+	/**
+	 * A snapshot of the totals.
+	 *
+	 * @return totals for each stage and handler, empty when measuring is off
+	 */
+	public List<StageStatus> getStatus() {
+		if (statistics == null) {
+			return Collections.emptyList();
+		}
+
+		return statistics.getTotals().stream()
+				.map(ConversionStageMetrics::status)
+				.collect(Collectors.toList());
+	}
+
+	private static StageStatus status(StageTotals totals) {
+		StageStatus status = new StageStatus();
+		status.setStage(totals.getStage());
+		status.setCount(totals.getCount());
+		status.setWallNanos(totals.getWallNanos());
+		status.setCpuNanos(totals.getCpuNanos());
+		status.setAllocatedBytes(totals.getAllocatedBytes());
+		return status;
+	}
+}
@@ -1,9 +1,9 @@
 package gov.cms.qpp.conversion.api.services;
 
 import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.api.model.Page;
 import gov.cms.qpp.conversion.api.model.UnprocessedCpcFileData;
 import java.io.IOException;
-import java.util.List;
 import org.springframework.core.io.InputStreamResource;
 
 /**
@@ -11,11 +11,13 @@ import org.springframework.core.io.InputStreamResource;
  */
 public interface CpcFileService {
 	/**
-	 * Retrieves all unprocessed cpc+ metadata
+	 * Retrieves a page of unprocessed cpc+ metadata
 	 *
+	 * @param continuationToken token from the previous page, or {@code null} for the first page
+	 * @param pageSize most files to return
 	 * @return {@link Metadata} extracted as {@link UnprocessedCpcFileData}.
 	 */
-	List<UnprocessedCpcFileData> getUnprocessedCpcPlusFiles();
+	Page<UnprocessedCpcFileData> getUnprocessedCpcPlusFiles(String continuationToken, int pageSize);
 
 	/**
 	 * Retrieves the file location id by metadata id and uses it to retrieve the file
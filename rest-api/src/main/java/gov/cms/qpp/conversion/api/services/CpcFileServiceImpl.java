@@ -3,13 +3,12 @@ package gov.cms.qpp.conversion.api.services;
 import gov.cms.qpp.conversion.api.exceptions.InvalidFileTypeException;
 import gov.cms.qpp.conversion.api.exceptions.NoFileInDatabaseException;
 import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.api.model.Page;
 import gov.cms.qpp.conversion.api.model.UnprocessedCpcFileData;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
 /**
  * Service for handling Cpc File meta data
@@ -37,15 +36,17 @@ public class CpcFileServiceImpl implements CpcFileService {
 	}
 
 	/**
-	 * Calls the DbService for unprocessed metadata to transform into UnprocessedCpcFileData
+	 * Calls the DbService for a page of unprocessed metadata to transform into UnprocessedCpcFileData
 	 *
-	 * @return List of {@link UnprocessedCpcFileData}
+	 * @param continuationToken token from the previous page, or {@code null} for the first page
+	 * @param pageSize most files to return
+	 * @return Page of {@link UnprocessedCpcFileData}
 	 */
 	@Override
-	public List<UnprocessedCpcFileData> getUnprocessedCpcPlusFiles() {
-		List<Metadata> metadata = dbService.getUnprocessedCpcPlusMetaData();
+	public Page<UnprocessedCpcFileData> getUnprocessedCpcPlusFiles(String continuationToken, int pageSize) {
+		Page<Metadata> metadata = dbService.getUnprocessedCpcPlusMetaData(continuationToken, pageSize);
 
-		return transformMetaDataToUnprocessedCpcFileData(metadata);
+		return metadata.map(UnprocessedCpcFileData::new);
 	}
 
 	/**
@@ -109,16 +110,6 @@ public class CpcFileServiceImpl implements CpcFileService {
 		}
 	}
 
-	/**
-	 * Service to transform a {@link Metadata} list into the {@link UnprocessedCpcFileData}
-	 *
-	 * @param metadataList object to hold the list of {@link Metadata} from DynamoDb
-	 * @return transformed list of {@link UnprocessedCpcFileData}
-	 */
-	private List<UnprocessedCpcFileData> transformMetaDataToUnprocessedCpcFileData(List<Metadata> metadataList) {
-		return metadataList.stream().map(UnprocessedCpcFileData::new).collect(Collectors.toList());
-	}
-
 	/**
 	 * Determines if the file is unprocessed and is CPC+
 	 *
@@ -2,7 +2,7 @@ package gov.cms.qpp.conversion.api.services;
 
 
 import gov.cms.qpp.conversion.api.model.Metadata;
-import java.util.List;
+import gov.cms.qpp.conversion.api.model.Page;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -17,7 +17,14 @@ public interface DbService {
 	 */
 	CompletableFuture<Metadata> write(Metadata meta);
 
-	List<Metadata> getUnprocessedCpcPlusMetaData();
+	/**
+	 * Retrieves a page of unprocessed CPC+ metadata, oldest first.
+	 *
+	 * @param continuationToken token from the previous page, or {@code null} for the first page
+	 * @param pageSize most items to return
+	 * @return {@link Page} of unprocessed {@link Metadata}
+	 */
+	Page<Metadata> getUnprocessedCpcPlusMetaData(String continuationToken, int pageSize);
 
 	/**
 	 * Retrieves the metadata from the database by uuid
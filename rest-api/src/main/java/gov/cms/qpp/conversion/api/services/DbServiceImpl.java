@@ -2,24 +2,33 @@ package gov.cms.qpp.conversion.api.services;
 
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import gov.cms.qpp.conversion.api.config.ConcurrencyConfig;
 import gov.cms.qpp.conversion.api.model.Constants;
 import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.api.model.Page;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.Function;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -27,24 +36,31 @@ import java.util.stream.IntStream;
  * Writes a {@link Metadata} object to DynamoDB.
  */
 @Service
-public class DbServiceImpl extends AnyOrderActionService<Metadata, Metadata>
-		implements DbService {
+public class DbServiceImpl implements DbService {
 
 	private static final Logger API_LOG = LoggerFactory.getLogger(DbServiceImpl.class);
-	private static final int LIMIT = 3;
+	private static final Comparator<Metadata> CREATED_ORDER =
+			Comparator.comparing(Metadata::getCreatedDate, Comparator.nullsLast(Comparator.naturalOrder()))
+					.thenComparing(Metadata::getUuid, Comparator.nullsLast(Comparator.naturalOrder()));
 	public static final String START_OF_UNALLOWED_CONVERSION_TIME = "2018-01-02T04:59:59.999Z";
+	static final int LOOKAHEAD_MARGIN = 4;
 
+	private final MetadataOutbox outbox;
+	private final TaskExecutor queryExecutor;
 	private final Optional<DynamoDBMapper> mapper;
 	private final Environment environment;
 
-	public DbServiceImpl(TaskExecutor taskExecutor, Optional<DynamoDBMapper> mapper, Environment environment) {
-		super(taskExecutor);
+	public DbServiceImpl(MetadataOutbox outbox,
+			@Qualifier(ConcurrencyConfig.PARTITION_QUERY_EXECUTOR) TaskExecutor queryExecutor,
+			Optional<DynamoDBMapper> mapper, Environment environment) {
+		this.outbox = outbox;
+		this.queryExecutor = queryExecutor;
 		this.mapper = mapper;
 		this.environment = environment;
 	}
 
 	/**
-	 * Writes the passed in {@link Metadata} to DynamoDB.
+	 * Queues the passed in {@link Metadata} to be written to DynamoDB by the {@link MetadataOutbox}.
 	 *
 	 * If the KMS_KEY environment variable is unspecified, nothing is written.  The {@link CompletableFuture} will hold an empty
 	 * {@link Metadata} in this case.
@@ -61,43 +77,75 @@ public class DbServiceImpl extends AnyOrderActionService<Metadata, Metadata>
 			return CompletableFuture.completedFuture(new Metadata());
 		}
 
-		API_LOG.info("Writing item to DynamoDB");
+		API_LOG.info("Queueing item to be written to DynamoDB");
 
-		return actOnItem(meta);
+		return outbox.add(meta);
 	}
 
 	/**
-	 * Queries the DynamoDB GSI for unprocessed {@link Metadata} with a maximum of 96 items.
+	 * Queries the DynamoDB GSI for a page of unprocessed {@link Metadata}, oldest first.
 	 *
-	 * Iterates over all of the different partitions, returning a maximum of three items from each.
+	 * Every partition is queried at the same time for a few items following the cursor, about an even share of the page,
+	 * and the results are merged by creation date.  A partition is only queried again when the merge has used every item
+	 * read from it and the page still needs more.  The continuation token records where each partition is up to.
 	 *
-	 * @return {@link List} of unprocessed {@link Metadata}
+	 * @param continuationToken token from the previous page, or {@code null} for the first page
+	 * @param pageSize most items to return
+	 * @return {@link Page} of unprocessed {@link Metadata}
 	 */
-	public List<Metadata> getUnprocessedCpcPlusMetaData() {
-		if (mapper.isPresent()) {
-			API_LOG.info("Getting list of unprocessed CPC+ metadata");
+	public Page<Metadata> getUnprocessedCpcPlusMetaData(String continuationToken, int pageSize) {
+		UnprocessedCpcCursor cursor = UnprocessedCpcCursor.fromToken(continuationToken);
 
-			return IntStream.range(0, Constants.CPC_DYNAMO_PARTITIONS).mapToObj(partition -> {
-				Map<String, AttributeValue> valueMap = new HashMap<>();
-				valueMap.put(":cpcValue", new AttributeValue().withS(Constants.CPC_DYNAMO_PARTITION_START + partition));
-				valueMap.put(":cpcProcessedValue", new AttributeValue().withS("false"));
-				valueMap.put(":createDate", new AttributeValue().withS(START_OF_UNALLOWED_CONVERSION_TIME));
+		if (!mapper.isPresent()) {
+			API_LOG.warn("Could not get unprocessed CPC+ metadata because the dynamodb mapper is absent");
+			return new Page<>(Collections.emptyList(), null);
+		}
 
-				DynamoDBQueryExpression<Metadata> metadataQuery = new DynamoDBQueryExpression<Metadata>()
-					.withIndexName("Cpc-CpcProcessed_CreateDate-index")
-					.withKeyConditionExpression(Constants.DYNAMO_CPC_ATTRIBUTE + " = :cpcValue and begins_with("
-							+ Constants.DYNAMO_CPC_PROCESSED_CREATE_DATE_ATTRIBUTE + ", :cpcProcessedValue)")
-					.withExpressionAttributeValues(valueMap)
-					.withFilterExpression(Constants.DYNAMO_CREATE_DATE_ATTRIBUTE + " > :createDate")
-					.withConsistentRead(false)
-					.withLimit(LIMIT);
+		API_LOG.info("Getting page of unprocessed CPC+ metadata");
 
-				return mapper.get().queryPage(Metadata.class, metadataQuery).getResults().stream();
-			}).flatMap(Function.identity()).collect(Collectors.toList());
-		} else {
-			API_LOG.warn("Could not get unprocessed CPC+ metadata because the dynamodb mapper is absent");
-			return Collections.emptyList();
+		List<PartitionReader> readers = IntStream.range(0, Constants.CPC_DYNAMO_PARTITIONS)
+				.filter(partition -> !cursor.isDone(partition))
+				.mapToObj(partition -> new PartitionReader(partition, cursor.startKey(partition)))
+				.collect(Collectors.toList());
+		int lookahead = lookahead(pageSize, readers.size());
+
+		join(readers.stream()
+				.map(reader -> CompletableFuture.runAsync(() -> reader.read(lookahead), queryExecutor))
+				.collect(Collectors.toList()));
+
+		PriorityQueue<PartitionReader> heads =
+				new PriorityQueue<>(Comparator.comparing(PartitionReader::peek, CREATED_ORDER));
+		readers.stream().filter(PartitionReader::hasItems).forEach(heads::add);
+
+		List<Metadata> merged = new ArrayList<>();
+		while (merged.size() < pageSize && !heads.isEmpty()) {
+			PartitionReader reader = heads.poll();
+			merged.add(reader.take());
+			if (!reader.hasItems() && !reader.exhausted && merged.size() < pageSize) {
+				reader.read(lookahead);
+			}
+			if (reader.hasItems()) {
+				heads.add(reader);
+			}
 		}
+
+		readers.forEach(reader -> reader.advance(cursor));
+		return new Page<>(merged, cursor.toToken());
+	}
+
+	/**
+	 * How many items to read from a partition at a time: an even share of the page, plus {@link #LOOKAHEAD_MARGIN} since
+	 * items are not spread evenly, but never more than the page.
+	 *
+	 * @param pageSize most items to return
+	 * @param partitions partitions that still have items
+	 * @return items to read at a time
+	 */
+	static int lookahead(int pageSize, int partitions) {
+		if (partitions == 0) {
+			return pageSize;
+		}
+		return Math.min(pageSize, (pageSize + partitions - 1) / partitions + LOOKAHEAD_MARGIN);
 	}
 
 	/**
@@ -117,19 +165,96 @@ public class DbServiceImpl extends AnyOrderActionService<Metadata, Metadata>
 	}
 
 	/**
-	 * Actually does the write to DynamoDB.
+	 * Waits for every partition query, rethrowing the first failure as is.
 	 *
-	 * @param meta The metadata to write.
-	 * @return The written metadata
+	 * @param queries running queries
 	 */
-	@Override
-	protected Metadata asynchronousAction(Metadata meta) {
-		if (mapper.isPresent()) {
-			mapper.get().save(meta);
-			API_LOG.info("Wrote item to DynamoDB with UUID {}", meta.getUuid());
-		} else {
-			API_LOG.warn("Skipping writing of item to DynamoDB with UUID {} because the dynamodb mapper is absent", meta.getUuid());
+	private void join(List<CompletableFuture<Void>> queries) {
+		try {
+			queries.forEach(CompletableFuture::join);
+		} catch (CompletionException exception) {
+			if (exception.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) exception.getCause();
+			}
+			throw exception;
+		}
+	}
+
+	/**
+	 * Reads one partition of the index, a few items at a time, and remembers how far the merge has used them.
+	 */
+	private class PartitionReader {
+		private final int partition;
+		private final Deque<Metadata> items = new ArrayDeque<>();
+		private Map<String, AttributeValue> nextKey;
+		private boolean exhausted;
+		private Metadata last;
+
+		PartitionReader(int partition, Map<String, AttributeValue> startKey) {
+			this.partition = partition;
+			this.nextKey = startKey;
+		}
+
+		/**
+		 * Reads more unprocessed items from the partition.
+		 *
+		 * Keeps querying until enough items have been found or the partition runs out, since the filter on creation date
+		 * can leave a query with fewer items than its limit.
+		 *
+		 * @param count most items to read
+		 */
+		void read(int count) {
+			Map<String, AttributeValue> valueMap = new HashMap<>();
+			valueMap.put(":cpcValue", new AttributeValue().withS(Constants.CPC_DYNAMO_PARTITION_START + partition));
+			valueMap.put(":cpcProcessedValue", new AttributeValue().withS("false"));
+			valueMap.put(":createDate", new AttributeValue().withS(START_OF_UNALLOWED_CONVERSION_TIME));
+
+			int read = 0;
+			do {
+				DynamoDBQueryExpression<Metadata> metadataQuery = new DynamoDBQueryExpression<Metadata>()
+					.withIndexName("Cpc-CpcProcessed_CreateDate-index")
+					.withKeyConditionExpression(Constants.DYNAMO_CPC_ATTRIBUTE + " = :cpcValue and begins_with("
+							+ Constants.DYNAMO_CPC_PROCESSED_CREATE_DATE_ATTRIBUTE + ", :cpcProcessedValue)")
+					.withExpressionAttributeValues(valueMap)
+					.withFilterExpression(Constants.DYNAMO_CREATE_DATE_ATTRIBUTE + " > :createDate")
+					.withConsistentRead(false)
+					.withExclusiveStartKey(nextKey)
+					.withLimit(count - read);
+
+				QueryResultPage<Metadata> page = mapper.get().queryPage(Metadata.class, metadataQuery);
+				items.addAll(page.getResults());
+				read += page.getResults().size();
+				Map<String, AttributeValue> lastKey = page.getLastEvaluatedKey();
+				nextKey = lastKey == null || lastKey.isEmpty() ? null : lastKey;
+			} while (nextKey != null && read < count);
+
+			exhausted = nextKey == null;
+		}
+
+		boolean hasItems() {
+			return !items.isEmpty();
+		}
+
+		Metadata peek() {
+			return items.peekFirst();
+		}
+
+		Metadata take() {
+			last = items.pollFirst();
+			return last;
+		}
+
+		/**
+		 * Moves the partition's position in the cursor past the items the merge used.
+		 *
+		 * @param cursor the cursor to move
+		 */
+		void advance(UnprocessedCpcCursor cursor) {
+			if (exhausted && items.isEmpty()) {
+				cursor.finish(partition);
+			} else if (last != null) {
+				cursor.advance(partition, last);
+			}
 		}
-		return meta;
 	}
 }
@@ -0,0 +1,338 @@
+package gov.cms.qpp.conversion.api.services;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.AttributeTransformer;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.type.TypeReference;
+import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.util.JacksonHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An append only file of the {@link Metadata} that has been accepted by the {@link MetadataOutbox} but not yet
+ * written to DynamoDB.
+ *
+ * Each accepted item is appended as a {@code +} line holding its DynamoDB attributes as json, and each written item
+ * as a {@code -} line holding its uuid. Every append is forced to disk before it returns. The file is emptied once
+ * nothing is outstanding, and rewritten with just the outstanding items when it is opened.
+ *
+ * The attributes are run through the same {@link AttributeTransformer} as the mapper uses, so those that are
+ * encrypted in DynamoDB, such as the TIN, are encrypted in the journal too.
+ */
+class MetadataJournal implements Closeable {
+
+	static final String FILE_NAME = "metadata-outbox.journal";
+
+	private static final Logger API_LOG = LoggerFactory.getLogger(MetadataJournal.class);
+	private static final char ADDED = '+';
+	private static final char WRITTEN = '-';
+	private static final String UUID_ATTRIBUTE = "Uuid";
+	private static final TypeReference<Map<String, Map<String, Object>>> ITEM_TYPE =
+			new TypeReference<Map<String, Map<String, Object>>>() {};
+
+	private final Path file;
+	private final DynamoDBMapperTableModel<Metadata> model;
+	private final AttributeTransformer transformer;
+	private final String tableName;
+	private final Map<String, String> outstanding = new LinkedHashMap<>();
+	private FileChannel channel;
+
+	/**
+	 * Opens the journal in the given directory, creating it if need be.
+	 *
+	 * @param directory where the journal lives
+	 * @param model converts {@link Metadata} to and from its DynamoDB attributes
+	 * @param transformer encrypts and decrypts the attributes
+	 * @param tableName table the items are written to, which the encryption is bound to
+	 * @throws IOException if the journal cannot be read or written
+	 */
+	MetadataJournal(Path directory, DynamoDBMapperTableModel<Metadata> model, AttributeTransformer transformer,
+			String tableName) throws IOException {
+		this.file = directory.resolve(FILE_NAME);
+		this.model = model;
+		this.transformer = transformer;
+		this.tableName = tableName;
+
+		Files.createDirectories(directory);
+		if (Files.exists(file)) {
+			replay();
+		}
+		compact();
+	}
+
+	/**
+	 * The items that were accepted but not written when the journal was opened, plus any added since.
+	 *
+	 * @return outstanding items in the order they were added
+	 */
+	synchronized List<Metadata> outstanding() {
+		List<Metadata> items = new ArrayList<>(outstanding.size());
+		for (String line : outstanding.values()) {
+			items.add(decode(line));
+		}
+		return items;
+	}
+
+	/**
+	 * Records an accepted item.
+	 *
+	 * @param metadata the item, which must have a uuid
+	 * @throws IOException if the item could not be forced to disk
+	 */
+	synchronized void add(Metadata metadata) throws IOException {
+		String line = encode(metadata);
+		append(ADDED + line);
+		outstanding.put(metadata.getUuid(), line);
+	}
+
+	/**
+	 * Records that items were written to DynamoDB.
+	 *
+	 * @param uuids identifiers of the written items
+	 * @throws IOException if the record could not be forced to disk
+	 */
+	synchronized void written(Collection<String> uuids) throws IOException {
+		if (uuids.isEmpty()) {
+			return;
+		}
+
+		outstanding.keySet().removeAll(uuids);
+		if (outstanding.isEmpty()) {
+			channel.truncate(0);
+			channel.force(true);
+			return;
+		}
+
+		StringBuilder lines = new StringBuilder();
+		for (String uuid : uuids) {
+			lines.append(WRITTEN).append(uuid).append('\n');
+		}
+		write(lines.toString());
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Reads the journal back into the outstanding items.
+	 *
+	 * A line that cannot be read is skipped, so one corrupt entry does not lose those after it when the journal is
+	 * compacted. Only the last line is expected to be incomplete, from a crash part way through an append.
+	 *
+	 * @throws IOException if the journal cannot be read, in which case it is left as it is
+	 */
+	private void replay() throws IOException {
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+			int number = 0;
+			String line = reader.readLine();
+			while (line != null) {
+				String next = reader.readLine();
+				number++;
+				if (!line.isEmpty()) {
+					replayLine(line, number, next == null);
+				}
+				line = next;
+			}
+		}
+
+		if (!outstanding.isEmpty()) {
+			API_LOG.info("{} metadata items from the journal still need to be written", outstanding.size());
+		}
+	}
+
+	private void replayLine(String line, int number, boolean last) {
+		String content = line.substring(1);
+		try {
+			if (line.charAt(0) == ADDED) {
+				decode(content);
+				outstanding.put(uuidOf(content), content);
+			} else if (line.charAt(0) == WRITTEN) {
+				outstanding.remove(content);
+			} else {
+				API_LOG.warn("Ignoring unreadable line {} in the metadata journal", number);
+			}
+		} catch (IOException | IllegalArgumentException exception) {
+			if (last) {
+				API_LOG.error("Metadata journal {} ends in an incomplete entry", file, exception);
+			} else {
+				API_LOG.error("Skipping unreadable line {} in the metadata journal {}", number, file, exception);
+			}
+		}
+	}
+
+	/**
+	 * Rewrites the journal so it holds just the outstanding items, then opens it for appending.
+	 *
+	 * @throws IOException if the journal cannot be rewritten
+	 */
+	private void compact() throws IOException {
+		Path compacted = file.resolveSibling(FILE_NAME + ".tmp");
+		try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			for (String line : outstanding.values()) {
+				ByteBuffer bytes = StandardCharsets.UTF_8.encode(ADDED + line + '\n');
+				while (bytes.hasRemaining()) {
+					out.write(bytes);
+				}
+			}
+			out.force(true);
+		}
+		Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	private void append(String line) throws IOException {
+		write(line + '\n');
+	}
+
+	private void write(String lines) throws IOException {
+		ByteBuffer bytes = StandardCharsets.UTF_8.encode(lines);
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		channel.force(false);
+	}
+
+	/**
+	 * Serializes an item's encrypted DynamoDB attributes in DynamoDB's own json form, for example
+	 * {@code {"Uuid":{"S":"..."}}}.
+	 *
+	 * @param metadata the item
+	 * @return single line of json
+	 * @throws IOException if the item cannot be serialized
+	 */
+	private String encode(Metadata metadata) throws IOException {
+		Map<String, Map<String, Object>> item = new LinkedHashMap<>();
+		transformer.transform(new Parameters(model.convert(metadata)))
+				.forEach((name, value) -> item.put(name, typed(name, value)));
+		return JacksonHelper.writer().writeValueAsString(item);
+	}
+
+	private Metadata decode(String line) {
+		try {
+			Map<String, Map<String, Object>> item = JacksonHelper.reader().forType(ITEM_TYPE).readValue(line);
+			Map<String, AttributeValue> attributes = new LinkedHashMap<>();
+			item.forEach((name, value) -> attributes.put(name, attribute(name, value)));
+			return model.unconvert(transformer.untransform(new Parameters(attributes)));
+		} catch (IOException exception) {
+			throw new IllegalArgumentException("Unreadable metadata in the journal", exception);
+		}
+	}
+
+	private String uuidOf(String line) throws IOException {
+		Map<String, Map<String, Object>> item = JacksonHelper.reader().forType(ITEM_TYPE).readValue(line);
+		Map<String, Object> uuid = item.get(UUID_ATTRIBUTE);
+		if (uuid == null) {
+			throw new IllegalArgumentException("Journal entry without a uuid");
+		}
+		return String.valueOf(uuid.get("S"));
+	}
+
+	private static Map<String, Object> typed(String name, AttributeValue value) {
+		if (value.getS() != null) {
+			return Collections.singletonMap("S", value.getS());
+		}
+		if (value.getN() != null) {
+			return Collections.singletonMap("N", value.getN());
+		}
+		if (value.getBOOL() != null) {
+			return Collections.singletonMap("BOOL", value.getBOOL());
+		}
+		if (value.getB() != null) {
+			ByteBuffer bytes = value.getB().duplicate();
+			byte[] content = new byte[bytes.remaining()];
+			bytes.get(content);
+			return Collections.singletonMap("B", Base64.getEncoder().encodeToString(content));
+		}
+		throw new IllegalArgumentException("Cannot journal attribute " + name + " of type " + value);
+	}
+
+	private static AttributeValue attribute(String name, Map<String, Object> typed) {
+		if (typed.containsKey("S")) {
+			return new AttributeValue().withS((String) typed.get("S"));
+		}
+		if (typed.containsKey("N")) {
+			return new AttributeValue().withN((String) typed.get("N"));
+		}
+		if (typed.containsKey("BOOL")) {
+			return new AttributeValue().withBOOL((Boolean) typed.get("BOOL"));
+		}
+		if (typed.containsKey("B")) {
+			return new AttributeValue().withB(ByteBuffer.wrap(Base64.getDecoder().decode((String) typed.get("B"))));
+		}
+		throw new IllegalArgumentException("Cannot read journaled attribute " + name);
+	}
+
+	/**
+	 * Describes a journaled item to the {@link AttributeTransformer} as the mapper describes an item it writes.
+	 */
+	private class Parameters implements AttributeTransformer.Parameters<Metadata> {
+		private final Map<String, AttributeValue> attributeValues;
+
+		Parameters(Map<String, AttributeValue> attributeValues) {
+			this.attributeValues = attributeValues;
+		}
+
+		@Override
+		public Map<String, AttributeValue> getAttributeValues() {
+			return attributeValues;
+		}
+
+		@Override
+		public boolean isPartialUpdate() {
+			return false;
+		}
+
+		@Override
+		public Class<Metadata> getModelClass() {
+			return Metadata.class;
+		}
+
+		@Override
+		public DynamoDBMapperConfig getMapperConfig() {
+			return DynamoDBMapperConfig.DEFAULT;
+		}
+
+		@Override
+		public String getTableName() {
+			return tableName;
+		}
+
+		@Override
+		public String getHashKeyName() {
+			return model.hashKey().name();
+		}
+
+		@Override
+		public String getRangeKeyName() {
+			return model.rangeKeyIfExists() == null ? null : model.rangeKeyIfExists().name();
+		}
+	}
+}
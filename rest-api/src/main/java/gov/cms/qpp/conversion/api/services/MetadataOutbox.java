@@ -0,0 +1,424 @@
+package gov.cms.qpp.conversion.api.services;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.AttributeTransformer;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import gov.cms.qpp.conversion.api.exceptions.AuditException;
+import gov.cms.qpp.conversion.api.exceptions.UncheckedInterruptedException;
+import gov.cms.qpp.conversion.api.helper.EnvironmentNumberHelper;
+import gov.cms.qpp.conversion.api.model.Constants;
+import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.api.model.OutboxStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded queue of {@link Metadata} waiting to be written to DynamoDB.
+ *
+ * A single thread drains the queue, writing up to {@link #BATCH_SIZE} items with each BatchWriteItem call. Items that
+ * DynamoDB does not process are retried with a growing delay. When {@link Constants#AUDIT_OUTBOX_DIR_ENV_VARIABLE} is
+ * set, accepted items are journaled to disk first, so items that were not written before the application stopped are
+ * written once it starts again. The journal is encrypted as the items are in DynamoDB, so it needs the mapper's
+ * {@link AttributeTransformer}.
+ *
+ * Once {@link Constants#AUDIT_OUTBOX_CAPACITY_ENV_VARIABLE} items are waiting, writers wait for room, and their write
+ * fails if none frees up within {@link Constants#AUDIT_OUTBOX_OFFER_TIMEOUT_ENV_VARIABLE} milliseconds, ten seconds by
+ * default. That wait holds the writer's thread, an audit thread or a request thread, so it should stay short. Once
+ * stopped, the outbox refuses new items, and the writes of items it could not write in time fail.
+ */
+@Component
+public class MetadataOutbox {
+
+	static final int BATCH_SIZE = 25;
+	static final int DEFAULT_CAPACITY = 1000;
+	static final long DEFAULT_OFFER_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+	static final int MAX_ATTEMPTS = 10;
+	static final int SHUTDOWN_WAIT_SECONDS = 30;
+	static final String THREAD_NAME = "metadata-outbox";
+
+	private static final Logger API_LOG = LoggerFactory.getLogger(MetadataOutbox.class);
+	private static final String UUID_ATTRIBUTE = "Uuid";
+	private static final long POLL_MILLIS = 100;
+
+	private final Optional<DynamoDBMapper> mapper;
+	private final Optional<AttributeTransformer> transformer;
+	private final Environment environment;
+	private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+	private final AtomicInteger depth = new AtomicInteger();
+	private final LongAdder written = new LongAdder();
+	private final LongAdder retried = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	private final int capacity;
+	private final Semaphore room;
+	private final long offerTimeout;
+	private long initialBackoffMillis = TimeUnit.SECONDS.toMillis(1);
+	private long maxBackoffMillis = TimeUnit.MINUTES.toMillis(1);
+	private MetadataJournal journal;
+	private Thread writer;
+	private volatile boolean running;
+	private volatile boolean stopped;
+
+	/**
+	 * Ensure required dependencies are supplied.
+	 *
+	 * @param mapper writes to DynamoDB, absent when nothing is audited
+	 * @param transformer encrypts items as the mapper does, absent when nothing is audited
+	 * @param environment access to environment variables
+	 */
+	public MetadataOutbox(Optional<DynamoDBMapper> mapper, Optional<AttributeTransformer> transformer,
+			Environment environment) {
+		this.mapper = mapper;
+		this.transformer = transformer;
+		this.environment = environment;
+		this.capacity = EnvironmentNumberHelper.positive(environment, Constants.AUDIT_OUTBOX_CAPACITY_ENV_VARIABLE,
+				DEFAULT_CAPACITY);
+		this.room = new Semaphore(capacity);
+		this.offerTimeout = EnvironmentNumberHelper.nonNegative(environment,
+				Constants.AUDIT_OUTBOX_OFFER_TIMEOUT_ENV_VARIABLE, DEFAULT_OFFER_TIMEOUT);
+	}
+
+	/**
+	 * Opens the journal, if one is configured, and starts writing queued items.
+	 */
+	@PostConstruct
+	public void start() {
+		if (!mapper.isPresent()) {
+			API_LOG.info("Metadata outbox is idle because the dynamodb mapper is absent");
+			return;
+		}
+
+		String directory = environment.getProperty(Constants.AUDIT_OUTBOX_DIR_ENV_VARIABLE);
+		if (!StringUtils.isEmpty(directory)) {
+			if (!transformer.isPresent()) {
+				throw new IllegalStateException("Will not journal metadata in " + directory + " without encrypting it");
+			}
+			try {
+				journal = new MetadataJournal(Paths.get(directory), mapper.get().getTableModel(Metadata.class),
+						transformer.get(), tableName());
+			} catch (IOException exception) {
+				throw new UncheckedIOException("Could not open the metadata journal in " + directory, exception);
+			}
+			journal.outstanding().forEach(metadata -> enqueue(new Entry(metadata, false)));
+		}
+
+		API_LOG.info("Metadata outbox holds up to {} items{}", capacity, journal == null ? "" : " in a journal");
+
+		running = true;
+		writer = new Thread(this::drain, THREAD_NAME);
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Stops accepting new work and gives queued items time to be written.
+	 *
+	 * The writes of items that are still queued afterwards fail, though the items stay in the journal, if there is
+	 * one, to be written after a restart.
+	 */
+	@PreDestroy
+	public void stop() {
+		stopped = true;
+		running = false;
+		if (writer != null) {
+			try {
+				writer.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_WAIT_SECONDS));
+				writer.interrupt();
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		if (!queue.isEmpty()) {
+			API_LOG.warn("Stopped with {} metadata items unwritten", queue.size());
+		}
+		Entry unwritten;
+		while ((unwritten = queue.poll()) != null) {
+			abandon(unwritten);
+		}
+
+		if (journal != null) {
+			try {
+				journal.close();
+			} catch (IOException exception) {
+				API_LOG.error("Could not close the metadata journal", exception);
+			}
+		}
+	}
+
+	/**
+	 * Queues the metadata to be written, assigning it a uuid if it does not have one.
+	 *
+	 * @param metadata the metadata to write
+	 * @return the metadata once it has been written
+	 */
+	public CompletableFuture<Metadata> add(Metadata metadata) {
+		if (!mapper.isPresent()) {
+			API_LOG.warn("Skipping writing of item to DynamoDB with UUID {} because the dynamodb mapper is absent",
+					metadata.getUuid());
+			return CompletableFuture.completedFuture(metadata);
+		}
+
+		CompletableFuture<Metadata> result = new CompletableFuture<>();
+		if (stopped) {
+			rejected.increment();
+			result.completeExceptionally(new AuditException("Metadata outbox is stopped"));
+			return result;
+		}
+
+		try {
+			if (!room.tryAcquire(offerTimeout, TimeUnit.MILLISECONDS)) {
+				rejected.increment();
+				API_LOG.error("Metadata outbox is full with {} items", capacity);
+				result.completeExceptionally(new AuditException("Metadata outbox is full"));
+				return result;
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			result.completeExceptionally(new UncheckedInterruptedException(exception));
+			return result;
+		}
+
+		if (metadata.getUuid() == null) {
+			metadata.setUuid(UUID.randomUUID().toString());
+		}
+
+		if (journal != null) {
+			try {
+				journal.add(metadata);
+			} catch (IOException exception) {
+				room.release();
+				result.completeExceptionally(new AuditException(exception));
+				return result;
+			}
+		}
+
+		Entry entry = new Entry(metadata, true);
+		entry.future = result;
+		enqueue(entry);
+		if (stopped && queue.remove(entry)) {
+			abandon(entry);
+		}
+		return result;
+	}
+
+	/**
+	 * A snapshot of the queue.
+	 *
+	 * @return current status
+	 */
+	public OutboxStatus getStatus() {
+		OutboxStatus status = new OutboxStatus();
+		status.setDepth(depth.get());
+		status.setCapacity(capacity);
+		status.setJournaled(journal != null);
+		status.setWrittenCount(written.sum());
+		status.setRetryCount(retried.sum());
+		status.setRejectedCount(rejected.sum());
+		return status;
+	}
+
+	void setBackoff(long initial, long max, TimeUnit unit) {
+		initialBackoffMillis = unit.toMillis(initial);
+		maxBackoffMillis = unit.toMillis(max);
+	}
+
+	private void enqueue(Entry entry) {
+		depth.incrementAndGet();
+		queue.add(entry);
+	}
+
+	/**
+	 * Writes batches until stopped, keeping the items that failed at the front of the next batch.
+	 */
+	private void drain() {
+		List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+		long backoff = initialBackoffMillis;
+
+		try {
+			while (running || !queue.isEmpty() || !batch.isEmpty()) {
+				if (batch.isEmpty()) {
+					Entry first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+					if (first == null) {
+						continue;
+					}
+					batch.add(first);
+				}
+				queue.drainTo(batch, BATCH_SIZE - batch.size());
+
+				batch = write(batch);
+				if (batch.isEmpty()) {
+					backoff = initialBackoffMillis;
+				} else {
+					retried.add(batch.size());
+					TimeUnit.MILLISECONDS.sleep(backoff);
+					backoff = Math.min(backoff * 2, maxBackoffMillis);
+				}
+			}
+		} catch (InterruptedException exception) {
+			batch.forEach(this::abandon);
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Writes one batch.
+	 *
+	 * Items queued more than once are written once, with their latest state.
+	 *
+	 * @param batch items to write
+	 * @return items that should be tried again
+	 */
+	private List<Entry> write(List<Entry> batch) {
+		Map<String, Metadata> items = new LinkedHashMap<>();
+		for (Entry entry : batch) {
+			items.put(entry.metadata.getUuid(), entry.metadata);
+		}
+
+		Set<String> failed = failures(items);
+
+		List<Entry> retry = new ArrayList<>();
+		Set<String> done = new HashSet<>();
+		for (Entry entry : batch) {
+			String uuid = entry.metadata.getUuid();
+			if (!failed.contains(uuid)) {
+				done.add(uuid);
+				written.increment();
+				finish(entry);
+			} else if (++entry.attempts < MAX_ATTEMPTS) {
+				retry.add(entry);
+			} else {
+				API_LOG.error("Giving up writing item to DynamoDB with UUID {} after {} attempts", uuid, entry.attempts);
+				finish(entry, new AuditException("Could not write metadata " + uuid));
+			}
+		}
+
+		if (journal != null) {
+			try {
+				journal.written(done);
+			} catch (IOException exception) {
+				API_LOG.error("Could not record written metadata in the journal", exception);
+			}
+		}
+
+		API_LOG.info("Wrote {} items to DynamoDB, {} to retry", done.size(), retry.size());
+		return retry;
+	}
+
+	/**
+	 * Saves the items, collecting the uuids of those that were not processed.
+	 *
+	 * @param items items to save by uuid
+	 * @return uuids of unprocessed items
+	 */
+	private Set<String> failures(Map<String, Metadata> items) {
+		List<DynamoDBMapper.FailedBatch> failedBatches;
+		try {
+			failedBatches = mapper.get().batchSave(items.values());
+		} catch (RuntimeException exception) {
+			API_LOG.error("Batch write to DynamoDB failed", exception);
+			return items.keySet();
+		}
+
+		Set<String> failed = new HashSet<>();
+		for (DynamoDBMapper.FailedBatch failedBatch : failedBatches) {
+			if (failedBatch.getException() != null) {
+				API_LOG.error("Batch write to DynamoDB failed", failedBatch.getException());
+			}
+			if (failedBatch.getUnprocessedItems() == null) {
+				return items.keySet();
+			}
+			for (List<WriteRequest> requests : failedBatch.getUnprocessedItems().values()) {
+				for (WriteRequest request : requests) {
+					AttributeValue uuid = request.getPutRequest().getItem().get(UUID_ATTRIBUTE);
+					failed.add(uuid.getS());
+				}
+			}
+		}
+		return failed;
+	}
+
+	private void finish(Entry entry) {
+		finish(entry, null);
+	}
+
+	private void finish(Entry entry, RuntimeException failure) {
+		depth.decrementAndGet();
+		if (entry.holdsRoom) {
+			room.release();
+		}
+		if (entry.future == null) {
+			return;
+		}
+
+		if (failure == null) {
+			entry.future.complete(entry.metadata);
+		} else {
+			entry.future.completeExceptionally(failure);
+		}
+	}
+
+	/**
+	 * Fails the write of an item that was queued too late, or not written before the outbox stopped.
+	 *
+	 * @param entry the item
+	 */
+	private void abandon(Entry entry) {
+		finish(entry, new AuditException("Metadata outbox stopped before " + entry.metadata.getUuid() + " was written"));
+	}
+
+	/**
+	 * The table the mapper writes {@link Metadata} to, as the {@link DynamoDBMapper} resolves it.
+	 *
+	 * @return table name
+	 */
+	private String tableName() {
+		String override = environment.getProperty(Constants.DYNAMO_TABLE_NAME_ENV_VARIABLE);
+		if (!StringUtils.isEmpty(override)) {
+			return override;
+		}
+		return DynamoDBMapperConfig.DefaultTableNameResolver.INSTANCE.getTableName(Metadata.class,
+				DynamoDBMapperConfig.DEFAULT);
+	}
+
+	/**
+	 * An item waiting to be written.
+	 */
+	private static class Entry {
+		private final Metadata metadata;
+		private final boolean holdsRoom;
+		private CompletableFuture<Metadata> future;
+		private int attempts;
+
+		Entry(Metadata metadata, boolean holdsRoom) {
+			this.metadata = metadata;
+			this.holdsRoom = holdsRoom;
+		}
+	}
+}
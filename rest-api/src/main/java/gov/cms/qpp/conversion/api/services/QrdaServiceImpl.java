@@ -1,8 +1,10 @@
 package gov.cms.qpp.conversion.api.services;
 
+import gov.cms.qpp.conversion.Context;
 import gov.cms.qpp.conversion.ConversionReport;
 import gov.cms.qpp.conversion.Converter;
 import gov.cms.qpp.conversion.Source;
+import gov.cms.qpp.conversion.model.error.TransformException;
 import gov.cms.qpp.conversion.model.validation.MeasureConfigs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +19,20 @@ import javax.annotation.PostConstruct;
 public class QrdaServiceImpl implements QrdaService {
 	private static final Logger API_LOG = LoggerFactory.getLogger(QrdaServiceImpl.class);
 
+	private final ConversionCache conversionCache;
+	private final ConversionStageMetrics conversionStageMetrics;
+
+	/**
+	 * Ensure required dependencies are supplied.
+	 *
+	 * @param conversionCache remembers earlier conversions of identical content
+	 * @param conversionStageMetrics measures each stage of the conversions
+	 */
+	public QrdaServiceImpl(ConversionCache conversionCache, ConversionStageMetrics conversionStageMetrics) {
+		this.conversionCache = conversionCache;
+		this.conversionStageMetrics = conversionStageMetrics;
+	}
+
 	/**
 	 * Preloads the measure configs data
 	 */
@@ -28,12 +44,42 @@ public class QrdaServiceImpl implements QrdaService {
 	/**
 	 * Converts a given a input stream with to conversion result content
 	 *
+	 * If the same content was converted with the same settings before, the earlier result is returned without
+	 * converting again.
+	 *
 	 * @param source Object to be converted
 	 * @return Results of the conversion
 	 */
 	@Override
 	public ConversionReport convertQrda3ToQpp(Source source) {
-		Converter converter = initConverter(source);
+		Context context = new Context();
+		conversionStageMetrics.instrument(context);
+		if (!conversionCache.isEnabled()) {
+			return convert(source, context);
+		}
+
+		String key = conversionCache.key(source, context);
+		CachedConversion cached = conversionCache.get(key);
+		if (cached != null) {
+			API_LOG.info("Reusing the conversion of identical QRDA3 content");
+			return cached.replay(source);
+		}
+
+		try {
+			ConversionReport report = convert(source, context);
+			conversionCache.put(key, new CachedConversion(report));
+			return report;
+		} catch (TransformException exception) {
+			CachedConversion failure = new CachedConversion(exception.getConversionReport());
+			if (failure.isFailure() && failure.isCacheable()) {
+				conversionCache.put(key, failure);
+			}
+			throw exception;
+		}
+	}
+
+	private ConversionReport convert(Source source, Context context) {
+		Converter converter = initConverter(source, context);
 		API_LOG.info("Performing QRDA3 to QPP conversion");
 		converter.transform();
 		return converter.getReport();
@@ -43,9 +89,10 @@ public class QrdaServiceImpl implements QrdaService {
 	 * Instantiate a {@link Converter} with a given {@link Source}
 	 *
 	 * @param source for qrda input
+	 * @param context settings for the conversion
 	 * @return converter instance
 	 */
-	Converter initConverter(Source source) {
-		return new Converter(source);
+	Converter initConverter(Source source, Context context) {
+		return new Converter(source, context);
 	}
 }
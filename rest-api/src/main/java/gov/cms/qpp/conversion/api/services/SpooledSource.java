@@ -0,0 +1,125 @@
+package gov.cms.qpp.conversion.api.services;
+
+import gov.cms.qpp.conversion.SkeletalSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An upload held by the {@link UploadSpool}, either in a pooled buffer or, above the spool's threshold, in a temporary
+ * file. Every call to {@link #toInputStream()} reads it again from there, so the converter and the audit upload share
+ * one copy of the content.
+ *
+ * The content is kept until every holder has closed the source. It starts with one holder, the caller of
+ * {@link UploadSpool#spool(String, InputStream, String)}, and anyone who reads it later, like an audit that finishes
+ * after the response has gone, takes a hold of its own with {@link #retain()}.
+ */
+public class SpooledSource extends SkeletalSource implements Closeable {
+
+	private final UploadSpool spool;
+	private final byte[] buffer;
+	private final Path file;
+	private final long size;
+	private final String purpose;
+	private final AtomicInteger holders = new AtomicInteger(1);
+
+	/**
+	 * Creates a source over content the spool has already stored.
+	 *
+	 * @param spool takes the buffer or file back once released
+	 * @param name The name of the source.
+	 * @param buffer the pooled buffer holding the content, or {@code null} if it is in a file
+	 * @param file the file holding the content, or {@code null} if it is in a buffer
+	 * @param size length of the content
+	 * @param purpose the purpose of the source
+	 */
+	SpooledSource(UploadSpool spool, String name, byte[] buffer, Path file, long size, String purpose) {
+		super(name);
+
+		this.spool = spool;
+		this.buffer = buffer;
+		this.file = file;
+		this.size = size;
+		this.purpose = purpose;
+	}
+
+	/**
+	 * Takes another hold on the content, to be given up with {@link #close()}.
+	 *
+	 * @return this source
+	 * @throws IllegalStateException if the content was already released
+	 */
+	public SpooledSource retain() {
+		holders.updateAndGet(count -> {
+			if (count <= 0) {
+				throw new IllegalStateException(getName() + " was already released");
+			}
+			return count + 1;
+		});
+		return this;
+	}
+
+	/**
+	 * Gives up a hold on the content. The last one gives the buffer back to the pool or deletes the file.
+	 */
+	@Override
+	public void close() {
+		if (holders.getAndUpdate(count -> count > 0 ? count - 1 : count) == 1) {
+			spool.release(buffer, file, size);
+		}
+	}
+
+	/**
+	 * Whether the content went to a temporary file rather than a buffer.
+	 *
+	 * @return {@code true} if spooled to disk
+	 */
+	public boolean isOnDisk() {
+		return file != null;
+	}
+
+	/**
+	 * A new {@link InputStream} over the spooled content.
+	 *
+	 * @return An InputStream representing the source.
+	 * @throws IllegalStateException if the content was already released
+	 */
+	@Override
+	public InputStream toInputStream() {
+		if (holders.get() <= 0) {
+			throw new IllegalStateException(getName() + " was already released");
+		}
+		if (file == null) {
+			return new ByteArrayInputStream(buffer, 0, (int) size);
+		}
+		try {
+			return Files.newInputStream(file);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * The size of the spooled content.
+	 *
+	 * @return The source's size.
+	 */
+	@Override
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getPurpose() {
+		return purpose;
+	}
+}
@@ -0,0 +1,157 @@
+package gov.cms.qpp.conversion.api.services;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.type.TypeReference;
+import gov.cms.qpp.conversion.api.exceptions.InvalidContinuationTokenException;
+import gov.cms.qpp.conversion.api.model.Constants;
+import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.util.JacksonHelper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Where each CPC+ partition's walk of the unprocessed file index is up to.
+ *
+ * A partition is either not started, positioned after a particular item, or done. The cursor is handed to clients as an
+ * opaque url safe token.
+ */
+class UnprocessedCpcCursor {
+
+	static final String UUID_ATTRIBUTE = "Uuid";
+
+	private static final TypeReference<Map<Integer, List<String>>> TOKEN_TYPE =
+			new TypeReference<Map<Integer, List<String>>>() {};
+
+	private final Map<Integer, List<String>> positions;
+
+	private UnprocessedCpcCursor(Map<Integer, List<String>> positions) {
+		this.positions = positions;
+	}
+
+	/**
+	 * A cursor at the start of every partition.
+	 *
+	 * @return new cursor
+	 */
+	static UnprocessedCpcCursor start() {
+		return new UnprocessedCpcCursor(new TreeMap<>());
+	}
+
+	/**
+	 * Reads a cursor from a token made by {@link #toToken()}.
+	 *
+	 * @param token continuation token, or {@code null} to start at the beginning
+	 * @return the cursor
+	 * @throws InvalidContinuationTokenException if the token was not made by this class
+	 */
+	static UnprocessedCpcCursor fromToken(String token) {
+		if (token == null || token.isEmpty()) {
+			return start();
+		}
+
+		try {
+			byte[] json = Base64.getUrlDecoder().decode(token);
+			Map<Integer, List<String>> positions = JacksonHelper.reader().forType(TOKEN_TYPE).readValue(json);
+			for (Map.Entry<Integer, List<String>> position : positions.entrySet()) {
+				int partition = position.getKey();
+				int size = position.getValue().size();
+				if (partition < 0 || partition >= Constants.CPC_DYNAMO_PARTITIONS || (size != 0 && size != 2)) {
+					throw new IOException("Position out of range");
+				}
+			}
+			return new UnprocessedCpcCursor(new TreeMap<>(positions));
+		} catch (IOException | IllegalArgumentException exception) {
+			throw new InvalidContinuationTokenException("Invalid continuation token", exception);
+		}
+	}
+
+	/**
+	 * Whether every partition has been read to its end.
+	 *
+	 * @return {@code true} if there is nothing left to read
+	 */
+	boolean isDone() {
+		for (int partition = 0; partition < Constants.CPC_DYNAMO_PARTITIONS; partition++) {
+			if (!isDone(partition)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Whether a partition has been read to its end.
+	 *
+	 * @param partition the partition
+	 * @return {@code true} if there is nothing left to read in the partition
+	 */
+	boolean isDone(int partition) {
+		List<String> position = positions.get(partition);
+		return position != null && position.isEmpty();
+	}
+
+	/**
+	 * The key to resume a partition's query after, suitable for an exclusive start key.
+	 *
+	 * @param partition the partition
+	 * @return the key, or {@code null} if the partition has not been started
+	 */
+	Map<String, AttributeValue> startKey(int partition) {
+		List<String> position = positions.get(partition);
+		if (position == null || position.isEmpty()) {
+			return null;
+		}
+
+		Map<String, AttributeValue> key = new HashMap<>();
+		key.put(UUID_ATTRIBUTE, new AttributeValue().withS(position.get(0)));
+		key.put(Constants.DYNAMO_CPC_ATTRIBUTE,
+				new AttributeValue().withS(Constants.CPC_DYNAMO_PARTITION_START + partition));
+		key.put(Constants.DYNAMO_CPC_PROCESSED_CREATE_DATE_ATTRIBUTE, new AttributeValue().withS(position.get(1)));
+		return key;
+	}
+
+	/**
+	 * Positions a partition after an item.
+	 *
+	 * @param partition the partition
+	 * @param last the last item returned from the partition
+	 */
+	void advance(int partition, Metadata last) {
+		positions.put(partition, Arrays.asList(last.getUuid(), last.getCpcProcessedCreateDate()));
+	}
+
+	/**
+	 * Marks a partition as read to its end.
+	 *
+	 * @param partition the partition
+	 */
+	void finish(int partition) {
+		positions.put(partition, Collections.emptyList());
+	}
+
+	/**
+	 * Writes this cursor as an opaque token.
+	 *
+	 * @return url safe token, or {@code null} when every partition is done
+	 */
+	String toToken() {
+		if (isDone()) {
+			return null;
+		}
+
+		try {
+			byte[] json = JacksonHelper.writer().writeValueAsString(positions).getBytes(StandardCharsets.UTF_8);
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+		} catch (IOException exception) {
+			throw new IllegalStateException("Could not write the continuation token", exception);
+		}
+	}
+}
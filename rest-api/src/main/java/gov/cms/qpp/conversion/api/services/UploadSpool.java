@@ -0,0 +1,181 @@
+package gov.cms.qpp.conversion.api.services;
+
+import gov.cms.qpp.conversion.api.exceptions.SpoolCapacityException;
+import gov.cms.qpp.conversion.api.helper.EnvironmentNumberHelper;
+import gov.cms.qpp.conversion.api.model.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds uploads so that they can be read more than once without each holding a whole copy on the heap.
+ *
+ * An upload up to {@link Constants#UPLOAD_SPOOL_THRESHOLD_ENV_VARIABLE} bytes is kept in a buffer of that size, and
+ * the buffers are pooled across requests. A larger upload is streamed to a temporary file in
+ * {@link Constants#UPLOAD_SPOOL_DIR_ENV_VARIABLE}, the system temporary directory by default. The files together hold
+ * at most {@link Constants#UPLOAD_SPOOL_CAPACITY_ENV_VARIABLE} bytes; an upload that would go past that is refused with
+ * a {@link SpoolCapacityException} rather than filling the disk.
+ */
+@Component
+public class UploadSpool {
+
+	static final int DEFAULT_THRESHOLD = 256 * 1024;
+	static final long DEFAULT_CAPACITY = 2L * 1024 * 1024 * 1024;
+	static final int POOLED_BUFFERS = 16;
+
+	private static final Logger API_LOG = LoggerFactory.getLogger(UploadSpool.class);
+	private static final String FILE_PREFIX = "upload-";
+	private static final String FILE_SUFFIX = ".spool";
+	private static final int COPY_BUFFER_SIZE = 8192;
+
+	private final int threshold;
+	private final long capacity;
+	private final Path directory;
+	private final BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+	private final AtomicLong spooled = new AtomicLong();
+
+	/**
+	 * Ensure required dependencies are supplied.
+	 *
+	 * @param environment access to environment variables
+	 */
+	public UploadSpool(Environment environment) {
+		this.threshold = (int) Math.min(Integer.MAX_VALUE - 8,
+				EnvironmentNumberHelper.nonNegative(environment, Constants.UPLOAD_SPOOL_THRESHOLD_ENV_VARIABLE, DEFAULT_THRESHOLD));
+		this.capacity = EnvironmentNumberHelper.nonNegative(environment, Constants.UPLOAD_SPOOL_CAPACITY_ENV_VARIABLE, DEFAULT_CAPACITY);
+
+		String dir = environment.getProperty(Constants.UPLOAD_SPOOL_DIR_ENV_VARIABLE);
+		this.directory = StringUtils.isEmpty(dir) ? Paths.get(System.getProperty("java.io.tmpdir")) : Paths.get(dir);
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException exception) {
+			throw new UncheckedIOException("Could not open the upload spool in " + directory, exception);
+		}
+	}
+
+	/**
+	 * Reads an upload into a buffer, or into a temporary file if it is larger than the threshold.
+	 *
+	 * @param name The name of the source.
+	 * @param content the upload, read to the end but not closed
+	 * @param purpose the purpose of the upload
+	 * @return the held upload, to close once done with
+	 * @throws SpoolCapacityException if the spool has no room for the upload
+	 */
+	public SpooledSource spool(String name, InputStream content, String purpose) {
+		byte[] buffer = acquire();
+		try {
+			int length = fill(content, buffer);
+			int next = length < buffer.length ? -1 : content.read();
+			if (next == -1) {
+				return new SpooledSource(this, name, buffer, null, length, purpose);
+			}
+
+			SpooledSource spilled = spill(name, buffer, length, next, content, purpose);
+			buffers.offer(buffer);
+			return spilled;
+		} catch (IOException exception) {
+			buffers.offer(buffer);
+			throw new UncheckedIOException(exception);
+		} catch (RuntimeException exception) {
+			buffers.offer(buffer);
+			throw exception;
+		}
+	}
+
+	/**
+	 * Bytes currently held in temporary files.
+	 *
+	 * @return the count
+	 */
+	public long getSpooledBytes() {
+		return spooled.get();
+	}
+
+	/**
+	 * Takes back what a {@link SpooledSource} held, once all its holders are done.
+	 *
+	 * @param buffer the pooled buffer, or {@code null}
+	 * @param file the temporary file, or {@code null}
+	 * @param size length of the content
+	 */
+	void release(byte[] buffer, Path file, long size) {
+		if (buffer != null) {
+			buffers.offer(buffer);
+		}
+		if (file != null) {
+			delete(file, size);
+		}
+	}
+
+	private SpooledSource spill(String name, byte[] buffer, int length, int next, InputStream content,
+			String purpose) throws IOException {
+		Path file = Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+		long size = 0;
+		try (OutputStream out = Files.newOutputStream(file)) {
+			reserve(length + 1L);
+			size = length + 1L;
+			out.write(buffer, 0, length);
+			out.write(next);
+
+			byte[] chunk = new byte[COPY_BUFFER_SIZE];
+			int read;
+			while ((read = content.read(chunk)) != -1) {
+				reserve(read);
+				size += read;
+				out.write(chunk, 0, read);
+			}
+		} catch (IOException | RuntimeException exception) {
+			delete(file, size);
+			throw exception;
+		}
+
+		API_LOG.debug("Spooled {} bytes of {} to {}", size, name, file);
+		return new SpooledSource(this, name, null, file, size, purpose);
+	}
+
+	private void reserve(long count) {
+		long total = spooled.addAndGet(count);
+		if (total > capacity) {
+			spooled.addAndGet(-count);
+			throw new SpoolCapacityException("The upload spool is full, holding " + (total - count) + " of "
+					+ capacity + " bytes");
+		}
+	}
+
+	private void delete(Path file, long size) {
+		spooled.addAndGet(-size);
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException exception) {
+			API_LOG.warn("Could not delete spooled upload {}", file, exception);
+		}
+	}
+
+	private byte[] acquire() {
+		byte[] buffer = buffers.poll();
+		return buffer == null ? new byte[threshold] : buffer;
+	}
+
+	private static int fill(InputStream content, byte[] buffer) throws IOException {
+		int length = 0;
+		int read;
+		while (length < buffer.length && (read = content.read(buffer, length, buffer.length - length)) != -1) {
+			length += read;
+		}
+		return length;
+	}
+}
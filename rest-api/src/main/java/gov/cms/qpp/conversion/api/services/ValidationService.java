@@ -2,6 +2,8 @@ package gov.cms.qpp.conversion.api.services;
 
 import gov.cms.qpp.conversion.ConversionReport;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface for the QPP Validation Service
  */
@@ -12,4 +14,13 @@ public interface ValidationService {
 	 * @param conversionReport A report on the state of the conversion.
 	 */
 	void validateQpp(ConversionReport conversionReport);
+
+	/**
+	 * Validates that the given QPP is valid without waiting for the validation API.
+	 *
+	 * @param conversionReport A report on the state of the conversion.
+	 * @return completes once validated, exceptionally with a
+	 * {@link gov.cms.qpp.conversion.model.error.QppValidationException} if the QPP is not valid
+	 */
+	CompletableFuture<Void> validateQppAsync(ConversionReport conversionReport);
 }
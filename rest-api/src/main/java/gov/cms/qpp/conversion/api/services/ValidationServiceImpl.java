@@ -3,6 +3,8 @@ package gov.cms.qpp.conversion.api.services;
 
 import com.jayway.jsonpath.JsonPathException;
 import gov.cms.qpp.conversion.ConversionReport;
+import gov.cms.qpp.conversion.api.config.InstrumentedTaskExecutor;
+import gov.cms.qpp.conversion.api.helper.EnvironmentNumberHelper;
 import gov.cms.qpp.conversion.api.model.Constants;
 import gov.cms.qpp.conversion.api.model.ErrorMessage;
 import gov.cms.qpp.conversion.correlation.PathCorrelator;
@@ -11,35 +13,66 @@ import gov.cms.qpp.conversion.model.error.AllErrors;
 import gov.cms.qpp.conversion.model.error.Error;
 import gov.cms.qpp.conversion.model.error.QppValidationException;
 import gov.cms.qpp.conversion.util.JsonHelper;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
 import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.DefaultResponseErrorHandler;
 import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Implementation for the QPP Validation Service
+ *
+ * Calls to the validation API share a pool of up to {@link Constants#VALIDATION_MAX_CONNECTIONS_ENV_VARIABLE} kept
+ * alive connections, and give up after {@link Constants#VALIDATION_CONNECT_TIMEOUT_ENV_VARIABLE} milliseconds to
+ * connect or {@link Constants#VALIDATION_READ_TIMEOUT_ENV_VARIABLE} milliseconds without a response. The QPP is
+ * streamed to the API as it is encoded, gzipped if {@link Constants#VALIDATION_GZIP_ENV_VARIABLE} is set.
  */
 @Service
 public class ValidationServiceImpl implements ValidationService {
 
 	private static final Logger API_LOG = LoggerFactory.getLogger(ValidationServiceImpl.class);
 	static final String CONTENT_TYPE = "application/json";
+	static final String GZIP = "gzip";
+	static final int DEFAULT_MAX_CONNECTIONS = 20;
+	static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+	static final int DEFAULT_READ_TIMEOUT = 60000;
+	static final int IDLE_CONNECTION_SECONDS = 30;
+	static final String THREAD_NAME_PREFIX = "validation-";
+	static final int SHUTDOWN_WAIT_SECONDS = 60;
 	public static final String SV_LABEL = "SV - ";
 
 	private Environment environment;
 	private RestTemplate restTemplate;
+	private HttpComponentsClientHttpRequestFactory requestFactory;
+	private InstrumentedTaskExecutor executor;
 	protected static final String UNABLE_PROVIDE_XPATH = "Unable to provide an XPath.";
 
 	/**
@@ -49,7 +82,56 @@ public class ValidationServiceImpl implements ValidationService {
 	 */
 	public ValidationServiceImpl(final Environment environment) {
 		this.environment = environment;
-		this.restTemplate = new RestTemplate();
+
+		int maxConnections = EnvironmentNumberHelper.positive(environment, Constants.VALIDATION_MAX_CONNECTIONS_ENV_VARIABLE,
+				DEFAULT_MAX_CONNECTIONS);
+		int connectTimeout = EnvironmentNumberHelper.positive(environment, Constants.VALIDATION_CONNECT_TIMEOUT_ENV_VARIABLE,
+				DEFAULT_CONNECT_TIMEOUT);
+		int readTimeout = EnvironmentNumberHelper.positive(environment, Constants.VALIDATION_READ_TIMEOUT_ENV_VARIABLE,
+				DEFAULT_READ_TIMEOUT);
+		this.requestFactory = requestFactory(maxConnections, connectTimeout, readTimeout);
+		this.restTemplate = new RestTemplate(requestFactory);
+		restTemplate.setErrorHandler(new NoHandlingErrorHandler());
+
+		this.executor = new InstrumentedTaskExecutor();
+		executor.setCorePoolSize(maxConnections);
+		executor.setMaxPoolSize(maxConnections);
+		executor.setAllowCoreThreadTimeOut(true);
+		executor.setQueueCapacity(maxConnections * 4);
+		executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(SHUTDOWN_WAIT_SECONDS);
+		executor.initialize();
+	}
+
+	/**
+	 * A request factory over a pool of kept alive connections.
+	 *
+	 * @param maxConnections most connections open at once
+	 * @param connectTimeout milliseconds to wait for a connection, pooled or new
+	 * @param readTimeout milliseconds to wait for each read of the response
+	 * @return the request factory, streaming request bodies rather than buffering them
+	 */
+	static HttpComponentsClientHttpRequestFactory requestFactory(int maxConnections, int connectTimeout,
+			int readTimeout) {
+		PoolingHttpClientConnectionManager connections = new PoolingHttpClientConnectionManager();
+		connections.setMaxTotal(maxConnections);
+		connections.setDefaultMaxPerRoute(maxConnections);
+
+		CloseableHttpClient client = HttpClients.custom()
+				.setConnectionManager(connections)
+				.setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+				.evictIdleConnections(IDLE_CONNECTION_SECONDS, TimeUnit.SECONDS)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectionRequestTimeout(connectTimeout)
+						.setConnectTimeout(connectTimeout)
+						.setSocketTimeout(readTimeout)
+						.build())
+				.build();
+
+		HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(client);
+		factory.setBufferRequestBody(false);
+		return factory;
 	}
 
 	/**
@@ -74,6 +156,19 @@ public class ValidationServiceImpl implements ValidationService {
 		API_LOG.info(message);
 	}
 
+	/**
+	 * Closes the pooled connections and lets calls in flight finish.
+	 */
+	@PreDestroy
+	public void close() {
+		executor.shutdown();
+		try {
+			requestFactory.destroy();
+		} catch (Exception exception) {
+			API_LOG.warn("Could not close the validation API connections", exception);
+		}
+	}
+
 	/**
 	 * Validates that the given QPP is valid.
 	 *
@@ -81,29 +176,76 @@ public class ValidationServiceImpl implements ValidationService {
 	 */
 	@Override
 	public void validateQpp(final ConversionReport conversionReport) {
-		String validationUrl = environment.getProperty(Constants.VALIDATION_URL_ENV_VARIABLE);
+		String validationUrl = validationUrl();
 
-		if (validationUrl == null || validationUrl.isEmpty()) {
+		if (validationUrl == null) {
 			return;
 		}
 
-		conversionReport.getEncoded().stream().forEach(wrapper -> {
-			ResponseEntity<String> validationResponse = callValidationEndpoint(validationUrl, wrapper);
-
-			if (HttpStatus.UNPROCESSABLE_ENTITY.equals(validationResponse.getStatusCode())) {
+		conversionReport.getEncoded().stream().forEach(wrapper ->
+				checkResponse(conversionReport, wrapper, callValidationEndpoint(validationUrl, wrapper)));
+	}
 
-				API_LOG.warn("Failed QPP validation");
+	/**
+	 * Validates that the given QPP is valid on the validation threads, which number as many as the pooled connections,
+	 * so that the caller is free to go on with other work. Each QPP of the report is validated at the same time.
+	 *
+	 * @param conversionReport A report on the status of the conversion.
+	 * @return completes once validated, exceptionally with a {@link QppValidationException} if the QPP is not valid
+	 */
+	@Override
+	public CompletableFuture<Void> validateQppAsync(final ConversionReport conversionReport) {
+		String validationUrl = validationUrl();
 
-				AllErrors convertedErrors = convertQppValidationErrorsToQrda(validationResponse.getBody(), wrapper);
+		if (validationUrl == null) {
+			return CompletableFuture.completedFuture(null);
+		}
 
-				conversionReport.setRawValidationDetails(validationResponse.getBody());
-				conversionReport.setReportDetails(convertedErrors);
+		List<JsonWrapper> wrappers = conversionReport.getEncoded().stream().collect(Collectors.toList());
+		List<CompletableFuture<ResponseEntity<String>>> responses = wrappers.stream()
+				.map(wrapper -> CompletableFuture.supplyAsync(() -> callValidationEndpoint(validationUrl, wrapper),
+						executor))
+				.collect(Collectors.toList());
 
-				throw new QppValidationException("Converted QPP failed validation", null, conversionReport);
+		return CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+			for (int i = 0; i < wrappers.size(); i++) {
+				checkResponse(conversionReport, wrappers.get(i), responses.get(i).join());
 			}
 		});
 	}
 
+	/**
+	 * The URL of the validation API end-point.
+	 *
+	 * @return the URL, or null if validation is off
+	 */
+	private String validationUrl() {
+		String validationUrl = environment.getProperty(Constants.VALIDATION_URL_ENV_VARIABLE);
+		return StringUtils.isEmpty(validationUrl) ? null : validationUrl;
+	}
+
+	/**
+	 * Fails the conversion if the validation API found the QPP invalid.
+	 *
+	 * @param conversionReport A report on the status of the conversion.
+	 * @param wrapper The QPP that was validated.
+	 * @param validationResponse The response from the validation API end-point.
+	 */
+	private void checkResponse(ConversionReport conversionReport, JsonWrapper wrapper,
+			ResponseEntity<String> validationResponse) {
+		if (HttpStatus.UNPROCESSABLE_ENTITY.equals(validationResponse.getStatusCode())) {
+
+			API_LOG.warn("Failed QPP validation");
+
+			AllErrors convertedErrors = convertQppValidationErrorsToQrda(validationResponse.getBody(), wrapper);
+
+			conversionReport.setRawValidationDetails(validationResponse.getBody());
+			conversionReport.setReportDetails(convertedErrors);
+
+			throw new QppValidationException("Converted QPP failed validation", null, conversionReport);
+		}
+	}
+
 	/**
 	 * Calls the validation API end-point.
 	 *
@@ -112,12 +254,53 @@ public class ValidationServiceImpl implements ValidationService {
 	 * @return The response from the validation API end-point.
 	 */
 	private ResponseEntity<String> callValidationEndpoint(String url, JsonWrapper qpp) {
-		restTemplate.setErrorHandler(new NoHandlingErrorHandler());
-		HttpEntity<String> request = new HttpEntity<>(qpp.toString(), getHeaders());
+		HttpHeaders headers = getHeaders();
+		boolean gzip = !StringUtils.isEmpty(environment.getProperty(Constants.VALIDATION_GZIP_ENV_VARIABLE));
+		if (gzip) {
+			headers.add(HttpHeaders.CONTENT_ENCODING, GZIP);
+		}
 
 		API_LOG.info("Calling QPP validation API {}", url);
 
-		return restTemplate.postForEntity(url, request, String.class);
+		return restTemplate.execute(url, HttpMethod.POST, request -> {
+			request.getHeaders().putAll(headers);
+			writeBody(request, qpp, gzip);
+		}, response -> new ResponseEntity<>(StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8),
+				response.getHeaders(), response.getStatusCode()));
+	}
+
+	/**
+	 * Writes the QPP to the request as it is encoded, without holding it as a string first.
+	 *
+	 * @param request the request to the validation API
+	 * @param qpp The QPP to validate.
+	 * @param gzip whether to compress the QPP
+	 * @throws IOException if the request cannot be written
+	 */
+	private static void writeBody(ClientHttpRequest request, JsonWrapper qpp, boolean gzip) throws IOException {
+		if (request instanceof StreamingHttpOutputMessage) {
+			((StreamingHttpOutputMessage) request).setBody(body -> writeQpp(body, qpp, gzip));
+		} else {
+			writeQpp(request.getBody(), qpp, gzip);
+		}
+	}
+
+	/**
+	 * Writes the QPP as compact JSON, gzipped if asked.
+	 *
+	 * @param body where the QPP goes, left open
+	 * @param qpp The QPP to validate.
+	 * @param gzip whether to compress the QPP
+	 * @throws IOException if the QPP cannot be written
+	 */
+	private static void writeQpp(OutputStream body, JsonWrapper qpp, boolean gzip) throws IOException {
+		if (gzip) {
+			GZIPOutputStream compressed = new GZIPOutputStream(body);
+			qpp.writeCompactTo(compressed);
+			compressed.finish();
+		} else {
+			qpp.writeCompactTo(body);
+		}
 	}
 
 	/**
@@ -2,15 +2,73 @@ package gov.cms.qpp.conversion.api.config;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import gov.cms.qpp.conversion.api.model.Constants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.core.task.SyncTaskExecutor;
-import org.springframework.core.task.TaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 class ConcurrencyConfigTest {
 
+	private MockEnvironment environment;
+	private InstrumentedTaskExecutor executor;
+
+	@BeforeEach
+	void setup() {
+		environment = new MockEnvironment();
+	}
+
+	@AfterEach
+	void teardown() {
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testIsBoundedByDefault() {
+		executor = initialized();
+
+		assertThat(executor.getMaxPoolSize()).isEqualTo(ConcurrencyConfig.DEFAULT_POOL_SIZE);
+		assertThat(executor.getStatus().getQueueCapacity()).isEqualTo(ConcurrencyConfig.DEFAULT_QUEUE_CAPACITY);
+		assertThat(executor.getThreadNamePrefix()).isEqualTo(ConcurrencyConfig.THREAD_NAME_PREFIX);
+	}
+
+	@Test
+	void testSizesFromEnvironment() {
+		environment.setProperty(Constants.TASK_POOL_SIZE_ENV_VARIABLE, "3");
+		environment.setProperty(Constants.TASK_QUEUE_CAPACITY_ENV_VARIABLE, "7");
+
+		executor = initialized();
+
+		assertThat(executor.getCorePoolSize()).isEqualTo(3);
+		assertThat(executor.getMaxPoolSize()).isEqualTo(3);
+		assertThat(executor.getThreadPoolExecutor().getQueue().remainingCapacity()).isEqualTo(7);
+	}
+
 	@Test
-	void testIsSync() {
-		TaskExecutor executor = new ConcurrencyConfig().taskExecutor();
-		assertThat(executor).isInstanceOf(SyncTaskExecutor.class);
+	void testInvalidSizesFallBackToDefaults() {
+		environment.setProperty(Constants.TASK_POOL_SIZE_ENV_VARIABLE, "many");
+		environment.setProperty(Constants.TASK_QUEUE_CAPACITY_ENV_VARIABLE, "-1");
+
+		executor = initialized();
+
+		assertThat(executor.getMaxPoolSize()).isEqualTo(ConcurrencyConfig.DEFAULT_POOL_SIZE);
+		assertThat(executor.getStatus().getQueueCapacity()).isEqualTo(ConcurrencyConfig.DEFAULT_QUEUE_CAPACITY);
+	}
+
+	@Test
+	void testPartitionQueriesHaveAThreadEach() {
+		ThreadPoolTaskExecutor queryExecutor = new ConcurrencyConfig(environment).partitionQueryExecutor();
+
+		assertThat(queryExecutor.getMaxPoolSize()).isEqualTo(Constants.CPC_DYNAMO_PARTITIONS);
+		assertThat(queryExecutor.getThreadNamePrefix()).isEqualTo(ConcurrencyConfig.QUERY_THREAD_NAME_PREFIX);
+	}
+
+	private InstrumentedTaskExecutor initialized() {
+		InstrumentedTaskExecutor taskExecutor = new ConcurrencyConfig(environment).taskExecutor();
+		taskExecutor.initialize();
+		return taskExecutor;
 	}
 }
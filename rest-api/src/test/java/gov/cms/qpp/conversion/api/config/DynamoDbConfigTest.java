@@ -162,4 +162,20 @@ public class DynamoDbConfigTest {
 		verifyStatic(DynamoDbConfigFactory.class, times(1));
 		DynamoDbConfigFactory.createDynamoDbMapper(amazonDynamoDB, mapConfigNamed, transformer);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void attributeTransformerWithKmsKey() {
+		when(environment.getProperty(eq(Constants.NO_AUDIT_ENV_VARIABLE))).thenReturn(null);
+		when(environment.getProperty(eq(Constants.KMS_KEY_ENV_VARIABLE))).thenReturn("meep");
+
+		assertThat(underTest.attributeTransformer()).isSameAs(transformer);
+	}
+
+	@Test
+	public void attributeTransformerNoAudit() {
+		when(environment.getProperty(eq(Constants.NO_AUDIT_ENV_VARIABLE))).thenReturn("true");
+		when(environment.getProperty(eq(Constants.KMS_KEY_ENV_VARIABLE))).thenReturn("meep");
+
+		assertThat(underTest.attributeTransformer()).isNull();
+	}
+}
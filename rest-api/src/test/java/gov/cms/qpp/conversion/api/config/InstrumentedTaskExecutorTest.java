@@ -0,0 +1,69 @@
+package gov.cms.qpp.conversion.api.config;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import gov.cms.qpp.conversion.api.model.TaskExecutorStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+class InstrumentedTaskExecutorTest {
+
+	private InstrumentedTaskExecutor executor;
+	private CountDownLatch release;
+
+	@BeforeEach
+	void setup() {
+		release = new CountDownLatch(1);
+		executor = new InstrumentedTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(1);
+		executor.setThreadNamePrefix("test-");
+		executor.initialize();
+	}
+
+	@AfterEach
+	void teardown() {
+		release.countDown();
+		executor.shutdown();
+	}
+
+	@Test
+	void testFullQueueRunsOnSubmittingThread() {
+		executor.execute(this::block);
+		executor.execute(this::block);
+
+		AtomicReference<Thread> ranOn = new AtomicReference<>();
+		executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+		assertThat(ranOn.get()).isSameAs(Thread.currentThread());
+		assertThat(executor.getRejectedTaskCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testStatus() {
+		executor.execute(this::block);
+		executor.execute(this::block);
+
+		TaskExecutorStatus status = executor.getStatus();
+
+		assertThat(status.getMaxPoolSize()).isEqualTo(1);
+		assertThat(status.getPoolSize()).isEqualTo(1);
+		assertThat(status.getQueueSize()).isEqualTo(1);
+		assertThat(status.getQueueCapacity()).isEqualTo(1);
+		assertThat(status.getRejectedTaskCount()).isEqualTo(0);
+	}
+
+	private void block() {
+		try {
+			release.await(1, TimeUnit.MINUTES);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package gov.cms.qpp.conversion.api.config;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+
+class JsonWrapperHttpMessageConverterTest {
+
+	private final JsonWrapperHttpMessageConverter converter = new JsonWrapperHttpMessageConverter();
+
+	@Test
+	void testCanWriteJsonWrapper() {
+		assertThat(converter.canWrite(JsonWrapper.class, MediaType.APPLICATION_JSON_UTF8)).isTrue();
+	}
+
+	@Test
+	void testCannotWriteOtherTypes() {
+		assertThat(converter.canWrite(String.class, MediaType.APPLICATION_JSON_UTF8)).isFalse();
+	}
+
+	@Test
+	void testCannotRead() {
+		assertThat(converter.canRead(JsonWrapper.class, MediaType.APPLICATION_JSON_UTF8)).isFalse();
+	}
+
+	@Test
+	void testWritesWrapperContent() throws IOException {
+		JsonWrapper wrapper = new JsonWrapper();
+		wrapper.putString("key", "Good Qpp");
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+		converter.write(wrapper, MediaType.APPLICATION_JSON_UTF8, outputMessage);
+
+		assertThat(outputMessage.getBodyAsString()).isEqualTo(wrapper.toString());
+		assertThat(outputMessage.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON_UTF8);
+	}
+}
@@ -1,5 +1,6 @@
 package gov.cms.qpp.conversion.api.controllers;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -13,6 +14,16 @@ import org.springframework.http.HttpStatus;
 
 import com.google.common.truth.Truth;
 
+import gov.cms.qpp.conversion.api.config.InstrumentedTaskExecutor;
+import gov.cms.qpp.conversion.api.model.AdmissionStatus;
+import gov.cms.qpp.conversion.api.model.CacheStatus;
+import gov.cms.qpp.conversion.api.model.OutboxStatus;
+import gov.cms.qpp.conversion.api.model.StageStatus;
+import gov.cms.qpp.conversion.api.model.TaskExecutorStatus;
+import gov.cms.qpp.conversion.api.services.AdmissionControl;
+import gov.cms.qpp.conversion.api.services.ConversionCache;
+import gov.cms.qpp.conversion.api.services.ConversionStageMetrics;
+import gov.cms.qpp.conversion.api.services.MetadataOutbox;
 import gov.cms.qpp.conversion.api.services.VersionService;
 import gov.cms.qpp.test.MockitoExtension;
 
@@ -25,6 +36,21 @@ class HealthCheckControllerTest {
 	@Mock
 	private VersionService version;
 
+	@Mock
+	private InstrumentedTaskExecutor taskExecutor;
+
+	@Mock
+	private MetadataOutbox metadataOutbox;
+
+	@Mock
+	private ConversionCache conversionCache;
+
+	@Mock
+	private ConversionStageMetrics conversionStageMetrics;
+
+	@Mock
+	private AdmissionControl admissionControl;
+
 	@Test
 	void testHealthCheckIsResponseStatusOk() {
 		Truth.assertThat(service.health().getStatusCode()).isSameAs(HttpStatus.OK);
@@ -53,4 +79,48 @@ class HealthCheckControllerTest {
 		Truth.assertThat(service.health().getBody().getImplementationVersion()).isEqualTo("Mock Version");
 	}
 
+	@Test
+	void testHealthCheckContainsTaskExecutorStatus() {
+		TaskExecutorStatus status = new TaskExecutorStatus();
+		status.setQueueSize(3);
+		Mockito.when(taskExecutor.getStatus()).thenReturn(status);
+
+		Truth.assertThat(service.health().getBody().getTaskExecutor()).isSameAs(status);
+	}
+
+	@Test
+	void testHealthCheckContainsMetadataOutboxStatus() {
+		OutboxStatus status = new OutboxStatus();
+		status.setDepth(7);
+		Mockito.when(metadataOutbox.getStatus()).thenReturn(status);
+
+		Truth.assertThat(service.health().getBody().getMetadataOutbox()).isSameAs(status);
+	}
+
+	@Test
+	void testHealthCheckContainsConversionCacheStatus() {
+		CacheStatus status = new CacheStatus();
+		status.setMissCount(2);
+		Mockito.when(conversionCache.getStatus()).thenReturn(status);
+
+		Truth.assertThat(service.health().getBody().getConversionCache()).isSameAs(status);
+	}
+
+	@Test
+	void testHealthCheckContainsConversionStages() {
+		List<StageStatus> stages = Collections.singletonList(new StageStatus());
+		Mockito.when(conversionStageMetrics.getStatus()).thenReturn(stages);
+
+		Truth.assertThat(service.health().getBody().getConversionStages()).isSameAs(stages);
+	}
+
+	@Test
+	void testHealthCheckContainsAdmissionStatus() {
+		AdmissionStatus status = new AdmissionStatus();
+		status.setRejectedCount(4);
+		Mockito.when(admissionControl.getStatus()).thenReturn(status);
+
+		Truth.assertThat(service.health().getBody().getAdmission()).isSameAs(status);
+	}
+
 }
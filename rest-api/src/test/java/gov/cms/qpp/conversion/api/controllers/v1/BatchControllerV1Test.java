@@ -0,0 +1,124 @@
+package gov.cms.qpp.conversion.api.controllers.v1;
+
+import gov.cms.qpp.conversion.api.exceptions.InvalidPurposeException;
+import gov.cms.qpp.conversion.api.model.BatchResult;
+import gov.cms.qpp.conversion.api.services.BatchEntryReader;
+import gov.cms.qpp.conversion.api.services.BatchResultWriter;
+import gov.cms.qpp.conversion.api.services.BatchService;
+import gov.cms.qpp.conversion.api.services.SpooledSource;
+import gov.cms.qpp.conversion.api.services.UploadSpool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchControllerV1Test {
+
+	private BatchControllerV1 objectUnderTest;
+	private List<String> converted;
+
+	@BeforeEach
+	void setup() throws IOException {
+		converted = new ArrayList<>();
+		BatchService batchService = mock(BatchService.class);
+		when(batchService.convert(any(), any())).then(invocation -> {
+			Iterator<SpooledSource> entries = invocation.getArgument(0);
+			BatchResultWriter writer = invocation.getArgument(1);
+			int index = 0;
+			while (entries.hasNext()) {
+				try (SpooledSource entry = entries.next()) {
+					converted.add(entry.getName() + ":" + entry.getPurpose());
+					writer.write(BatchResult.failed(index++, entry.getName(), HttpStatus.INTERNAL_SERVER_ERROR, "test"));
+				}
+			}
+			return index;
+		});
+
+		UploadSpool uploadSpool = new UploadSpool(new MockEnvironment());
+		objectUnderTest = new BatchControllerV1(batchService,
+				new BatchEntryReader(uploadSpool, new MockEnvironment()), uploadSpool);
+	}
+
+	@Test
+	void testZipRespondsWithLinesOfJson() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setContent(zip("a.xml", "b.xml"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		objectUnderTest.uploadZip(request, response, null, "Test");
+
+		assertThat(converted).containsExactly("a.xml:Test", "b.xml:Test").inOrder();
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentType()).isEqualTo(BatchResultWriter.NDJSON.toString());
+		assertThat(response.getContentAsString().split("\n")).hasLength(2);
+	}
+
+	@Test
+	void testFilesRespondWithAZipWhenAsked() throws IOException {
+		List<MultipartFile> files = Arrays.asList(
+				new MockMultipartFile("file", "a.xml", null, "a".getBytes(StandardCharsets.UTF_8)),
+				new MockMultipartFile("file", "b.xml", null, "b".getBytes(StandardCharsets.UTF_8)));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		objectUnderTest.uploadFiles(files, response, "application/zip, application/json;q=0.5", "");
+
+		assertThat(converted).containsExactly("a.xml:null", "b.xml:null").inOrder();
+		assertThat(response.getContentType()).isEqualTo(BatchResultWriter.ZIP.toString());
+		List<String> names = new ArrayList<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+			for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+				names.add(entry.getName());
+			}
+		}
+		assertThat(names).containsExactly("a.err.json", "b.err.json").inOrder();
+	}
+
+	@Test
+	void testWildcardAcceptRespondsWithLinesOfJson() throws IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		objectUnderTest.uploadFiles(new ArrayList<>(), response, "*/*", null);
+
+		assertThat(response.getContentType()).isEqualTo(BatchResultWriter.NDJSON.toString());
+	}
+
+	@Test
+	void testLongPurposeIsRefused() {
+		Assertions.assertThrows(InvalidPurposeException.class, () -> objectUnderTest.uploadFiles(new ArrayList<>(),
+				new MockHttpServletResponse(), null, "a purpose that is far too long to keep"));
+	}
+
+	private static byte[] zip(String... names) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(out)) {
+			for (String name : names) {
+				zip.putNextEntry(new ZipEntry(name));
+				zip.write(name.getBytes(StandardCharsets.UTF_8));
+				zip.closeEntry();
+			}
+		}
+		return out.toByteArray();
+	}
+}
@@ -27,6 +27,7 @@ import org.springframework.http.ResponseEntity;
 import gov.cms.qpp.conversion.api.model.Constants;
 import gov.cms.qpp.conversion.api.model.CpcFileStatusUpdateRequest;
 import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.api.model.Page;
 import gov.cms.qpp.conversion.api.model.UnprocessedCpcFileData;
 import gov.cms.qpp.conversion.api.services.CpcFileService;
 import gov.cms.qpp.test.MockitoExtension;
@@ -60,13 +61,37 @@ class CpcFileControllerV1Test {
 
 	@Test
 	void testGetUnprocessedFileList() {
-		when(cpcFileService.getUnprocessedCpcPlusFiles()).thenReturn(expectedUnprocessedCpcFileDataList);
+		when(cpcFileService.getUnprocessedCpcPlusFiles(null, CpcFileControllerV1.DEFAULT_PAGE_SIZE))
+				.thenReturn(new Page<>(expectedUnprocessedCpcFileDataList, null));
 
-		ResponseEntity<List<UnprocessedCpcFileData>> qppResponse = cpcFileControllerV1.getUnprocessedCpcPlusFiles();
+		ResponseEntity<List<UnprocessedCpcFileData>> qppResponse =
+				cpcFileControllerV1.getUnprocessedCpcPlusFiles(null, null);
 
-		verify(cpcFileService).getUnprocessedCpcPlusFiles();
+		verify(cpcFileService).getUnprocessedCpcPlusFiles(null, CpcFileControllerV1.DEFAULT_PAGE_SIZE);
 
 		assertThat(qppResponse.getBody()).isEqualTo(expectedUnprocessedCpcFileDataList);
+		assertThat(qppResponse.getHeaders().containsKey(Constants.CONTINUATION_TOKEN_HEADER)).isFalse();
+	}
+
+	@Test
+	void testGetUnprocessedFileListWithMoreFiles() {
+		when(cpcFileService.getUnprocessedCpcPlusFiles("previous", 10))
+				.thenReturn(new Page<>(expectedUnprocessedCpcFileDataList, "next"));
+
+		ResponseEntity<List<UnprocessedCpcFileData>> qppResponse =
+				cpcFileControllerV1.getUnprocessedCpcPlusFiles("previous", 10);
+
+		assertThat(qppResponse.getHeaders().getFirst(Constants.CONTINUATION_TOKEN_HEADER)).isEqualTo("next");
+	}
+
+	@Test
+	void testGetUnprocessedFileListLimitsPageSize() {
+		when(cpcFileService.getUnprocessedCpcPlusFiles(null, CpcFileControllerV1.MAX_PAGE_SIZE))
+				.thenReturn(new Page<>(expectedUnprocessedCpcFileDataList, null));
+
+		cpcFileControllerV1.getUnprocessedCpcPlusFiles(null, Integer.MAX_VALUE);
+
+		verify(cpcFileService).getUnprocessedCpcPlusFiles(null, CpcFileControllerV1.MAX_PAGE_SIZE);
 	}
 
 	@Test
@@ -128,7 +153,7 @@ class CpcFileControllerV1Test {
 	void testEndpoint1WithFeatureFlagDisabled() {
 		System.setProperty(Constants.NO_CPC_PLUS_API_ENV_VARIABLE, "trueOrWhatever");
 
-		ResponseEntity<List<UnprocessedCpcFileData>> cpcResponse = cpcFileControllerV1.getUnprocessedCpcPlusFiles();
+		ResponseEntity<List<UnprocessedCpcFileData>> cpcResponse = cpcFileControllerV1.getUnprocessedCpcPlusFiles(null, null);
 
 		assertThat(cpcResponse.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
 		assertThat(cpcResponse.getBody()).isNull();
@@ -5,9 +5,12 @@ import com.google.common.truth.Truth;
 import gov.cms.qpp.conversion.ConversionReport;
 import gov.cms.qpp.conversion.Converter;
 import gov.cms.qpp.conversion.PathSource;
+import gov.cms.qpp.conversion.api.exceptions.InvalidContinuationTokenException;
 import gov.cms.qpp.conversion.api.exceptions.InvalidFileTypeException;
 import gov.cms.qpp.conversion.api.exceptions.InvalidPurposeException;
 import gov.cms.qpp.conversion.api.exceptions.NoFileInDatabaseException;
+import gov.cms.qpp.conversion.api.exceptions.SpoolCapacityException;
+import gov.cms.qpp.conversion.api.exceptions.TooManyRequestsException;
 import gov.cms.qpp.conversion.api.services.AuditService;
 import gov.cms.qpp.conversion.api.services.CpcFileServiceImpl;
 import gov.cms.qpp.conversion.model.error.AllErrors;
@@ -24,6 +27,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -223,12 +227,44 @@ class ExceptionHandlerControllerV1Test implements LoggerContract {
 				.build();
 		AmazonServiceException exception = new AmazonServiceException("some message");
 		exception.setStatusCode(404);
-		Mockito.when(mock.getUnprocessedCpcPlusFiles()).thenThrow(exception);
+		Mockito.when(mock.getUnprocessedCpcPlusFiles(null, null)).thenThrow(exception);
 		MvcResult result = mvc.perform(MockMvcRequestBuilders.get("/cpc/unprocessed-files")).andReturn();
 		Truth.assertThat(result.getResponse().getStatus()).isEqualTo(404);
 		//mvc.perform(RequestBuilder("/cpc/unprocessed-files"));
 	}
 
+	@Test
+	void testHandleInvalidContinuationTokenExceptionStatusCode() {
+		InvalidContinuationTokenException exception =
+				new InvalidContinuationTokenException("some message", new IllegalArgumentException());
+
+		ResponseEntity<String> response = objectUnderTest.handleInvalidContinuationTokenException(exception);
+
+		Truth.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		Truth.assertThat(response.getBody()).contains("some message");
+	}
+
+	@Test
+	void testHandleSpoolCapacityExceptionResponse() {
+		SpoolCapacityException exception = new SpoolCapacityException("spool is full");
+
+		ResponseEntity<String> response = objectUnderTest.handleSpoolCapacityException(exception);
+
+		Truth.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		Truth.assertThat(response.getBody()).contains("spool is full");
+	}
+
+	@Test
+	void testHandleTooManyRequestsExceptionResponse() {
+		TooManyRequestsException exception = new TooManyRequestsException("too many conversions", 7);
+
+		ResponseEntity<String> response = objectUnderTest.handleTooManyRequestsException(exception);
+
+		Truth.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		Truth.assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("7");
+		Truth.assertThat(response.getBody()).contains("too many conversions");
+	}
+
 	@Test
 	void testHandleInvalidPurposeExceptionExceptionResponseBody() {
 		InvalidPurposeException exception = new InvalidPurposeException("some message");
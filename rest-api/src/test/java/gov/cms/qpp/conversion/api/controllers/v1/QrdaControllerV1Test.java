@@ -2,9 +2,14 @@ package gov.cms.qpp.conversion.api.controllers.v1;
 
 import gov.cms.qpp.conversion.ConversionReport;
 import gov.cms.qpp.conversion.Source;
+import gov.cms.qpp.conversion.api.exceptions.AuditException;
+import gov.cms.qpp.conversion.api.exceptions.TooManyRequestsException;
+import gov.cms.qpp.conversion.api.model.Constants;
 import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.api.services.AdmissionControl;
 import gov.cms.qpp.conversion.api.services.AuditService;
 import gov.cms.qpp.conversion.api.services.QrdaService;
+import gov.cms.qpp.conversion.api.services.UploadSpool;
 import gov.cms.qpp.conversion.api.services.ValidationService;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
 import gov.cms.qpp.conversion.model.error.TransformException;
@@ -18,8 +23,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.core.env.Environment;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
@@ -58,9 +69,18 @@ class QrdaControllerV1Test {
 	@Mock
 	private AuditService auditService;
 
+	@Mock
+	private Environment environment;
+
 	@Mock
 	private ConversionReport report;
 
+	@Spy
+	private UploadSpool uploadSpool = new UploadSpool(new MockEnvironment());
+
+	@Spy
+	private AdmissionControl admissionControl = new AdmissionControl(new MockEnvironment());
+
 	@BeforeEach
 	void initialization() throws IOException {
 		JsonWrapper wrapper = new JsonWrapper();
@@ -82,7 +102,7 @@ class QrdaControllerV1Test {
 
 		verify(qrdaService, atLeastOnce()).convertQrda3ToQpp(any(Source.class));
 
-		assertThat(qppResponse.getBody())
+		assertThat(qppResponse.getBody().toString())
 				.isEqualTo(report.getEncoded().toString());
 	}
 
@@ -112,6 +132,56 @@ class QrdaControllerV1Test {
 		assertThat(qppResponse.getHeaders().get("Location")).containsExactly(metadata.getUuid());
 	}
 
+	@Test
+	void testWaitsForAuditFailure() {
+		CompletableFuture<Metadata> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new IllegalStateException("no audit"));
+		when(qrdaService.convertQrda3ToQpp(any(Source.class))).thenReturn(report);
+		when(auditService.success(any(ConversionReport.class))).thenReturn(failed);
+
+		Assertions.assertThrows(AuditException.class, () -> objectUnderTest.uploadQrdaFile(multipartFile, null));
+	}
+
+	@Test
+	void testRefusedMetadataFailsTheUpload() {
+		CompletableFuture<Metadata> refused = new CompletableFuture<>();
+		refused.completeExceptionally(new AuditException("Metadata outbox is full"));
+		when(qrdaService.convertQrda3ToQpp(any(Source.class))).thenReturn(report);
+		when(auditService.success(any(ConversionReport.class))).thenReturn(refused);
+
+		AuditException thrown = Assertions.assertThrows(AuditException.class,
+				() -> objectUnderTest.uploadQrdaFile(multipartFile, null));
+
+		assertThat(thrown).hasMessageThat().isEqualTo("Metadata outbox is full");
+	}
+
+	@Test
+	void testAsyncAuditDoesNotWait() {
+		CompletableFuture<Metadata> pending = new CompletableFuture<>();
+		when(environment.getProperty(Constants.ASYNC_AUDIT_ENV_VARIABLE)).thenReturn("yep");
+		when(qrdaService.convertQrda3ToQpp(any(Source.class))).thenReturn(report);
+		when(auditService.success(any(ConversionReport.class))).thenReturn(pending);
+
+		ResponseEntity qppResponse = objectUnderTest.uploadQrdaFile(multipartFile, null);
+
+		assertThat(pending.isDone()).isFalse();
+		assertThat(qppResponse.getHeaders().get("Location")).isNull();
+		assertThat(qppResponse.getBody().toString()).isEqualTo(report.getEncoded().toString());
+	}
+
+	@Test
+	void testAsyncAuditFailureDoesNotFailConversion() {
+		CompletableFuture<Metadata> pending = new CompletableFuture<>();
+		when(environment.getProperty(Constants.ASYNC_AUDIT_ENV_VARIABLE)).thenReturn("yep");
+		when(qrdaService.convertQrda3ToQpp(any(Source.class))).thenReturn(report);
+		when(auditService.success(any(ConversionReport.class))).thenReturn(pending);
+
+		ResponseEntity qppResponse = objectUnderTest.uploadQrdaFile(multipartFile, null);
+		pending.completeExceptionally(new IllegalStateException("no audit"));
+
+		assertThat(qppResponse.getStatusCodeValue()).isEqualTo(201);
+	}
+
 	@Test
 	void testFailedQppValidation() {
 		String transformationErrorMessage = "Test failed QPP validation";
@@ -132,6 +202,86 @@ class QrdaControllerV1Test {
 		}
 	}
 
+	@Test
+	void testUploadIsReleasedAfterConversion() {
+		ArgumentCaptor<Source> source = ArgumentCaptor.forClass(Source.class);
+		when(qrdaService.convertQrda3ToQpp(source.capture())).thenReturn(report);
+
+		objectUnderTest.uploadQrdaFile(multipartFile, null);
+
+		assertThat(source.getValue().getSize()).isEqualTo(GOOD_FILE_CONTENT.length());
+		Assertions.assertThrows(IllegalStateException.class, source.getValue()::toInputStream);
+	}
+
+	@Test
+	void testAdmissionIsReleasedAfterConversion() {
+		when(qrdaService.convertQrda3ToQpp(any(Source.class))).then(invocation -> {
+			assertThat(admissionControl.getStatus().getActiveBytes()).isEqualTo(GOOD_FILE_CONTENT.length());
+			return report;
+		});
+
+		objectUnderTest.uploadQrdaFile(multipartFile, null);
+
+		assertThat(admissionControl.getStatus().getActiveCount()).isEqualTo(0);
+		assertThat(admissionControl.getStatus().getAdmittedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testRefusedUploadIsNotConverted() {
+		doThrow(new TooManyRequestsException("busy", 1)).when(admissionControl).admit(Mockito.anyLong());
+
+		Assertions.assertThrows(TooManyRequestsException.class,
+				() -> objectUnderTest.uploadQrdaFile(multipartFile, null));
+
+		verify(qrdaService, Mockito.never()).convertQrda3ToQpp(any(Source.class));
+	}
+
+	@Test
+	void testUploadIsHeldUntilTheRequestCompletes() throws IOException {
+		ServletRequestAttributes request = new ServletRequestAttributes(new MockHttpServletRequest());
+		RequestContextHolder.setRequestAttributes(request);
+		ArgumentCaptor<Source> source = ArgumentCaptor.forClass(Source.class);
+		when(qrdaService.convertQrda3ToQpp(source.capture())).thenReturn(report);
+
+		try {
+			objectUnderTest.uploadQrdaFile(multipartFile, null);
+			try (InputStream content = source.getValue().toInputStream()) {
+				assertThat(IOUtils.toString(content, StandardCharsets.UTF_8)).isEqualTo(GOOD_FILE_CONTENT);
+			}
+
+			request.requestCompleted();
+			Assertions.assertThrows(IllegalStateException.class, source.getValue()::toInputStream);
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+
+	@Test
+	void testAdmissionIsHeldUntilTheRequestCompletes() {
+		ServletRequestAttributes request = new ServletRequestAttributes(new MockHttpServletRequest());
+		RequestContextHolder.setRequestAttributes(request);
+		when(qrdaService.convertQrda3ToQpp(any(Source.class))).thenReturn(report);
+
+		try {
+			objectUnderTest.uploadQrdaFile(multipartFile, null);
+			assertThat(admissionControl.getStatus().getActiveCount()).isEqualTo(1);
+
+			request.requestCompleted();
+			assertThat(admissionControl.getStatus().getActiveCount()).isEqualTo(0);
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+
+	@Test
+	void testAdmissionIsReleasedWhenConversionFails() {
+		when(qrdaService.convertQrda3ToQpp(any(Source.class))).thenThrow(new IllegalStateException("failed"));
+
+		Assertions.assertThrows(IllegalStateException.class, () -> objectUnderTest.uploadQrdaFile(multipartFile, null));
+
+		assertThat(admissionControl.getStatus().getActiveCount()).isEqualTo(0);
+	}
+
 	@Test
 	void testInputStreamSupplier() throws IOException {
 		InputStream in = objectUnderTest.inputStream(multipartFile);
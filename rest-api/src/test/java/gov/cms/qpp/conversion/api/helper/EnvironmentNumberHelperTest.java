@@ -0,0 +1,66 @@
+package gov.cms.qpp.conversion.api.helper;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class EnvironmentNumberHelperTest {
+
+	private static final String NAME = "SOME_NUMBER";
+
+	@Test
+	void testPositiveReadsSetting() {
+		assertThat(EnvironmentNumberHelper.positive(environment("12"), NAME, 3)).isEqualTo(12);
+		assertThat(EnvironmentNumberHelper.positive(environment(" 12 "), NAME, 3L)).isEqualTo(12L);
+	}
+
+	@Test
+	void testPositiveDefaultsWhenUnset() {
+		assertThat(EnvironmentNumberHelper.positive(new MockEnvironment(), NAME, 3)).isEqualTo(3);
+		assertThat(EnvironmentNumberHelper.positive(environment(""), NAME, 3L)).isEqualTo(3L);
+	}
+
+	@Test
+	void testPositiveDefaultsWhenNotPositive() {
+		assertThat(EnvironmentNumberHelper.positive(environment("0"), NAME, 3)).isEqualTo(3);
+		assertThat(EnvironmentNumberHelper.positive(environment("-1"), NAME, 3L)).isEqualTo(3L);
+	}
+
+	@Test
+	void testPositiveDefaultsWhenNotANumber() {
+		assertThat(EnvironmentNumberHelper.positive(environment("many"), NAME, 3)).isEqualTo(3);
+		assertThat(EnvironmentNumberHelper.positive(environment("1.5"), NAME, 3L)).isEqualTo(3L);
+	}
+
+	@Test
+	void testIntDefaultsWhenTooLarge() {
+		MockEnvironment environment = environment(String.valueOf(Integer.MAX_VALUE + 1L));
+
+		assertThat(EnvironmentNumberHelper.positive(environment, NAME, 3)).isEqualTo(3);
+		assertThat(EnvironmentNumberHelper.nonNegative(environment, NAME, 3)).isEqualTo(3);
+		assertThat(EnvironmentNumberHelper.positive(environment, NAME, 3L)).isEqualTo(Integer.MAX_VALUE + 1L);
+	}
+
+	@Test
+	void testNonNegativeAllowsZero() {
+		assertThat(EnvironmentNumberHelper.nonNegative(environment("0"), NAME, 3)).isEqualTo(0);
+		assertThat(EnvironmentNumberHelper.nonNegative(environment("0"), NAME, 3L)).isEqualTo(0L);
+	}
+
+	@Test
+	void testNonNegativeTreatsNegativeAsZero() {
+		assertThat(EnvironmentNumberHelper.nonNegative(environment("-5"), NAME, 3)).isEqualTo(0);
+		assertThat(EnvironmentNumberHelper.nonNegative(environment("-5"), NAME, 3L)).isEqualTo(0L);
+	}
+
+	@Test
+	void testNonNegativeDefaultsWhenUnsetOrNotANumber() {
+		assertThat(EnvironmentNumberHelper.nonNegative(new MockEnvironment(), NAME, 3)).isEqualTo(3);
+		assertThat(EnvironmentNumberHelper.nonNegative(environment("lots"), NAME, 3L)).isEqualTo(3L);
+	}
+
+	private static MockEnvironment environment(String value) {
+		return new MockEnvironment().withProperty(NAME, value);
+	}
+}
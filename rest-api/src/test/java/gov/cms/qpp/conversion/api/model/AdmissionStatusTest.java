@@ -0,0 +1,19 @@
+package gov.cms.qpp.conversion.api.model;
+
+
+import org.junit.jupiter.api.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
+
+class AdmissionStatusTest {
+
+	@Test
+	void testEqualsContract() {
+		EqualsVerifier.forClass(AdmissionStatus.class)
+				.usingGetClass()
+				.suppress(Warning.NONFINAL_FIELDS)
+				.verify();
+	}
+
+}
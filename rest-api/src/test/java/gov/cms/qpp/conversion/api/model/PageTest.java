@@ -0,0 +1,34 @@
+package gov.cms.qpp.conversion.api.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class PageTest {
+
+	@Test
+	void testEqualsContract() {
+		EqualsVerifier.forClass(Page.class)
+				.usingGetClass()
+				.verify();
+	}
+
+	@Test
+	void testMapKeepsContinuationToken() {
+		Page<Integer> page = new Page<>(Arrays.asList(1, 2), "next").map(number -> number * 2);
+
+		assertThat(page.getItems()).containsExactly(2, 4).inOrder();
+		assertThat(page.getContinuationToken()).isEqualTo("next");
+		assertThat(page.hasMore()).isTrue();
+	}
+
+	@Test
+	void testLastPageHasNoMore() {
+		assertThat(new Page<>(Collections.emptyList(), null).hasMore()).isFalse();
+	}
+}
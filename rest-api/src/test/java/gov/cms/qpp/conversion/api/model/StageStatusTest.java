@@ -0,0 +1,19 @@
+package gov.cms.qpp.conversion.api.model;
+
+
+import org.junit.jupiter.api.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
+
+class StageStatusTest {
+
+	@Test
+	void testEqualsContract() {
+		EqualsVerifier.forClass(StageStatus.class)
+				.usingGetClass()
+				.suppress(Warning.NONFINAL_FIELDS)
+				.verify();
+	}
+
+}
@@ -0,0 +1,207 @@
+package gov.cms.qpp.conversion.api.services;
+
+import gov.cms.qpp.conversion.api.exceptions.TooManyRequestsException;
+import gov.cms.qpp.conversion.api.model.AdmissionStatus;
+import gov.cms.qpp.conversion.api.model.Constants;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class AdmissionControlTest {
+
+	private static final int MAX_CONCURRENT = 2;
+	private static final long MAX_BYTES = 100;
+
+	private MockEnvironment environment;
+
+	@BeforeEach
+	void setup() {
+		environment = new MockEnvironment()
+				.withProperty(Constants.ADMISSION_MAX_CONCURRENT_ENV_VARIABLE, String.valueOf(MAX_CONCURRENT))
+				.withProperty(Constants.ADMISSION_MAX_BYTES_ENV_VARIABLE, String.valueOf(MAX_BYTES))
+				.withProperty(Constants.ADMISSION_MAX_QUEUE_ENV_VARIABLE, "1")
+				.withProperty(Constants.ADMISSION_QUEUE_TIMEOUT_ENV_VARIABLE, "50")
+				.withProperty(Constants.ADMISSION_RETRY_AFTER_ENV_VARIABLE, "7");
+	}
+
+	@Test
+	void testAdmitsUpToTheLimit() {
+		AdmissionControl admissionControl = new AdmissionControl(environment);
+
+		admissionControl.admit(10);
+		admissionControl.admit(10);
+
+		AdmissionStatus status = admissionControl.getStatus();
+		assertThat(status.getActiveCount()).isEqualTo(MAX_CONCURRENT);
+		assertThat(status.getActiveBytes()).isEqualTo(20);
+		assertThat(status.getAdmittedCount()).isEqualTo(2);
+		assertThat(status.getRejectedCount()).isEqualTo(0);
+	}
+
+	@Test
+	void testRejectsOnceTheQueueTimesOut() {
+		AdmissionControl admissionControl = new AdmissionControl(environment);
+		admissionControl.admit(10);
+		admissionControl.admit(10);
+
+		TooManyRequestsException thrown = Assertions.assertThrows(TooManyRequestsException.class,
+				() -> admissionControl.admit(10));
+
+		assertThat(thrown.getRetryAfterSeconds()).isEqualTo(7);
+		assertThat(admissionControl.getStatus().getRejectedCount()).isEqualTo(1);
+		assertThat(admissionControl.getStatus().getQueueLength()).isEqualTo(0);
+	}
+
+	@Test
+	void testQueuedConversionIsAdmittedOnRelease() throws InterruptedException, ExecutionException {
+		environment.setProperty(Constants.ADMISSION_QUEUE_TIMEOUT_ENV_VARIABLE, "10000");
+		AdmissionControl admissionControl = new AdmissionControl(environment);
+		AdmissionControl.Admission first = admissionControl.admit(10);
+		admissionControl.admit(10);
+
+		CompletableFuture<AdmissionControl.Admission> queued =
+				CompletableFuture.supplyAsync(() -> admissionControl.admit(10));
+		awaitQueueLength(admissionControl, 1);
+		assertThat(queued.isDone()).isFalse();
+
+		first.close();
+
+		Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> queued.get());
+		assertThat(admissionControl.getStatus().getActiveCount()).isEqualTo(MAX_CONCURRENT);
+		assertThat(admissionControl.getStatus().getQueueLength()).isEqualTo(0);
+	}
+
+	@Test
+	void testRejectsAtOnceWhenTheQueueIsFull() throws InterruptedException {
+		environment.setProperty(Constants.ADMISSION_QUEUE_TIMEOUT_ENV_VARIABLE, "10000");
+		AdmissionControl admissionControl = new AdmissionControl(environment);
+		AdmissionControl.Admission first = admissionControl.admit(10);
+		admissionControl.admit(10);
+		CompletableFuture<AdmissionControl.Admission> queued =
+				CompletableFuture.supplyAsync(() -> admissionControl.admit(10));
+		awaitQueueLength(admissionControl, 1);
+
+		Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5),
+				() -> Assertions.assertThrows(TooManyRequestsException.class, () -> admissionControl.admit(10)));
+
+		first.close();
+		queued.join();
+	}
+
+	@Test
+	void testQueuedConversionIsNotOvertaken() throws InterruptedException {
+		environment.setProperty(Constants.ADMISSION_MAX_QUEUE_ENV_VARIABLE, "2");
+		environment.setProperty(Constants.ADMISSION_QUEUE_TIMEOUT_ENV_VARIABLE, "10000");
+		AdmissionControl admissionControl = new AdmissionControl(environment);
+		AdmissionControl.Admission first = admissionControl.admit(60);
+
+		CompletableFuture<AdmissionControl.Admission> large =
+				CompletableFuture.supplyAsync(() -> admissionControl.admit(MAX_BYTES));
+		awaitQueueLength(admissionControl, 1);
+		CompletableFuture<AdmissionControl.Admission> small =
+				CompletableFuture.supplyAsync(() -> admissionControl.admit(10));
+		awaitQueueLength(admissionControl, 2);
+		assertThat(small.isDone()).isFalse();
+
+		first.close();
+		AdmissionControl.Admission admitted = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> large.get());
+		awaitQueueLength(admissionControl, 1);
+		assertThat(small.isDone()).isFalse();
+
+		admitted.close();
+		Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> small.get());
+		assertThat(admissionControl.getStatus().getActiveBytes()).isEqualTo(10);
+	}
+
+	@Test
+	void testTimedOutConversionLetsTheNextOneIn() throws InterruptedException {
+		environment.setProperty(Constants.ADMISSION_MAX_QUEUE_ENV_VARIABLE, "2");
+		environment.setProperty(Constants.ADMISSION_QUEUE_TIMEOUT_ENV_VARIABLE, "200");
+		AdmissionControl admissionControl = new AdmissionControl(environment);
+		admissionControl.admit(60);
+
+		CompletableFuture<AdmissionControl.Admission> large =
+				CompletableFuture.supplyAsync(() -> admissionControl.admit(MAX_BYTES));
+		awaitQueueLength(admissionControl, 1);
+		CompletableFuture<AdmissionControl.Admission> small =
+				CompletableFuture.supplyAsync(() -> admissionControl.admit(10));
+
+		Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> small.get());
+		ExecutionException thrown = Assertions.assertThrows(ExecutionException.class, large::get);
+		assertThat(thrown).hasCauseThat().isInstanceOf(TooManyRequestsException.class);
+		assertThat(admissionControl.getStatus().getActiveBytes()).isEqualTo(70);
+	}
+
+	@Test
+	void testBytesAreLimited() {
+		environment.setProperty(Constants.ADMISSION_MAX_QUEUE_ENV_VARIABLE, "0");
+		AdmissionControl admissionControl = new AdmissionControl(environment);
+		admissionControl.admit(60);
+
+		Assertions.assertThrows(TooManyRequestsException.class, () -> admissionControl.admit(60));
+		admissionControl.admit(40);
+		assertThat(admissionControl.getStatus().getActiveBytes()).isEqualTo(MAX_BYTES);
+	}
+
+	@Test
+	void testUploadLargerThanTheLimitRunsAlone() {
+		environment.setProperty(Constants.ADMISSION_MAX_QUEUE_ENV_VARIABLE, "0");
+		AdmissionControl admissionControl = new AdmissionControl(environment);
+
+		AdmissionControl.Admission huge = admissionControl.admit(MAX_BYTES * 10);
+		assertThat(admissionControl.getStatus().getActiveBytes()).isEqualTo(MAX_BYTES);
+		Assertions.assertThrows(TooManyRequestsException.class, () -> admissionControl.admit(1));
+
+		huge.close();
+		admissionControl.admit(1);
+	}
+
+	@Test
+	void testCloseReleasesOnce() {
+		AdmissionControl admissionControl = new AdmissionControl(environment);
+		AdmissionControl.Admission admission = admissionControl.admit(10);
+		admissionControl.admit(20);
+
+		admission.close();
+		admission.close();
+
+		assertThat(admissionControl.getStatus().getActiveCount()).isEqualTo(1);
+		assertThat(admissionControl.getStatus().getActiveBytes()).isEqualTo(20);
+	}
+
+	@Test
+	void testStatusHasTheLimits() {
+		AdmissionStatus status = new AdmissionControl(environment).getStatus();
+
+		assertThat(status.getMaxConcurrent()).isEqualTo(MAX_CONCURRENT);
+		assertThat(status.getMaxBytes()).isEqualTo(MAX_BYTES);
+		assertThat(status.getMaxQueueLength()).isEqualTo(1);
+	}
+
+	@Test
+	void testDefaultsAreUsedForBadValues() {
+		AdmissionStatus status = new AdmissionControl(new MockEnvironment()
+				.withProperty(Constants.ADMISSION_MAX_CONCURRENT_ENV_VARIABLE, "0")
+				.withProperty(Constants.ADMISSION_MAX_BYTES_ENV_VARIABLE, "lots")).getStatus();
+
+		assertThat(status.getMaxConcurrent()).isEqualTo(Runtime.getRuntime().availableProcessors() * 2);
+		assertThat(status.getMaxBytes()).isGreaterThan(0L);
+		assertThat(status.getMaxQueueLength()).isEqualTo(status.getMaxConcurrent() * 2);
+	}
+
+	private static void awaitQueueLength(AdmissionControl admissionControl, int length) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (admissionControl.getStatus().getQueueLength() != length && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(admissionControl.getStatus().getQueueLength()).isEqualTo(length);
+	}
+}
@@ -1,8 +1,11 @@
 package gov.cms.qpp.conversion.api.services;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import gov.cms.qpp.conversion.ConversionReport;
 import gov.cms.qpp.conversion.InputStreamSupplierSource;
 import gov.cms.qpp.conversion.Source;
+import gov.cms.qpp.conversion.api.exceptions.AuditException;
 import gov.cms.qpp.conversion.api.exceptions.UncheckedInterruptedException;
 import gov.cms.qpp.conversion.api.helper.MetadataHelper;
 import gov.cms.qpp.conversion.api.model.Constants;
@@ -18,15 +21,21 @@ import org.mockito.Mock;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
 
 import java.io.ByteArrayInputStream;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -132,6 +141,88 @@ public class AuditServiceImplTest {
 	}
 
 
+	@Test
+	public void testSuccessWaitsForMetadataWrite() {
+		when(environment.getProperty(Constants.NO_AUDIT_ENV_VARIABLE)).thenReturn(null);
+		successfulEncodingPrep();
+		allGood();
+		CompletableFuture<Metadata> written = new CompletableFuture<>();
+		doReturn(written).when(dbService).write(metadata);
+
+		CompletableFuture<Metadata> future = underTest.success(report);
+		assertThat(future.isDone()).isFalse();
+
+		metadata.setUuid(AN_ID);
+		written.complete(metadata);
+		assertThat(future.join().getUuid()).isEqualTo(AN_ID);
+	}
+
+	@Test
+	public void testMetadataWriteFailureFailsAudit() {
+		when(environment.getProperty(Constants.NO_AUDIT_ENV_VARIABLE)).thenReturn(null);
+		errorPrep();
+		allGood();
+		CompletableFuture<Metadata> written = new CompletableFuture<>();
+		written.completeExceptionally(new AuditException(new IllegalStateException("Could not write metadata")));
+		doReturn(written).when(dbService).write(metadata);
+
+		CompletableFuture<Void> future = underTest.failConversion(report);
+
+		assertThat(future.isCompletedExceptionally()).isTrue();
+		try {
+			future.join();
+			fail("The audit should have failed with the metadata write");
+		} catch (CompletionException expected) {
+			assertThat(expected).hasCauseThat().isInstanceOf(AuditException.class);
+		}
+	}
+
+	@Test
+	public void testFullOutboxFailsAudit() {
+		MockEnvironment outboxEnvironment = new MockEnvironment()
+				.withProperty(Constants.AUDIT_OUTBOX_CAPACITY_ENV_VARIABLE, "1")
+				.withProperty(Constants.AUDIT_OUTBOX_OFFER_TIMEOUT_ENV_VARIABLE, "1");
+		Optional<DynamoDBMapper> mapper = Optional.of(new DynamoDBMapper(mock(AmazonDynamoDB.class)));
+		MetadataOutbox outbox = new MetadataOutbox(mapper, Optional.empty(), outboxEnvironment);
+		outbox.add(new Metadata());
+		underTest = new AuditServiceImpl(storageService,
+				new DbServiceImpl(outbox, mock(TaskExecutor.class), mapper, outboxEnvironment), environment);
+		when(environment.getProperty(Constants.NO_AUDIT_ENV_VARIABLE)).thenReturn(null);
+		successfulEncodingPrep();
+		allGood();
+
+		try {
+			underTest.success(report).join();
+			fail("The audit should have failed when the outbox refused the metadata");
+		} catch (CompletionException expected) {
+			assertThat(expected).hasCauseThat().isInstanceOf(AuditException.class);
+			assertThat(expected).hasCauseThat().hasMessageThat().contains("full");
+		}
+	}
+
+	@Test
+	public void testSpooledUploadIsHeldUntilStored() {
+		UploadSpool spool = new UploadSpool(new MockEnvironment());
+		SpooledSource spooled = spool.spool(FILENAME, new ByteArrayInputStream(content.getBytes()), null);
+		when(environment.getProperty(Constants.NO_AUDIT_ENV_VARIABLE)).thenReturn(null);
+		successfulEncodingPrep();
+		when(report.getQrdaSource()).thenReturn(spooled);
+		CompletableFuture<String> stored = new CompletableFuture<>();
+		when(storageService.store(any(String.class), any(), anyLong())).thenReturn(stored);
+
+		underTest.success(report);
+		spooled.close();
+		assertThat(spooled.toInputStream()).isNotNull();
+
+		stored.complete(AN_ID);
+		try {
+			spooled.toInputStream();
+			fail("The upload should have been released once stored");
+		} catch (IllegalStateException expected) {
+			assertThat(expected).hasMessageThat().contains("released");
+		}
+	}
+
 	@Test
 	public void testAuditConversionFailureHappy() {
 		when(environment.getProperty(Constants.NO_AUDIT_ENV_VARIABLE)).thenReturn(null);
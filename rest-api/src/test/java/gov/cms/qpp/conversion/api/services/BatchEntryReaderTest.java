@@ -0,0 +1,92 @@
+package gov.cms.qpp.conversion.api.services;
+
+import gov.cms.qpp.conversion.api.exceptions.BatchEntryTooLargeException;
+import gov.cms.qpp.conversion.api.model.Constants;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class BatchEntryReaderTest {
+
+	private static final int LIMIT = 8;
+
+	private BatchEntryReader objectUnderTest;
+
+	@BeforeEach
+	void setup() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty(Constants.BATCH_ENTRY_LIMIT_ENV_VARIABLE, String.valueOf(LIMIT));
+		objectUnderTest = new BatchEntryReader(new UploadSpool(new MockEnvironment()), environment);
+	}
+
+	@Test
+	void testZipEntriesSkipDirectories() throws IOException {
+		Iterator<SpooledSource> entries = objectUnderTest.fromZip(zip("dir/", "", "dir/a.xml", "aaa", "b.xml", "bb"),
+				"Test");
+
+		assertEntry(entries.next(), "dir/a.xml", "aaa");
+		assertEntry(entries.next(), "b.xml", "bb");
+		assertThat(entries.hasNext()).isFalse();
+		Assertions.assertThrows(NoSuchElementException.class, entries::next);
+	}
+
+	@Test
+	void testTooLargeZipEntryDoesNotEndTheBatch() throws IOException {
+		Iterator<SpooledSource> entries = objectUnderTest.fromZip(zip("huge.xml", "123456789", "b.xml", "bb"), null);
+
+		BatchEntryTooLargeException exception = Assertions.assertThrows(BatchEntryTooLargeException.class,
+				entries::next);
+		assertThat(exception.getEntryName()).isEqualTo("huge.xml");
+		assertEntry(entries.next(), "b.xml", "bb");
+		assertThat(entries.hasNext()).isFalse();
+	}
+
+	@Test
+	void testFilesAreRead() throws IOException {
+		MultipartFile first = new MockMultipartFile("file", "a.xml", null, "aaa".getBytes(StandardCharsets.UTF_8));
+		MultipartFile second = new MockMultipartFile("file", "huge.xml", null,
+				"123456789".getBytes(StandardCharsets.UTF_8));
+
+		Iterator<SpooledSource> entries = objectUnderTest.fromFiles(Arrays.asList(first, second), "Test");
+
+		assertEntry(entries.next(), "a.xml", "aaa");
+		Assertions.assertThrows(BatchEntryTooLargeException.class, entries::next);
+		assertThat(entries.hasNext()).isFalse();
+	}
+
+	private static void assertEntry(SpooledSource entry, String name, String content) throws IOException {
+		try (SpooledSource source = entry; InputStream stream = source.toInputStream()) {
+			assertThat(source.getName()).isEqualTo(name);
+			assertThat(IOUtils.toString(stream, StandardCharsets.UTF_8)).isEqualTo(content);
+		}
+	}
+
+	private static InputStream zip(String... namesAndContents) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(out)) {
+			for (int i = 0; i < namesAndContents.length; i += 2) {
+				zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+				zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+				zip.closeEntry();
+			}
+		}
+		return new ByteArrayInputStream(out.toByteArray());
+	}
+}
@@ -0,0 +1,92 @@
+package gov.cms.qpp.conversion.api.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.cms.qpp.conversion.api.model.BatchResult;
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.model.error.AllErrors;
+import gov.cms.qpp.conversion.model.error.Error;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class BatchResultWriterTest {
+
+	@Test
+	void testNdjsonWritesALinePerResult() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (BatchResultWriter writer = BatchResultWriter.ndjson(out)) {
+			writer.write(BatchResult.converted(0, "a \"quoted\".xml", qpp()));
+			writer.write(BatchResult.invalid(1, "b.xml", errors("b.xml")));
+			writer.write(BatchResult.failed(2, "c.xml", HttpStatus.PAYLOAD_TOO_LARGE, "too large"));
+		}
+
+		String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+		assertThat(lines).hasLength(3);
+
+		ObjectMapper mapper = new ObjectMapper();
+		JsonNode converted = mapper.readTree(lines[0]);
+		assertThat(converted.get("name").asText()).isEqualTo("a \"quoted\".xml");
+		assertThat(converted.get("status").asInt()).isEqualTo(201);
+		assertThat(converted.get("qpp").get("key").asText()).isEqualTo("value");
+
+		JsonNode invalid = mapper.readTree(lines[1]);
+		assertThat(invalid.get("index").asInt()).isEqualTo(1);
+		assertThat(invalid.get("errors").get("errors").get(0).get("sourceIdentifier").asText()).isEqualTo("b.xml");
+
+		JsonNode failed = mapper.readTree(lines[2]);
+		assertThat(failed.get("status").asInt()).isEqualTo(413);
+		assertThat(failed.get("message").asText()).isEqualTo("too large");
+	}
+
+	@Test
+	void testZipWritesAFilePerResult() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (BatchResultWriter writer = BatchResultWriter.zip(out)) {
+			writer.write(BatchResult.converted(0, "a.xml", qpp()));
+			writer.write(BatchResult.invalid(1, "b.XML", errors("b.XML")));
+			writer.write(BatchResult.failed(2, "c", HttpStatus.INTERNAL_SERVER_ERROR, "broken"));
+			writer.write(BatchResult.converted(3, "a.xml", qpp()));
+		}
+
+		Map<String, String> files = unzip(out.toByteArray());
+		assertThat(files.keySet()).containsExactly("a.qpp.json", "b.err.json", "c.err.json", "3-a.qpp.json").inOrder();
+		assertThat(files.get("a.qpp.json")).contains("\"key\" : \"value\"");
+		assertThat(files.get("b.err.json")).contains("b.XML");
+		assertThat(files.get("c.err.json")).contains("broken");
+	}
+
+	private static Map<String, String> unzip(byte[] zip) throws IOException {
+		Map<String, String> files = new LinkedHashMap<>();
+		try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+			for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+				files.put(entry.getName(), IOUtils.toString(in, StandardCharsets.UTF_8));
+			}
+		}
+		return files;
+	}
+
+	private static JsonWrapper qpp() {
+		JsonWrapper qpp = new JsonWrapper();
+		qpp.putString("key", "value");
+		return qpp;
+	}
+
+	private static AllErrors errors(String name) {
+		Error error = new Error();
+		error.setSourceIdentifier(name);
+		return new AllErrors(Collections.singletonList(error));
+	}
+}
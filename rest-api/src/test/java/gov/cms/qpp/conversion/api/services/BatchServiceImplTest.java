@@ -0,0 +1,327 @@
+package gov.cms.qpp.conversion.api.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.cms.qpp.conversion.ConversionReport;
+import gov.cms.qpp.conversion.InputStreamSupplierSource;
+import gov.cms.qpp.conversion.Source;
+import gov.cms.qpp.conversion.api.exceptions.BatchEntryTooLargeException;
+import gov.cms.qpp.conversion.api.model.BatchResult;
+import gov.cms.qpp.conversion.api.model.Constants;
+import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.model.error.QppValidationException;
+import gov.cms.qpp.conversion.model.error.TransformException;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchServiceImplTest {
+
+	private static final int POOL_SIZE = 2;
+
+	private QrdaService qrdaService;
+	private ValidationService validationService;
+	private AuditService auditService;
+	private UploadSpool uploadSpool;
+	private BatchServiceImpl objectUnderTest;
+
+	@BeforeEach
+	void setup() {
+		qrdaService = mock(QrdaService.class);
+		validationService = mock(ValidationService.class);
+		auditService = mock(AuditService.class);
+		uploadSpool = new UploadSpool(new MockEnvironment());
+		objectUnderTest = new BatchServiceImpl(qrdaService, validationService, auditService,
+				new MockEnvironment().withProperty(Constants.BATCH_POOL_SIZE_ENV_VARIABLE, String.valueOf(POOL_SIZE)));
+
+		when(qrdaService.convertQrda3ToQpp(any(Source.class))).then(invocation -> {
+			Source source = invocation.getArgument(0);
+			return report(source.getName());
+		});
+		when(validationService.validateQppAsync(any(ConversionReport.class)))
+				.thenReturn(CompletableFuture.completedFuture(null));
+	}
+
+	@AfterEach
+	void teardown() {
+		objectUnderTest.shutdown();
+	}
+
+	@Test
+	void testEveryEntryHasAResult() throws IOException {
+		List<JsonNode> results = convert(entries("a.xml", "b.xml", "c.xml"));
+
+		assertThat(results).hasSize(3);
+		List<String> names = new ArrayList<>();
+		for (JsonNode result : results) {
+			assertThat(result.get("status").asInt()).isEqualTo(201);
+			assertThat(result.get("qpp").get("file").asText()).isEqualTo(result.get("name").asText());
+			names.add(result.get("name").asText() + "@" + result.get("index").asInt());
+		}
+		assertThat(names).containsExactly("a.xml@0", "b.xml@1", "c.xml@2");
+		verify(auditService, Mockito.times(3)).success(any(ConversionReport.class));
+	}
+
+	@Test
+	void testFailedEntriesDoNotStopTheBatch() throws IOException {
+		when(qrdaService.convertQrda3ToQpp(any(Source.class))).then(invocation -> {
+			Source source = invocation.getArgument(0);
+			switch (source.getName()) {
+				case "bad.xml":
+					throw new TransformException("bad", null, failedReport("bad.xml"));
+				case "broken.xml":
+					throw new IllegalStateException("broken");
+				default:
+					return report(source.getName());
+			}
+		});
+		CompletableFuture<Void> invalid = new CompletableFuture<>();
+		invalid.completeExceptionally(new QppValidationException("invalid", null, failedReport("invalid.xml")));
+		when(validationService.validateQppAsync(Mockito.argThat(report -> report != null
+				&& "invalid.xml".equals(report.getQrdaSource().getName())))).thenReturn(invalid);
+
+		List<JsonNode> results = convert(entries("bad.xml", "good.xml", "invalid.xml", "broken.xml"));
+
+		assertThat(results).hasSize(4);
+		assertThat(result(results, "bad.xml").get("status").asInt()).isEqualTo(422);
+		assertThat(result(results, "bad.xml").get("errors").get("errors").get(0).get("sourceIdentifier").asText())
+				.isEqualTo("bad.xml");
+		assertThat(result(results, "good.xml").get("status").asInt()).isEqualTo(201);
+		assertThat(result(results, "invalid.xml").get("status").asInt()).isEqualTo(422);
+		assertThat(result(results, "broken.xml").get("status").asInt()).isEqualTo(500);
+		assertThat(result(results, "broken.xml").get("message").asText()).isEqualTo("broken");
+		verify(auditService).failConversion(any(ConversionReport.class));
+		verify(auditService).failValidation(any(ConversionReport.class));
+		verify(validationService, never()).validateQpp(any(ConversionReport.class));
+	}
+
+	@Test
+	void testValidationIsNotWaitedForOnTheBatchThreads() throws IOException {
+		List<CompletableFuture<Void>> validations = new ArrayList<>();
+		when(validationService.validateQppAsync(any(ConversionReport.class))).then(invocation -> {
+			CompletableFuture<Void> validation = new CompletableFuture<>();
+			synchronized (validations) {
+				validations.add(validation);
+				if (validations.size() == POOL_SIZE * 2) {
+					validations.forEach(pending -> pending.complete(null));
+				}
+			}
+			return validation;
+		});
+
+		List<JsonNode> results = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10),
+				() -> convert(entries(Collections.nCopies(POOL_SIZE * 2, "entry.xml").toArray(new String[0]))));
+
+		assertThat(results).hasSize(POOL_SIZE * 2);
+	}
+
+	@Test
+	void testTooLargeEntryIsAnsweredInPlace() throws IOException {
+		Iterator<SpooledSource> good = entries("good.xml");
+		Iterator<SpooledSource> entries = new Iterator<SpooledSource>() {
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < 2;
+			}
+
+			@Override
+			public SpooledSource next() {
+				if (next++ == 0) {
+					throw new BatchEntryTooLargeException("huge.xml", "huge.xml is too large");
+				}
+				return good.next();
+			}
+		};
+
+		List<JsonNode> results = convert(entries);
+
+		assertThat(results).hasSize(2);
+		assertThat(result(results, "huge.xml").get("status").asInt()).isEqualTo(413);
+		assertThat(result(results, "huge.xml").get("index").asInt()).isEqualTo(0);
+		assertThat(result(results, "good.xml").get("index").asInt()).isEqualTo(1);
+	}
+
+	@Test
+	void testEntriesInFlightAreBounded() throws IOException {
+		AtomicInteger read = new AtomicInteger();
+		AtomicInteger written = new AtomicInteger();
+		AtomicInteger mostInFlight = new AtomicInteger();
+		Iterator<SpooledSource> entries = entries(Collections.nCopies(50, "entry.xml").toArray(new String[0]));
+		Iterator<SpooledSource> counted = new Iterator<SpooledSource>() {
+			@Override
+			public boolean hasNext() {
+				return entries.hasNext();
+			}
+
+			@Override
+			public SpooledSource next() {
+				mostInFlight.accumulateAndGet(read.incrementAndGet() - written.get(), Math::max);
+				return entries.next();
+			}
+		};
+
+		int count = objectUnderTest.convert(counted, new BatchResultWriter() {
+			@Override
+			public void write(BatchResult result) {
+				written.incrementAndGet();
+			}
+
+			@Override
+			public void close() {
+				// nothing to finish
+			}
+		});
+
+		assertThat(count).isEqualTo(50);
+		assertThat(written.get()).isEqualTo(50);
+		assertThat(mostInFlight.get()).isAtMost(POOL_SIZE * 2 + 1);
+	}
+
+	@Test
+	void testEntriesAreReleased() throws IOException {
+		UploadSpool spool = Mockito.spy(uploadSpool);
+		List<SpooledSource> sources = new ArrayList<>();
+		for (String name : Arrays.asList("a.xml", "b.xml")) {
+			sources.add(spool.spool(name, new ByteArrayInputStream(name.getBytes(StandardCharsets.UTF_8)), null));
+		}
+
+		convert(sources.iterator());
+
+		verify(spool, Mockito.times(2)).release(any(), any(), Mockito.anyLong());
+	}
+
+	@Test
+	void testEntriesAreHeldUntilAudited() throws IOException {
+		StorageService storageService = mock(StorageService.class);
+		DbService dbService = mock(DbService.class);
+		List<String> stored = new CopyOnWriteArrayList<>();
+		when(storageService.store(any(String.class), any(), Mockito.anyLong())).then(invocation -> {
+			Supplier<InputStream> content = invocation.getArgument(1);
+			return CompletableFuture.supplyAsync(() -> {
+				try (InputStream in = content.get()) {
+					stored.add(IOUtils.toString(in, StandardCharsets.UTF_8));
+				} catch (IOException exception) {
+					throw new UncheckedIOException(exception);
+				}
+				return "locator";
+			});
+		});
+		when(dbService.write(any(Metadata.class)))
+				.then(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+		when(qrdaService.convertQrda3ToQpp(any(Source.class))).then(invocation -> {
+			Source source = invocation.getArgument(0);
+			return new ConversionReport(source, Collections.emptyList(), null, report(source.getName()).getEncoded());
+		});
+		objectUnderTest.shutdown();
+		objectUnderTest = new BatchServiceImpl(qrdaService, validationService,
+				new AuditServiceImpl(storageService, dbService, new MockEnvironment()),
+				new MockEnvironment().withProperty(Constants.BATCH_POOL_SIZE_ENV_VARIABLE, String.valueOf(POOL_SIZE)));
+
+		List<JsonNode> results = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10),
+				() -> convert(entries("a.xml", "b.xml")));
+
+		assertThat(results).hasSize(2);
+		assertThat(result(results, "a.xml").get("status").asInt()).isEqualTo(201);
+		assertThat(result(results, "b.xml").get("status").asInt()).isEqualTo(201);
+		verify(dbService, Mockito.timeout(5000).times(2)).write(any(Metadata.class));
+		assertThat(stored).containsAllOf("a.xml", "b.xml");
+	}
+
+	@Test
+	void testAuditThatCannotStartDoesNotHoldUpTheBatch() throws IOException {
+		when(auditService.success(any(ConversionReport.class))).thenThrow(new IllegalStateException("no audit"));
+
+		List<JsonNode> results = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10),
+				() -> convert(entries("a.xml")));
+
+		assertThat(results).hasSize(1);
+		assertThat(result(results, "a.xml").get("status").asInt()).isEqualTo(201);
+	}
+
+	@Test
+	void testAuditIsNotWaitedFor() throws IOException {
+		when(auditService.success(any(ConversionReport.class))).thenReturn(new CompletableFuture<>());
+
+		List<JsonNode> results = convert(entries("a.xml"));
+
+		assertThat(results).hasSize(1);
+		verify(auditService, never()).failConversion(any(ConversionReport.class));
+	}
+
+	private List<JsonNode> convert(Iterator<SpooledSource> entries) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (BatchResultWriter writer = BatchResultWriter.ndjson(out)) {
+			objectUnderTest.convert(entries, writer);
+		}
+
+		ObjectMapper mapper = new ObjectMapper();
+		List<JsonNode> results = new ArrayList<>();
+		for (String line : out.toString(StandardCharsets.UTF_8.name()).split("\n")) {
+			results.add(mapper.readTree(line));
+		}
+		return results;
+	}
+
+	private Iterator<SpooledSource> entries(String... names) {
+		Iterator<String> iterator = Arrays.asList(names).iterator();
+		return new Iterator<SpooledSource>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public SpooledSource next() {
+				String name = iterator.next();
+				return uploadSpool.spool(name, new ByteArrayInputStream(name.getBytes(StandardCharsets.UTF_8)), null);
+			}
+		};
+	}
+
+	private static JsonNode result(List<JsonNode> results, String name) {
+		return results.stream().filter(result -> name.equals(result.get("name").asText())).findFirst().get();
+	}
+
+	private static ConversionReport report(String name) {
+		JsonWrapper qpp = new JsonWrapper();
+		qpp.putString("file", name);
+		return new ConversionReport(new InputStreamSupplierSource(name, new ByteArrayInputStream(new byte[0])),
+				Collections.emptyList(), null, qpp);
+	}
+
+	private static ConversionReport failedReport(String name) {
+		return new ConversionReport(new InputStreamSupplierSource(name, new ByteArrayInputStream(new byte[0])),
+				Collections.emptyList(), null, null);
+	}
+}
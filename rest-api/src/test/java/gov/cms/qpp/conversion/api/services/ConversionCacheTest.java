@@ -0,0 +1,268 @@
+package gov.cms.qpp.conversion.api.services;
+
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.ConversionReport;
+import gov.cms.qpp.conversion.InputStreamSupplierSource;
+import gov.cms.qpp.conversion.Source;
+import gov.cms.qpp.conversion.api.helper.MetadataHelper;
+import gov.cms.qpp.conversion.api.model.CacheStatus;
+import gov.cms.qpp.conversion.api.model.Constants;
+import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.decode.ClinicalDocumentDecoder;
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.Program;
+import gov.cms.qpp.conversion.model.TemplateId;
+import gov.cms.qpp.conversion.model.error.Detail;
+import gov.cms.qpp.conversion.model.error.TransformException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ConversionCacheTest {
+
+	private Path directory;
+	private MockEnvironment environment;
+
+	@BeforeEach
+	void setup() throws IOException {
+		directory = Files.createTempDirectory("conversion-cache");
+		environment = new MockEnvironment();
+		environment.setProperty(Constants.CONVERSION_CACHE_SIZE_ENV_VARIABLE, "2");
+	}
+
+	@AfterEach
+	void teardown() {
+		FileSystemUtils.deleteRecursively(directory.toFile());
+	}
+
+	@Test
+	void testDisabledByDefault() {
+		ConversionCache cache = new ConversionCache(new MockEnvironment(), new SyncTaskExecutor());
+
+		assertThat(cache.isEnabled()).isFalse();
+		assertThat(cache.getStatus().isEnabled()).isFalse();
+	}
+
+	@Test
+	void testKeyIsTheSameForTheSameContent() {
+		ConversionCache cache = cache();
+
+		assertThat(cache.key(source("one", "content"), new Context()))
+				.isEqualTo(cache.key(source("two", "content"), new Context()));
+	}
+
+	@Test
+	void testKeyDiffersByContent() {
+		ConversionCache cache = cache();
+
+		assertThat(cache.key(source("one", "content"), new Context()))
+				.isNotEqualTo(cache.key(source("one", "other content"), new Context()));
+	}
+
+	@Test
+	void testKeyDiffersBySettings() {
+		ConversionCache cache = cache();
+		Source source = source("one", "content");
+		Context historical = new Context();
+		historical.setHistorical(true);
+		Context cpcPlus = new Context();
+		cpcPlus.setProgram(Program.CPC);
+		Context noValidation = new Context();
+		noValidation.setDoValidation(false);
+
+		String key = cache.key(source, new Context());
+
+		assertThat(cache.key(source, historical)).isNotEqualTo(key);
+		assertThat(cache.key(source, cpcPlus)).isNotEqualTo(key);
+		assertThat(cache.key(source, noValidation)).isNotEqualTo(key);
+	}
+
+	@Test
+	void testKeyDiffersByBuild() {
+		Source source = source("one", "content");
+
+		assertThat(new ConversionCache(environment, new SyncTaskExecutor(), Optional.of("1@1")).key(source, new Context()))
+				.isNotEqualTo(new ConversionCache(environment, new SyncTaskExecutor(), Optional.of("1@2"))
+						.key(source, new Context()));
+	}
+
+	@Test
+	void testMemoryHit() {
+		ConversionCache cache = cache();
+		CachedConversion conversion = conversion();
+		cache.put("key", conversion);
+
+		assertThat(cache.get("key")).isSameAs(conversion);
+		assertThat(cache.get("other")).isNull();
+
+		CacheStatus status = cache.getStatus();
+		assertThat(status.getMemoryHitCount()).isEqualTo(1);
+		assertThat(status.getMissCount()).isEqualTo(1);
+		assertThat(status.getHitRate()).isWithin(0.001).of(0.5);
+	}
+
+	@Test
+	void testMemoryIsBounded() {
+		ConversionCache cache = cache();
+		cache.put("first", conversion());
+		cache.put("second", conversion());
+		cache.get("first");
+		cache.put("third", conversion());
+
+		assertThat(cache.getStatus().getSize()).isEqualTo(2);
+		assertThat(cache.get("first")).isNotNull();
+		assertThat(cache.get("second")).isNull();
+	}
+
+	@Test
+	void testDiskTierOutlivesMemory() {
+		environment.setProperty(Constants.CONVERSION_CACHE_DIR_ENV_VARIABLE, directory.toString());
+		cache().put("key", conversion());
+
+		ConversionCache restarted = cache();
+		CachedConversion cached = restarted.get("key");
+
+		assertThat(cached).isNotNull();
+		assertThat(cached.replay(source("again", "content")).getEncoded().getString("key")).isEqualTo("value");
+		assertThat(restarted.getStatus().getDiskHitCount()).isEqualTo(1);
+		assertThat(restarted.get("key")).isSameAs(cached);
+		assertThat(restarted.getStatus().getMemoryHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testDiskTierKeepsWhatIsAudited() {
+		environment.setProperty(Constants.CONVERSION_CACHE_DIR_ENV_VARIABLE, directory.toString());
+		Node root = new Node();
+		Node document = new Node(TemplateId.CLINICAL_DOCUMENT, root);
+		document.putValue(ClinicalDocumentDecoder.TAX_PAYER_IDENTIFICATION_NUMBER, "123456789");
+		document.putValue(ClinicalDocumentDecoder.NATIONAL_PROVIDER_IDENTIFIER, "2567891421");
+		document.putValue(ClinicalDocumentDecoder.RAW_PROGRAM_NAME, "CPCPLUS");
+		root.addChildNode(document);
+		cache().put("key", new CachedConversion(new ConversionReport(source("original", "content"),
+				Collections.emptyList(), root, new JsonWrapper())));
+
+		Metadata metadata = MetadataHelper.generateMetadata(
+				cache().get("key").replay(source("again", "content")).getDecoded(), MetadataHelper.Outcome.SUCCESS);
+
+		assertThat(metadata.getTin()).isEqualTo("123456789");
+		assertThat(metadata.getNpi()).isEqualTo("2567891421");
+		assertThat(metadata.getCpc()).isNotNull();
+	}
+
+	@Test
+	void testDiskTierKeepsFailures() {
+		environment.setProperty(Constants.CONVERSION_CACHE_DIR_ENV_VARIABLE, directory.toString());
+		Detail detail = new Detail();
+		detail.setErrorCode(1);
+		detail.setMessage("failed");
+		cache().put("key", new CachedConversion(new ConversionReport(source("original", "content"),
+				Collections.singletonList(detail), null, null)));
+
+		TransformException failure = assertThrows(TransformException.class,
+				() -> cache().get("key").replay(source("again", "content")));
+
+		Detail replayed = failure.getDetails().getErrors().get(0).getDetails().get(0);
+		assertThat(replayed.getErrorCode()).isEqualTo(1);
+		assertThat(replayed.getMessage()).isEqualTo("failed");
+	}
+
+	@Test
+	void testDiskEntriesAreJson() throws IOException {
+		environment.setProperty(Constants.CONVERSION_CACHE_DIR_ENV_VARIABLE, directory.toString());
+		cache().put("key", conversion());
+
+		String stored = new String(Files.readAllBytes(directory.resolve("key" + ConversionCache.FILE_SUFFIX)),
+				StandardCharsets.UTF_8);
+
+		assertThat(stored).startsWith("{");
+		assertThat(stored).contains("\"key\":\"value\"");
+	}
+
+	@Test
+	void testDiskTierIsPrivate() throws IOException {
+		assumeTrue(Files.getFileStore(directory).supportsFileAttributeView(PosixFileAttributeView.class));
+		Path shared = directory.resolve("shared");
+		Files.createDirectory(shared, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwxrwxrwx")));
+		environment.setProperty(Constants.CONVERSION_CACHE_DIR_ENV_VARIABLE, shared.toString());
+		cache().put("key", conversion());
+
+		assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(shared))).isEqualTo("rwx------");
+		assertThat(PosixFilePermissions.toString(
+				Files.getPosixFilePermissions(shared.resolve("key" + ConversionCache.FILE_SUFFIX)))).isEqualTo("rw-------");
+	}
+
+	@Test
+	void testDiskTierNeedsTheBuild() throws IOException {
+		environment.setProperty(Constants.CONVERSION_CACHE_DIR_ENV_VARIABLE, directory.toString());
+		ConversionCache cache = new ConversionCache(environment, new SyncTaskExecutor(), Optional.empty());
+		cache.put("key", conversion());
+
+		assertThat(cache.isEnabled()).isTrue();
+		assertThat(cache.getStatus().isDiskEnabled()).isFalse();
+		try (Stream<Path> files = Files.list(directory)) {
+			assertThat(files.count()).isEqualTo(0L);
+		}
+	}
+
+	@Test
+	void testUnreadableDiskEntryIsAMiss() throws IOException {
+		environment.setProperty(Constants.CONVERSION_CACHE_DIR_ENV_VARIABLE, directory.toString());
+		Path corrupt = directory.resolve("key" + ConversionCache.FILE_SUFFIX);
+		Files.write(corrupt, "not a conversion".getBytes(StandardCharsets.UTF_8));
+
+		ConversionCache cache = cache();
+
+		assertThat(cache.get("key")).isNull();
+		assertThat(cache.getStatus().getMissCount()).isEqualTo(1);
+		assertThat(Files.exists(corrupt)).isFalse();
+	}
+
+	@Test
+	void testDiskTierIsBounded() throws IOException {
+		environment.setProperty(Constants.CONVERSION_CACHE_DIR_ENV_VARIABLE, directory.toString());
+		environment.setProperty(Constants.CONVERSION_CACHE_DISK_SIZE_ENV_VARIABLE, "3");
+		ConversionCache cache = cache();
+		for (int entry = 0; entry < 10; entry++) {
+			cache.put("key" + entry, conversion());
+		}
+
+		try (Stream<Path> files = Files.list(directory)) {
+			assertThat(files.count()).isAtMost(3L);
+		}
+	}
+
+	private ConversionCache cache() {
+		return new ConversionCache(environment, new SyncTaskExecutor(), Optional.of("1.0@1"));
+	}
+
+	private static CachedConversion conversion() {
+		JsonWrapper qpp = new JsonWrapper();
+		qpp.putString("key", "value");
+		return new CachedConversion(new ConversionReport(source("original", "content"),
+				Collections.emptyList(), null, qpp));
+	}
+
+	private static Source source(String name, String content) {
+		return new InputStreamSupplierSource(name,
+				new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,46 @@
+package gov.cms.qpp.conversion.api.services;
+
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.api.model.Constants;
+import gov.cms.qpp.conversion.api.model.StageStatus;
+import gov.cms.qpp.conversion.instrument.Instrumentation;
+import gov.cms.qpp.conversion.instrument.Stage;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class ConversionStageMetricsTest {
+
+	@Test
+	void testOffByDefault() {
+		ConversionStageMetrics metrics = new ConversionStageMetrics(new MockEnvironment());
+		Context context = new Context();
+
+		metrics.instrument(context);
+
+		assertThat(context.getInstrumentation()).isSameAs(Instrumentation.NONE);
+		assertThat(metrics.getStatus()).isEmpty();
+	}
+
+	@Test
+	void testReportsMeasuredStages() {
+		MockEnvironment environment = new MockEnvironment();
+		environment.setProperty(Constants.CONVERSION_INSTRUMENTATION_ENV_VARIABLE, "yes");
+		ConversionStageMetrics metrics = new ConversionStageMetrics(environment);
+		Context context = new Context();
+
+		metrics.instrument(context);
+		context.getInstrumentation().record(Stage.PARSE, 10, 5, 100);
+
+		List<StageStatus> status = metrics.getStatus();
+		assertThat(status).hasSize(1);
+		assertThat(status.get(0).getStage()).isEqualTo(Stage.PARSE);
+		assertThat(status.get(0).getCount()).isEqualTo(1);
+		assertThat(status.get(0).getWallNanos()).isEqualTo(10);
+		assertThat(status.get(0).getCpuNanos()).isEqualTo(5);
+		assertThat(status.get(0).getAllocatedBytes()).isEqualTo(100);
+	}
+}
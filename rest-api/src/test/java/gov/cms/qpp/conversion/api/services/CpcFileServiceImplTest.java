@@ -3,6 +3,8 @@ package gov.cms.qpp.conversion.api.services;
 import gov.cms.qpp.conversion.api.exceptions.InvalidFileTypeException;
 import gov.cms.qpp.conversion.api.exceptions.NoFileInDatabaseException;
 import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.api.model.Page;
+import gov.cms.qpp.conversion.api.model.UnprocessedCpcFileData;
 import gov.cms.qpp.test.MockitoExtension;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -52,9 +54,12 @@ class CpcFileServiceImplTest {
 
 		List<Metadata> metadataList = Stream.generate(Metadata::new).limit(numberOfMetadata).collect(Collectors.toList());
 
-		when(dbService.getUnprocessedCpcPlusMetaData()).thenReturn(metadataList);
+		when(dbService.getUnprocessedCpcPlusMetaData("token", 30)).thenReturn(new Page<>(metadataList, "next"));
 
-		assertThat(objectUnderTest.getUnprocessedCpcPlusFiles()).hasSize(numberOfMetadata);
+		Page<UnprocessedCpcFileData> page = objectUnderTest.getUnprocessedCpcPlusFiles("token", 30);
+
+		assertThat(page.getItems()).hasSize(numberOfMetadata);
+		assertThat(page.getContinuationToken()).isEqualTo("next");
 	}
 
 	@Test
@@ -1,10 +1,16 @@
 package gov.cms.qpp.conversion.api.services;
 
 import gov.cms.qpp.conversion.api.model.Constants;
+import gov.cms.qpp.conversion.api.exceptions.InvalidContinuationTokenException;
 import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.api.model.Page;
 import gov.cms.qpp.test.MockitoExtension;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -12,10 +18,11 @@ import java.util.stream.Stream;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -25,11 +32,14 @@ import static org.mockito.Mockito.when;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,20 +51,19 @@ class DbServiceImplTest {
 	private DynamoDBMapper dbMapper;
 
 	@Mock
-	private TaskExecutor taskExecutor;
+	private MetadataOutbox outbox;
 
 	@Mock
 	private Environment environment;
 
+	private TaskExecutor taskExecutor = new SimpleAsyncTaskExecutor();
+
 	@BeforeEach
 	void before() {
 		Optional<DynamoDBMapper> dbMapperWrapper = Optional.of(dbMapper);
-		underTest = new DbServiceImpl(taskExecutor, dbMapperWrapper, environment);
-		doAnswer(invocationOnMock -> {
-			Runnable method = invocationOnMock.getArgument(0);
-			CompletableFuture.runAsync(method);
-			return null;
-		}).when(taskExecutor).execute(any(Runnable.class));
+		underTest = new DbServiceImpl(outbox, taskExecutor, dbMapperWrapper, environment);
+		when(outbox.add(any(Metadata.class)))
+				.thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
 	}
 
 	@Test
@@ -64,7 +73,7 @@ class DbServiceImplTest {
 		Metadata meta = writeMeta();
 
 		assertThat(meta).isNotNull();
-		verify(dbMapper, times(1)).save(any(Metadata.class));
+		verify(outbox, times(1)).add(any(Metadata.class));
 	}
 
 	@Test
@@ -74,7 +83,7 @@ class DbServiceImplTest {
 		Metadata meta = writeMeta();
 
 		assertThat(meta).isNotNull();
-		verify(dbMapper, times(1)).save(any(Metadata.class));
+		verify(outbox, times(1)).add(any(Metadata.class));
 	}
 
 	@Test
@@ -86,7 +95,7 @@ class DbServiceImplTest {
 
 		Metadata metadataOut = writeMeta(metadataIn);
 
-		verifyZeroInteractions(dbMapper);
+		verifyZeroInteractions(outbox);
 		assertWithMessage("The returned metadata must be an empty metadata.")
 				.that(metadataOut.getUuid()).isNull();
 	}
@@ -100,10 +109,82 @@ class DbServiceImplTest {
 		when(mockMetadataPage.getResults()).thenReturn(Stream.generate(Metadata::new).limit(itemsPerPartition).collect(Collectors.toList()));
 		when(dbMapper.queryPage(eq(Metadata.class), any(DynamoDBQueryExpression.class))).thenReturn(mockMetadataPage);
 
-		List<Metadata> metaDataList = underTest.getUnprocessedCpcPlusMetaData();
+		Page<Metadata> page = underTest.getUnprocessedCpcPlusMetaData(null, 100);
 
 		verify(dbMapper, times(Constants.CPC_DYNAMO_PARTITIONS)).queryPage(eq(Metadata.class), any(DynamoDBQueryExpression.class));
-		assertThat(metaDataList).hasSize(itemsPerPartition * Constants.CPC_DYNAMO_PARTITIONS);
+		assertThat(page.getItems()).hasSize(itemsPerPartition * Constants.CPC_DYNAMO_PARTITIONS);
+		assertThat(page.hasMore()).isFalse();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testUnprocessedCpcPlusMetaDataIsMergedByCreatedDate() {
+		List<Metadata> all = givenUnprocessedPartitions(4);
+
+		Page<Metadata> page = underTest.getUnprocessedCpcPlusMetaData(null, all.size());
+
+		assertThat(page.getItems()).containsExactlyElementsIn(all).inOrder();
+		assertThat(page.hasMore()).isFalse();
+	}
+
+	@Test
+	void testPagingThroughUnprocessedCpcPlusMetaData() {
+		List<Metadata> all = givenUnprocessedPartitions(5);
+
+		List<Metadata> paged = new ArrayList<>();
+		String token = null;
+		int pages = 0;
+		do {
+			Page<Metadata> page = underTest.getUnprocessedCpcPlusMetaData(token, 7);
+			assertThat(page.getItems().size()).isAtMost(7);
+			paged.addAll(page.getItems());
+			token = page.getContinuationToken();
+			pages++;
+		} while (token != null);
+
+		assertThat(paged).containsExactlyElementsIn(all).inOrder();
+		assertThat(pages).isEqualTo((all.size() + 6) / 7);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testPartitionsAreReadAShareOfThePageAtATime() {
+		List<Metadata> all = givenUnprocessedPartitions(3);
+		int pageSize = 2 * Constants.CPC_DYNAMO_PARTITIONS;
+
+		Page<Metadata> page = underTest.getUnprocessedCpcPlusMetaData(null, pageSize);
+
+		ArgumentCaptor<DynamoDBQueryExpression<Metadata>> queries = ArgumentCaptor.forClass(DynamoDBQueryExpression.class);
+		verify(dbMapper, atLeastOnce()).queryPage(eq(Metadata.class), queries.capture());
+		int lookahead = DbServiceImpl.lookahead(pageSize, Constants.CPC_DYNAMO_PARTITIONS);
+		assertThat(lookahead).isEqualTo(2 + DbServiceImpl.LOOKAHEAD_MARGIN);
+		for (DynamoDBQueryExpression<Metadata> query : queries.getAllValues()) {
+			assertThat(query.getLimit()).isAtMost(lookahead);
+		}
+		assertThat(page.getItems()).containsExactlyElementsIn(all.subList(0, pageSize)).inOrder();
+	}
+
+	@Test
+	void testLookaheadIsAShareOfThePage() {
+		assertThat(DbServiceImpl.lookahead(100, 32)).isEqualTo(4 + DbServiceImpl.LOOKAHEAD_MARGIN);
+		assertThat(DbServiceImpl.lookahead(5, 32)).isEqualTo(5);
+		assertThat(DbServiceImpl.lookahead(10, 0)).isEqualTo(10);
+	}
+
+	@Test
+	void testInvalidContinuationToken() {
+		assertThrows(InvalidContinuationTokenException.class,
+				() -> underTest.getUnprocessedCpcPlusMetaData("not a token", 10));
+	}
+
+	@Test
+	void testUnprocessedCpcPlusMetaDataWithoutMapper() {
+		underTest = new DbServiceImpl(outbox, taskExecutor, Optional.empty(), environment);
+
+		Page<Metadata> page = underTest.getUnprocessedCpcPlusMetaData(null, 10);
+
+		assertThat(page.getItems()).isEmpty();
+		assertThat(page.hasMore()).isFalse();
 	}
 
 	@Test
@@ -119,6 +200,53 @@ class DbServiceImplTest {
 		assertThat(fakeMetadata).isNotNull();
 	}
 
+	/**
+	 * Answers partition queries from in memory partitions, a few items at a time, like the index would.
+	 *
+	 * @param itemsPerPartition how many unprocessed items each partition holds
+	 * @return every item, oldest first
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Metadata> givenUnprocessedPartitions(int itemsPerPartition) {
+		Instant start = Instant.parse("2018-03-01T00:00:00Z");
+		Map<String, List<Metadata>> partitions = new HashMap<>();
+		List<Metadata> all = new ArrayList<>();
+		for (int item = 0; item < itemsPerPartition * Constants.CPC_DYNAMO_PARTITIONS; item++) {
+			String cpc = Constants.CPC_DYNAMO_PARTITION_START + (item * 7 % Constants.CPC_DYNAMO_PARTITIONS);
+			Metadata metadata = new Metadata();
+			metadata.setUuid("uuid-" + item);
+			metadata.setCpc(cpc);
+			metadata.setCpcProcessed(false);
+			metadata.setCreatedDate(start.plusSeconds(item));
+			partitions.computeIfAbsent(cpc, ignore -> new ArrayList<>()).add(metadata);
+			all.add(metadata);
+		}
+
+		when(dbMapper.queryPage(eq(Metadata.class), any(DynamoDBQueryExpression.class))).thenAnswer(invocation -> {
+			DynamoDBQueryExpression<Metadata> query = invocation.getArgument(1);
+			List<Metadata> partition = partitions.get(query.getExpressionAttributeValues().get(":cpcValue").getS());
+			int from = 0;
+			if (query.getExclusiveStartKey() != null) {
+				String uuid = query.getExclusiveStartKey().get("Uuid").getS();
+				while (!partition.get(from++).getUuid().equals(uuid)) {
+					assertThat(from).isLessThan(partition.size());
+				}
+			}
+			int to = Math.min(partition.size(), from + Math.min(query.getLimit(), 2));
+
+			QueryResultPage<Metadata> page = new QueryResultPage<>();
+			page.setResults(new ArrayList<>(partition.subList(from, to)));
+			if (to < partition.size()) {
+				Map<String, AttributeValue> lastKey = new HashMap<>();
+				lastKey.put("Uuid", new AttributeValue().withS(partition.get(to - 1).getUuid()));
+				page.setLastEvaluatedKey(lastKey);
+			}
+			return page;
+		});
+
+		return all;
+	}
+
 	private Metadata writeMeta() {
 		return writeMeta(new Metadata());
 	}
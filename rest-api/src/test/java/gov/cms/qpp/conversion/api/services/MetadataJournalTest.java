@@ -0,0 +1,174 @@
+package gov.cms.qpp.conversion.api.services;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.AttributeEncryptor;
+import com.amazonaws.services.dynamodbv2.datamodeling.AttributeTransformer;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.encryption.providers.SymmetricStaticProvider;
+import gov.cms.qpp.conversion.api.model.Metadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+
+class MetadataJournalTest {
+
+	static final String TABLE_NAME = "ConversionMetadata";
+
+	private Path directory;
+	private DynamoDBMapperTableModel<Metadata> model;
+	private AttributeTransformer transformer;
+
+	@BeforeEach
+	void setup() throws IOException {
+		directory = Files.createTempDirectory("journal");
+		model = new DynamoDBMapper(mock(AmazonDynamoDB.class)).getTableModel(Metadata.class);
+		transformer = transformer();
+	}
+
+	@Test
+	void testNewJournalHasNothingOutstanding() throws IOException {
+		try (MetadataJournal journal = new MetadataJournal(directory, model, transformer, TABLE_NAME)) {
+			assertThat(journal.outstanding()).isEmpty();
+		}
+		assertThat(Files.exists(directory.resolve(MetadataJournal.FILE_NAME))).isTrue();
+	}
+
+	@Test
+	void testAddedItemIsOutstandingAfterReopening() throws IOException {
+		Metadata metadata = metadata("first");
+		metadata.setTin("123456789");
+		metadata.setCpc("CPC_2");
+		metadata.setCpcProcessed(false);
+		metadata.setOverallStatus(true);
+
+		try (MetadataJournal journal = new MetadataJournal(directory, model, transformer, TABLE_NAME)) {
+			journal.add(metadata);
+		}
+
+		try (MetadataJournal journal = new MetadataJournal(directory, model, transformer, TABLE_NAME)) {
+			List<Metadata> outstanding = journal.outstanding();
+			assertThat(outstanding).hasSize(1);
+			assertThat(outstanding.get(0)).isEqualTo(metadata);
+		}
+	}
+
+	@Test
+	void testWrittenItemIsNotOutstandingAfterReopening() throws IOException {
+		try (MetadataJournal journal = new MetadataJournal(directory, model, transformer, TABLE_NAME)) {
+			journal.add(metadata("first"));
+			journal.add(metadata("second"));
+			journal.written(Collections.singleton("first"));
+		}
+
+		try (MetadataJournal journal = new MetadataJournal(directory, model, transformer, TABLE_NAME)) {
+			assertThat(journal.outstanding()).hasSize(1);
+			assertThat(journal.outstanding().get(0).getUuid()).isEqualTo("second");
+		}
+	}
+
+	@Test
+	void testJournalIsEmptiedWhenEverythingIsWritten() throws IOException {
+		try (MetadataJournal journal = new MetadataJournal(directory, model, transformer, TABLE_NAME)) {
+			journal.add(metadata("first"));
+			journal.written(Collections.singleton("first"));
+		}
+
+		assertThat(Files.size(directory.resolve(MetadataJournal.FILE_NAME))).isEqualTo(0L);
+	}
+
+	@Test
+	void testReopeningCompactsWrittenItems() throws IOException {
+		try (MetadataJournal journal = new MetadataJournal(directory, model, transformer, TABLE_NAME)) {
+			journal.add(metadata("first"));
+			journal.add(metadata("second"));
+			journal.written(Collections.singleton("first"));
+		}
+
+		new MetadataJournal(directory, model, transformer, TABLE_NAME).close();
+
+		List<String> lines = Files.readAllLines(directory.resolve(MetadataJournal.FILE_NAME), StandardCharsets.UTF_8);
+		assertThat(lines).hasSize(1);
+		assertThat(lines.get(0)).contains("second");
+	}
+
+	@Test
+	void testIncompleteLastEntryIsIgnored() throws IOException {
+		try (MetadataJournal journal = new MetadataJournal(directory, model, transformer, TABLE_NAME)) {
+			journal.add(metadata("first"));
+		}
+		Files.write(directory.resolve(MetadataJournal.FILE_NAME), "+{\"Uuid\":{\"S\":".getBytes(StandardCharsets.UTF_8),
+				StandardOpenOption.APPEND);
+
+		try (MetadataJournal journal = new MetadataJournal(directory, model, transformer, TABLE_NAME)) {
+			assertThat(journal.outstanding()).hasSize(1);
+		}
+	}
+
+	@Test
+	void testUnreadableEntryDoesNotLoseTheEntriesAfterIt() throws IOException {
+		try (MetadataJournal journal = new MetadataJournal(directory, model, transformer, TABLE_NAME)) {
+			journal.add(metadata("first"));
+		}
+		String unreadable = "+{\"Uuid\":{\"S\":\n"
+				+ "+{\"NoUuid\":{}}\n"
+				+ "+\u00ff\n"
+				+ "+{\"Uuid\":{\"S\":\"odd\"},\"Tin\":{\"L\":[]}}\n";
+		Files.write(directory.resolve(MetadataJournal.FILE_NAME), unreadable.getBytes(StandardCharsets.ISO_8859_1),
+				StandardOpenOption.APPEND);
+		try (MetadataJournal journal = new MetadataJournal(directory, model, transformer, TABLE_NAME)) {
+			journal.add(metadata("second"));
+		}
+
+		try (MetadataJournal journal = new MetadataJournal(directory, model, transformer, TABLE_NAME)) {
+			List<Metadata> outstanding = journal.outstanding();
+			assertThat(outstanding).hasSize(2);
+			assertThat(outstanding.get(0).getUuid()).isEqualTo("first");
+			assertThat(outstanding.get(1).getUuid()).isEqualTo("second");
+		}
+	}
+
+	@Test
+	void testTinIsEncryptedInTheJournal() throws IOException {
+		Metadata metadata = metadata("first");
+		metadata.setTin("123456789");
+
+		try (MetadataJournal journal = new MetadataJournal(directory, model, transformer, TABLE_NAME)) {
+			journal.add(metadata);
+		}
+
+		String journaled = new String(Files.readAllBytes(directory.resolve(MetadataJournal.FILE_NAME)),
+				StandardCharsets.UTF_8);
+		assertThat(journaled).contains("first");
+		assertThat(journaled).doesNotContain("123456789");
+	}
+
+	/**
+	 * Encrypts as the mapper does, with fixed keys in place of KMS.
+	 *
+	 * @return an attribute transformer
+	 */
+	static AttributeTransformer transformer() {
+		byte[] key = new byte[32];
+		return new AttributeEncryptor(new SymmetricStaticProvider(new SecretKeySpec(key, 0, 16, "AES"),
+				new SecretKeySpec(key, "HmacSHA256")));
+	}
+
+	private Metadata metadata(String uuid) {
+		Metadata metadata = new Metadata();
+		metadata.setUuid(uuid);
+		metadata.setFileName(uuid + ".xml");
+		return metadata;
+	}
+}
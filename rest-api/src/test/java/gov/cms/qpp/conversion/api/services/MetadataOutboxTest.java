@@ -0,0 +1,238 @@
+package gov.cms.qpp.conversion.api.services;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.AttributeTransformer;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import gov.cms.qpp.conversion.api.exceptions.AuditException;
+import gov.cms.qpp.conversion.api.model.Constants;
+import gov.cms.qpp.conversion.api.model.Metadata;
+import gov.cms.qpp.conversion.api.model.OutboxStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MetadataOutboxTest {
+
+	private AmazonDynamoDB dynamoDb;
+	private DynamoDBMapper mapper;
+	private AttributeTransformer transformer;
+	private MockEnvironment environment;
+	private MetadataOutbox outbox;
+
+	@BeforeEach
+	void setup() {
+		dynamoDb = mock(AmazonDynamoDB.class);
+		when(dynamoDb.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(processed());
+		mapper = new DynamoDBMapper(dynamoDb);
+		transformer = MetadataJournalTest.transformer();
+		environment = new MockEnvironment();
+	}
+
+	@AfterEach
+	void teardown() {
+		if (outbox != null) {
+			outbox.stop();
+		}
+	}
+
+	@Test
+	void testWriteAssignsUuid() {
+		outbox = new MetadataOutbox(Optional.of(mapper), Optional.of(transformer), environment);
+		outbox.start();
+
+		Metadata written = outbox.add(new Metadata()).join();
+
+		assertThat(written.getUuid()).isNotNull();
+		verify(dynamoDb, times(1)).batchWriteItem(any(BatchWriteItemRequest.class));
+	}
+
+	@Test
+	void testQueuedItemsAreWrittenInBatches() {
+		outbox = new MetadataOutbox(Optional.of(mapper), Optional.of(transformer), environment);
+		List<CompletableFuture<Metadata>> futures = new ArrayList<>();
+		for (int item = 0; item < MetadataOutbox.BATCH_SIZE + 5; item++) {
+			futures.add(outbox.add(new Metadata()));
+		}
+
+		outbox.start();
+		futures.forEach(CompletableFuture::join);
+
+		ArgumentCaptor<BatchWriteItemRequest> requests = ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+		verify(dynamoDb, times(2)).batchWriteItem(requests.capture());
+		assertThat(batchSize(requests.getAllValues().get(0))).isEqualTo(MetadataOutbox.BATCH_SIZE);
+		assertThat(batchSize(requests.getAllValues().get(1))).isEqualTo(5);
+		assertThat(outbox.getStatus().getWrittenCount()).isEqualTo(MetadataOutbox.BATCH_SIZE + 5L);
+		assertThat(outbox.getStatus().getDepth()).isEqualTo(0);
+	}
+
+	@Test
+	void testSameItemQueuedTwiceIsWrittenOnce() {
+		outbox = new MetadataOutbox(Optional.of(mapper), Optional.of(transformer), environment);
+		Metadata metadata = new Metadata();
+		CompletableFuture<Metadata> first = outbox.add(metadata);
+		CompletableFuture<Metadata> second = outbox.add(metadata);
+
+		outbox.start();
+
+		assertThat(first.join()).isSameAs(metadata);
+		assertThat(second.join()).isSameAs(metadata);
+		ArgumentCaptor<BatchWriteItemRequest> requests = ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+		verify(dynamoDb, times(1)).batchWriteItem(requests.capture());
+		assertThat(batchSize(requests.getValue())).isEqualTo(1);
+	}
+
+	@Test
+	void testFailedWriteIsRetried() {
+		when(dynamoDb.batchWriteItem(any(BatchWriteItemRequest.class)))
+				.thenThrow(new AmazonServiceException("throttled"))
+				.thenReturn(processed());
+		outbox = new MetadataOutbox(Optional.of(mapper), Optional.of(transformer), environment);
+		outbox.setBackoff(1, 1, TimeUnit.MILLISECONDS);
+		outbox.start();
+
+		Metadata written = outbox.add(new Metadata()).join();
+
+		assertThat(written).isNotNull();
+		verify(dynamoDb, times(2)).batchWriteItem(any(BatchWriteItemRequest.class));
+		assertThat(outbox.getStatus().getRetryCount()).isEqualTo(1L);
+	}
+
+	@Test
+	void testWriteFailsAfterTooManyAttempts() {
+		when(dynamoDb.batchWriteItem(any(BatchWriteItemRequest.class)))
+				.thenThrow(new AmazonServiceException("broken"));
+		outbox = new MetadataOutbox(Optional.of(mapper), Optional.of(transformer), environment);
+		outbox.setBackoff(1, 1, TimeUnit.MILLISECONDS);
+		outbox.start();
+
+		CompletableFuture<Metadata> result = outbox.add(new Metadata());
+
+		CompletionException exception = assertThrows(CompletionException.class, result::join);
+		assertThat(exception).hasCauseThat().isInstanceOf(AuditException.class);
+		verify(dynamoDb, times(MetadataOutbox.MAX_ATTEMPTS)).batchWriteItem(any(BatchWriteItemRequest.class));
+	}
+
+	@Test
+	void testFullOutboxRejectsWrites() {
+		environment.setProperty(Constants.AUDIT_OUTBOX_CAPACITY_ENV_VARIABLE, "1");
+		environment.setProperty(Constants.AUDIT_OUTBOX_OFFER_TIMEOUT_ENV_VARIABLE, "1");
+		outbox = new MetadataOutbox(Optional.of(mapper), Optional.of(transformer), environment);
+
+		outbox.add(new Metadata());
+		CompletableFuture<Metadata> rejected = outbox.add(new Metadata());
+
+		CompletionException exception = assertThrows(CompletionException.class, rejected::join);
+		assertThat(exception).hasCauseThat().isInstanceOf(AuditException.class);
+		OutboxStatus status = outbox.getStatus();
+		assertThat(status.getCapacity()).isEqualTo(1);
+		assertThat(status.getDepth()).isEqualTo(1);
+		assertThat(status.getRejectedCount()).isEqualTo(1L);
+	}
+
+	@Test
+	void testStoppedOutboxRejectsWrites() {
+		outbox = new MetadataOutbox(Optional.of(mapper), Optional.of(transformer), environment);
+		outbox.start();
+		outbox.stop();
+
+		CompletableFuture<Metadata> rejected = outbox.add(new Metadata());
+
+		CompletionException exception = assertThrows(CompletionException.class, rejected::join);
+		assertThat(exception).hasCauseThat().isInstanceOf(AuditException.class);
+		assertThat(outbox.getStatus().getRejectedCount()).isEqualTo(1L);
+		assertThat(outbox.getStatus().getDepth()).isEqualTo(0);
+	}
+
+	@Test
+	void testUnwrittenItemsFailWhenStopped() {
+		outbox = new MetadataOutbox(Optional.of(mapper), Optional.of(transformer), environment);
+		CompletableFuture<Metadata> unwritten = outbox.add(new Metadata());
+
+		outbox.stop();
+
+		CompletionException exception = assertThrows(CompletionException.class, unwritten::join);
+		assertThat(exception).hasCauseThat().isInstanceOf(AuditException.class);
+		assertThat(outbox.getStatus().getDepth()).isEqualTo(0);
+	}
+
+	@Test
+	void testInvalidCapacityUsesDefault() {
+		environment.setProperty(Constants.AUDIT_OUTBOX_CAPACITY_ENV_VARIABLE, "lots");
+		outbox = new MetadataOutbox(Optional.of(mapper), Optional.of(transformer), environment);
+
+		assertThat(outbox.getStatus().getCapacity()).isEqualTo(MetadataOutbox.DEFAULT_CAPACITY);
+	}
+
+	@Test
+	void testAbsentMapperWritesNothing() {
+		outbox = new MetadataOutbox(Optional.empty(), Optional.empty(), environment);
+		outbox.start();
+		Metadata metadata = new Metadata();
+
+		assertThat(outbox.add(metadata).join()).isSameAs(metadata);
+		assertThat(outbox.getStatus().getDepth()).isEqualTo(0);
+	}
+
+	@Test
+	void testJournaledItemsAreWrittenAfterRestart() throws IOException {
+		Path directory = Files.createTempDirectory("outbox");
+		environment.setProperty(Constants.AUDIT_OUTBOX_DIR_ENV_VARIABLE, directory.toString());
+		Metadata unwritten = new Metadata();
+		unwritten.setUuid("unwritten");
+		try (MetadataJournal journal = new MetadataJournal(directory, mapper.getTableModel(Metadata.class), transformer,
+				MetadataJournalTest.TABLE_NAME)) {
+			journal.add(unwritten);
+		}
+
+		outbox = new MetadataOutbox(Optional.of(mapper), Optional.of(transformer), environment);
+		outbox.start();
+		outbox.add(new Metadata()).join();
+		outbox.stop();
+
+		assertThat(outbox.getStatus().isJournaled()).isTrue();
+		assertThat(outbox.getStatus().getWrittenCount()).isEqualTo(2L);
+		assertThat(Files.size(directory.resolve(MetadataJournal.FILE_NAME))).isEqualTo(0L);
+	}
+
+	@Test
+	void testJournalIsNotKeptWithoutEncryption() throws IOException {
+		Path directory = Files.createTempDirectory("outbox");
+		environment.setProperty(Constants.AUDIT_OUTBOX_DIR_ENV_VARIABLE, directory.toString());
+		MetadataOutbox unencrypted = new MetadataOutbox(Optional.of(mapper), Optional.empty(), environment);
+
+		assertThrows(IllegalStateException.class, unencrypted::start);
+		assertThat(Files.exists(directory.resolve(MetadataJournal.FILE_NAME))).isFalse();
+	}
+
+	private static BatchWriteItemResult processed() {
+		return new BatchWriteItemResult().withUnprocessedItems(Collections.emptyMap());
+	}
+
+	private static int batchSize(BatchWriteItemRequest request) {
+		return request.getRequestItems().values().stream().mapToInt(List::size).sum();
+	}
+}
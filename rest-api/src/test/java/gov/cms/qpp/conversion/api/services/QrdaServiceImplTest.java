@@ -4,21 +4,36 @@ import gov.cms.qpp.conversion.ConversionReport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Spy;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
 
+import gov.cms.qpp.conversion.Context;
 import gov.cms.qpp.conversion.Converter;
 import gov.cms.qpp.conversion.InputStreamSupplierSource;
 import gov.cms.qpp.conversion.Source;
+import gov.cms.qpp.conversion.api.model.Constants;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.instrument.Instrumentation;
+import gov.cms.qpp.conversion.instrument.StageStatistics;
 import gov.cms.qpp.conversion.model.error.AllErrors;
+import gov.cms.qpp.conversion.model.error.Detail;
 import gov.cms.qpp.conversion.model.error.Error;
+import gov.cms.qpp.conversion.model.error.ErrorCode;
 import gov.cms.qpp.conversion.model.error.TransformException;
 import gov.cms.qpp.test.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.util.Collections;
 
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.mock;
 import static org.powermock.api.mockito.PowerMockito.when;
 
@@ -33,18 +48,11 @@ class QrdaServiceImplTest {
 	private static final String MOCK_SUCCESS_QPP_STRING = "Good Qpp";
 	private static final String MOCK_ERROR_SOURCE_IDENTIFIER = "Error Identifier";
 
-	@Spy
 	private QrdaServiceImpl objectUnderTest;
 
 	@BeforeEach
 	void mockConverter() {
-		Converter success = successConverter();
-		when(objectUnderTest.initConverter(MOCK_SUCCESS_QRDA_SOURCE))
-				.thenReturn(success);
-
-		Converter error = errorConverter();
-		when(objectUnderTest.initConverter(MOCK_ERROR_QRDA_SOURCE))
-				.thenReturn(error);
+		objectUnderTest = service(new MockEnvironment());
 	}
 
 	@Test
@@ -61,11 +69,110 @@ class QrdaServiceImplTest {
 		assertThat(allErrors.getErrors().get(0).getSourceIdentifier()).isSameAs(MOCK_ERROR_SOURCE_IDENTIFIER);
 	}
 
+	@Test
+	void testConvertQrda3ToQppReusesCachedConversion() {
+		objectUnderTest = cachingService();
+		Source valid = new InputStreamSupplierSource("Valid Qrda", new ByteArrayInputStream("Valid".getBytes()));
+		Source again = new InputStreamSupplierSource("Valid Qrda again", new ByteArrayInputStream("Valid".getBytes()));
+		doReturn(validConverter(valid)).when(objectUnderTest).initConverter(eq(valid), any(Context.class));
+
+		objectUnderTest.convertQrda3ToQpp(valid);
+		ConversionReport report = objectUnderTest.convertQrda3ToQpp(again);
+
+		verify(objectUnderTest, times(1)).initConverter(any(Source.class), any(Context.class));
+		assertThat(report.getEncoded().getString(KEY)).isEqualTo(MOCK_SUCCESS_QPP_STRING);
+		assertThat(report.getReportDetails().getErrors().get(0).getSourceIdentifier()).isEqualTo("Valid Qrda again");
+	}
+
+	@Test
+	void testConvertQrda3ToQppReusesCachedFailure() {
+		objectUnderTest = cachingService();
+		Source invalid = new InputStreamSupplierSource("Invalid Qrda", new ByteArrayInputStream("Invalid".getBytes()));
+		Source again = new InputStreamSupplierSource("Invalid Qrda again", new ByteArrayInputStream("Invalid".getBytes()));
+		doReturn(invalidConverter(invalid, ErrorCode.NOT_VALID_XML_DOCUMENT))
+				.when(objectUnderTest).initConverter(eq(invalid), any(Context.class));
+
+		assertThrows(TransformException.class, () -> objectUnderTest.convertQrda3ToQpp(invalid));
+		TransformException exception = assertThrows(TransformException.class,
+				() -> objectUnderTest.convertQrda3ToQpp(again));
+
+		verify(objectUnderTest, times(1)).initConverter(any(Source.class), any(Context.class));
+		Error error = exception.getDetails().getErrors().get(0);
+		assertThat(error.getSourceIdentifier()).isEqualTo("Invalid Qrda again");
+		assertThat(error.getDetails().get(0).getErrorCode()).isEqualTo(ErrorCode.NOT_VALID_XML_DOCUMENT.getCode());
+	}
+
+	@Test
+	void testConvertQrda3ToQppDoesNotCacheUnexpectedErrors() {
+		objectUnderTest = cachingService();
+		Source broken = new InputStreamSupplierSource("Broken Qrda", new ByteArrayInputStream("Broken".getBytes()));
+		doReturn(invalidConverter(broken, ErrorCode.UNEXPECTED_ERROR))
+				.when(objectUnderTest).initConverter(eq(broken), any(Context.class));
+
+		assertThrows(TransformException.class, () -> objectUnderTest.convertQrda3ToQpp(broken));
+		assertThrows(TransformException.class, () -> objectUnderTest.convertQrda3ToQpp(broken));
+
+		verify(objectUnderTest, times(2)).initConverter(any(Source.class), any(Context.class));
+	}
+
+	@Test
+	void testConvertQrda3ToQppIsInstrumented() {
+		MockEnvironment environment = new MockEnvironment();
+		environment.setProperty(Constants.CONVERSION_INSTRUMENTATION_ENV_VARIABLE, "yes");
+		objectUnderTest = service(environment);
+		ArgumentCaptor<Context> context = ArgumentCaptor.forClass(Context.class);
+
+		objectUnderTest.convertQrda3ToQpp(MOCK_SUCCESS_QRDA_SOURCE);
+
+		verify(objectUnderTest).initConverter(eq(MOCK_SUCCESS_QRDA_SOURCE), context.capture());
+		assertThat(context.getValue().getInstrumentation()).isInstanceOf(StageStatistics.class);
+	}
+
+	@Test
+	void testConvertQrda3ToQppIsNotInstrumentedByDefault() {
+		ArgumentCaptor<Context> context = ArgumentCaptor.forClass(Context.class);
+
+		objectUnderTest.convertQrda3ToQpp(MOCK_SUCCESS_QRDA_SOURCE);
+
+		verify(objectUnderTest).initConverter(eq(MOCK_SUCCESS_QRDA_SOURCE), context.capture());
+		assertThat(context.getValue().getInstrumentation()).isSameAs(Instrumentation.NONE);
+	}
+
 	@Test
 	void testPostConstructForCoverage() {
 		objectUnderTest.preloadMeasureConfigs();
 	}
 
+	private QrdaServiceImpl cachingService() {
+		MockEnvironment environment = new MockEnvironment();
+		environment.setProperty(Constants.CONVERSION_CACHE_SIZE_ENV_VARIABLE, "10");
+		return service(environment);
+	}
+
+	private QrdaServiceImpl service(MockEnvironment environment) {
+		QrdaServiceImpl service = spy(new QrdaServiceImpl(new ConversionCache(environment, new SyncTaskExecutor()),
+				new ConversionStageMetrics(environment)));
+		doReturn(successConverter()).when(service).initConverter(eq(MOCK_SUCCESS_QRDA_SOURCE), any(Context.class));
+		doReturn(errorConverter()).when(service).initConverter(eq(MOCK_ERROR_QRDA_SOURCE), any(Context.class));
+		return service;
+	}
+
+	private Converter validConverter(Source source) {
+		Converter mockConverter = mock(Converter.class);
+		JsonWrapper qpp = new JsonWrapper();
+		qpp.putString(KEY, MOCK_SUCCESS_QPP_STRING);
+		when(mockConverter.getReport()).thenReturn(new ConversionReport(source, Collections.emptyList(), null, qpp));
+		return mockConverter;
+	}
+
+	private Converter invalidConverter(Source source, ErrorCode errorCode) {
+		Converter mockConverter = mock(Converter.class);
+		ConversionReport report = new ConversionReport(source,
+				Collections.singletonList(Detail.forErrorCode(errorCode)), null, null);
+		when(mockConverter.transform()).thenThrow(new TransformException("Validation errors exist", null, report));
+		return mockConverter;
+	}
+
 	private Converter successConverter() {
 		Converter mockConverter = mock(Converter.class);
 
@@ -0,0 +1,66 @@
+package gov.cms.qpp.conversion.api.services;
+
+import gov.cms.qpp.conversion.api.exceptions.InvalidContinuationTokenException;
+import gov.cms.qpp.conversion.api.model.Constants;
+import gov.cms.qpp.conversion.api.model.Metadata;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Base64;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UnprocessedCpcCursorTest {
+
+	@Test
+	void testStartHasNoStartKeys() {
+		UnprocessedCpcCursor cursor = UnprocessedCpcCursor.fromToken(null);
+
+		assertThat(cursor.isDone()).isFalse();
+		assertThat(cursor.startKey(0)).isNull();
+	}
+
+	@Test
+	void testTokenRoundTrip() {
+		Metadata last = new Metadata();
+		last.setUuid("some-uuid");
+		last.setCpcProcessed(false);
+		last.setCreatedDate(Instant.parse("2018-03-01T00:00:00Z"));
+		UnprocessedCpcCursor cursor = UnprocessedCpcCursor.start();
+		cursor.advance(3, last);
+		cursor.finish(4);
+
+		UnprocessedCpcCursor read = UnprocessedCpcCursor.fromToken(cursor.toToken());
+
+		assertThat(read.startKey(3).get(UnprocessedCpcCursor.UUID_ATTRIBUTE).getS()).isEqualTo("some-uuid");
+		assertThat(read.startKey(3).get(Constants.DYNAMO_CPC_ATTRIBUTE).getS()).isEqualTo("CPC_3");
+		assertThat(read.startKey(3).get(Constants.DYNAMO_CPC_PROCESSED_CREATE_DATE_ATTRIBUTE).getS())
+				.isEqualTo("false#2018-03-01T00:00:00Z");
+		assertThat(read.isDone(4)).isTrue();
+		assertThat(read.isDone(5)).isFalse();
+	}
+
+	@Test
+	void testNoTokenOnceEveryPartitionIsDone() {
+		UnprocessedCpcCursor cursor = UnprocessedCpcCursor.start();
+		for (int partition = 0; partition < Constants.CPC_DYNAMO_PARTITIONS; partition++) {
+			cursor.finish(partition);
+		}
+
+		assertThat(cursor.isDone()).isTrue();
+		assertThat(cursor.toToken()).isNull();
+	}
+
+	@Test
+	void testGarbageTokenIsRejected() {
+		assertThrows(InvalidContinuationTokenException.class, () -> UnprocessedCpcCursor.fromToken("%%%"));
+	}
+
+	@Test
+	void testOutOfRangePartitionIsRejected() {
+		String token = Base64.getUrlEncoder().encodeToString("{\"99\":[]}".getBytes());
+
+		assertThrows(InvalidContinuationTokenException.class, () -> UnprocessedCpcCursor.fromToken(token));
+	}
+}
@@ -0,0 +1,142 @@
+package gov.cms.qpp.conversion.api.services;
+
+import gov.cms.qpp.conversion.api.exceptions.SpoolCapacityException;
+import gov.cms.qpp.conversion.api.model.Constants;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class UploadSpoolTest {
+
+	private static final int THRESHOLD = 16;
+
+	private Path directory;
+	private MockEnvironment environment;
+
+	@BeforeEach
+	void setup() throws IOException {
+		directory = Files.createTempDirectory("spool");
+		environment = new MockEnvironment()
+				.withProperty(Constants.UPLOAD_SPOOL_THRESHOLD_ENV_VARIABLE, String.valueOf(THRESHOLD))
+				.withProperty(Constants.UPLOAD_SPOOL_DIR_ENV_VARIABLE, directory.toString());
+	}
+
+	@AfterEach
+	void teardown() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+
+	@Test
+	void testSmallUploadStaysInMemory() throws IOException {
+		UploadSpool spool = new UploadSpool(environment);
+
+		try (SpooledSource source = spool.spool("small.xml", content(THRESHOLD), "Test")) {
+			assertThat(source.isOnDisk()).isFalse();
+			assertThat(source.getName()).isEqualTo("small.xml");
+			assertThat(source.getPurpose()).isEqualTo("Test");
+			assertThat(source.getSize()).isEqualTo(THRESHOLD);
+			assertThat(read(source)).isEqualTo(bytes(THRESHOLD));
+			assertThat(read(source)).isEqualTo(bytes(THRESHOLD));
+		}
+		assertThat(spoolFiles()).isEqualTo(0);
+	}
+
+	@Test
+	void testLargeUploadIsSpooledToDisk() throws IOException {
+		UploadSpool spool = new UploadSpool(environment);
+
+		try (SpooledSource source = spool.spool("large.xml", content(THRESHOLD * 100 + 1), null)) {
+			assertThat(source.isOnDisk()).isTrue();
+			assertThat(source.getSize()).isEqualTo(THRESHOLD * 100 + 1);
+			assertThat(read(source)).isEqualTo(bytes(THRESHOLD * 100 + 1));
+			assertThat(spool.getSpooledBytes()).isEqualTo(THRESHOLD * 100 + 1);
+			assertThat(spoolFiles()).isEqualTo(1);
+		}
+
+		assertThat(spool.getSpooledBytes()).isEqualTo(0);
+		assertThat(spoolFiles()).isEqualTo(0);
+	}
+
+	@Test
+	void testRetainedUploadOutlivesTheFirstHolder() throws IOException {
+		UploadSpool spool = new UploadSpool(environment);
+		SpooledSource source = spool.spool("large.xml", content(THRESHOLD * 2), null);
+
+		SpooledSource retained = source.retain();
+		source.close();
+		assertThat(read(retained)).isEqualTo(bytes(THRESHOLD * 2));
+
+		retained.close();
+		retained.close();
+		assertThat(spoolFiles()).isEqualTo(0);
+		Assertions.assertThrows(IllegalStateException.class, source::toInputStream);
+		Assertions.assertThrows(IllegalStateException.class, source::retain);
+	}
+
+	@Test
+	void testFullSpoolRefusesUploads() throws IOException {
+		environment.setProperty(Constants.UPLOAD_SPOOL_CAPACITY_ENV_VARIABLE, String.valueOf(THRESHOLD * 3));
+		UploadSpool spool = new UploadSpool(environment);
+
+		try (SpooledSource first = spool.spool("first.xml", content(THRESHOLD * 2), null)) {
+			SpoolCapacityException exception = Assertions.assertThrows(SpoolCapacityException.class,
+					() -> spool.spool("second.xml", content(THRESHOLD * 2), null));
+
+			assertThat(exception).hasMessageThat().contains("full");
+			assertThat(spool.getSpooledBytes()).isEqualTo(THRESHOLD * 2);
+			assertThat(spoolFiles()).isEqualTo(1);
+		}
+
+		spool.spool("third.xml", content(THRESHOLD * 2), null).close();
+	}
+
+	@Test
+	void testInvalidSettingsUseDefaults() {
+		environment.setProperty(Constants.UPLOAD_SPOOL_THRESHOLD_ENV_VARIABLE, "lots");
+		UploadSpool spool = new UploadSpool(environment);
+
+		try (SpooledSource source = spool.spool("small.xml", content(THRESHOLD * 2), null)) {
+			assertThat(source.isOnDisk()).isFalse();
+		}
+	}
+
+	private long spoolFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+
+	private static byte[] read(SpooledSource source) throws IOException {
+		try (InputStream stream = source.toInputStream()) {
+			return IOUtils.toByteArray(stream);
+		}
+	}
+
+	private static InputStream content(int length) {
+		return new ByteArrayInputStream(bytes(length));
+	}
+
+	private static byte[] bytes(int length) {
+		byte[] bytes = new byte[length];
+		Arrays.fill(bytes, (byte) 'q');
+		return bytes;
+	}
+}
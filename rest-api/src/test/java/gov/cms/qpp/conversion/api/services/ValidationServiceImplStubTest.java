@@ -0,0 +1,171 @@
+package gov.cms.qpp.conversion.api.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import gov.cms.qpp.conversion.ConversionReport;
+import gov.cms.qpp.conversion.InputStreamSupplierSource;
+import gov.cms.qpp.conversion.api.model.Constants;
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.model.error.QppValidationException;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPInputStream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+/**
+ * Calls the validation API as served by a stub on the loopback interface.
+ */
+class ValidationServiceImplStubTest {
+
+	private HttpServer server;
+	private MockEnvironment environment;
+	private ValidationServiceImpl objectUnderTest;
+	private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+	private final List<String> encodings = new CopyOnWriteArrayList<>();
+	private final List<String> bodies = new CopyOnWriteArrayList<>();
+	private volatile int status = 200;
+	private volatile byte[] response = "{}".getBytes(StandardCharsets.UTF_8);
+	private volatile long delay;
+
+	@BeforeEach
+	void setup() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/validate", this::handle);
+		server.start();
+
+		environment = new MockEnvironment().withProperty(Constants.VALIDATION_URL_ENV_VARIABLE,
+				"http://127.0.0.1:" + server.getAddress().getPort() + "/validate");
+	}
+
+	@AfterEach
+	void teardown() {
+		if (objectUnderTest != null) {
+			objectUnderTest.close();
+		}
+		server.stop(0);
+	}
+
+	@Test
+	void testQppIsStreamedCompact() {
+		objectUnderTest = new ValidationServiceImpl(environment);
+
+		objectUnderTest.validateQpp(report());
+
+		assertThat(encodings).containsExactly("identity");
+		assertThat(bodies).containsExactly("{\"performanceYear\":2017}");
+	}
+
+	@Test
+	void testQppIsGzipped() {
+		environment.setProperty(Constants.VALIDATION_GZIP_ENV_VARIABLE, "true");
+		objectUnderTest = new ValidationServiceImpl(environment);
+
+		objectUnderTest.validateQpp(report());
+
+		assertThat(encodings).containsExactly(ValidationServiceImpl.GZIP);
+		assertThat(bodies).containsExactly("{\"performanceYear\":2017}");
+	}
+
+	@Test
+	void testConnectionIsKeptAlive() {
+		objectUnderTest = new ValidationServiceImpl(environment);
+
+		for (int i = 0; i < 3; i++) {
+			objectUnderTest.validateQpp(report());
+		}
+
+		assertThat(clientPorts).hasSize(3);
+		assertThat(clientPorts.stream().distinct().count()).isEqualTo(1);
+	}
+
+	@Test
+	void testSlowValidationTimesOut() {
+		environment.setProperty(Constants.VALIDATION_READ_TIMEOUT_ENV_VARIABLE, "100");
+		objectUnderTest = new ValidationServiceImpl(environment);
+		delay = 1000;
+
+		Assertions.assertThrows(ResourceAccessException.class, () -> objectUnderTest.validateQpp(report()));
+	}
+
+	@Test
+	void testAsyncValidationPasses() throws InterruptedException, ExecutionException {
+		objectUnderTest = new ValidationServiceImpl(environment);
+
+		objectUnderTest.validateQppAsync(report()).get();
+
+		assertThat(bodies).hasSize(1);
+	}
+
+	@Test
+	void testAsyncValidationFails() throws IOException, InterruptedException {
+		status = 422;
+		response = Files.readAllBytes(Paths.get("src/test/resources/submissionErrorFixture.json"));
+		objectUnderTest = new ValidationServiceImpl(environment);
+		ConversionReport report = report();
+
+		CompletableFuture<Void> validation = objectUnderTest.validateQppAsync(report);
+
+		ExecutionException thrown = Assertions.assertThrows(ExecutionException.class, validation::get);
+		assertThat(thrown).hasCauseThat().isInstanceOf(QppValidationException.class);
+		assertThat(report.getReportDetails().getErrors().get(0).getDetails()).isNotEmpty();
+	}
+
+	@Test
+	void testAsyncValidationWithoutUrlIsDone() {
+		objectUnderTest = new ValidationServiceImpl(new MockEnvironment());
+
+		assertThat(objectUnderTest.validateQppAsync(report()).isDone()).isTrue();
+		assertThat(bodies).isEmpty();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		clientPorts.add(exchange.getRemoteAddress().getPort());
+		String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+		encodings.add(encoding == null ? "identity" : encoding);
+		try (InputStream body = exchange.getRequestBody()) {
+			InputStream content = ValidationServiceImpl.GZIP.equals(encoding) ? new GZIPInputStream(body) : body;
+			bodies.add(IOUtils.toString(content, StandardCharsets.UTF_8));
+		}
+
+		if (delay > 0) {
+			try {
+				Thread.sleep(delay);
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		exchange.getResponseHeaders().add("Content-Type", ValidationServiceImpl.CONTENT_TYPE);
+		exchange.sendResponseHeaders(status, response.length == 0 ? -1 : response.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(response);
+		}
+	}
+
+	private static ConversionReport report() {
+		JsonWrapper qpp = new JsonWrapper();
+		qpp.putInteger("performanceYear", "2017");
+		return new ConversionReport(new InputStreamSupplierSource("stub.xml", new ByteArrayInputStream(new byte[0])),
+				Collections.emptyList(), null, qpp);
+	}
+}
@@ -21,10 +21,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.core.env.Environment;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
@@ -69,7 +72,7 @@ class ValidationServiceImplTest {
 
 	@BeforeAll
 	static void setup() throws IOException {
-		service = new ValidationServiceImpl(null);
+		service = new ValidationServiceImpl(new MockEnvironment());
 		pathToSubmissionError = Paths.get("src/test/resources/submissionErrorFixture.json");
 		pathToSubmissionDuplicateEntryError = Paths.get("src/test/resources/submissionDuplicateEntryErrorFixture.json");
 		Path toConvert = Paths.get("../qrda-files/valid-QRDA-III-latest.xml");
@@ -123,7 +126,8 @@ class ValidationServiceImplTest {
 
 		when(environment.getProperty(eq(Constants.VALIDATION_URL_ENV_VARIABLE))).thenReturn(validationUrl);
 		ResponseEntity<String> spiedResponseEntity = spy(new ResponseEntity<>(HttpStatus.OK));
-		when(restTemplate.postForEntity(eq(validationUrl), any(HttpEntity.class), eq(String.class))).thenReturn(spiedResponseEntity);
+		when(restTemplate.execute(eq(validationUrl), eq(HttpMethod.POST), any(RequestCallback.class), any(ResponseExtractor.class)))
+				.thenReturn(spiedResponseEntity);
 
 		objectUnderTest.validateQpp(converter.getReport());
 
@@ -136,7 +140,8 @@ class ValidationServiceImplTest {
 
 		when(environment.getProperty(eq(Constants.VALIDATION_URL_ENV_VARIABLE))).thenReturn(validationUrl);
 		ResponseEntity<String> spiedResponseEntity = spy(new ResponseEntity<>(FileUtils.readFileToString(pathToSubmissionError.toFile(), "UTF-8") ,HttpStatus.UNPROCESSABLE_ENTITY));
-		when(restTemplate.postForEntity(eq(validationUrl), any(HttpEntity.class), eq(String.class))).thenReturn(spiedResponseEntity);
+		when(restTemplate.execute(eq(validationUrl), eq(HttpMethod.POST), any(RequestCallback.class), any(ResponseExtractor.class)))
+				.thenReturn(spiedResponseEntity);
 
 		TransformException thrown = assertThrows(TransformException.class,
 				() -> objectUnderTest.validateQpp(converter.getReport()));